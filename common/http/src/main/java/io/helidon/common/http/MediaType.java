@@ -119,6 +119,12 @@ public final class MediaType implements AcceptPredicate<MediaType> {
      */
     public static final MediaType TEXT_YAML = createMediaType("text", "yaml");
 
+    /**
+     * A {@link MediaType} constant representing newline delimited JSON, a stream of JSON values each followed by
+     * a new line. (It is not actually registered.)
+     */
+    public static final MediaType APPLICATION_X_NDJSON = createMediaType("application", "x-ndjson");
+
     private static final MediaType APPLICATION_JAVASCRIPT = createMediaType("application", "javascript");
 
     // Common predicates
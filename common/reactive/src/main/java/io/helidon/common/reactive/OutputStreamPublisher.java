@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,6 +35,7 @@ public class OutputStreamPublisher extends OutputStream implements Flow.Publishe
 
     private final SingleSubscriberHolder<ByteBuffer> subscriber = new SingleSubscriberHolder<>();
     private final Object invocationLock = new Object();
+    private final Object demandLock = new Object();
 
     private final RequestedCounter requested = new RequestedCounter();
 
@@ -47,11 +48,13 @@ public class OutputStreamPublisher extends OutputStream implements Flow.Publishe
                 @Override
                 public void request(long n) {
                     requested.increment(n, t -> complete(t));
+                    signalDemand();
                 }
 
                 @Override
                 public void cancel() {
                     subscriber.cancel();
+                    signalDemand();
                 }
             });
         }
@@ -127,8 +130,12 @@ public class OutputStreamPublisher extends OutputStream implements Flow.Publishe
         try {
             final Flow.Subscriber<? super ByteBuffer> sub = subscriber.get();
 
-            while (!subscriber.isClosed() && !requested.tryDecrement()) {
-                Thread.sleep(250); // wait until some data can be sent or the stream has been closed
+            synchronized (demandLock) {
+                while (!subscriber.isClosed() && !requested.tryDecrement()) {
+                    // wait until some data can be sent or the stream has been closed, the timeout covers closing
+                    // of the stream by other means than cancel
+                    demandLock.wait(250);
+                }
             }
 
             synchronized (invocationLock) {
@@ -151,6 +158,12 @@ public class OutputStreamPublisher extends OutputStream implements Flow.Publishe
         }
     }
 
+    private void signalDemand() {
+        synchronized (demandLock) {
+            demandLock.notifyAll();
+        }
+    }
+
     private void complete() {
         subscriber.close(sub -> {
             synchronized (invocationLock) {
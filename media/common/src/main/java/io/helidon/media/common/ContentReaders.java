@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -125,6 +125,22 @@ public final class ContentReaders {
         return (publisher, clazz) -> CompletableFuture.completedFuture(new PublisherInputStream(publisher));
     }
 
+    /**
+     * Get a reader that converts a {@link DataChunk} publisher to a non-blocking
+     * Java {@link InputStream}. Unlike {@link #inputStreamReader()}, the resulting
+     * {@link java.util.concurrent.CompletionStage} completes once all the content
+     * is received and the stream never blocks, so it can be consumed by a blocking
+     * parser on any thread. Unlike {@link #byteArrayReader()}, the content is not
+     * copied, the stream reads directly from the received chunks and releases each
+     * of them once read. The stream should be closed to release chunks that were
+     * not read.
+     *
+     * @return a buffered input stream content reader
+     */
+    public static Reader<InputStream> bufferedInputStreamReader() {
+        return (publisher, clazz) -> DataChunkInputStream.create(publisher);
+    }
+
     /**
      * Implementation of {@link Mapper} that converts a {@code byte[]} into
      * a {@link String} using a given {@link Charset}.
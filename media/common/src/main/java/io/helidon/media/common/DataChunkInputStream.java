@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.media.common;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+import io.helidon.common.http.DataChunk;
+
+/**
+ * A non-blocking {@link InputStream} reading directly from received {@link DataChunk}s, without copying them
+ * to an intermediate array. Each chunk is released as soon as it is read completely, remaining chunks are released
+ * when the stream is closed.
+ * <p>
+ * The stream is created once all chunks are received, see {@link #create(Flow.Publisher)}. Instances are not
+ * thread safe.
+ */
+final class DataChunkInputStream extends InputStream {
+
+    private final Queue<DataChunk> chunks;
+    private DataChunk current;
+
+    private DataChunkInputStream(Queue<DataChunk> chunks) {
+        this.chunks = chunks;
+    }
+
+    /**
+     * Subscribes to the publisher and retains all received chunks.
+     *
+     * @param publisher publisher of the content
+     * @return a stage completed with the stream once all chunks are received
+     */
+    static CompletionStage<InputStream> create(Flow.Publisher<DataChunk> publisher) {
+        ChunksSubscriber subscriber = new ChunksSubscriber();
+        publisher.subscribe(subscriber);
+        return subscriber.result;
+    }
+
+    @Override
+    public int read() {
+        ByteBuffer buffer = buffer();
+        return (buffer == null) ? -1 : (buffer.get() & 0xFF);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
+            return 0;
+        }
+        int read = 0;
+        while (read < len) {
+            ByteBuffer buffer = buffer();
+            if (buffer == null) {
+                break;
+            }
+            int count = Math.min(len - read, buffer.remaining());
+            buffer.get(b, off + read, count);
+            read += count;
+        }
+        return (read == 0) ? -1 : read;
+    }
+
+    @Override
+    public int available() {
+        return (current == null) ? 0 : current.data().remaining();
+    }
+
+    @Override
+    public void close() {
+        if (current != null) {
+            current.release();
+            current = null;
+        }
+        for (DataChunk chunk = chunks.poll(); chunk != null; chunk = chunks.poll()) {
+            chunk.release();
+        }
+    }
+
+    // buffer of the current chunk with remaining data, null at the end of the stream
+    private ByteBuffer buffer() {
+        while (true) {
+            if (current == null) {
+                current = chunks.poll();
+                if (current == null) {
+                    return null;
+                }
+            }
+            ByteBuffer buffer = current.data();
+            if (buffer.hasRemaining()) {
+                return buffer;
+            }
+            current.release();
+            current = null;
+        }
+    }
+
+    /**
+     * Retains chunks until the publisher completes.
+     */
+    private static final class ChunksSubscriber implements Flow.Subscriber<DataChunk> {
+
+        private final CompletableFuture<InputStream> result = new CompletableFuture<>();
+        private final Queue<DataChunk> chunks = new ArrayDeque<>();
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(DataChunk chunk) {
+            chunks.add(chunk);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            chunks.forEach(DataChunk::release);
+            chunks.clear();
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(new DataChunkInputStream(chunks));
+        }
+    }
+}
@@ -0,0 +1,414 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.media.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.MediaType;
+
+/**
+ * Writes a {@link Flow.Publisher Publisher} of elements as a stream of JSON values, either as a single JSON array
+ * or as newline delimited JSON, without collecting the elements in memory.
+ * <p>
+ * Each element is serialized to its own {@link DataChunk} as soon as it is received. Elements are only requested
+ * when the subscriber (typically the connection) requests more data, so a slow client slows down the producer instead
+ * of data piling up in memory. Chunk buffers are returned to a small pool once written and reused for the following
+ * elements.
+ * <p>
+ * A chunk is flushed as soon as no further element is ready: the demand is satisfied, the element was published
+ * asynchronously, or a burst of elements published synchronously within a request has ended. Within such a burst,
+ * chunks are flushed at least every 8 KiB.
+ */
+public final class JsonStreams {
+
+    // upper bound of bytes written without a flush while elements are published synchronously
+    private static final int FLUSH_THRESHOLD = 8192;
+    private static final int INITIAL_BUFFER_SIZE = 512;
+    private static final int MAX_POOLED_BUFFER_SIZE = 65536;
+    private static final int POOL_SIZE = 16;
+
+    private JsonStreams() {
+    }
+
+    /**
+     * Format of the written stream.
+     */
+    public enum Format {
+        /**
+         * A single JSON array, e.g. {@code [{"a":1},{"a":2}]}.
+         */
+        JSON_ARRAY(MediaType.APPLICATION_JSON),
+        /**
+         * Newline delimited JSON, each value followed by a new line.
+         */
+        NDJSON(MediaType.APPLICATION_X_NDJSON);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        /**
+         * Media type of this format.
+         *
+         * @return media type
+         */
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        /**
+         * Chooses the format for a response content type.
+         *
+         * @param contentType content type of the response, may be {@code null}
+         * @return {@link #NDJSON} for {@code application/x-ndjson}, {@link #JSON_ARRAY} otherwise
+         */
+        public static Format forContentType(MediaType contentType) {
+            if (contentType != null
+                    && NDJSON.mediaType.type().equals(contentType.type())
+                    && NDJSON.mediaType.subtype().equals(contentType.subtype())) {
+                return NDJSON;
+            }
+            return JSON_ARRAY;
+        }
+    }
+
+    /**
+     * Serializes a single element of the stream.
+     *
+     * @param <T> type of the element
+     */
+    @FunctionalInterface
+    public interface ElementWriter<T> {
+        /**
+         * Writes the element as a single JSON value. The stream does not need to be closed.
+         *
+         * @param element element to write
+         * @param out stream to write to
+         * @throws IOException in case the element cannot be written
+         */
+        void write(T element, OutputStream out) throws IOException;
+    }
+
+    /**
+     * Creates a publisher of chunks containing the JSON stream of the elements.
+     * <p>
+     * The returned publisher supports a single subscriber. Errors of the element publisher and failures of the
+     * element writer are signaled to the subscriber, which ends the stream without terminating the JSON array.
+     *
+     * @param publisher publisher of the elements
+     * @param format format of the stream
+     * @param charset charset of the framing characters, must match the charset used by the element writer
+     * @param writer writer of a single element
+     * @param <T> type of the elements
+     * @return publisher of the JSON stream
+     */
+    public static <T> Flow.Publisher<DataChunk> write(Flow.Publisher<? extends T> publisher,
+                                                      Format format,
+                                                      Charset charset,
+                                                      ElementWriter<? super T> writer) {
+        return write(publisher, format, charset, element -> true, writer);
+    }
+
+    /**
+     * Creates a publisher of chunks containing the JSON stream of the elements, which must match the predicate.
+     * <p>
+     * The element type of a publisher cannot be determined before the elements are received, so each element is
+     * tested before it is serialized. An element not matching the predicate cancels the element publisher and
+     * signals an {@link IllegalArgumentException} to the subscriber, instead of writing it in an unexpected form
+     * (or failing with a {@link ClassCastException}).
+     *
+     * @param publisher publisher of the elements
+     * @param format format of the stream
+     * @param charset charset of the framing characters, must match the charset used by the element writer
+     * @param writeable tests whether an element can be written by the element writer
+     * @param writer writer of a single element
+     * @param <T> type of the elements
+     * @return publisher of the JSON stream
+     */
+    public static <T> Flow.Publisher<DataChunk> write(Flow.Publisher<? extends T> publisher,
+                                                      Format format,
+                                                      Charset charset,
+                                                      Predicate<Object> writeable,
+                                                      ElementWriter<? super T> writer) {
+        Objects.requireNonNull(publisher, "Parameter 'publisher' is null!");
+        Objects.requireNonNull(format, "Parameter 'format' is null!");
+        Objects.requireNonNull(charset, "Parameter 'charset' is null!");
+        Objects.requireNonNull(writeable, "Parameter 'writeable' is null!");
+        Objects.requireNonNull(writer, "Parameter 'writer' is null!");
+        AtomicBoolean subscribed = new AtomicBoolean();
+        return subscriber -> {
+            Objects.requireNonNull(subscriber, "Parameter 'subscriber' is null!");
+            if (subscribed.compareAndSet(false, true)) {
+                publisher.subscribe(new StreamSubscriber<T>(subscriber, format, charset, writeable, writer));
+            } else {
+                subscriber.onSubscribe(EmptySubscription.INSTANCE);
+                subscriber.onError(new IllegalStateException("JSON stream supports a single subscriber!"));
+            }
+        };
+    }
+
+    /**
+     * Serializes elements to chunks, passing the demand of the downstream subscriber to the element publisher.
+     * The closing chunk of a JSON array is sent once the element publisher completes and the downstream requests it.
+     * <p>
+     * An element published synchronously from {@link #request(long)} is held back until the next element arrives
+     * or the request returns, so only the last chunk of a burst is flushed. Emitting chunks is guarded by this
+     * instance, as an asynchronous publisher may signal while a request is in progress.
+     */
+    private static final class StreamSubscriber<T> implements Flow.Subscriber<T>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super DataChunk> downstream;
+        private final Predicate<Object> writeable;
+        private final ElementWriter<? super T> writer;
+        private final byte[] first;
+        private final byte[] separator;
+        private final byte[] suffix;
+        private final byte[] end;
+        private final byte[] empty;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicBoolean terminated = new AtomicBoolean();
+        private final BlockingQueue<byte[]> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+        private volatile Flow.Subscription upstream;
+        private volatile boolean upstreamDone;
+        private volatile boolean written;
+        // thread calling upstream request, elements it receives synchronously may be followed by more
+        private volatile Thread requesting;
+        // guarded by this
+        private long unflushed;
+        private PooledOutputStream pending;
+
+        private StreamSubscriber(Flow.Subscriber<? super DataChunk> downstream,
+                                 Format format,
+                                 Charset charset,
+                                 Predicate<Object> writeable,
+                                 ElementWriter<? super T> writer) {
+            this.downstream = downstream;
+            this.writeable = writeable;
+            this.writer = writer;
+            if (format == Format.JSON_ARRAY) {
+                this.first = "[".getBytes(charset);
+                this.separator = ",".getBytes(charset);
+                this.suffix = new byte[0];
+                this.end = "]".getBytes(charset);
+                this.empty = "[]".getBytes(charset);
+            } else {
+                this.first = new byte[0];
+                this.separator = first;
+                this.suffix = "\n".getBytes(charset);
+                this.end = null;
+                this.empty = null;
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (terminated.get()) {
+                return;
+            }
+            long remaining = requested.decrementAndGet();
+            if (!writeable.test(item)) {
+                upstream.cancel();
+                fail(new IllegalArgumentException("Cannot write an element of type "
+                                                          + ((item == null) ? null : item.getClass().getName())
+                                                          + " to a JSON stream"));
+                return;
+            }
+            PooledOutputStream out = new PooledOutputStream(pool.poll());
+            try {
+                out.write(written ? separator : first);
+                writer.write(item, out);
+                out.write(suffix);
+            } catch (IOException | RuntimeException e) {
+                upstream.cancel();
+                fail(e);
+                return;
+            }
+            written = true;
+            synchronized (this) {
+                emitPending(false);
+                if (remaining > 0 && requesting == Thread.currentThread()) {
+                    // more elements may follow within this request
+                    pending = out;
+                } else {
+                    downstream.onNext(chunk(out, true));
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            upstreamDone = true;
+            fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            upstreamDone = true;
+            complete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                upstream.cancel();
+                fail(new IllegalArgumentException("Requested " + n + " items, must be positive!"));
+                return;
+            }
+            requested.getAndUpdate(current -> (Long.MAX_VALUE - current > n) ? current + n : Long.MAX_VALUE);
+            if (upstreamDone) {
+                complete();
+                return;
+            }
+            Thread current = Thread.currentThread();
+            if (requesting == current) {
+                // requested from a synchronously published element, the outer request flushes
+                upstream.request(n);
+                return;
+            }
+            requesting = current;
+            try {
+                upstream.request(n);
+            } finally {
+                requesting = null;
+                synchronized (this) {
+                    emitPending(true);
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            terminated.set(true);
+            upstream.cancel();
+            synchronized (this) {
+                pending = null;
+            }
+        }
+
+        private synchronized void complete() {
+            emitPending(true);
+            byte[] last = written ? end : empty;
+            if (last == null) {
+                if (terminated.compareAndSet(false, true)) {
+                    downstream.onComplete();
+                }
+            } else if (requested.get() > 0 && terminated.compareAndSet(false, true)) {
+                downstream.onNext(DataChunk.create(true, ByteBuffer.wrap(last)));
+                downstream.onComplete();
+            }
+        }
+
+        private synchronized void fail(Throwable throwable) {
+            // elements written before the failure are sent
+            emitPending(true);
+            if (terminated.compareAndSet(false, true)) {
+                downstream.onError(throwable);
+            }
+        }
+
+        private void emitPending(boolean flush) {
+            PooledOutputStream out = pending;
+            if (out != null && !terminated.get()) {
+                pending = null;
+                downstream.onNext(chunk(out, flush));
+            }
+        }
+
+        private DataChunk chunk(PooledOutputStream out, boolean forceFlush) {
+            byte[] buffer = out.buffer;
+            int count = out.count;
+            unflushed += count;
+            boolean flush = forceFlush || unflushed >= FLUSH_THRESHOLD;
+            if (flush) {
+                unflushed = 0;
+            }
+            return DataChunk.create(flush, ByteBuffer.wrap(buffer, 0, count), () -> {
+                if (buffer.length <= MAX_POOLED_BUFFER_SIZE) {
+                    pool.offer(buffer);
+                }
+            });
+        }
+    }
+
+    /**
+     * An output stream writing to a growable array, which is handed over to a chunk once the element is written.
+     */
+    private static final class PooledOutputStream extends OutputStream {
+        private byte[] buffer;
+        private int count;
+
+        private PooledOutputStream(byte[] buffer) {
+            this.buffer = (buffer == null) ? new byte[INITIAL_BUFFER_SIZE] : buffer;
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(count + 1);
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            ensureCapacity(count + len);
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, capacity));
+            }
+        }
+    }
+
+    private static final class EmptySubscription implements Flow.Subscription {
+        private static final EmptySubscription INSTANCE = new EmptySubscription();
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,10 +18,14 @@ package io.helidon.media.common;
 
 import java.io.InputStream;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.helidon.common.http.DataChunk;
 import io.helidon.common.reactive.Multi;
@@ -30,6 +34,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Unit test for {@link ContentReaders}.
@@ -75,6 +80,54 @@ class ContentReadersTest {
         assertThat(actualBytes, is(bytes));
     }
 
+    @Test
+    void testBufferedInputStreamReader() throws Exception {
+        AtomicInteger released = new AtomicInteger();
+        Multi<DataChunk> chunks = Multi.just(chunk("Popo", released),
+                                             chunk("", released),
+                                             chunk("katepetl", released),
+                                             chunk("!", released));
+
+        InputStream inputStream = ContentReaders.bufferedInputStreamReader()
+                .apply(chunks)
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+
+        byte[] buffer = new byte[6];
+        assertThat(inputStream.read(buffer), is(6));
+        assertThat(new String(buffer, StandardCharsets.UTF_8), is("Popoka"));
+        assertThat(released.get(), is(2));
+        assertThat(inputStream.read(), is((int) 't'));
+        inputStream.close();
+        assertThat(released.get(), is(4));
+    }
+
+    @Test
+    void testBufferedInputStreamReaderError() {
+        AtomicInteger released = new AtomicInteger();
+        Flow.Publisher<DataChunk> chunks = subscriber -> {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onNext(chunk("Popokatepetl", released));
+            subscriber.onError(new IllegalStateException("Failed"));
+        };
+
+        CompletableFuture<? extends InputStream> future = ContentReaders.bufferedInputStreamReader()
+                .apply(chunks)
+                .toCompletableFuture();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertThat(e.getCause().getMessage(), is("Failed"));
+        assertThat(released.get(), is(1));
+    }
+
     @Test
     void testURLDecodingReader() throws Exception {
         String original = "myParam=\"Now@is'the/time";
@@ -89,4 +142,8 @@ class ContentReadersTest {
         String s = future.get(10, TimeUnit.SECONDS);
         assertThat(s, is(original));
     }
+
+    private static DataChunk chunk(String content, AtomicInteger released) {
+        return DataChunk.create(false, ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)), released::incrementAndGet);
+    }
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.media.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.reactive.Multi;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link JsonStreams}.
+ */
+public class JsonStreamsTest {
+
+    private static final JsonStreams.ElementWriter<Object> WRITER =
+            (element, out) -> out.write(("\"" + element + "\"").getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    public void jsonArray() throws Exception {
+        assertThat(read(Multi.just("a", "b", "c"), JsonStreams.Format.JSON_ARRAY), is("[\"a\",\"b\",\"c\"]"));
+        assertThat(read(Multi.just("a"), JsonStreams.Format.JSON_ARRAY), is("[\"a\"]"));
+        assertThat(read(Multi.empty(), JsonStreams.Format.JSON_ARRAY), is("[]"));
+    }
+
+    @Test
+    public void ndjson() throws Exception {
+        assertThat(read(Multi.just("a", "b"), JsonStreams.Format.NDJSON), is("\"a\"\n\"b\"\n"));
+        assertThat(read(Multi.empty(), JsonStreams.Format.NDJSON), is(""));
+    }
+
+    @Test
+    public void formatForContentType() {
+        assertThat(JsonStreams.Format.forContentType(MediaType.parse("application/x-ndjson; charset=UTF-8")),
+                   is(JsonStreams.Format.NDJSON));
+        assertThat(JsonStreams.Format.forContentType(MediaType.APPLICATION_JSON), is(JsonStreams.Format.JSON_ARRAY));
+        assertThat(JsonStreams.Format.forContentType(null), is(JsonStreams.Format.JSON_ARRAY));
+    }
+
+    @Test
+    public void demandAndBufferReuse() {
+        AtomicLong upstreamRequested = new AtomicLong();
+        List<Flow.Subscriber<? super String>> upstream = new ArrayList<>();
+        Flow.Publisher<String> publisher = subscriber -> {
+            upstream.add(subscriber);
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    upstreamRequested.addAndGet(n);
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+        };
+        RecordingSubscriber recording = new RecordingSubscriber();
+        JsonStreams.write(publisher, JsonStreams.Format.JSON_ARRAY, StandardCharsets.UTF_8, WRITER).subscribe(recording);
+
+        assertThat(upstreamRequested.get(), is(0L));
+        recording.subscription.request(1);
+        assertThat(upstreamRequested.get(), is(1L));
+
+        upstream.get(0).onNext("a");
+        DataChunk first = recording.chunks.get(0);
+        byte[] buffer = first.data().array();
+        first.release();
+        recording.subscription.request(1);
+        upstream.get(0).onNext("b");
+        // the released buffer is used for the next element
+        assertThat(recording.chunks.get(1).data().array(), sameInstance(buffer));
+
+        upstream.get(0).onComplete();
+        // closing bracket waits for demand
+        assertThat(recording.completed, is(false));
+        recording.subscription.request(1);
+        assertThat(recording.completed, is(true));
+        assertThat(recording.chunks.size(), is(3));
+    }
+
+    @Test
+    public void flushWhenNoElementReady() {
+        List<Flow.Subscriber<? super String>> upstream = new ArrayList<>();
+        Flow.Publisher<String> publisher = subscriber -> {
+            upstream.add(subscriber);
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+        };
+        RecordingSubscriber recording = new RecordingSubscriber();
+        JsonStreams.write(publisher, JsonStreams.Format.NDJSON, StandardCharsets.UTF_8, WRITER).subscribe(recording);
+        recording.subscription.request(Long.MAX_VALUE);
+
+        // elements published asynchronously are flushed right away, even though more are requested
+        upstream.get(0).onNext("a");
+        upstream.get(0).onNext("b");
+        assertThat(recording.chunks.size(), is(2));
+        assertThat(recording.chunks.get(0).flush(), is(true));
+        assertThat(recording.chunks.get(1).flush(), is(true));
+    }
+
+    @Test
+    public void flushEndOfSynchronousBurst() {
+        RecordingSubscriber recording = new RecordingSubscriber();
+        Multi<String> elements = Multi.just("a", "b", "c");
+        JsonStreams.write(elements, JsonStreams.Format.NDJSON, StandardCharsets.UTF_8, WRITER).subscribe(recording);
+
+        // demand satisfied by the last element
+        recording.subscription.request(2);
+        assertThat(recording.chunks.size(), is(2));
+        assertThat(recording.chunks.get(0).flush(), is(false));
+        assertThat(recording.chunks.get(1).flush(), is(true));
+
+        recording.subscription.request(Long.MAX_VALUE);
+        assertThat(recording.chunks.size(), is(3));
+        assertThat(recording.chunks.get(2).flush(), is(true));
+        assertThat(recording.completed, is(true));
+    }
+
+    @Test
+    public void flushThreshold() {
+        RecordingSubscriber recording = new RecordingSubscriber();
+        String element = "x".repeat(1000);
+        Multi<String> elements = Multi.just(element, element, element, element, element, element, element, element,
+                                            element, element);
+        JsonStreams.write(elements, JsonStreams.Format.NDJSON, StandardCharsets.UTF_8, WRITER).subscribe(recording);
+        recording.subscription.request(Long.MAX_VALUE);
+
+        assertThat(recording.chunks.size(), is(10));
+        // 1003 bytes per element, the ninth reaches 8 KiB
+        for (int i = 0; i < 10; i++) {
+            assertThat("Chunk " + i, recording.chunks.get(i).flush(), is(i == 8 || i == 9));
+        }
+        assertThat(recording.completed, is(true));
+    }
+
+    @Test
+    public void writerFailure() {
+        JsonStreams.ElementWriter<Object> failing = (element, out) -> {
+            throw new IOException("failed");
+        };
+        RecordingSubscriber recording = new RecordingSubscriber();
+        JsonStreams.write(Multi.just("a", "b"), JsonStreams.Format.JSON_ARRAY, StandardCharsets.UTF_8, failing)
+                .subscribe(recording);
+        recording.subscription.request(Long.MAX_VALUE);
+        assertThat(recording.error, instanceOf(IOException.class));
+        assertThat(recording.chunks.size(), is(0));
+    }
+
+    @Test
+    public void unsupportedElement() {
+        RecordingSubscriber recording = new RecordingSubscriber();
+        Multi<Object> elements = Multi.just("a", 42);
+        JsonStreams.write(elements, JsonStreams.Format.JSON_ARRAY, StandardCharsets.UTF_8, String.class::isInstance, WRITER)
+                .subscribe(recording);
+        recording.subscription.request(Long.MAX_VALUE);
+        assertThat(recording.chunks.size(), is(1));
+        assertThat(recording.error, instanceOf(IllegalArgumentException.class));
+        assertThat(recording.completed, is(false));
+    }
+
+    @Test
+    public void singleSubscriber() throws Exception {
+        Flow.Publisher<DataChunk> publisher =
+                JsonStreams.write(Multi.just("a"), JsonStreams.Format.NDJSON, StandardCharsets.UTF_8, WRITER);
+        ContentReaders.readBytes(publisher).get(5, TimeUnit.SECONDS);
+        assertThrows(Exception.class, () -> ContentReaders.readBytes(publisher).get(5, TimeUnit.SECONDS));
+    }
+
+    private static String read(Flow.Publisher<String> publisher, JsonStreams.Format format) throws Exception {
+        byte[] bytes = ContentReaders.readBytes(JsonStreams.write(publisher, format, StandardCharsets.UTF_8, WRITER))
+                .get(5, TimeUnit.SECONDS);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<DataChunk> {
+        private final List<DataChunk> chunks = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(DataChunk item) {
+            chunks.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 package io.helidon.media.jackson.common;
 
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
 import java.util.Objects;
 import java.util.concurrent.Flow;
@@ -24,8 +25,8 @@ import java.util.function.Function;
 import io.helidon.common.http.DataChunk;
 import io.helidon.common.http.Reader;
 import io.helidon.media.common.CharBuffer;
-import io.helidon.media.common.ContentReaders;
 import io.helidon.media.common.ContentWriters;
+import io.helidon.media.common.JsonStreams;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -46,22 +47,17 @@ public final class JacksonProcessing {
      *
      * <p>This method is intended for the derivation of other, more specific readers.</p>
      *
+     * <p>The content is parsed by the Jackson non-blocking parser as the chunks arrive, without buffering
+     * the whole content.</p>
+     *
      * @param objectMapper the {@link ObjectMapper} to use; must not be {@code null}
-     * @return the byte array content reader that transforms a publisher of byte buffers to a completion stage that
+     * @return the content reader that transforms a publisher of byte buffers to a completion stage that
      * might end exceptionally with a {@link RuntimeException} in case of I/O error
      * @exception NullPointerException if {@code objectMapper} is {@code null}
      */
     public static Reader<Object> reader(final ObjectMapper objectMapper) {
         Objects.requireNonNull(objectMapper);
-        return (publisher, cls) -> ContentReaders.byteArrayReader()
-            .apply(publisher)
-            .thenApply(bytes -> {
-                    try {
-                        return objectMapper.readValue(bytes, cls);
-                    } catch (final IOException wrapMe) {
-                        throw new JacksonRuntimeException(wrapMe.getMessage(), wrapMe);
-                    }
-                });
+        return (publisher, cls) -> NonBlockingJsonReader.read(objectMapper, publisher, cls);
     }
 
     /**
@@ -85,4 +81,43 @@ public final class JacksonProcessing {
             return ContentWriters.charBufferWriter(charset == null ? UTF_8 : charset).apply(buffer);
         };
     }
+
+    /**
+     * Returns a function (writer) converting a {@link Flow.Publisher Publisher} of {@link Object}s to a streamed
+     * JSON array or newline delimited JSON by using the supplied {@link ObjectMapper}, see {@link JsonStreams}.
+     * The objects are written one by one as they are requested by the connection. Objects the mapper cannot serialize,
+     * character sequences and data chunks fail the stream.
+     *
+     * @param objectMapper the {@link ObjectMapper} to use; must not be {@code null}
+     * @param format format of the stream; must not be {@code null}
+     * @param charset the charset to use; may be null
+     * @return created function
+     * @exception NullPointerException if {@code objectMapper} or {@code format} is {@code null}
+     */
+    public static Function<Flow.Publisher<?>, Flow.Publisher<DataChunk>> streamWriter(final ObjectMapper objectMapper,
+                                                                                      final JsonStreams.Format format,
+                                                                                      final Charset charset) {
+        Objects.requireNonNull(objectMapper);
+        Objects.requireNonNull(format);
+        Charset cs = (charset == null) ? UTF_8 : charset;
+        return publisher -> JsonStreams.write(publisher,
+                                              format,
+                                              cs,
+                                              payload -> isStreamElement(objectMapper, payload),
+                                              (payload, out) -> {
+                                                  // the mapper closes the target, which is a no-op for the chunk stream
+                                                  if (UTF_8.equals(cs)) {
+                                                      objectMapper.writeValue(out, payload);
+                                                  } else {
+                                                      objectMapper.writeValue(new OutputStreamWriter(out, cs), payload);
+                                                  }
+                                              });
+    }
+
+    private static boolean isStreamElement(ObjectMapper objectMapper, Object payload) {
+        return (payload != null)
+                && !(payload instanceof CharSequence)
+                && !(payload instanceof DataChunk)
+                && objectMapper.canSerialize(payload.getClass());
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.media.jackson.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+import io.helidon.common.http.DataChunk;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * Parses {@link DataChunk}s as they arrive using the Jackson non-blocking parser. Each chunk is tokenized and released
+ * immediately, the tokens are collected to a {@link TokenBuffer} which is bound to the requested type once all chunks
+ * are received. The raw content is therefore never buffered as a whole.
+ */
+final class NonBlockingJsonReader implements Flow.Subscriber<DataChunk> {
+
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+    private final ObjectMapper objectMapper;
+    private final Class<?> type;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final TokenBuffer tokens;
+    private Flow.Subscription subscription;
+    private byte[] copyBuffer;
+
+    private NonBlockingJsonReader(ObjectMapper objectMapper, Class<?> type) throws IOException {
+        this.objectMapper = objectMapper;
+        this.type = type;
+        this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.tokens = new TokenBuffer(objectMapper, false);
+        tokens.forceUseOfBigDecimal(objectMapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS));
+    }
+
+    /**
+     * Subscribes a new reader to the publisher.
+     *
+     * @param objectMapper object mapper to bind the content
+     * @param publisher publisher of the content
+     * @param type requested type
+     * @return a stage completed with the bound object once all chunks are received
+     */
+    static CompletionStage<Object> read(ObjectMapper objectMapper, Flow.Publisher<DataChunk> publisher, Class<?> type) {
+        NonBlockingJsonReader reader;
+        try {
+            reader = new NonBlockingJsonReader(objectMapper, type);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new JacksonRuntimeException(e.getMessage(), e));
+        }
+        publisher.subscribe(reader);
+        return reader.result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(DataChunk chunk) {
+        try {
+            if (result.isDone()) {
+                // failed already, dropping the rest of the content
+                return;
+            }
+            ByteBuffer data = chunk.data();
+            if (!data.hasRemaining()) {
+                return;
+            }
+            feed(data);
+            nextTokens();
+        } catch (IOException e) {
+            subscription.cancel();
+            fail(e);
+        } finally {
+            // tokens do not reference the input, all of it was consumed by the parser
+            chunk.release();
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            feeder.endOfInput();
+            nextTokens();
+            parser.close();
+            result.complete(objectMapper.readValue(tokens.asParser(), type));
+        } catch (IOException e) {
+            fail(e);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void feed(ByteBuffer data) throws IOException {
+        if (data.hasArray()) {
+            int offset = data.arrayOffset() + data.position();
+            feeder.feedInput(data.array(), offset, offset + data.remaining());
+        } else {
+            // direct buffer, the copy buffer is reused as the parser consumes all the input before next chunk
+            int length = data.remaining();
+            if (copyBuffer == null || copyBuffer.length < length) {
+                copyBuffer = new byte[length];
+            }
+            data.duplicate().get(copyBuffer, 0, length);
+            feeder.feedInput(copyBuffer, 0, length);
+        }
+    }
+
+    private void nextTokens() throws IOException {
+        for (JsonToken token = parser.nextToken();
+             token != null && token != JsonToken.NOT_AVAILABLE;
+             token = parser.nextToken()) {
+            tokens.copyCurrentEvent(parser);
+        }
+    }
+
+    private void fail(IOException e) {
+        result.completeExceptionally(new JacksonRuntimeException(e.getMessage(), e));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.media.jackson.common;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Multi;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link JacksonProcessing#reader(ObjectMapper)}.
+ */
+class JacksonProcessingTest {
+
+    private static final String JSON = "{\"name\":\"Žluťoučký kůň\",\"tags\":[\"a\",\"b\"],"
+            + "\"price\":0.1000000000000000055511,\"nested\":{\"count\":42,\"valid\":true,\"none\":null}}";
+
+    @Test
+    void testChunked() throws Exception {
+        AtomicInteger released = new AtomicInteger();
+        Map<?, ?> result = (Map<?, ?>) read(new ObjectMapper(), Map.class, chunks(JSON, 3, released));
+
+        assertThat(result.get("name"), is("Žluťoučký kůň"));
+        assertThat(result.get("tags"), is(List.of("a", "b")));
+        Map<?, ?> nested = (Map<?, ?>) result.get("nested");
+        assertThat(nested.get("count"), is(42));
+        assertThat(nested.get("valid"), is(true));
+        assertThat(nested.containsKey("none"), is(true));
+        assertThat(released.get(), is((JSON.getBytes(StandardCharsets.UTF_8).length + 2) / 3));
+    }
+
+    @Test
+    void testBigDecimal() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        Map<?, ?> result = (Map<?, ?>) read(objectMapper, Map.class, chunks(JSON, 7, new AtomicInteger()));
+
+        assertThat(result.get("price"), is(new BigDecimal("0.1000000000000000055511")));
+    }
+
+    @Test
+    void testBean() throws Exception {
+        Person person = (Person) read(new ObjectMapper(), Person.class, chunks("{\"name\":\"Frank\"}", 5, new AtomicInteger()));
+
+        assertThat(person.getName(), is("Frank"));
+    }
+
+    @Test
+    void testMalformed() {
+        AtomicInteger released = new AtomicInteger();
+        ExecutionException e = assertThrows(ExecutionException.class,
+                                            () -> read(new ObjectMapper(),
+                                                       Map.class,
+                                                       chunks("{\"name\" \"Frank\"}", 4, released)));
+
+        assertThat(e.getCause(), instanceOf(JacksonRuntimeException.class));
+        // the third chunk is invalid, the subscription is cancelled and the rest is not delivered
+        assertThat(released.get(), is(3));
+    }
+
+    @Test
+    void testEmpty() {
+        ExecutionException e = assertThrows(ExecutionException.class,
+                                            () -> read(new ObjectMapper(), Map.class, Multi.empty()));
+
+        assertThat(e.getCause(), instanceOf(JacksonRuntimeException.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object read(ObjectMapper objectMapper, Class<?> type, Multi<DataChunk> chunks) throws Exception {
+        CompletableFuture<?> future = JacksonProcessing.reader(objectMapper)
+                .apply(chunks, (Class<Object>) type)
+                .toCompletableFuture();
+        return future.get(10, TimeUnit.SECONDS);
+    }
+
+    // splits the content to chunks of given size, alternating heap and direct buffers
+    private static Multi<DataChunk> chunks(String content, int size, AtomicInteger released) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        List<DataChunk> chunks = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += size) {
+            int length = Math.min(size, bytes.length - i);
+            ByteBuffer buffer = (chunks.size() % 2 == 0)
+                    ? ByteBuffer.wrap(bytes, i, length).slice()
+                    : ByteBuffer.allocateDirect(length).put(bytes, i, length).flip();
+            chunks.add(DataChunk.create(false, buffer, released::incrementAndGet));
+        }
+        return Multi.just(chunks);
+    }
+
+    /**
+     * A test bean.
+     */
+    public static final class Person {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
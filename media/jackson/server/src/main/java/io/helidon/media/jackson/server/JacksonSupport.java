@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,10 @@
 package io.helidon.media.jackson.server;
 
 import java.util.Objects;
+import java.util.concurrent.Flow;
 import java.util.function.BiFunction;
 
+import io.helidon.media.common.JsonStreams;
 import io.helidon.media.jackson.common.JacksonProcessing;
 import io.helidon.webserver.Handler;
 import io.helidon.webserver.JsonService;
@@ -68,6 +70,14 @@ public final class JacksonSupport extends JsonService {
                                            && objectMapper.canSerialize(payload.getClass())
                                            && acceptsJson(request, response),
                                 JacksonProcessing.writer(objectMapper, determineCharset(response.headers())));
+        // registered last so it takes precedence for publishers, which are streamed element by element
+        response.registerWriter(payload -> (payload instanceof Flow.Publisher) && acceptsJsonStream(request, response),
+                                (Flow.Publisher<?> publisher) -> JacksonProcessing
+                                        .streamWriter(objectMapper,
+                                                      JsonStreams.Format
+                                                              .forContentType(response.headers().contentType().orElse(null)),
+                                                      determineCharset(response.headers()))
+                                        .apply(publisher));
         request.next();
     }
 
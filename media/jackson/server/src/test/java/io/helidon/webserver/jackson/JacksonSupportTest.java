@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.util.function.BiFunction;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.helidon.common.http.Http;
 import io.helidon.common.http.MediaType;
+import io.helidon.common.reactive.Multi;
 import io.helidon.webserver.Handler;
 import io.helidon.webserver.Routing;
 import io.helidon.webserver.ServerRequest;
@@ -57,6 +58,34 @@ public class JacksonSupportTest {
         assertThat(json, is(personJson));
     }
 
+    @Test
+    public void streaming() throws Exception {
+        final Routing routing = Routing.builder()
+            .register(JacksonSupport.create())
+            .get("/people", (req, res) -> res.send(Multi.just(person("Frank"), person("Joe"))))
+            .build();
+
+        TestResponse response = TestClient.create(routing)
+            .path("/people")
+            .get();
+        assertThat(response.headers().first(Http.Header.CONTENT_TYPE).orElse(null), is(MediaType.APPLICATION_JSON.toString()));
+        assertThat(response.asString().get(10, TimeUnit.SECONDS), is("[{\"name\":\"Frank\"},{\"name\":\"Joe\"}]"));
+
+        response = TestClient.create(routing)
+            .path("/people")
+            .header("Accept", MediaType.APPLICATION_X_NDJSON.toString())
+            .get();
+        assertThat(response.headers().first(Http.Header.CONTENT_TYPE).orElse(null),
+                   is(MediaType.APPLICATION_X_NDJSON.toString()));
+        assertThat(response.asString().get(10, TimeUnit.SECONDS), is("{\"name\":\"Frank\"}\n{\"name\":\"Joe\"}\n"));
+    }
+
+    private static Person person(final String name) {
+        final Person person = new Person();
+        person.setName(name);
+        return person;
+    }
+
     public static final class Person {
         
         private String name;
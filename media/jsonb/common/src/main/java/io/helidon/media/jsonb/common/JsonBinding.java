@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,9 +15,10 @@
  */
 package io.helidon.media.jsonb.common;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.Objects;
 import java.util.concurrent.Flow;
@@ -31,6 +32,7 @@ import io.helidon.common.http.Reader;
 import io.helidon.media.common.CharBuffer;
 import io.helidon.media.common.ContentReaders;
 import io.helidon.media.common.ContentWriters;
+import io.helidon.media.common.JsonStreams;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -58,10 +60,10 @@ public final class JsonBinding {
      */
     public static Reader<Object> reader(final Jsonb jsonb) {
         Objects.requireNonNull(jsonb);
-        return (publisher, cls) -> ContentReaders.byteArrayReader()
+        return (publisher, cls) -> ContentReaders.bufferedInputStreamReader()
             .apply(publisher)
-            .thenApply(bytes -> {
-                    try (InputStream inputStream = new ByteArrayInputStream(bytes)) {
+            .thenApply(is -> {
+                    try (InputStream inputStream = is) {
                         return jsonb.fromJson(inputStream, cls);
                     } catch (final IOException ioException) {
                         throw new JsonbException(ioException.getMessage(), ioException);
@@ -86,4 +88,39 @@ public final class JsonBinding {
             return ContentWriters.charBufferWriter(charset == null ? UTF_8 : charset).apply(buffer);
         };
     }
+
+    /**
+     * Returns a function (writer) converting a {@link Flow.Publisher Publisher} of {@link Object}s to a streamed
+     * JSON array or newline delimited JSON by using the supplied {@link Jsonb}, see {@link JsonStreams}. The objects
+     * are written one by one as they are requested by the connection. Character sequences and data chunks are not
+     * serialized, such an element fails the stream.
+     *
+     * @param jsonb the {@link Jsonb} to use; must not be {@code null}
+     * @param format format of the stream; must not be {@code null}
+     * @param charset the charset to use; may be null
+     * @return created function
+     * @exception NullPointerException if {@code jsonb} or {@code format} is {@code null}
+     */
+    public static Function<Flow.Publisher<?>, Flow.Publisher<DataChunk>> streamWriter(final Jsonb jsonb,
+                                                                                      final JsonStreams.Format format,
+                                                                                      final Charset charset) {
+        Objects.requireNonNull(jsonb);
+        Objects.requireNonNull(format);
+        Charset cs = (charset == null) ? UTF_8 : charset;
+        return publisher -> JsonStreams.write(publisher, format, cs, JsonBinding::isStreamElement, (payload, out) -> {
+            if (UTF_8.equals(cs)) {
+                jsonb.toJson(payload, out);
+            } else {
+                Writer writer = new OutputStreamWriter(out, cs);
+                jsonb.toJson(payload, writer);
+                writer.flush();
+            }
+        });
+    }
+
+    private static boolean isStreamElement(Object payload) {
+        return (payload != null)
+                && !(payload instanceof CharSequence)
+                && !(payload instanceof DataChunk);
+    }
 }
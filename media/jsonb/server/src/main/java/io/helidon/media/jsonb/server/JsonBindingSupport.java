@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,11 +17,13 @@
 package io.helidon.media.jsonb.server;
 
 import java.util.Objects;
+import java.util.concurrent.Flow;
 import java.util.function.BiFunction;
 
 import javax.json.bind.Jsonb;
 import javax.json.bind.JsonbBuilder;
 
+import io.helidon.media.common.JsonStreams;
 import io.helidon.media.jsonb.common.JsonBinding;
 import io.helidon.webserver.Handler;
 import io.helidon.webserver.JsonService;
@@ -55,6 +57,14 @@ public final class JsonBindingSupport extends JsonService {
                             JsonBinding.reader(jsonb));
         response.registerWriter(payload -> !(payload instanceof CharSequence) && acceptsJson(request, response),
                                 JsonBinding.writer(jsonb, determineCharset(response.headers())));
+        // registered last so it takes precedence for publishers, which are streamed element by element
+        response.registerWriter(payload -> (payload instanceof Flow.Publisher) && acceptsJsonStream(request, response),
+                                (Flow.Publisher<?> publisher) -> JsonBinding
+                                        .streamWriter(jsonb,
+                                                      JsonStreams.Format
+                                                              .forContentType(response.headers().contentType().orElse(null)),
+                                                      determineCharset(response.headers()))
+                                        .apply(publisher));
         request.next();
     }
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,8 +15,7 @@
  */
 package io.helidon.media.jsonp.common;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,6 +35,7 @@ import io.helidon.common.http.Reader;
 import io.helidon.media.common.CharBuffer;
 import io.helidon.media.common.ContentReaders;
 import io.helidon.media.common.ContentWriters;
+import io.helidon.media.common.JsonStreams;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -78,20 +78,20 @@ public final class JsonProcessing {
      * a {@link javax.json.JsonException}
      */
     public Reader<JsonStructure> reader(Charset charset) {
-        return (publisher, clazz) -> ContentReaders.byteArrayReader()
+        return (publisher, clazz) -> ContentReaders.bufferedInputStreamReader()
                 .apply(publisher)
-                .thenApply(bytes -> {
-                    InputStream is = new ByteArrayInputStream(bytes);
-
-                    JsonReader reader = (charset == null)
+                .thenApply(is -> {
+                    // the stream reads directly from the received chunks, closing the reader releases them
+                    try (JsonReader reader = (charset == null)
                             ? jsonReaderFactory.createReader(is)
-                            : jsonReaderFactory.createReader(is, charset);
+                            : jsonReaderFactory.createReader(is, charset)) {
 
-                    JsonStructure json = reader.read();
-                    if (!clazz.isAssignableFrom(json.getClass())) {
-                        throw new JsonException("Unable to convert " + json.getClass() + " to " + clazz);
+                        JsonStructure json = reader.read();
+                        if (!clazz.isAssignableFrom(json.getClass())) {
+                            throw new JsonException("Unable to convert " + json.getClass() + " to " + clazz);
+                        }
+                        return json;
                     }
-                    return json;
                 });
     }
 
@@ -122,6 +122,29 @@ public final class JsonProcessing {
         return writer(null);
     }
 
+    /**
+     * Returns a function (writer) converting a {@link Flow.Publisher Publisher} of {@link JsonStructure}s to
+     * a streamed JSON array or newline delimited JSON, see {@link JsonStreams}. The structures are written one by
+     * one as they are requested by the connection, any other element fails the stream.
+     *
+     * @param format format of the stream
+     * @param charset a charset to use or {@code null} for default charset
+     * @return created function
+     */
+    public Function<Flow.Publisher<? extends JsonStructure>, Flow.Publisher<DataChunk>> streamWriter(JsonStreams.Format format,
+                                                                                                      Charset charset) {
+        Charset cs = (charset == null) ? UTF_8 : charset;
+        return publisher -> JsonStreams.write(publisher,
+                                              format,
+                                              cs,
+                                              JsonStructure.class::isInstance,
+                                              (JsonStructure json, OutputStream out) -> {
+                                                  JsonWriter writer = jsonWriterFactory.createWriter(out, cs);
+                                                  writer.write(json);
+                                                  writer.close();
+                                              });
+    }
+
     /**
      * Provides a default instance for JSON-P readers and writers.
      * @return json processing with default configuration
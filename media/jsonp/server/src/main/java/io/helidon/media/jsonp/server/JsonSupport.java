@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import javax.json.JsonWriter;
 import io.helidon.common.http.Content;
 import io.helidon.common.http.DataChunk;
 import io.helidon.common.http.Reader;
+import io.helidon.media.common.JsonStreams;
 import io.helidon.media.jsonp.common.JsonProcessing;
 import io.helidon.webserver.Handler;
 import io.helidon.webserver.JsonService;
@@ -111,6 +112,14 @@ public final class JsonSupport extends JsonService {
                                     Charset charset = determineCharset(response.headers());
                                     return writer(charset).apply((JsonStructure) json);
                                 });
+        // Stream writer, a publisher of structures is written as a JSON array or newline delimited JSON
+        response.registerWriter(json -> (json instanceof Flow.Publisher) && acceptsJsonStream(request, response),
+                                (Flow.Publisher<? extends JsonStructure> publisher) -> {
+                                    Charset charset = determineCharset(response.headers());
+                                    JsonStreams.Format format = JsonStreams.Format
+                                            .forContentType(response.headers().contentType().orElse(null));
+                                    return processingSupport.streamWriter(format, charset).apply(publisher);
+                                });
         request.next();
     }
 
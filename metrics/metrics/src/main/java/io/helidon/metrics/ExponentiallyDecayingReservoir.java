@@ -46,7 +46,7 @@ import static java.lang.Math.min;
  * Cormode et al. Forward Decay: A Practical Time Decay Model for Streaming Systems. ICDE '09:
  * Proceedings of the 2009 IEEE International Conference on Data Engineering (2009)</a>
  */
-class ExponentiallyDecayingReservoir {
+class ExponentiallyDecayingReservoir implements Reservoir {
     private static final int DEFAULT_SIZE = 1028;
     private static final double DEFAULT_ALPHA = 0.015;
     private static final long RESCALE_THRESHOLD = TimeUnit.HOURS.toNanos(1);
@@ -91,6 +91,7 @@ class ExponentiallyDecayingReservoir {
         return (int) min(size, count.get());
     }
 
+    @Override
     public void update(long value) {
         update(value, currentTimeInSeconds());
     }
@@ -101,6 +102,7 @@ class ExponentiallyDecayingReservoir {
      * @param value     the value to be added
      * @param timestamp the epoch timestamp of {@code value} in seconds
      */
+    @Override
     public void update(long value, long timestamp) {
         rescaleIfNeeded();
         lockForRegularUsage();
@@ -134,6 +136,7 @@ class ExponentiallyDecayingReservoir {
         }
     }
 
+    @Override
     public Snapshot getSnapshot() {
         rescaleIfNeeded();
         lockForRegularUsage();
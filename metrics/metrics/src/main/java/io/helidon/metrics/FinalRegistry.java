@@ -102,6 +102,11 @@ final class FinalRegistry extends Registry {
         return histogram(metadata.getName(), tags);
     }
 
+    @Override
+    public Histogram histogram(Metadata metadata, ReservoirType reservoirType, Tag... tags) {
+        return histogram(metadata.getName(), tags);
+    }
+
     @Override
     public Histogram histogram(String name, Tag... tags) {
         return delegate.getOptionalMetric(name, HelidonHistogram.class, tags)
@@ -143,6 +148,11 @@ final class FinalRegistry extends Registry {
         return timer(metadata.getName(), tags);
     }
 
+    @Override
+    public Timer timer(Metadata metadata, ReservoirType reservoirType, Tag... tags) {
+        return timer(metadata.getName(), tags);
+    }
+
     @Override
     public Timer timer(String name, Tag... tags) {
         return delegate.getOptionalMetric(name, HelidonTimer.class, tags)
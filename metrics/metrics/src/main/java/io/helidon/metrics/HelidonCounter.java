@@ -48,11 +48,13 @@ final class HelidonCounter extends MetricImpl implements Counter {
     @Override
     public void inc() {
         delegate.inc();
+        updated();
     }
 
     @Override
     public void inc(long n) {
         delegate.inc(n);
+        updated();
     }
 
     @Override
@@ -43,7 +43,15 @@ final class HelidonHistogram extends MetricImpl implements Histogram {
     }
 
     static HelidonHistogram create(String type, Metadata metadata, Clock clock) {
-        return new HelidonHistogram(type, metadata, new HistogramImpl(clock));
+        return create(type, metadata, clock, ReservoirType.EXPONENTIALLY_DECAYING);
+    }
+
+    static HelidonHistogram create(String type, Metadata metadata, ReservoirType reservoirType) {
+        return create(type, metadata, Clock.system(), reservoirType);
+    }
+
+    static HelidonHistogram create(String type, Metadata metadata, Clock clock, ReservoirType reservoirType) {
+        return new HelidonHistogram(type, metadata, new HistogramImpl(reservoirType.create(clock)));
     }
 
     static HelidonHistogram create(String type, Metadata metadata, Histogram delegate) {
@@ -53,11 +61,13 @@ final class HelidonHistogram extends MetricImpl implements Histogram {
     @Override
     public void update(int value) {
         delegate.update(value);
+        updated();
     }
 
     @Override
     public void update(long value) {
         delegate.update(value);
+        updated();
     }
 
     @Override
@@ -182,10 +192,10 @@ final class HelidonHistogram extends MetricImpl implements Histogram {
 
     static final class HistogramImpl implements Histogram {
         private final LongAdder counter = new LongAdder();
-        private final ExponentiallyDecayingReservoir reservoir;
+        private final Reservoir reservoir;
 
-        private HistogramImpl(Clock clock) {
-            this.reservoir = new ExponentiallyDecayingReservoir(clock);
+        private HistogramImpl(Reservoir reservoir) {
+            this.reservoir = reservoir;
         }
 
         public void update(int value) {
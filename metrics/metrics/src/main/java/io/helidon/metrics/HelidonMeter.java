@@ -155,11 +155,13 @@ final class HelidonMeter extends MetricImpl implements Meter {
     @Override
     public void mark() {
         delegate.mark();
+        updated();
     }
 
     @Override
     public void mark(long n) {
         delegate.mark(n);
+        updated();
     }
 
     @Override
@@ -48,7 +48,15 @@ final class HelidonTimer extends MetricImpl implements Timer {
     }
 
     static HelidonTimer create(String repoType, Metadata metadata, Clock clock) {
-        return create(repoType, metadata, new TimerImpl(repoType, metadata.getName(), clock));
+        return create(repoType, metadata, clock, ReservoirType.EXPONENTIALLY_DECAYING);
+    }
+
+    static HelidonTimer create(String repoType, Metadata metadata, ReservoirType reservoirType) {
+        return create(repoType, metadata, Clock.system(), reservoirType);
+    }
+
+    static HelidonTimer create(String repoType, Metadata metadata, Clock clock, ReservoirType reservoirType) {
+        return create(repoType, metadata, new TimerImpl(repoType, metadata.getName(), clock, reservoirType));
     }
 
     static HelidonTimer create(String repoType, Metadata metadata, Timer metric) {
@@ -58,20 +66,31 @@ final class HelidonTimer extends MetricImpl implements Timer {
     @Override
     public void update(long duration, TimeUnit unit) {
         delegate.update(duration, unit);
+        updated();
     }
 
     @Override
     public <T> T time(Callable<T> event) throws Exception {
-        return delegate.time(event);
+        try {
+            return delegate.time(event);
+        } finally {
+            updated();
+        }
     }
 
     @Override
     public void time(Runnable event) {
-        delegate.time(event);
+        try {
+            delegate.time(event);
+        } finally {
+            updated();
+        }
     }
 
     @Override
     public Context time() {
+        // the series is restored once timing starts, the count is updated when the context is stopped
+        updated();
         return delegate.time();
     }
 
@@ -261,9 +280,9 @@ final class HelidonTimer extends MetricImpl implements Timer {
         private final Histogram histogram;
         private final Clock clock;
 
-        TimerImpl(String repoType, String name, Clock clock) {
+        TimerImpl(String repoType, String name, Clock clock, ReservoirType reservoirType) {
             this.meter = HelidonMeter.create(repoType, new HelidonMetadata(name, MetricType.METERED), clock);
-            this.histogram = HelidonHistogram.create(repoType, new HelidonMetadata(name, MetricType.HISTOGRAM));
+            this.histogram = HelidonHistogram.create(repoType, new HelidonMetadata(name, MetricType.HISTOGRAM), reservoirType);
             this.clock = clock;
         }
 
@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.metrics;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.microprofile.metrics.Snapshot;
+
+/**
+ * A reservoir counting all values recorded during a recent time window in buckets of logarithmically increasing width.
+ * <p>
+ * Each power of two range is divided into {@value #SUB_BUCKETS} buckets of equal width and values are reported as the
+ * middle of their bucket, so the relative error is below one percent (values below {@value #SUB_BUCKETS} are exact).
+ * Negative values are recorded as zero. Bucket counters are allocated lazily per power of two, a timer only holds
+ * counters for the magnitudes it actually records.
+ * <p>
+ * Values are recorded into the current of two interval recorders, snapshots merge the current recorder with the previous
+ * one. Once an interval passes, the first thread to notice rotates the recorders: the previous recorder is cleared and
+ * reused as the current one. A snapshot therefore covers between one and two intervals, and recording a value neither
+ * allocates nor locks. Snapshots do not drain the recorders, so concurrent readers (such as several scrapers) all see
+ * the same values.
+ */
+final class LogLinearReservoir implements Reservoir {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKETS - 1;
+    // band 0 holds values below SUB_BUCKETS, band n holds [2^(n + SUB_BUCKET_BITS - 1), 2^(n + SUB_BUCKET_BITS))
+    private static final int BANDS = Long.SIZE - SUB_BUCKET_BITS;
+    private static final long DEFAULT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(150);
+
+    private final Clock clock;
+    private final long intervalNanos;
+    private final AtomicLong nextRotation;
+    private volatile Recorders recorders;
+
+    /**
+     * Creates a new reservoir with an interval of two and a half minutes, so snapshots cover at most the past five
+     * minutes, the same window the {@link ExponentiallyDecayingReservoir} is biased to.
+     *
+     * @param clock clock to rotate the recorders by
+     */
+    LogLinearReservoir(Clock clock) {
+        this(clock, DEFAULT_INTERVAL_NANOS);
+    }
+
+    LogLinearReservoir(Clock clock, long intervalNanos) {
+        this.clock = clock;
+        this.intervalNanos = intervalNanos;
+        this.nextRotation = new AtomicLong(clock.nanoTick() + intervalNanos);
+        this.recorders = new Recorders(new Recorder(), new Recorder());
+    }
+
+    @Override
+    public void update(long value) {
+        rotateIfNeeded();
+        recorders.current.record(Math.max(0, value));
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        rotateIfNeeded();
+        Recorders snapshotRecorders = this.recorders;
+        return LogLinearSnapshot.create(snapshotRecorders.current, snapshotRecorders.previous);
+    }
+
+    private void rotateIfNeeded() {
+        long now = clock.nanoTick();
+        long next = nextRotation.get();
+        if ((now - next < 0) || !nextRotation.compareAndSet(next, now + intervalNanos)) {
+            return;
+        }
+        Recorders old = recorders;
+        Recorder stale = old.previous;
+        stale.reset();
+        if (now - next >= intervalNanos) {
+            // nothing was recorded for more than an interval, the current values are too old as well
+            old.current.reset();
+        }
+        recorders = new Recorders(stale, old.current);
+    }
+
+    /**
+     * Index of the bucket counting a value.
+     *
+     * @param value non-negative value
+     * @return bucket index
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Value reported for a bucket, the middle of the values it counts.
+     *
+     * @param index bucket index
+     * @return value representing the bucket
+     */
+    static long value(int index) {
+        int band = index >>> SUB_BUCKET_BITS;
+        if (band == 0) {
+            return index;
+        }
+        int shift = band - 1;
+        long lowest = ((long) (SUB_BUCKETS + (index & SUB_BUCKET_MASK))) << shift;
+        return lowest + ((1L << shift) >>> 1);
+    }
+
+    private static final class Recorders {
+        private final Recorder current;
+        private final Recorder previous;
+
+        private Recorders(Recorder current, Recorder previous) {
+            this.current = current;
+            this.previous = previous;
+        }
+    }
+
+    /**
+     * Bucket counters of one interval.
+     */
+    private static final class Recorder {
+        private final AtomicReferenceArray<AtomicLongArray> bands = new AtomicReferenceArray<>(BANDS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+        private void record(long value) {
+            int index = index(value);
+            band(index >>> SUB_BUCKET_BITS).incrementAndGet(index & SUB_BUCKET_MASK);
+            count.increment();
+            sum.add(value);
+            long current = min.get();
+            while (value < current && !min.compareAndSet(current, value)) {
+                current = min.get();
+            }
+            current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+
+        private AtomicLongArray band(int band) {
+            AtomicLongArray counts = bands.get(band);
+            if (counts == null) {
+                counts = new AtomicLongArray(SUB_BUCKETS);
+                if (!bands.compareAndSet(band, null, counts)) {
+                    counts = bands.get(band);
+                }
+            }
+            return counts;
+        }
+
+        private long count(int index) {
+            AtomicLongArray counts = bands.get(index >>> SUB_BUCKET_BITS);
+            return (counts == null) ? 0 : counts.get(index & SUB_BUCKET_MASK);
+        }
+
+        private void reset() {
+            // bands are kept to be reused in the next interval
+            for (int band = 0; band < BANDS; band++) {
+                AtomicLongArray counts = bands.get(band);
+                if (counts != null) {
+                    for (int i = 0; i < SUB_BUCKETS; i++) {
+                        counts.set(i, 0);
+                    }
+                }
+            }
+            count.reset();
+            sum.reset();
+            min.set(Long.MAX_VALUE);
+            max.set(Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * A statistical snapshot of a {@link LogLinearReservoir}, holding values of non-empty buckets and their counts.
+     */
+    static final class LogLinearSnapshot extends Snapshot {
+        private final long[] values;
+        private final long[] counts;
+        private final long count;
+        private final long min;
+        private final long max;
+        private final double mean;
+
+        private LogLinearSnapshot(long[] values, long[] counts, long count, long min, long max, double mean) {
+            this.values = values;
+            this.counts = counts;
+            this.count = count;
+            this.min = min;
+            this.max = max;
+            this.mean = mean;
+        }
+
+        private static LogLinearSnapshot create(Recorder current, Recorder previous) {
+            long[] values = new long[SUB_BUCKETS];
+            long[] counts = new long[SUB_BUCKETS];
+            int size = 0;
+            long count = 0;
+            for (int band = 0; band < BANDS; band++) {
+                if (current.bands.get(band) == null && previous.bands.get(band) == null) {
+                    continue;
+                }
+                int first = band << SUB_BUCKET_BITS;
+                for (int index = first; index < first + SUB_BUCKETS; index++) {
+                    long bucketCount = current.count(index) + previous.count(index);
+                    if (bucketCount > 0) {
+                        if (size == values.length) {
+                            values = Arrays.copyOf(values, size * 2);
+                            counts = Arrays.copyOf(counts, size * 2);
+                        }
+                        values[size] = value(index);
+                        counts[size] = bucketCount;
+                        size++;
+                        count += bucketCount;
+                    }
+                }
+            }
+            if (count == 0) {
+                return new LogLinearSnapshot(new long[0], new long[0], 0, 0, 0, 0);
+            }
+            values = Arrays.copyOf(values, size);
+            counts = Arrays.copyOf(counts, size);
+
+            // exact extremes and sum, unless a value is being recorded right now
+            long min = Math.min(current.min.get(), previous.min.get());
+            long max = Math.max(current.max.get(), previous.max.get());
+            if (min > max) {
+                min = values[0];
+                max = values[size - 1];
+            }
+            long recorded = current.count.sum() + previous.count.sum();
+            double mean = (recorded == 0)
+                    ? 0
+                    : (double) (current.sum.sum() + previous.sum.sum()) / recorded;
+            return new LogLinearSnapshot(values, counts, count, min, max, mean);
+        }
+
+        /**
+         * Returns the value at the given quantile, with relative error below one percent.
+         *
+         * @param quantile a given quantile, in {@code [0..1]}
+         * @return the value in the distribution at {@code quantile}
+         */
+        @Override
+        public double getValue(double quantile) {
+            if ((quantile < 0.0) || (quantile > 1.0) || Double.isNaN(quantile)) {
+                throw new IllegalArgumentException(quantile + " is not in [0..1]");
+            }
+            if (count == 0) {
+                return 0.0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            // the exact extremes lie within the first and the last bucket
+            for (int i = 0; i < values.length - 1; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return (i == 0) ? min : Math.min(max, values[i]);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Returns the number of values recorded in the snapshot's time window.
+         *
+         * @return the number of values
+         */
+        @Override
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE, count);
+        }
+
+        /**
+         * Returns values representing the non-empty buckets, one for each bucket regardless of how many values it counts.
+         *
+         * @return values of non-empty buckets, sorted
+         */
+        @Override
+        public long[] getValues() {
+            return Arrays.copyOf(values, values.length);
+        }
+
+        @Override
+        public long getMax() {
+            return max;
+        }
+
+        @Override
+        public long getMin() {
+            return min;
+        }
+
+        @Override
+        public double getMean() {
+            return mean;
+        }
+
+        @Override
+        public double getStdDev() {
+            if (count <= 1) {
+                return 0;
+            }
+            double variance = 0;
+            for (int i = 0; i < values.length; i++) {
+                double diff = values[i] - mean;
+                variance += counts[i] * diff * diff;
+            }
+            return Math.sqrt(variance / count);
+        }
+
+        /**
+         * Writes values of the non-empty buckets and their counts to the given stream, one bucket per line.
+         *
+         * @param output an output stream
+         */
+        @Override
+        public void dump(OutputStream output) {
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    out.printf("%d\t%d%n", values[i], counts[i]);
+                }
+            } finally {
+                out.close();
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -59,6 +60,9 @@ abstract class MetricImpl implements HelidonMetric {
     private static final long KILOBYTES = 1000;
     private static final long MEGABYTES = 1000 * KILOBYTES;
     private static final long GIGABYTES = 1000 * MEGABYTES;
+    // cleaned prometheus names per registry type, bounded as names may be created dynamically
+    private static final int MAX_CACHED_NAMES = 10_000;
+    private static final Map<String, Map<String, String>> PROMETHEUS_NAMES = new ConcurrentHashMap<>();
 
     private static String bsls(String s) {
         return "\\\\" + s;
@@ -116,10 +120,16 @@ abstract class MetricImpl implements HelidonMetric {
 
     private final String registryType;
     private final Metadata metadata;
+    private final Map<String, String> prometheusNames;
+    private volatile PrometheusTags prometheusTags;
+    // registers the series again once updated after it expired, see Registry#seriesTtl(java.time.Duration)
+    private volatile Runnable restoreOnUpdate;
 
     MetricImpl(String registryType, Metadata metadata) {
         this.metadata = metadata;
         this.registryType = registryType;
+        this.prometheusNames = PROMETHEUS_NAMES.computeIfAbsent(String.valueOf(registryType),
+                                                                type -> new ConcurrentHashMap<>());
     }
 
     private static void addByteConverter(String metricUnit, long toByteRatio) {
@@ -141,6 +151,27 @@ abstract class MetricImpl implements HelidonMetric {
         return metadata.getName();
     }
 
+    /**
+     * Sets the action restoring an expired series of this metric, run on the next update.
+     *
+     * @param restore restores the series in its registry
+     */
+    void restoreOnUpdate(Runnable restore) {
+        this.restoreOnUpdate = restore;
+    }
+
+    /**
+     * Called once the value of this metric was updated, restores the series if it expired meanwhile. References of
+     * metrics are kept by their users (e.g. interceptors), so updates must not be lost once the series expires.
+     */
+    final void updated() {
+        Runnable restore = restoreOnUpdate;
+        if (restore != null) {
+            restoreOnUpdate = null;
+            restore.run();
+        }
+    }
+
     @Override
     public Metadata metadata() {
         return metadata;
@@ -253,7 +284,14 @@ abstract class MetricImpl implements HelidonMetric {
     }
 
     final String prometheusName(String name) {
-        return prometheusClean(name, registryType + "_");
+        String cleaned = prometheusNames.get(name);
+        if (cleaned == null) {
+            cleaned = prometheusClean(name, registryType + "_");
+            if (prometheusNames.size() < MAX_CACHED_NAMES) {
+                prometheusNames.put(name, cleaned);
+            }
+        }
+        return cleaned;
     }
 
     private String prometheusClean(String name, String prefix) {
@@ -280,6 +318,19 @@ abstract class MetricImpl implements HelidonMetric {
         return name;
     }
     final String prometheusTags(Map<String, String> tags) {
+        // a metric is usually formatted with tags of its own metric ID only
+        PrometheusTags cached = prometheusTags;
+        if (cached != null && cached.tags.equals(tags)) {
+            return cached.formatted;
+        }
+        String formatted = formatPrometheusTags(tags);
+        if (tags != null) {
+            prometheusTags = new PrometheusTags(new HashMap<>(tags), formatted);
+        }
+        return formatted;
+    }
+
+    private String formatPrometheusTags(Map<String, String> tags) {
         return (tags == null || tags.isEmpty() ? "" : tags.entrySet().stream()
                 .filter(entry -> entry.getKey() != null)
                 .map(entry -> String.format("%s=\"%s\"",
@@ -320,6 +371,16 @@ abstract class MetricImpl implements HelidonMetric {
         }
     }
 
+    private static final class PrometheusTags {
+        private final Map<String, String> tags;
+        private final String formatted;
+
+        private PrometheusTags(Map<String, String> tags, String formatted) {
+            this.tags = tags;
+            this.formatted = formatted;
+        }
+    }
+
     private static final class LengthUnits extends Units {
         private LengthUnits(String metricUnit, double ratio) {
             super(metricUnit, "meters", o -> ((Number) o).doubleValue() * ratio);
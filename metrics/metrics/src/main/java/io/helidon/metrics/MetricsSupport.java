@@ -47,18 +47,21 @@ import io.helidon.config.Config;
 import io.helidon.media.jsonp.server.JsonSupport;
 import io.helidon.webserver.Handler;
 import io.helidon.webserver.RequestHeaders;
+import io.helidon.webserver.RouteMetrics;
 import io.helidon.webserver.Routing;
 import io.helidon.webserver.ServerRequest;
 import io.helidon.webserver.ServerResponse;
 import io.helidon.webserver.Service;
 
 import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Histogram;
 import org.eclipse.microprofile.metrics.Meter;
 import org.eclipse.microprofile.metrics.Metric;
 import org.eclipse.microprofile.metrics.MetricID;
 import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.eclipse.microprofile.metrics.MetricType;
 import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Timer;
 
 /**
  * Support for metrics for Helidon Web Server.
@@ -83,8 +86,21 @@ import org.eclipse.microprofile.metrics.MetricUnits;
  * <tr><td>helidon.metrics.base.${metricName}.enabled</td><td>true</td><td>Can
  * control which base metrics are exposed, set to false to disable a base
  * metric</td></tr>
+ * <tr><td>helidon.metrics.reservoir.type</td><td>exponentially-decaying</td><td>Default
+ * {@link ReservoirType reservoir type} of histograms and timers, {@code exponentially-decaying} or
+ * {@code log-linear}</td></tr>
+ * <tr><td>helidon.metrics.series.max-per-name</td><td>unlimited</td><td>Maximal number of tag
+ * combinations of a single metric name, further combinations are recorded into a series tagged
+ * {@code overflow="true"}</td></tr>
+ * <tr><td>helidon.metrics.series.ttl</td><td>never</td><td>Duration (such as {@code PT10M}) after which
+ * tagged series that were not updated are removed</td></tr>
  * </table>
  * <p>
+ * Metrics are written in the Prometheus text format, in the OpenMetrics format if the client accepts
+ * {@code application/openmetrics-text}, or as JSON. Prometheus and OpenMetrics responses are streamed while the
+ * registries are iterated and are compressed using gzip if the client accepts it. Duration and size of these
+ * responses are available as vendor metrics {@code metrics.scrape.duration} and {@code metrics.scrape.size}.
+ * <p>
  * The application metrics registry is then available as follows:
  * <pre>{@code
  *  req.context().get(MetricRegistry.class).ifPresent(reg -> reg.counter("myCounter").inc());
@@ -94,14 +110,32 @@ public final class MetricsSupport implements Service {
 
     private static final JsonBuilderFactory JSON = Json.createBuilderFactory(Collections.emptyMap());
     private static final String DEFAULT_CONTEXT = "/metrics";
+    private static final MediaType OPENMETRICS = PrometheusExposition.Format.OPENMETRICS.contentType();
+    private static final String GZIP = "gzip";
     private final String context;
     private final RegistryFactory rf;
+    private final PrometheusExposition exposition;
+    private final RegistryRouteMetrics routeMetrics;
 
     private static final Logger LOGGER = Logger.getLogger(MetricsSupport.class.getName());
 
     private MetricsSupport(Builder builder) {
         this.rf = builder.registryFactory.get();
         this.context = builder.context;
+
+        Registry vendor = rf.getARegistry(MetricRegistry.Type.VENDOR);
+        Timer scrapeDuration = vendor.timer(new HelidonMetadata("metrics.scrape.duration",
+                "Duration of metrics scrapes",
+                "Time to write all metrics of a Prometheus or OpenMetrics request",
+                MetricType.TIMER,
+                MetricUnits.NANOSECONDS), ReservoirType.LOG_LINEAR);
+        Histogram scrapeSize = vendor.histogram(new HelidonMetadata("metrics.scrape.size",
+                "Size of metrics scrapes",
+                "Number of bytes (compressed if requested) written by a Prometheus or OpenMetrics request",
+                MetricType.HISTOGRAM,
+                MetricUnits.BYTES), ReservoirType.LOG_LINEAR);
+        this.exposition = new PrometheusExposition(scrapeDuration, scrapeSize);
+        this.routeMetrics = new RegistryRouteMetrics(vendor);
     }
 
     /**
@@ -140,11 +174,70 @@ public final class MetricsSupport implements Service {
     }
 
     private static MediaType findBestAccepted(RequestHeaders headers) {
-        Optional<MediaType> mediaType = headers.bestAccepted(MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON);
+        Optional<MediaType> mediaType = headers.bestAccepted(MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON, OPENMETRICS);
         return mediaType.orElse(null);
     }
 
-    private static void getAll(ServerRequest req, ServerResponse res, Registry registry) {
+    private static boolean acceptsGzip(RequestHeaders headers) {
+        for (String coding : headers.values(Http.Header.ACCEPT_ENCODING)) {
+            String[] parts = coding.split(";");
+            if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=") && isZero(param.substring(2))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZero(String qualityFactor) {
+        try {
+            return Double.parseDouble(qualityFactor) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void sendPrometheus(ServerRequest req, ServerResponse res, MediaType mediaType, Registry... registries) {
+        PrometheusExposition.Format format = prometheusFormat(mediaType);
+        boolean gzip = prometheusHeaders(req, res, format);
+        res.send(exposition.publisher(format, gzip, registries));
+    }
+
+    private void sendPrometheus(ServerRequest req,
+                                ServerResponse res,
+                                MediaType mediaType,
+                                Map.Entry<MetricID, HelidonMetric> entry) {
+        PrometheusExposition.Format format = prometheusFormat(mediaType);
+        boolean gzip = prometheusHeaders(req, res, format);
+        res.send(exposition.publisher(format, gzip, entry));
+    }
+
+    private static PrometheusExposition.Format prometheusFormat(MediaType mediaType) {
+        return (mediaType == OPENMETRICS)
+                ? PrometheusExposition.Format.OPENMETRICS
+                : PrometheusExposition.Format.PROMETHEUS;
+    }
+
+    /**
+     * Sets the content type and encoding of a Prometheus or OpenMetrics response.
+     *
+     * @return whether the response is compressed
+     */
+    private static boolean prometheusHeaders(ServerRequest req, ServerResponse res, PrometheusExposition.Format format) {
+        boolean gzip = acceptsGzip(req.headers());
+        res.headers().contentType(format.contentType());
+        if (gzip) {
+            res.headers().put(Http.Header.CONTENT_ENCODING, GZIP);
+        }
+        return gzip;
+    }
+
+    private void getAll(ServerRequest req, ServerResponse res, Registry registry) {
         if (registry.empty()) {
             res.status(Http.Status.NO_CONTENT_204);
             res.send();
@@ -154,8 +247,8 @@ public final class MetricsSupport implements Service {
         MediaType mediaType = findBestAccepted(req.headers());
         if (mediaType == MediaType.APPLICATION_JSON) {
             res.send(toJsonData(registry));
-        } else if (mediaType == MediaType.TEXT_PLAIN) {
-            res.send(toPrometheusData(registry));
+        } else if (mediaType == MediaType.TEXT_PLAIN || mediaType == OPENMETRICS) {
+            sendPrometheus(req, res, mediaType, registry);
         } else {
             res.status(Http.Status.NOT_ACCEPTABLE_406);
             res.send();
@@ -344,6 +437,25 @@ public final class MetricsSupport implements Service {
         });
     }
 
+    /**
+     * Request rate, errors and duration of each route, to be used with
+     * {@link io.helidon.webserver.Routing.Builder#routeMetrics(RouteMetrics)}:
+     * <pre>{@code
+     * MetricsSupport metrics = MetricsSupport.create();
+     * Routing.builder()
+     *        .register(metrics)
+     *        .routeMetrics(metrics.routeMetrics())
+     * }</pre>
+     * Vendor metrics {@code requests.route.duration} (timer), {@code requests.route.errors} (counter of server errors
+     * and failed responses) and {@code requests.route.inflight} (gauge) are registered for each route when the routing
+     * is built, tagged with {@code method} and {@code route} (the path pattern of the route).
+     *
+     * @return route metrics backed by the vendor registry
+     */
+    public RouteMetrics routeMetrics() {
+        return routeMetrics;
+    }
+
     /**
      * Configure metrics endpoint on the provided routing rules. This method
      * just adds the endpoint {@code /metrics} (or appropriate one as
@@ -409,10 +521,8 @@ public final class MetricsSupport implements Service {
                         JsonObjectBuilder builder = JSON.createObjectBuilder();
                         entry.getValue().jsonData(builder, entry.getKey());
                         res.send(builder.build());
-                    } else if (mediaType == MediaType.TEXT_PLAIN) {
-                        final StringBuilder sb = new StringBuilder();
-                        entry.getValue().prometheusData(sb, entry.getKey());
-                        res.send(sb.toString());
+                    } else if (mediaType == MediaType.TEXT_PLAIN || mediaType == OPENMETRICS) {
+                        sendPrometheus(req, res, mediaType, entry);
                     } else {
                         res.status(Http.Status.NOT_ACCEPTABLE_406);
                         res.send();
@@ -427,8 +537,8 @@ public final class MetricsSupport implements Service {
         MediaType mediaType = findBestAccepted(req.headers());
         if (mediaType == MediaType.APPLICATION_JSON) {
             res.send(toJsonData(registries));
-        } else if (mediaType == MediaType.TEXT_PLAIN) {
-            res.send(toPrometheusData(registries));
+        } else if (mediaType == MediaType.TEXT_PLAIN || mediaType == OPENMETRICS) {
+            sendPrometheus(req, res, mediaType, registries);
         } else {
             res.status(Http.Status.NOT_ACCEPTABLE_406);
             res.send();
@@ -0,0 +1,623 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.MediaType;
+
+import org.eclipse.microprofile.metrics.Histogram;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.Timer;
+
+/**
+ * Writes registries in the Prometheus text format or in the OpenMetrics format as a stream of chunks.
+ * <p>
+ * Chunks are filled as the registries are iterated, only when the subscriber requests them, so a scrape never holds
+ * the whole response in memory. Chunk buffers are pooled and reused by subsequent scrapes, a cancelled scrape returns
+ * its buffer to the pool and releases its compressor. Series sharing a name are written as a single metric family,
+ * with {@code # TYPE} and {@code # HELP} lines written only once.
+ */
+final class PrometheusExposition {
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private static final int MAX_POOLED_BUFFER_SIZE = 4 * CHUNK_SIZE;
+    private static final int POOL_SIZE = 8;
+    private static final byte[] OPENMETRICS_EOF = "# EOF\n".getBytes(StandardCharsets.US_ASCII);
+    private static final String TYPE_PREFIX = "# TYPE ";
+    private static final String HELP_PREFIX = "# HELP ";
+    private static final String COUNTER_SUFFIX = "_total";
+
+    /**
+     * Exposition format.
+     */
+    enum Format {
+        /**
+         * Prometheus text format 0.0.4.
+         */
+        PROMETHEUS(MediaType.builder()
+                           .type("text")
+                           .subtype("plain")
+                           .addParameter("version", "0.0.4")
+                           .charset("utf-8")
+                           .build()),
+        /**
+         * OpenMetrics text format 1.0.0.
+         */
+        OPENMETRICS(MediaType.builder()
+                            .type("application")
+                            .subtype("openmetrics-text")
+                            .addParameter("version", "1.0.0")
+                            .charset("utf-8")
+                            .build());
+
+        private final MediaType contentType;
+
+        Format(MediaType contentType) {
+            this.contentType = contentType;
+        }
+
+        MediaType contentType() {
+            return contentType;
+        }
+    }
+
+    private final BlockingQueue<byte[]> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+    private final Timer scrapeDuration;
+    private final Histogram scrapeSize;
+
+    /**
+     * Creates a new exposition.
+     *
+     * @param scrapeDuration timer updated with the duration of each completed scrape
+     * @param scrapeSize histogram updated with the number of bytes written by each completed scrape
+     */
+    PrometheusExposition(Timer scrapeDuration, Histogram scrapeSize) {
+        this.scrapeDuration = scrapeDuration;
+        this.scrapeSize = scrapeSize;
+    }
+
+    /**
+     * Creates a publisher of the registries' metrics, supporting a single subscriber.
+     *
+     * @param format exposition format
+     * @param gzip whether to compress the chunks using gzip
+     * @param registries registries to write, in order
+     * @return publisher of the exposition chunks
+     */
+    Flow.Publisher<DataChunk> publisher(Format format, boolean gzip, Registry... registries) {
+        List<Supplier<Stream<Map.Entry<MetricID, HelidonMetric>>>> sources = new ArrayList<>(registries.length);
+        for (Registry registry : registries) {
+            sources.add(registry::stream);
+        }
+        return publisher(format, gzip, sources);
+    }
+
+    /**
+     * Creates a publisher of a single metric, supporting a single subscriber.
+     *
+     * @param format exposition format
+     * @param gzip whether to compress the chunks using gzip
+     * @param entry the metric and its ID
+     * @return publisher of the exposition chunks
+     */
+    Flow.Publisher<DataChunk> publisher(Format format, boolean gzip, Map.Entry<MetricID, HelidonMetric> entry) {
+        return publisher(format, gzip, List.of(() -> Stream.of(entry)));
+    }
+
+    private Flow.Publisher<DataChunk> publisher(Format format,
+                                                boolean gzip,
+                                                List<Supplier<Stream<Map.Entry<MetricID, HelidonMetric>>>> sources) {
+        AtomicBoolean subscribed = new AtomicBoolean();
+        return subscriber -> {
+            Objects.requireNonNull(subscriber, "Parameter 'subscriber' is null!");
+            if (subscribed.compareAndSet(false, true)) {
+                subscriber.onSubscribe(new Scrape(subscriber, format, gzip, sources));
+            } else {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException("Metrics exposition supports a single subscriber!"));
+            }
+        };
+    }
+
+    /**
+     * Writes the registries' metrics to a string, for testing.
+     *
+     * @param format exposition format
+     * @param registries registries to write
+     * @return the exposition
+     */
+    String asString(Format format, Registry... registries) {
+        return asString(publisher(format, false, registries));
+    }
+
+    /**
+     * Writes the chunks of a publisher to a string, for testing.
+     *
+     * @param publisher publisher created by this exposition
+     * @return the exposition
+     */
+    static String asString(Flow.Publisher<DataChunk> publisher) {
+        StringBuilder result = new StringBuilder();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(DataChunk item) {
+                result.append(StandardCharsets.UTF_8.decode(item.data()));
+                item.release();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                throw new IllegalStateException(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        return result.toString();
+    }
+
+    /**
+     * Number of buffers in the pool, for testing.
+     *
+     * @return pooled buffers
+     */
+    int pooledBuffers() {
+        return pool.size();
+    }
+
+    /**
+     * A single scrape, producing a chunk for each requested item.
+     */
+    private final class Scrape implements Flow.Subscription {
+        private final Flow.Subscriber<? super DataChunk> subscriber;
+        private final Format format;
+        private final List<Supplier<Stream<Map.Entry<MetricID, HelidonMetric>>>> sources;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final long startNanos = System.nanoTime();
+        private final ChunkOutputStream chunk = new ChunkOutputStream();
+        private final OutputStream out;
+        private final StringBuilder text = new StringBuilder(256);
+        // metric families of a series group, for metric types writing more than one family per series
+        private final List<StringBuilder> families = new ArrayList<>();
+
+        private int sourceIndex = -1;
+        private Iterator<Map.Entry<MetricID, HelidonMetric>> metrics;
+        private Map.Entry<MetricID, HelidonMetric> nextEntry;
+        private String groupName;
+        private String counterFamily;
+        private byte[] encoded = new byte[256];
+        private long size;
+        // accessed only while draining
+        private boolean outClosed;
+        private volatile boolean done;
+
+        private Scrape(Flow.Subscriber<? super DataChunk> subscriber,
+                       Format format,
+                       boolean gzip,
+                       List<Supplier<Stream<Map.Entry<MetricID, HelidonMetric>>>> sources) {
+            this.subscriber = subscriber;
+            this.format = format;
+            this.sources = sources;
+            chunk.reset(pool.poll());
+            OutputStream output = chunk;
+            if (gzip) {
+                try {
+                    output = new ChunkGzipOutputStream(chunk);
+                } catch (IOException e) {
+                    // writes to memory only
+                    throw new IllegalStateException(e);
+                }
+            }
+            this.out = output;
+        }
+
+        @Override
+        public void request(long n) {
+            if (done) {
+                return;
+            }
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Requested " + n + " items, must be positive!"));
+                // releases the resources
+                drain();
+                return;
+            }
+            requested.getAndUpdate(current -> (Long.MAX_VALUE - current > n) ? current + n : Long.MAX_VALUE);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            // releases the resources, unless a concurrent drain does
+            drain();
+        }
+
+        private void drain() {
+            // the subscriber may request more from onNext
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!done && requested.get() > 0) {
+                    requested.decrementAndGet();
+                    emit();
+                }
+                if (done) {
+                    releaseResources();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            boolean last;
+            try {
+                last = fill();
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+                return;
+            }
+            byte[] buffer = chunk.buffer;
+            int count = chunk.count;
+            if (last) {
+                // owned by the last data chunk
+                chunk.buffer = null;
+            } else {
+                chunk.reset(pool.poll());
+            }
+            if (count > 0) {
+                size += count;
+                subscriber.onNext(DataChunk.create(true, ByteBuffer.wrap(buffer, 0, count), () -> release(buffer)));
+            } else {
+                release(buffer);
+            }
+            if (last && !done) {
+                done = true;
+                scrapeDuration.update(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                scrapeSize.update(size);
+                subscriber.onComplete();
+            }
+        }
+
+        private void release(byte[] buffer) {
+            if (buffer.length <= MAX_POOLED_BUFFER_SIZE) {
+                pool.offer(buffer);
+            }
+        }
+
+        /**
+         * Releases the compressor and the buffer of a scrape which was cancelled or failed, completed scrapes have
+         * already released both.
+         */
+        private void releaseResources() {
+            if (!outClosed) {
+                outClosed = true;
+                if (out instanceof ChunkGzipOutputStream) {
+                    ((ChunkGzipOutputStream) out).abort();
+                }
+            }
+            if (chunk.buffer != null) {
+                release(chunk.buffer);
+                chunk.buffer = null;
+            }
+        }
+
+        private void fail(Throwable throwable) {
+            if (!done) {
+                done = true;
+                subscriber.onError(throwable);
+            }
+        }
+
+        /**
+         * Writes metrics until the chunk is full.
+         *
+         * @return whether all metrics have been written
+         * @throws IOException if compression fails
+         */
+        private boolean fill() throws IOException {
+            while (chunk.count < CHUNK_SIZE) {
+                Map.Entry<MetricID, HelidonMetric> entry = next();
+                if (entry == null) {
+                    if (format == Format.OPENMETRICS) {
+                        out.write(OPENMETRICS_EOF);
+                    }
+                    out.close();
+                    outClosed = true;
+                    return true;
+                }
+                boolean firstOfGroup = !entry.getKey().getName().equals(groupName);
+                groupName = entry.getKey().getName();
+                render(entry);
+                if (firstOfGroup && hasNextInGroup() && familyCount(text) > 1) {
+                    writeGroup();
+                } else {
+                    writeSeries(firstOfGroup);
+                }
+            }
+            return false;
+        }
+
+        private Map.Entry<MetricID, HelidonMetric> next() {
+            Map.Entry<MetricID, HelidonMetric> result = peek();
+            nextEntry = null;
+            return result;
+        }
+
+        private Map.Entry<MetricID, HelidonMetric> peek() {
+            while (nextEntry == null) {
+                if (metrics != null && metrics.hasNext()) {
+                    nextEntry = metrics.next();
+                } else if (sourceIndex + 1 < sources.size()) {
+                    sourceIndex++;
+                    // a new registry starts a new group even if a metric name is repeated
+                    groupName = null;
+                    metrics = sources.get(sourceIndex).get()
+                            .sorted(Comparator.comparing(Map.Entry::getKey))
+                            .collect(Collectors.toList())
+                            .iterator();
+                } else {
+                    return null;
+                }
+            }
+            return nextEntry;
+        }
+
+        private boolean hasNextInGroup() {
+            if (nextEntry == null && metrics != null && metrics.hasNext()) {
+                nextEntry = metrics.next();
+            }
+            return nextEntry != null && nextEntry.getKey().getName().equals(groupName);
+        }
+
+        private void render(Map.Entry<MetricID, HelidonMetric> entry) {
+            text.setLength(0);
+            entry.getValue().prometheusData(text, entry.getKey());
+        }
+
+        /**
+         * Writes a series, samples of each family of a group must be contiguous, so this is only used for series
+         * with a single family or for series which are the only ones in their group.
+         */
+        private void writeSeries(boolean withComments) throws IOException {
+            int start = 0;
+            while (start < text.length()) {
+                int end = lineEnd(text, start);
+                if (withComments || text.charAt(start) != '#') {
+                    writeLine(text, start, end);
+                }
+                start = end;
+            }
+        }
+
+        /**
+         * Writes all series of a group, the current one being the first, grouping lines of each family together.
+         */
+        private void writeGroup() throws IOException {
+            families.forEach(family -> family.setLength(0));
+            int familyCount = collectFamilies(true);
+            while (hasNextInGroup()) {
+                render(next());
+                familyCount = Math.max(familyCount, collectFamilies(false));
+            }
+            for (int i = 0; i < familyCount; i++) {
+                StringBuilder family = families.get(i);
+                int start = 0;
+                while (start < family.length()) {
+                    int end = lineEnd(family, start);
+                    writeLine(family, start, end);
+                    start = end;
+                }
+            }
+        }
+
+        private int collectFamilies(boolean first) {
+            int family = -1;
+            int start = 0;
+            while (start < text.length()) {
+                int end = lineEnd(text, start);
+                boolean comment = text.charAt(start) == '#';
+                if (family < 0 || (comment && startsWith(text, start, TYPE_PREFIX))) {
+                    family++;
+                    if (families.size() == family) {
+                        families.add(new StringBuilder(256));
+                    }
+                }
+                if (first || !comment) {
+                    families.get(family).append(text, start, end);
+                }
+                start = end;
+            }
+            return family + 1;
+        }
+
+        private void writeLine(CharSequence chars, int start, int end) throws IOException {
+            if (format == Format.OPENMETRICS && chars.charAt(start) == '#') {
+                String line = openMetricsComment(chars.subSequence(start, end).toString());
+                encode(line, 0, line.length());
+            } else {
+                encode(chars, start, end);
+            }
+        }
+
+        /**
+         * OpenMetrics names counter families without the {@code _total} suffix of their samples and does not know
+         * concurrent gauges.
+         */
+        private String openMetricsComment(String line) {
+            boolean type = line.startsWith(TYPE_PREFIX);
+            if (!type && !line.startsWith(HELP_PREFIX)) {
+                return line;
+            }
+            int nameEnd = line.indexOf(' ', TYPE_PREFIX.length());
+            if (nameEnd < 0) {
+                return line;
+            }
+            String name = line.substring(TYPE_PREFIX.length(), nameEnd);
+            String rest = line.substring(nameEnd);
+            if (type) {
+                counterFamily = null;
+                if (rest.startsWith(" counter") && name.endsWith(COUNTER_SUFFIX)) {
+                    counterFamily = name;
+                } else if (rest.startsWith(" concurrent gauge")) {
+                    rest = " gauge" + rest.substring(" concurrent gauge".length());
+                }
+            }
+            if (name.equals(counterFamily)) {
+                name = name.substring(0, name.length() - COUNTER_SUFFIX.length());
+            }
+            return line.substring(0, TYPE_PREFIX.length()) + name + rest;
+        }
+
+        private void encode(CharSequence chars, int start, int end) throws IOException {
+            int length = end - start;
+            if (encoded.length < length) {
+                encoded = new byte[Math.max(length, encoded.length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                char c = chars.charAt(start + i);
+                if (c >= 0x80) {
+                    // tag values and descriptions may contain any characters
+                    out.write(encoded, 0, i);
+                    out.write(chars.subSequence(start + i, end).toString().getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+                encoded[i] = (byte) c;
+            }
+            out.write(encoded, 0, length);
+        }
+    }
+
+    private static int lineEnd(CharSequence chars, int start) {
+        int length = chars.length();
+        for (int i = start; i < length; i++) {
+            if (chars.charAt(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+
+    private static int familyCount(CharSequence chars) {
+        int count = 0;
+        int start = 0;
+        while (start < chars.length()) {
+            if (startsWith(chars, start, TYPE_PREFIX)) {
+                count++;
+            }
+            start = lineEnd(chars, start);
+        }
+        return count;
+    }
+
+    private static boolean startsWith(CharSequence chars, int start, String prefix) {
+        if (chars.length() - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (chars.charAt(start + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A gzip stream which can release its deflater without finishing the compressed stream.
+     */
+    private static final class ChunkGzipOutputStream extends GZIPOutputStream {
+        private ChunkGzipOutputStream(ChunkOutputStream out) throws IOException {
+            super(out, CHUNK_SIZE);
+        }
+
+        private void abort() {
+            def.end();
+        }
+    }
+
+    /**
+     * An output stream writing to a growable buffer, which is handed over to a chunk once full.
+     */
+    private static final class ChunkOutputStream extends OutputStream {
+        private byte[] buffer;
+        private int count;
+
+        private void reset(byte[] buffer) {
+            this.buffer = (buffer == null) ? new byte[CHUNK_SIZE + CHUNK_SIZE / 4] : buffer;
+            this.count = 0;
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(count + 1);
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            ensureCapacity(count + len);
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, capacity));
+            }
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package io.helidon.metrics;
 
+import java.lang.ref.WeakReference;
+import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -25,11 +27,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -38,6 +42,7 @@ import java.util.stream.Stream;
 
 import org.eclipse.microprofile.metrics.ConcurrentGauge;
 import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Counting;
 import org.eclipse.microprofile.metrics.Gauge;
 import org.eclipse.microprofile.metrics.Histogram;
 import org.eclipse.microprofile.metrics.Metadata;
@@ -56,13 +61,32 @@ import org.eclipse.microprofile.metrics.Timer;
  */
 public class Registry extends MetricRegistry implements io.helidon.common.metrics.InternalBridge.MetricRegistry {
 
+    /**
+     * Tag of the series aggregating values of new tag combinations rejected once a metric name reached the
+     * {@link #maxSeriesPerName(int) maximal number of series}.
+     */
+    static final Tag OVERFLOW_TAG = new Tag("overflow", "true");
+
     private static final Tag[] NO_TAGS = new Tag[0];
+    private static final Tag[] OVERFLOW_TAGS = {OVERFLOW_TAG};
     private static final Map<Class<? extends HelidonMetric>, MetricType> METRIC_TO_TYPE_MAP = prepareMetricToTypeMap();
 
     private final MetricRegistry.Type type;
     private final Map<MetricID, HelidonMetric> allMetrics = new ConcurrentHashMap<>();
     private final Map<String, List<MetricID>> allMetricIDsByName = new ConcurrentHashMap<>();
     private final Map<String, Metadata> allMetadata = new ConcurrentHashMap<>(); // metric name -> metadata
+    private volatile ReservoirType reservoirType = ReservoirType.EXPONENTIALLY_DECAYING;
+    private final Clock clock;
+    // last seen activity of tagged series, only tracked when series expire
+    private final Map<MetricID, SeriesActivity> seriesActivity = new ConcurrentHashMap<>();
+    private final Set<MetricID> permanentSeries = ConcurrentHashMap.newKeySet();
+    // expired series, restored if their metric is updated or looked up again while still referenced
+    private final Map<MetricID, WeakReference<HelidonMetric>> expiredSeriesRefs = new ConcurrentHashMap<>();
+    private final AtomicLong nextExpiry = new AtomicLong();
+    private volatile int maxSeriesPerName = Integer.MAX_VALUE;
+    private volatile long seriesTtlNanos;
+    private volatile Counter rejectedSeries;
+    private volatile Counter expiredSeries;
 
     /**
      * Create a registry of a certain type.
@@ -70,7 +94,16 @@ public class Registry extends MetricRegistry implements io.helidon.common.metric
      * @param type Registry type.
      */
     protected Registry(Type type) {
+        this(type, Clock.system());
+    }
+
+    Registry(Type type, Clock clock) {
         this.type = type;
+        this.clock = clock;
+        this.rejectedSeries = HelidonCounter.create(type.getName(), new HelidonMetadata("metrics.series.rejected",
+                MetricType.COUNTER));
+        this.expiredSeries = HelidonCounter.create(type.getName(), new HelidonMetadata("metrics.series.expired",
+                MetricType.COUNTER));
     }
 
     /**
@@ -150,12 +183,32 @@ public class Registry extends MetricRegistry implements io.helidon.common.metric
 
     @Override
     public Histogram histogram(String name, Tag... tags) {
-        return getOrRegisterMetric(name, HelidonHistogram::create, HelidonHistogram.class, tags);
+        ReservoirType histogramReservoir = reservoirType;
+        return getOrRegisterMetric(name,
+                                   (type, metadata) -> HelidonHistogram.create(type, metadata, histogramReservoir),
+                                   HelidonHistogram.class,
+                                   tags);
     }
 
     @Override
     public Histogram histogram(Metadata metadata, Tag... tags) {
-        return getOrRegisterMetric(metadata, HelidonHistogram::create, HelidonHistogram.class, tags);
+        return histogram(metadata, reservoirType, tags);
+    }
+
+    /**
+     * Return the existing {@link Histogram} registered under the metadata name and tags, or register a new one storing
+     * its values in a reservoir of the provided type. The reservoir type of an existing histogram is not changed.
+     *
+     * @param metadata metadata of the histogram
+     * @param reservoirType type of the reservoir to use instead of the registry's default
+     * @param tags tags of the histogram
+     * @return a new or pre-existing histogram
+     */
+    public Histogram histogram(Metadata metadata, ReservoirType reservoirType, Tag... tags) {
+        return getOrRegisterMetric(metadata,
+                                   (type, newMetadata) -> HelidonHistogram.create(type, newMetadata, reservoirType),
+                                   HelidonHistogram.class,
+                                   tags);
     }
 
     @Override
@@ -210,12 +263,32 @@ public class Registry extends MetricRegistry implements io.helidon.common.metric
 
     @Override
     public Timer timer(String name, Tag... tags) {
-        return getOrRegisterMetric(name, HelidonTimer::create, HelidonTimer.class, tags);
+        ReservoirType timerReservoir = reservoirType;
+        return getOrRegisterMetric(name,
+                                   (type, metadata) -> HelidonTimer.create(type, metadata, timerReservoir),
+                                   HelidonTimer.class,
+                                   tags);
     }
 
     @Override
     public Timer timer(Metadata metadata, Tag... tags) {
-        return getOrRegisterMetric(metadata, HelidonTimer::create, HelidonTimer.class, tags);
+        return timer(metadata, reservoirType, tags);
+    }
+
+    /**
+     * Return the existing {@link Timer} registered under the metadata name and tags, or register a new one storing
+     * its durations in a reservoir of the provided type. The reservoir type of an existing timer is not changed.
+     *
+     * @param metadata metadata of the timer
+     * @param reservoirType type of the reservoir to use instead of the registry's default
+     * @param tags tags of the timer
+     * @return a new or pre-existing timer
+     */
+    public Timer timer(Metadata metadata, ReservoirType reservoirType, Tag... tags) {
+        return getOrRegisterMetric(metadata,
+                                   (type, newMetadata) -> HelidonTimer.create(type, newMetadata, reservoirType),
+                                   HelidonTimer.class,
+                                   tags);
     }
 
     @Override
@@ -240,6 +313,7 @@ public class Registry extends MetricRegistry implements io.helidon.common.metric
 
     @Override
     public synchronized boolean remove(String name) {
+        expiredSeriesRefs.keySet().removeIf(metricID -> metricID.getName().equals(name));
         final boolean result = allMetricIDsByName.get(name).stream()
                 .map(metricID -> allMetrics.remove(metricID) != null)
                 .reduce((a, b) -> a || b)
@@ -251,6 +325,8 @@ public class Registry extends MetricRegistry implements io.helidon.common.metric
 
     @Override
     public synchronized boolean remove(MetricID metricID) {
+        seriesActivity.remove(metricID);
+        expiredSeriesRefs.remove(metricID);
         final List<MetricID> likeNamedMetrics = allMetricIDsByName.get(metricID.getName());
         likeNamedMetrics.remove(metricID);
         if (likeNamedMetrics.isEmpty()) {
@@ -453,6 +529,7 @@ public class Registry extends MetricRegistry implements io.helidon.common.metric
      * @return Stream of {@link Map.Entry}
      */
     Stream<Map.Entry<MetricID, HelidonMetric>> stream() {
+        expireIdleSeries();
         return allMetrics.entrySet().stream();
     }
 
@@ -519,16 +596,90 @@ public class Registry extends MetricRegistry implements io.helidon.common.metric
     }
 
     <T extends HelidonMetric> Optional<T> getOptionalMetric(MetricID metricID, Class<T> clazz) {
-        return Optional.ofNullable(allMetrics.get(metricID))
-                .map(metric -> {
-                    return toType(metric, clazz);
-                });
+        HelidonMetric metric = allMetrics.get(metricID);
+        if (metric == null && !expiredSeriesRefs.isEmpty()) {
+            metric = restoreSeries(metricID, null);
+        }
+        return Optional.ofNullable(metric)
+                .map(it -> toType(it, clazz));
     }
 
     Type registryType() {
         return type;
     }
 
+    /**
+     * Sets the reservoir type of histograms and timers registered from now on, unless registered with an explicit type.
+     *
+     * @param reservoirType default reservoir type
+     */
+    void reservoirType(ReservoirType reservoirType) {
+        this.reservoirType = reservoirType;
+    }
+
+    ReservoirType reservoirType() {
+        return reservoirType;
+    }
+
+    /**
+     * Limits the number of series (tag combinations) of a single metric name. Once the limit is reached, new tag
+     * combinations are rejected and values are recorded into a single series tagged with {@link #OVERFLOW_TAG} instead.
+     * Metrics without tags are not limited.
+     *
+     * @param maxSeriesPerName maximal number of series per metric name
+     */
+    void maxSeriesPerName(int maxSeriesPerName) {
+        this.maxSeriesPerName = maxSeriesPerName;
+    }
+
+    /**
+     * Removes tagged series that have not been updated for the provided time. Series are checked while the registry is
+     * iterated (e.g. when metrics are scraped) or when a new series is registered, at most twice per TTL.
+     * Gauges and concurrent gauges never expire, as updates of their values cannot be observed.
+     * <p>
+     * Metrics of expired series may still be referenced (e.g. by interceptors, injection points or application code),
+     * such a series is registered again with the same metric instance once the metric is updated or looked up, so no
+     * updates are lost. Series registered with a metric instance provided by the caller never expire.
+     *
+     * @param seriesTtl time after which idle series are removed, zero to never remove series
+     */
+    void seriesTtl(Duration seriesTtl) {
+        this.seriesTtlNanos = seriesTtl.toNanos();
+        if (seriesTtlNanos <= 0) {
+            seriesActivity.clear();
+        } else {
+            nextExpiry.set(clock.nanoTick());
+        }
+    }
+
+    /**
+     * Sets the counters of rejected and expired series, usually registered in the vendor registry.
+     *
+     * @param rejectedSeries counter of tag combinations recorded into the overflow series
+     * @param expiredSeries counter of removed idle series
+     */
+    void seriesCounters(Counter rejectedSeries, Counter expiredSeries) {
+        this.rejectedSeries = rejectedSeries;
+        this.expiredSeries = expiredSeries;
+    }
+
+    /**
+     * Excludes a tagged series from {@link #seriesTtl(Duration) expiry}, for series whose references are kept.
+     *
+     * @param metricID ID of the series
+     */
+    void permanentSeries(MetricID metricID) {
+        permanentSeries.add(metricID);
+    }
+
+    Counter rejectedSeries() {
+        return rejectedSeries;
+    }
+
+    Counter expiredSeries() {
+        return expiredSeries;
+    }
+
     List<MetricID> metricIDsForName(String metricName) {
         return allMetricIDsByName.get(metricName);
     }
@@ -607,6 +758,9 @@ public class Registry extends MetricRegistry implements io.helidon.common.metric
         return getOptionalMetric(metricName, clazz, tags)
                 .filter(existingMetric -> enforceConsistentMetadata(existingMetric, newMetadata, tags))
                 .orElseGet(() -> {
+                    if (!admitSeries(metricName, tags)) {
+                        return getOrRegisterMetric(newMetadata, metricFactory, clazz, OVERFLOW_TAGS);
+                    }
                     final Metadata metadata = getOrRegisterMetadata(metricName, newMetadata, tags);
                     return registerMetric(metricName,
                                     metricFactory.apply(type.getName(), metadata),
@@ -634,6 +788,9 @@ public class Registry extends MetricRegistry implements io.helidon.common.metric
         final MetricType newType = METRIC_TO_TYPE_MAP.get(clazz);
         return getOptionalMetric(metricName, clazz, tags)
                 .orElseGet(() -> {
+                    if (!admitSeries(metricName, tags)) {
+                        return getOrRegisterMetric(metricName, metricFactory, clazz, OVERFLOW_TAGS);
+                    }
                     final Metadata metadata = getOrRegisterMetadata(metricName, newType,
                             () ->  new HelidonMetadata(metricName, newType), tags);
                     return registerMetric(metricName, metricFactory.apply(type.getName(), metadata),
@@ -688,6 +845,12 @@ public class Registry extends MetricRegistry implements io.helidon.common.metric
 
         metadata = getOrRegisterMetadata(metricName, metadata, tags);
         registerMetric(metricName, toImpl(metadata, metric), tags);
+        if (tags.length > 0) {
+            // the caller keeps the metric instance, updates of which cannot be observed to restore the series
+            MetricID metricID = new MetricID(metricName, tags);
+            permanentSeries.add(metricID);
+            expiredSeriesRefs.remove(metricID);
+        }
         return metric;
     }
 
@@ -762,6 +925,91 @@ public class Registry extends MetricRegistry implements io.helidon.common.metric
         return metadata;
     }
 
+    /**
+     * Whether a new series of a metric may be registered, counting the rejected series if not.
+     *
+     * @param metricName name of the metric
+     * @param tags tags of the new series
+     * @return {@code true} if the series may be registered, {@code false} if the overflow series should be used instead
+     */
+    private boolean admitSeries(String metricName, Tag... tags) {
+        expireIdleSeries();
+        if (tags == null || tags.length == 0 || tags == OVERFLOW_TAGS) {
+            return true;
+        }
+        // a series still referenced after it expired is restored rather than rejected
+        if (expiredSeriesRefs.containsKey(new MetricID(metricName, tags))) {
+            return true;
+        }
+        List<MetricID> sameName = allMetricIDsByName.get(metricName);
+        if (sameName == null || sameName.size() < maxSeriesPerName) {
+            return true;
+        }
+        rejectedSeries.inc();
+        return false;
+    }
+
+    private void expireIdleSeries() {
+        long ttl = seriesTtlNanos;
+        if (ttl <= 0) {
+            return;
+        }
+        long now = clock.nanoTick();
+        long next = nextExpiry.get();
+        if (now - next >= 0 && nextExpiry.compareAndSet(next, now + ttl / 2)) {
+            expireIdleSeries(now, ttl);
+        }
+    }
+
+    private synchronized void expireIdleSeries(long now, long ttl) {
+        seriesActivity.keySet().removeIf(metricID -> !allMetrics.containsKey(metricID));
+        expiredSeriesRefs.values().removeIf(ref -> ref.get() == null);
+        List<MetricID> expired = new ArrayList<>();
+        allMetrics.forEach((metricID, metric) -> {
+            // only series created with tags are expected to be dynamic
+            if (metricID.getTags().isEmpty() || !(metric instanceof Counting) || permanentSeries.contains(metricID)) {
+                return;
+            }
+            long count = ((Counting) metric).getCount();
+            SeriesActivity activity = seriesActivity.get(metricID);
+            if (activity == null || activity.count != count) {
+                seriesActivity.put(metricID, new SeriesActivity(count, now));
+            } else if (now - activity.since >= ttl) {
+                expired.add(metricID);
+            }
+        });
+        expired.forEach(metricID -> {
+            HelidonMetric metric = allMetrics.get(metricID);
+            remove(metricID);
+            expiredSeries.inc();
+            if (metric instanceof MetricImpl) {
+                expiredSeriesRefs.put(metricID, new WeakReference<>(metric));
+                ((MetricImpl) metric).restoreOnUpdate(() -> restoreSeries(metricID, metric));
+            }
+        });
+    }
+
+    /**
+     * Registers an expired series again, with its original metric instance.
+     *
+     * @param metricID ID of the series
+     * @param expected the metric which should be restored, {@code null} for any
+     * @return the restored metric or {@code null} if the series is not expired (or its metric is not referenced anymore)
+     */
+    private synchronized HelidonMetric restoreSeries(MetricID metricID, HelidonMetric expected) {
+        WeakReference<HelidonMetric> ref = expiredSeriesRefs.get(metricID);
+        HelidonMetric metric = (ref == null) ? null : ref.get();
+        if (metric == null || (expected != null && metric != expected)) {
+            return null;
+        }
+        expiredSeriesRefs.remove(metricID);
+        if (allMetrics.containsKey(metricID)) {
+            return null;
+        }
+        allMetadata.putIfAbsent(metricID.getName(), metric.metadata());
+        return registerMetric(metricID.getName(), metric, metricID.getTagsAsList().toArray(NO_TAGS));
+    }
+
     private synchronized <T extends HelidonMetric> T registerMetric(String metricName, T metric, Tag... tags) {
         final MetricID metricID = new MetricID(metricName, tags);
         allMetrics.put(metricID, metric);
@@ -847,6 +1095,7 @@ public class Registry extends MetricRegistry implements io.helidon.common.metric
      * @return The sorted map.
      */
     private synchronized <V> SortedMap<MetricID, V> getSortedMetrics(MetricFilter filter, Class<V> metricClass) {
+        expireIdleSeries();
         Map<MetricID, V> collected = allMetrics.entrySet()
                 .stream()
                 .filter(it -> metricClass.isAssignableFrom(it.getValue().getClass()))
@@ -874,4 +1123,14 @@ public class Registry extends MetricRegistry implements io.helidon.common.metric
         result.put(HelidonTimer.class, MetricType.TIMER);
         return result;
     }
+
+    private static final class SeriesActivity {
+        private final long count;
+        private final long since;
+
+        private SeriesActivity(long count, long since) {
+            this.count = count;
+            this.since = since;
+        }
+    }
 }
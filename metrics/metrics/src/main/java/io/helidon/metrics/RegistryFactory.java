@@ -16,14 +16,21 @@
 
 package io.helidon.metrics;
 
+import java.time.Duration;
 import java.util.EnumMap;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import io.helidon.config.Config;
 
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricID;
 import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.eclipse.microprofile.metrics.MetricRegistry.Type;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
 
 /**
  * Access point to all registries.
@@ -43,6 +50,9 @@ import org.eclipse.microprofile.metrics.MetricRegistry.Type;
 // this class is not immutable, as we may need to update registries with configuration post creation
 // see Github issue #360
 public final class RegistryFactory implements io.helidon.common.metrics.InternalBridge.MetricRegistry.RegistryFactory {
+    static final String RESERVOIR_TYPE_KEY = "reservoir.type";
+    static final String MAX_SERIES_PER_NAME_KEY = "series.max-per-name";
+    static final String SERIES_TTL_KEY = "series.ttl";
     private static final RegistryFactory INSTANCE = create();
 
     private final EnumMap<Type, Registry> registries = new EnumMap<>(Type.class);
@@ -59,6 +69,7 @@ public final class RegistryFactory implements io.helidon.common.metrics.Internal
         publicRegistries.put(Type.VENDOR, registry);
 
         this.config = new AtomicReference<>(config);
+        configureRegistries(config);
     }
 
 
@@ -163,14 +174,53 @@ public final class RegistryFactory implements io.helidon.common.metrics.Internal
 
     private void update(Config config) {
         this.config.set(config);
+        configureRegistries(config);
+    }
+
+    private static Counter seriesCounter(Registry vendor, HelidonMetadata metadata, Tag scope) {
+        Counter counter = vendor.counter(metadata, scope);
+        vendor.permanentSeries(new MetricID(metadata.getName(), scope));
+        return counter;
     }
 
     private synchronized void ensureBase() {
         if (null == registries.get(Type.BASE)) {
             Registry registry = BaseRegistry.create(config.get());
+            configure(registry, config.get());
             registries.put(Type.BASE, registry);
             publicRegistries.put(Type.BASE, FinalRegistry.create(registry));
         }
     }
+
+    private synchronized void configureRegistries(Config config) {
+        registries.values().forEach(registry -> configure(registry, config));
+    }
+
+    private void configure(Registry registry, Config config) {
+        config.get(RESERVOIR_TYPE_KEY).asString().map(ReservoirType::parse).ifPresent(registry::reservoirType);
+
+        Optional<Integer> maxSeriesPerName = config.get(MAX_SERIES_PER_NAME_KEY).asInt().asOptional();
+        Optional<Duration> seriesTtl = config.get(SERIES_TTL_KEY).as(Duration.class).asOptional();
+        maxSeriesPerName.ifPresent(registry::maxSeriesPerName);
+        seriesTtl.ifPresent(registry::seriesTtl);
+        if (maxSeriesPerName.isPresent() || seriesTtl.isPresent()) {
+            // series counters are only interesting (and exposed) once series are limited
+            Registry vendor = registries.get(Type.VENDOR);
+            Tag scope = new Tag("scope", registry.type());
+            registry.seriesCounters(
+                    seriesCounter(vendor, new HelidonMetadata("metrics.series.rejected",
+                                                              "Rejected metric series",
+                                                              "Number of new tag combinations recorded into the overflow "
+                                                                      + "series once a metric name reached the maximal "
+                                                                      + "number of series",
+                                                              MetricType.COUNTER,
+                                                              MetricUnits.NONE), scope),
+                    seriesCounter(vendor, new HelidonMetadata("metrics.series.expired",
+                                                              "Expired metric series",
+                                                              "Number of tagged metric series removed after being idle",
+                                                              MetricType.COUNTER,
+                                                              MetricUnits.NONE), scope));
+        }
+    }
 }
 
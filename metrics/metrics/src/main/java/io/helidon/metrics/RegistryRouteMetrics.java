@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.helidon.webserver.RouteMetrics;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
+
+/**
+ * {@link RouteMetrics} registered in the vendor registry, tagged with the method and the route template.
+ * Metrics of all routes with the same method and template are shared.
+ */
+final class RegistryRouteMetrics implements RouteMetrics {
+
+    static final String DURATION_NAME = "requests.route.duration";
+    static final String ERRORS_NAME = "requests.route.errors";
+    static final String IN_FLIGHT_NAME = "requests.route.inflight";
+
+    private static final Metadata DURATION = new HelidonMetadata(DURATION_NAME,
+                                                                 "Duration of route requests",
+                                                                 "Count, rate and duration of requests of a route until "
+                                                                         + "their responses were completed",
+                                                                 MetricType.TIMER,
+                                                                 MetricUnits.NANOSECONDS);
+    private static final Metadata ERRORS = new HelidonMetadata(ERRORS_NAME,
+                                                               "Failed route requests",
+                                                               "Number of requests of a route answered with a server "
+                                                                       + "error (5xx) or whose response failed",
+                                                               MetricType.COUNTER,
+                                                               MetricUnits.NONE);
+    private static final Metadata IN_FLIGHT = new HelidonMetadata(IN_FLIGHT_NAME,
+                                                                  "Route requests in flight",
+                                                                  "Number of requests currently processed by a route",
+                                                                  MetricType.GAUGE,
+                                                                  MetricUnits.NONE);
+
+    private final Registry vendor;
+    private final Map<MetricID, Recorder> recorders = new ConcurrentHashMap<>();
+
+    RegistryRouteMetrics(Registry vendor) {
+        this.vendor = vendor;
+    }
+
+    @Override
+    public Recorder recorder(String method, String route) {
+        Tag[] tags = {new Tag("method", method), new Tag("route", route)};
+        return recorders.computeIfAbsent(new MetricID(IN_FLIGHT_NAME, tags), id -> {
+            RegistryRecorder recorder = new RegistryRecorder(vendor.timer(DURATION, ReservoirType.LOG_LINEAR, tags),
+                                                             vendor.counter(ERRORS, tags));
+            // may be registered by another instance sharing the registry
+            if (!vendor.getGauges().containsKey(id)) {
+                vendor.register(IN_FLIGHT, recorder, tags);
+            }
+            // recorders keep references to the metrics, they must not be expired as idle series
+            vendor.permanentSeries(new MetricID(DURATION_NAME, tags));
+            vendor.permanentSeries(new MetricID(ERRORS_NAME, tags));
+            return recorder;
+        });
+    }
+
+    /**
+     * Preallocated metrics of a single route.
+     */
+    private static final class RegistryRecorder implements Recorder, Gauge<Long> {
+        private final Timer duration;
+        private final Counter errors;
+        private final LongAdder inFlight = new LongAdder();
+
+        private RegistryRecorder(Timer duration, Counter errors) {
+            this.duration = duration;
+            this.errors = errors;
+        }
+
+        @Override
+        public void enter() {
+            inFlight.increment();
+        }
+
+        @Override
+        public void exit() {
+            inFlight.decrement();
+        }
+
+        @Override
+        public void complete(int statusCode, boolean failed, long durationNanos) {
+            duration.update(durationNanos, TimeUnit.NANOSECONDS);
+            if (failed || statusCode >= 500) {
+                errors.inc();
+            }
+        }
+
+        @Override
+        public Long getValue() {
+            return inFlight.sum();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.metrics;
+
+import org.eclipse.microprofile.metrics.Snapshot;
+
+/**
+ * Storage of values recorded by a {@link org.eclipse.microprofile.metrics.Histogram}, providing
+ * statistical snapshots of the distribution.
+ *
+ * @see ReservoirType
+ */
+interface Reservoir {
+    /**
+     * Adds a new value to the reservoir.
+     *
+     * @param value the value to be added
+     */
+    void update(long value);
+
+    /**
+     * Adds an old value with a fixed timestamp to the reservoir.
+     * Reservoirs that do not weight values by time ignore the timestamp.
+     *
+     * @param value     the value to be added
+     * @param timestamp the epoch timestamp of {@code value} in seconds
+     */
+    default void update(long value, long timestamp) {
+        update(value);
+    }
+
+    /**
+     * Returns a snapshot of the reservoir's values.
+     *
+     * @return a snapshot of the reservoir's values
+     */
+    Snapshot getSnapshot();
+}
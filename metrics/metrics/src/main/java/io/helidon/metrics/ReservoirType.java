@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.metrics;
+
+import java.util.Locale;
+
+/**
+ * Type of the reservoir storing values of histograms and timers.
+ * <p>
+ * The default type of a {@link Registry} can be configured using the {@code reservoir.type} key of metrics
+ * configuration, the type of a single metric can be chosen when it is registered using
+ * {@link Registry#histogram(org.eclipse.microprofile.metrics.Metadata, ReservoirType,
+ * org.eclipse.microprofile.metrics.Tag...)} or {@link Registry#timer(org.eclipse.microprofile.metrics.Metadata,
+ * ReservoirType, org.eclipse.microprofile.metrics.Tag...)}.
+ */
+public enum ReservoirType {
+    /**
+     * A random sample of 1028 values, exponentially biased towards values recorded during the past five minutes.
+     * This is the default.
+     */
+    EXPONENTIALLY_DECAYING("exponentially-decaying"),
+    /**
+     * All values recorded during the past two and a half to five minutes, counted in buckets of logarithmically
+     * increasing width with relative error of reported values below one percent. Recording a value does not allocate
+     * nor lock, this type is intended for metrics updated on hot paths by many threads.
+     */
+    LOG_LINEAR("log-linear");
+
+    private final String configName;
+
+    ReservoirType(String configName) {
+        this.configName = configName;
+    }
+
+    /**
+     * Name of this type in configuration.
+     *
+     * @return configuration name, such as {@code log-linear}
+     */
+    public String configName() {
+        return configName;
+    }
+
+    /**
+     * Parses a reservoir type from its {@link #configName() configuration name} or its constant name.
+     *
+     * @param type name of the type, case insensitive
+     * @return reservoir type
+     * @throws IllegalArgumentException if the type is not known
+     */
+    public static ReservoirType parse(String type) {
+        String name = type.trim().toLowerCase(Locale.ROOT).replace('_', '-');
+        for (ReservoirType value : values()) {
+            if (value.configName.equals(name)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unknown reservoir type \"" + type + "\", supported types are "
+                                                   + EXPONENTIALLY_DECAYING.configName + " and " + LOG_LINEAR.configName);
+    }
+
+    Reservoir create(Clock clock) {
+        switch (this) {
+            case LOG_LINEAR:
+                return new LogLinearReservoir(clock);
+            case EXPONENTIALLY_DECAYING:
+            default:
+                return new ExponentiallyDecayingReservoir(clock);
+        }
+    }
+}
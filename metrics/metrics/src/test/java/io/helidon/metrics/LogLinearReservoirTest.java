@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.metrics.Snapshot;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for {@link LogLinearReservoir}.
+ */
+class LogLinearReservoirTest {
+    private static final long INTERVAL_SECONDS = 60;
+
+    @Test
+    void testBucketError() {
+        long[] values = {0, 1, 63, 64, 65, 127, 128, 1_000, 123_456, 999_999_999, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LogLinearReservoir.index(value);
+            long reported = LogLinearReservoir.value(index);
+            assertThat("Index of " + value + " reported as " + reported, LogLinearReservoir.index(reported), is(index));
+            assertThat("Error of " + value, Math.abs(reported - value) / Math.max(1.0, value), lessThan(0.01));
+        }
+        assertThat(LogLinearReservoir.value(LogLinearReservoir.index(63)), is(63L));
+        assertThat(LogLinearReservoir.index(Long.MAX_VALUE), is(lessThan(Long.SIZE << 6)));
+    }
+
+    @Test
+    void testSnapshot() {
+        LogLinearReservoir reservoir = new LogLinearReservoir(TestClock.create());
+        long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++) {
+            // durations from one microsecond to ten milliseconds
+            values[i] = 1_000L * (i + 1);
+        }
+        for (int i = values.length - 1; i >= 0; i--) {
+            reservoir.update(values[i]);
+        }
+
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertThat(snapshot.size(), is(values.length));
+        assertThat(snapshot.getMin(), is(values[0]));
+        assertThat(snapshot.getMax(), is(values[values.length - 1]));
+        assertThat(snapshot.getMean(), is(Arrays.stream(values).average().getAsDouble()));
+        assertThat(snapshot.getMedian(), closeTo(5_000_000, 50_000));
+        assertThat(snapshot.get99thPercentile(), closeTo(9_900_000, 99_000));
+        assertThat(snapshot.getValue(0), is((double) values[0]));
+        assertThat(snapshot.getValue(1), is((double) values[values.length - 1]));
+        assertThat(snapshot.getStdDev(), closeTo(2_886_751, 28_867));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getValue(1.5));
+    }
+
+    @Test
+    void testNegativeAndEmpty() {
+        LogLinearReservoir reservoir = new LogLinearReservoir(TestClock.create());
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertThat(snapshot.size(), is(0));
+        assertThat(snapshot.getMedian(), is(0.0));
+        assertThat(snapshot.getMean(), is(0.0));
+
+        reservoir.update(-10);
+        assertThat(reservoir.getSnapshot().getMax(), is(0L));
+    }
+
+    @Test
+    void testRotation() {
+        TestClock clock = TestClock.create();
+        LogLinearReservoir reservoir = new LogLinearReservoir(clock, TimeUnit.SECONDS.toNanos(INTERVAL_SECONDS));
+        reservoir.update(10);
+
+        clock.add(INTERVAL_SECONDS, TimeUnit.SECONDS);
+        reservoir.update(20);
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertThat("Previous interval is part of the snapshot", snapshot.size(), is(2));
+        assertThat(snapshot.getMin(), is(10L));
+        // snapshots do not drain the recorders
+        assertThat(reservoir.getSnapshot().size(), is(2));
+
+        clock.add(INTERVAL_SECONDS, TimeUnit.SECONDS);
+        snapshot = reservoir.getSnapshot();
+        assertThat("Values older than two intervals are dropped", snapshot.size(), is(1));
+        assertThat(snapshot.getMin(), is(20L));
+
+        clock.add(2 * INTERVAL_SECONDS, TimeUnit.SECONDS);
+        assertThat("Idle reservoir is cleared", reservoir.getSnapshot().size(), is(0));
+    }
+
+    @Test
+    void testParseType() {
+        assertThat(ReservoirType.parse("log-linear"), is(ReservoirType.LOG_LINEAR));
+        assertThat(ReservoirType.parse("EXPONENTIALLY_DECAYING"), is(ReservoirType.EXPONENTIALLY_DECAYING));
+        assertThrows(IllegalArgumentException.class, () -> ReservoirType.parse("uniform"));
+    }
+}
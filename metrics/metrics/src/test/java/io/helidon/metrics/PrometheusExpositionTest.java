@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.metrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import io.helidon.common.http.DataChunk;
+
+import org.eclipse.microprofile.metrics.Histogram;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Unit test for {@link PrometheusExposition}.
+ */
+class PrometheusExpositionTest {
+    private Registry registry;
+    private Timer scrapeDuration;
+    private Histogram scrapeSize;
+    private PrometheusExposition exposition;
+
+    @BeforeEach
+    void createRegistry() {
+        registry = Registry.create(MetricRegistry.Type.APPLICATION);
+        Registry vendor = Registry.create(MetricRegistry.Type.VENDOR);
+        scrapeDuration = vendor.timer("scrape.duration");
+        scrapeSize = vendor.histogram("scrape.size");
+        exposition = new PrometheusExposition(scrapeDuration, scrapeSize);
+    }
+
+    @Test
+    void testSameAsPrometheusData() {
+        registry.counter("requests").inc();
+        registry.histogram("sizes").update(42);
+        registry.concurrentGauge("calls").inc();
+
+        assertThat(exposition.asString(PrometheusExposition.Format.PROMETHEUS, registry),
+                   is(MetricsSupport.toPrometheusData(registry)));
+        assertThat(scrapeDuration.getCount(), is(1L));
+        assertThat(scrapeSize.getSnapshot().getMax(), greaterThan(0L));
+    }
+
+    @Test
+    void testFamiliesWrittenOnce() {
+        registry.counter("requests", new Tag("method", "GET")).inc();
+        registry.counter("requests", new Tag("method", "POST")).inc(2);
+        registry.timer("latency", new Tag("method", "GET")).update(1, TimeUnit.MILLISECONDS);
+        registry.timer("latency", new Tag("method", "POST")).update(2, TimeUnit.MILLISECONDS);
+
+        String exposed = exposition.asString(PrometheusExposition.Format.PROMETHEUS, registry);
+        assertThat(exposed, containsString("# TYPE application_requests_total counter\n"
+                                                   + "# HELP application_requests_total \n"
+                                                   + "application_requests_total{method=\"GET\"} 1\n"
+                                                   + "application_requests_total{method=\"POST\"} 2\n"));
+        assertThat(count(exposed, "# TYPE application_latency summary"), is(1));
+        assertThat(count(exposed, "# TYPE application_latency_mean gauge"), is(1));
+        // samples of a family are contiguous
+        assertThat(exposed, containsString("# TYPE application_latency_max gauge\n"
+                                                   + "application_latency_max{method=\"GET\"} 1000000\n"
+                                                   + "application_latency_max{method=\"POST\"} 2000000\n"));
+    }
+
+    @Test
+    void testOpenMetrics() {
+        registry.counter("requests").inc();
+        registry.concurrentGauge("active").inc();
+
+        String exposed = exposition.asString(PrometheusExposition.Format.OPENMETRICS, registry);
+        assertThat(exposed, containsString("# TYPE application_requests counter\n"
+                                                   + "# HELP application_requests \n"
+                                                   + "application_requests_total 1\n"));
+        assertThat(exposed, containsString("# TYPE application_active_current gauge\n"));
+        assertThat(exposed, endsWith("# EOF\n"));
+    }
+
+    @Test
+    void testChunksAndGzip() throws IOException {
+        for (int i = 0; i < 1000; i++) {
+            registry.counter("counter", new Tag("index", String.valueOf(i))).inc();
+        }
+        String expected = exposition.asString(PrometheusExposition.Format.PROMETHEUS, registry);
+
+        List<byte[]> chunks = collect(exposition.publisher(PrometheusExposition.Format.PROMETHEUS, false, registry));
+        assertThat(chunks.size(), greaterThan(1));
+        assertThat(new String(concat(chunks), StandardCharsets.UTF_8), is(expected));
+
+        byte[] compressed = concat(collect(exposition.publisher(PrometheusExposition.Format.PROMETHEUS, true, registry)));
+        assertThat(compressed.length, lessThan(expected.length()));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8), is(expected));
+        }
+        assertThat(expected, not(containsString("# EOF")));
+    }
+
+    @Test
+    void testSingleMetric() {
+        registry.counter("requests").inc();
+        registry.counter("other").inc();
+
+        String exposed = PrometheusExposition.asString(
+                exposition.publisher(PrometheusExposition.Format.OPENMETRICS,
+                                     false,
+                                     registry.getOptionalMetricEntry("requests").get()));
+        assertThat(exposed, is("# TYPE application_requests counter\n"
+                                       + "# HELP application_requests \n"
+                                       + "application_requests_total 1\n"
+                                       + "# EOF\n"));
+    }
+
+    @Test
+    void testCancelReleasesBuffer() {
+        for (int i = 0; i < 1000; i++) {
+            registry.counter("counter", new Tag("index", String.valueOf(i))).inc();
+        }
+        // cancelled before anything was written, the compressor is released as well
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        List<DataChunk> chunks = new ArrayList<>();
+        exposition.publisher(PrometheusExposition.Format.PROMETHEUS, true, registry).subscribe(subscriber(subscription, chunks));
+        subscription[0].cancel();
+        assertThat(chunks.size(), is(0));
+        assertThat(exposition.pooledBuffers(), is(1));
+
+        exposition.publisher(PrometheusExposition.Format.PROMETHEUS, false, registry).subscribe(subscriber(subscription, chunks));
+        subscription[0].request(1);
+        assertThat(chunks.size(), is(1));
+        assertThat(exposition.pooledBuffers(), is(0));
+
+        // the buffer being filled is returned, the emitted one once released
+        subscription[0].cancel();
+        assertThat(exposition.pooledBuffers(), is(1));
+        chunks.get(0).release();
+        assertThat(exposition.pooledBuffers(), is(2));
+
+        // further requests are ignored
+        subscription[0].request(1);
+        assertThat(chunks.size(), is(1));
+        assertThat(exposition.pooledBuffers(), is(2));
+    }
+
+    private static Flow.Subscriber<DataChunk> subscriber(Flow.Subscription[] subscription, List<DataChunk> chunks) {
+        return new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(DataChunk item) {
+                chunks.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                throw new IllegalStateException(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        };
+    }
+
+    private static int count(String text, String line) {
+        return text.split(line, -1).length - 1;
+    }
+
+    private static byte[] concat(List<byte[]> chunks) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        chunks.forEach(result::writeBytes);
+        return result.toByteArray();
+    }
+
+    private static List<byte[]> collect(Flow.Publisher<DataChunk> publisher) {
+        List<byte[]> chunks = new ArrayList<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(DataChunk item) {
+                ByteBuffer data = item.data();
+                byte[] bytes = new byte[data.remaining()];
+                data.get(bytes);
+                item.release();
+                chunks.add(bytes);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                throw new IllegalStateException(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        return chunks;
+    }
+}
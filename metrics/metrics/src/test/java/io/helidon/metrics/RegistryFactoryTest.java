@@ -23,11 +23,14 @@ import io.helidon.config.ConfigSources;
 
 import org.eclipse.microprofile.metrics.Counter;
 import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Metadata;
 import org.eclipse.microprofile.metrics.MetricID;
 import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -58,7 +61,9 @@ public class RegistryFactoryTest {
         Config config = Config.builder()
                 .sources(ConfigSources.create(Map.of(
                         "base." + METRIC_USED_HEAP.getName() + ".enabled",
-                        "false")))
+                        "false",
+                        RegistryFactory.RESERVOIR_TYPE_KEY,
+                        "log-linear")))
                 .build();
         configured = RegistryFactory.create(config);
 
@@ -116,6 +121,20 @@ public class RegistryFactoryTest {
         assertSame(c1, c2);
     }
 
+    @Test
+    void testReservoirType() {
+        Metadata metadata = Metadata.builder()
+                .withName("explicit.histogram")
+                .withType(MetricType.HISTOGRAM)
+                .build();
+
+        assertThat(app.histogram("new.histogram").getSnapshot(), instanceOf(LogLinearReservoir.LogLinearSnapshot.class));
+        assertThat(app.timer("new.timer").getSnapshot(), instanceOf(LogLinearReservoir.LogLinearSnapshot.class));
+        assertThat(appUn.histogram("new.histogram").getSnapshot(), instanceOf(WeightedSnapshot.class));
+        assertThat(((Registry) appUn).histogram(metadata, ReservoirType.LOG_LINEAR).getSnapshot(),
+                   instanceOf(LogLinearReservoir.LogLinearSnapshot.class));
+    }
+
     @Test
     void testPackageVendorModifiable() {
         Counter c1 = vendorMod.counter("new.counter");
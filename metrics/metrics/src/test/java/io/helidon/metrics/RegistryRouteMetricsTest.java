@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.webserver.RouteMetrics;
+
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Unit test for {@link RegistryRouteMetrics}.
+ */
+class RegistryRouteMetricsTest {
+
+    private static final Tag[] TAGS = {new Tag("method", "GET"), new Tag("route", "/greet/{name}")};
+
+    @Test
+    void testRecorder() {
+        Registry vendor = new Registry(MetricRegistry.Type.VENDOR, TestClock.create());
+        RegistryRouteMetrics routeMetrics = new RegistryRouteMetrics(vendor);
+        RouteMetrics.Recorder recorder = routeMetrics.recorder("GET", "/greet/{name}");
+        assertThat(routeMetrics.recorder("GET", "/greet/{name}"), sameInstance(recorder));
+
+        recorder.enter();
+        assertThat(vendor.getGauges().get(new MetricID(RegistryRouteMetrics.IN_FLIGHT_NAME, TAGS)).getValue(), is(1L));
+        recorder.exit();
+        recorder.complete(200, false, TimeUnit.MILLISECONDS.toNanos(5));
+        recorder.enter();
+        recorder.exit();
+        recorder.complete(503, false, TimeUnit.MILLISECONDS.toNanos(7));
+        recorder.complete(200, true, TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertThat(vendor.getGauges().get(new MetricID(RegistryRouteMetrics.IN_FLIGHT_NAME, TAGS)).getValue(), is(0L));
+        assertThat(vendor.getTimers().get(new MetricID(RegistryRouteMetrics.DURATION_NAME, TAGS)).getCount(), is(3L));
+        assertThat(vendor.getCounters().get(new MetricID(RegistryRouteMetrics.ERRORS_NAME, TAGS)).getCount(), is(2L));
+    }
+
+    @Test
+    void testNotExpired() {
+        TestClock clock = TestClock.create();
+        Registry vendor = new Registry(MetricRegistry.Type.VENDOR, clock);
+        vendor.seriesTtl(Duration.ofMinutes(1));
+        new RegistryRouteMetrics(vendor).recorder("GET", "/greet/{name}");
+
+        for (int i = 0; i < 4; i++) {
+            clock.add(1, TimeUnit.MINUTES);
+            vendor.getCounters();
+        }
+        assertThat(vendor.getCounters().containsKey(new MetricID(RegistryRouteMetrics.ERRORS_NAME, TAGS)), is(true));
+        assertThat(vendor.getTimers().containsKey(new MetricID(RegistryRouteMetrics.DURATION_NAME, TAGS)), is(true));
+    }
+}
@@ -16,18 +16,28 @@
 
 package io.helidon.metrics;
 
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.microprofile.metrics.Counter;
 import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricID;
 import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.eclipse.microprofile.metrics.MetricType;
 import org.eclipse.microprofile.metrics.MetricUnits;
 import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
 import org.hamcrest.core.IsSame;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
@@ -106,4 +116,85 @@ public class RegistryTest {
                 () -> registry.counter(metadata2, tag1));
         assertThat(ex.getMessage(), containsString("conflicts with"));
     }
+
+    @Test
+    void testSeriesLimit() {
+        Registry limited = new Registry(MetricRegistry.Type.APPLICATION, TestClock.create());
+        limited.maxSeriesPerName(2);
+
+        Counter first = limited.counter("requests", new Tag("path", "/a"));
+        limited.counter("requests", new Tag("path", "/b"));
+        Counter overflow = limited.counter("requests", new Tag("path", "/c"));
+        overflow.inc();
+        limited.counter("requests", new Tag("path", "/d")).inc();
+
+        assertThat(limited.counter("requests", new Tag("path", "/a")), IsSame.sameInstance(first));
+        assertThat(overflow, IsSame.sameInstance(limited.getCounters().get(new MetricID("requests", Registry.OVERFLOW_TAG))));
+        assertThat(overflow.getCount(), is(2L));
+        assertThat(limited.rejectedSeries().getCount(), is(2L));
+        assertThat(limited.counter("untagged"), notNullValue());
+    }
+
+    @Test
+    void testSeriesTtl() {
+        TestClock clock = TestClock.create();
+        Registry expiring = new Registry(MetricRegistry.Type.APPLICATION, clock);
+        expiring.seriesTtl(Duration.ofMinutes(1));
+
+        Counter idle = expiring.counter("hits", new Tag("user", "idle"));
+        Counter active = expiring.counter("hits", new Tag("user", "active"));
+        expiring.counter("total");
+        idle.inc();
+        active.inc();
+        assertThat(expiring.getCounters().size(), is(3));
+
+        for (int i = 0; i < 4; i++) {
+            clock.add(30, TimeUnit.SECONDS);
+            active.inc();
+            expiring.getCounters();
+        }
+
+        Set<MetricID> ids = expiring.getCounters().keySet();
+        assertThat(ids, not(hasItem(new MetricID("hits", new Tag("user", "idle")))));
+        assertThat(ids, hasItem(new MetricID("hits", new Tag("user", "active"))));
+        assertThat(ids, hasItem(new MetricID("total")));
+        assertThat(expiring.expiredSeries().getCount(), is(1L));
+    }
+
+    @Test
+    void testExpiredSeriesRestored() {
+        TestClock clock = TestClock.create();
+        Registry expiring = new Registry(MetricRegistry.Type.APPLICATION, clock);
+        expiring.seriesTtl(Duration.ofMinutes(1));
+        MetricID updatedID = new MetricID("hits", new Tag("user", "updated"));
+        MetricID lookedUpID = new MetricID("hits", new Tag("user", "lookedUp"));
+
+        // references kept, e.g. by interceptors or application code
+        Counter updated = expiring.counter("hits", new Tag("user", "updated"));
+        Timer lookedUp = expiring.timer("hits.time", new Tag("user", "lookedUp"));
+        Counter lookedUpCounter = expiring.counter("hits", new Tag("user", "lookedUp"));
+        updated.inc();
+        lookedUp.update(1, TimeUnit.SECONDS);
+        lookedUpCounter.inc();
+
+        for (int i = 0; i < 4; i++) {
+            clock.add(30, TimeUnit.SECONDS);
+            expiring.getCounters();
+        }
+        assertThat(expiring.getCounters().keySet(), not(hasItem(updatedID)));
+        assertThat(expiring.getTimers().keySet(), not(hasItem(new MetricID("hits.time", new Tag("user", "lookedUp")))));
+        assertThat(expiring.expiredSeries().getCount(), is(3L));
+
+        // updating an expired metric registers its series again
+        updated.inc();
+        assertThat(expiring.getCounters().get(updatedID), IsSame.sameInstance(updated));
+        assertThat(updated.getCount(), is(2L));
+        lookedUp.update(1, TimeUnit.SECONDS);
+        assertThat(expiring.getTimers().get(new MetricID("hits.time", new Tag("user", "lookedUp"))),
+                   IsSame.sameInstance(lookedUp));
+
+        // looking up an expired series returns the metric still referenced
+        assertThat(expiring.counter("hits", new Tag("user", "lookedUp")), IsSame.sameInstance(lookedUpCounter));
+        assertThat(expiring.getCounters().get(lookedUpID).getCount(), is(1L));
+    }
 }
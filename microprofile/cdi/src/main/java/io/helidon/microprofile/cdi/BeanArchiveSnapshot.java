@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.microprofile.cdi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.jboss.weld.environment.deployment.WeldBeanDeploymentArchive;
+import org.jboss.weld.environment.deployment.discovery.BeanArchiveScanner;
+
+/**
+ * Snapshot of CDI bean archives discovered at build time, used by {@link SnapshotDiscoveryStrategy} to avoid
+ * scanning classes when the container starts.
+ * <p>
+ * Each bean archive is identified by a digest of its class files and {@code beans.xml}, so the snapshot is
+ * ignored as soon as any bean archive on the classpath is added, removed or changed.
+ * <p>
+ * The snapshot is created by running this class with the classpath of the application and the target file as
+ * the only argument, once the application classes are compiled (for example using the {@code exec} goal of the
+ * {@code exec-maven-plugin} in the {@code process-classes} phase):
+ * <pre>
+ * java -cp target/classes:target/libs/* io.helidon.microprofile.cdi.BeanArchiveSnapshot \
+ *     target/classes/META-INF/helidon/cdi-snapshot.properties
+ * </pre>
+ */
+public final class BeanArchiveSnapshot {
+    /**
+     * Classpath location of the snapshot.
+     */
+    static final String LOCATION = "META-INF/helidon/cdi-snapshot.properties";
+
+    private static final String BEANS_XML = "META-INF/beans.xml";
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final List<Archive> archives;
+
+    private BeanArchiveSnapshot(List<Archive> archives) {
+        this.archives = archives;
+    }
+
+    /**
+     * Initialize the CDI container (without starting it) and record the discovered bean archives.
+     *
+     * @param args path of the snapshot file to create
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Path of the snapshot file is required, it should be "
+                                                       + LOCATION + " in the application classes directory");
+        }
+        SnapshotDiscoveryStrategy.recordTo(Paths.get(args[0]));
+        HelidonContainerImpl.create();
+    }
+
+    static BeanArchiveSnapshot create(List<BeanArchiveScanner.ScanResult> scanned,
+                                      Set<WeldBeanDeploymentArchive> discovered) throws IOException {
+        Map<String, WeldBeanDeploymentArchive> byId = new HashMap<>();
+        discovered.forEach(it -> byId.put(it.getId(), it));
+
+        List<Archive> archives = new ArrayList<>(scanned.size());
+        for (BeanArchiveScanner.ScanResult result : scanned) {
+            WeldBeanDeploymentArchive archive = byId.get(result.getBeanArchiveId());
+            // empty archives are not deployed, but must be part of the snapshot to detect changes
+            archives.add(new Archive(digest(result.getBeanArchiveRef()),
+                                     (null == archive) ? List.of() : archive.getBeanClasses(),
+                                     (null == archive) ? List.of() : archive.getKnownClasses()));
+        }
+        return new BeanArchiveSnapshot(archives);
+    }
+
+    static BeanArchiveSnapshot load(InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load(in);
+
+        int count = Integer.parseInt(properties.getProperty("archives", "0"));
+        List<Archive> archives = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String prefix = "archive." + i + ".";
+            archives.add(new Archive(properties.getProperty(prefix + "digest"),
+                                     split(properties.getProperty(prefix + "bean-classes")),
+                                     split(properties.getProperty(prefix + "known-classes"))));
+        }
+        return new BeanArchiveSnapshot(archives);
+    }
+
+    void write(Path path) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("archives", String.valueOf(archives.size()));
+        for (int i = 0; i < archives.size(); i++) {
+            Archive archive = archives.get(i);
+            String prefix = "archive." + i + ".";
+            properties.setProperty(prefix + "digest", archive.digest);
+            properties.setProperty(prefix + "bean-classes", String.join(",", archive.beanClasses));
+            properties.setProperty(prefix + "known-classes", String.join(",", archive.knownClasses));
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (null != parent) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream out = Files.newOutputStream(path)) {
+            properties.store(out, "CDI bean archives, generated at build time");
+        }
+    }
+
+    /**
+     * Bean deployment archives for the bean archives found on the classpath.
+     *
+     * @param scanned bean archives found on the classpath
+     * @return archives to deploy, or {@code null} if the bean archives do not match this snapshot
+     * @throws IOException in case a bean archive cannot be read
+     */
+    Set<WeldBeanDeploymentArchive> archives(List<BeanArchiveScanner.ScanResult> scanned) throws IOException {
+        if (scanned.size() != archives.size()) {
+            return null;
+        }
+        Map<String, Archive> byDigest = new HashMap<>();
+        archives.forEach(it -> byDigest.put(it.digest, it));
+
+        Set<WeldBeanDeploymentArchive> result = new HashSet<>();
+        for (BeanArchiveScanner.ScanResult scanResult : scanned) {
+            Archive archive = byDigest.get(digest(scanResult.getBeanArchiveRef()));
+            if (null == archive) {
+                return null;
+            }
+            if (!archive.beanClasses.isEmpty() || !archive.knownClasses.isEmpty()) {
+                result.add(new WeldBeanDeploymentArchive(scanResult.getBeanArchiveId(),
+                                                         archive.beanClasses,
+                                                         archive.knownClasses,
+                                                         scanResult.getBeansXml()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Digest of class files and {@code beans.xml} of a bean archive (directory or jar file).
+     * The digest does not depend on the kind of the archive, nor on its location.
+     *
+     * @param ref bean archive reference as provided by Weld
+     * @return hex encoded digest
+     * @throws IOException in case the archive cannot be read
+     */
+    static String digest(String ref) throws IOException {
+        Path path = toPath(ref);
+        // entry name to size and CRC
+        Map<String, String> entries = new TreeMap<>();
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.walk(path)) {
+                for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                    String name = path.relativize(file).toString().replace('\\', '/');
+                    if (isDigested(name)) {
+                        byte[] bytes = Files.readAllBytes(file);
+                        CRC32 crc = new CRC32();
+                        crc.update(bytes);
+                        entries.put(name, bytes.length + ":" + crc.getValue());
+                    }
+                }
+            }
+        } else {
+            try (ZipFile zipFile = new ZipFile(path.toFile())) {
+                Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+                while (zipEntries.hasMoreElements()) {
+                    ZipEntry entry = zipEntries.nextElement();
+                    if (!entry.isDirectory() && isDigested(entry.getName())) {
+                        entries.put(entry.getName(), entry.getSize() + ":" + entry.getCrc());
+                    }
+                }
+            }
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+        entries.forEach((name, value) -> {
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '=');
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        });
+
+        StringBuilder result = new StringBuilder();
+        for (byte b : digest.digest()) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+
+    private static boolean isDigested(String name) {
+        return name.endsWith(CLASS_SUFFIX) || name.equals(BEANS_XML);
+    }
+
+    private static Path toPath(String ref) {
+        String path = ref;
+        int jarSeparator = path.indexOf("!/");
+        if (jarSeparator > 0) {
+            path = path.substring(0, jarSeparator);
+        }
+        if (path.startsWith("jar:")) {
+            path = path.substring("jar:".length());
+        }
+        if (path.startsWith("file:")) {
+            return Paths.get(URI.create(path));
+        }
+        return Paths.get(path);
+    }
+
+    private static Collection<String> split(String value) {
+        if (null == value || value.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.asList(value.split(","));
+    }
+
+    private static final class Archive {
+        private final String digest;
+        private final Collection<String> beanClasses;
+        private final Collection<String> knownClasses;
+
+        private Archive(String digest, Collection<String> beanClasses, Collection<String> knownClasses) {
+            this.digest = digest;
+            this.beanClasses = beanClasses;
+            this.knownClasses = knownClasses;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.microprofile.cdi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jboss.weld.bootstrap.api.Bootstrap;
+import org.jboss.weld.environment.deployment.WeldBeanDeploymentArchive;
+import org.jboss.weld.environment.deployment.discovery.BeanArchiveHandler;
+import org.jboss.weld.environment.deployment.discovery.BeanArchiveScanner;
+import org.jboss.weld.environment.deployment.discovery.DefaultBeanArchiveScanner;
+import org.jboss.weld.environment.deployment.discovery.DiscoveryStrategy;
+import org.jboss.weld.environment.deployment.discovery.ReflectionDiscoveryStrategy;
+import org.jboss.weld.environment.deployment.discovery.jandex.Jandex;
+import org.jboss.weld.resources.spi.ClassFileServices;
+import org.jboss.weld.resources.spi.ResourceLoader;
+
+/**
+ * Bean archive discovery using a {@link BeanArchiveSnapshot} created at build time.
+ * <p>
+ * Bean archives are still located (which only requires finding {@code beans.xml} files), but classes are not
+ * scanned if the content of each archive matches the snapshot. If there is no snapshot, or the classpath changed
+ * since it was created, discovery is delegated to the strategy Weld would use otherwise.
+ * <p>
+ * This class is registered as a Weld service and is not intended to be used directly.
+ */
+public final class SnapshotDiscoveryStrategy implements DiscoveryStrategy {
+    private static final Logger LOGGER = Logger.getLogger(SnapshotDiscoveryStrategy.class.getName());
+    private static volatile Path recordTo;
+
+    private ResourceLoader resourceLoader;
+    private Bootstrap bootstrap;
+    private Set<Class<? extends Annotation>> initialBeanDefiningAnnotations;
+    private BeanArchiveScanner scanner;
+    private DiscoveryStrategy delegate;
+
+    /**
+     * Required by the service loader.
+     */
+    public SnapshotDiscoveryStrategy() {
+    }
+
+    /**
+     * Record a snapshot of discovered bean archives to the path, instead of using an existing one.
+     *
+     * @param path snapshot file to create
+     */
+    static void recordTo(Path path) {
+        recordTo = path;
+    }
+
+    @Override
+    public void setResourceLoader(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
+    @Override
+    public void setBootstrap(Bootstrap bootstrap) {
+        this.bootstrap = bootstrap;
+    }
+
+    @Override
+    public void setInitialBeanDefiningAnnotations(Set<Class<? extends Annotation>> initialBeanDefiningAnnotations) {
+        this.initialBeanDefiningAnnotations = initialBeanDefiningAnnotations;
+    }
+
+    @Override
+    public void setScanner(BeanArchiveScanner scanner) {
+        // only set for implicit scanning of the whole classpath, which is never snapshot
+        this.scanner = scanner;
+        delegate().setScanner(scanner);
+    }
+
+    @Override
+    public void registerHandler(BeanArchiveHandler handler) {
+        delegate().registerHandler(handler);
+    }
+
+    @Override
+    public Set<WeldBeanDeploymentArchive> performDiscovery() {
+        Path snapshotPath = recordTo;
+        if (null != snapshotPath) {
+            List<BeanArchiveScanner.ScanResult> scanned = new DefaultBeanArchiveScanner(resourceLoader, bootstrap).scan();
+            Set<WeldBeanDeploymentArchive> archives = delegate().performDiscovery();
+            try {
+                BeanArchiveSnapshot.create(scanned, archives).write(snapshotPath);
+                LOGGER.info("CDI bean archive snapshot written to " + snapshotPath);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write CDI bean archive snapshot to " + snapshotPath, e);
+            }
+            return archives;
+        }
+
+        if (null == scanner) {
+            Set<WeldBeanDeploymentArchive> archives = fromSnapshot();
+            if (null != archives) {
+                return archives;
+            }
+        }
+
+        return delegate().performDiscovery();
+    }
+
+    @Override
+    public ClassFileServices getClassFileServices() {
+        return (null == delegate) ? null : delegate.getClassFileServices();
+    }
+
+    private Set<WeldBeanDeploymentArchive> fromSnapshot() {
+        URL resource = resourceLoader.getResource(BeanArchiveSnapshot.LOCATION);
+        if (null == resource) {
+            return null;
+        }
+        try (InputStream in = resource.openStream()) {
+            BeanArchiveSnapshot snapshot = BeanArchiveSnapshot.load(in);
+            Set<WeldBeanDeploymentArchive> archives = snapshot
+                    .archives(new DefaultBeanArchiveScanner(resourceLoader, bootstrap).scan());
+            if (null == archives) {
+                LOGGER.fine(() -> "CDI bean archive snapshot " + resource + " does not match the classpath, scanning");
+                return null;
+            }
+            archives.forEach(it -> it.getServices().add(ResourceLoader.class, resourceLoader));
+            LOGGER.fine(() -> "Using CDI bean archive snapshot " + resource);
+            return archives;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, e, () -> "Failed to use CDI bean archive snapshot " + resource + ", scanning");
+            return null;
+        }
+    }
+
+    private DiscoveryStrategy delegate() {
+        if (null == delegate) {
+            delegate = createDelegate();
+        }
+        return delegate;
+    }
+
+    // same choice as Weld's DiscoveryStrategyFactory
+    private DiscoveryStrategy createDelegate() {
+        if (Jandex.isJandexAvailable(resourceLoader) && !Boolean.getBoolean(Jandex.DISABLE_JANDEX_DISCOVERY_STRATEGY)) {
+            try {
+                return Jandex.createJandexDiscoveryStrategy(resourceLoader, bootstrap, initialBeanDefiningAnnotations);
+            } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException | InstantiationException e) {
+                throw new IllegalStateException("Failed to create Jandex discovery strategy", e);
+            }
+        }
+        return new ReflectionDiscoveryStrategy(resourceLoader, bootstrap, initialBeanDefiningAnnotations);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.microprofile.cdi;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.weld.bootstrap.spi.BeansXml;
+import org.jboss.weld.environment.deployment.WeldBeanDeploymentArchive;
+import org.jboss.weld.environment.deployment.discovery.BeanArchiveScanner;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * Unit test for {@link BeanArchiveSnapshot}.
+ */
+class BeanArchiveSnapshotTest {
+    @Test
+    void testDigestChangesWithClasses() throws IOException {
+        Path archive = archive();
+        String digest = BeanArchiveSnapshot.digest(archive.toString());
+
+        assertThat(BeanArchiveSnapshot.digest(archive.toUri().toString()), is(digest));
+
+        // only class files and beans.xml are relevant
+        Files.writeString(archive.resolve("application.yaml"), "app: changed");
+        assertThat(BeanArchiveSnapshot.digest(archive.toString()), is(digest));
+
+        Files.write(archive.resolve("test/Bean.class"), new byte[] {1, 2, 4});
+        assertThat(BeanArchiveSnapshot.digest(archive.toString()), is(not(digest)));
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Path archive = archive();
+        List<BeanArchiveScanner.ScanResult> scanned = List.of(new BeanArchiveScanner.ScanResult(BeansXml.EMPTY_BEANS_XML,
+                                                                                                 archive.toString()));
+        WeldBeanDeploymentArchive discovered = new WeldBeanDeploymentArchive(archive.toString(),
+                                                                             List.of("test.Bean"),
+                                                                             List.of("test.Bean", "test.Other"),
+                                                                             BeansXml.EMPTY_BEANS_XML);
+
+        Path snapshotFile = Files.createTempFile("cdi-snapshot", ".properties");
+        BeanArchiveSnapshot.create(scanned, Set.of(discovered)).write(snapshotFile);
+
+        BeanArchiveSnapshot snapshot;
+        try (InputStream in = Files.newInputStream(snapshotFile)) {
+            snapshot = BeanArchiveSnapshot.load(in);
+        }
+        Set<WeldBeanDeploymentArchive> archives = snapshot.archives(scanned);
+        assertThat(archives, notNullValue());
+        assertThat(archives, hasSize(1));
+        WeldBeanDeploymentArchive restored = archives.iterator().next();
+        assertThat(restored.getId(), is(archive.toString()));
+        assertThat(restored.getBeanClasses(), contains("test.Bean"));
+        assertThat(restored.getKnownClasses(), contains("test.Bean", "test.Other"));
+
+        Files.write(archive.resolve("test/Added.class"), new byte[] {5});
+        assertThat(snapshot.archives(scanned), nullValue());
+    }
+
+    @Test
+    void testArchiveCountMismatch() throws IOException {
+        Path archive = archive();
+        List<BeanArchiveScanner.ScanResult> scanned = List.of(new BeanArchiveScanner.ScanResult(BeansXml.EMPTY_BEANS_XML,
+                                                                                                 archive.toString()));
+        BeanArchiveSnapshot snapshot = BeanArchiveSnapshot.load(new ByteArrayInputStream(new byte[0]));
+
+        assertThat(snapshot.archives(scanned), nullValue());
+    }
+
+    private static Path archive() throws IOException {
+        Path archive = Files.createTempDirectory("bean-archive");
+        Files.createDirectories(archive.resolve("META-INF"));
+        Files.createDirectories(archive.resolve("test"));
+        Files.writeString(archive.resolve("META-INF/beans.xml"), "<beans/>");
+        Files.write(archive.resolve("test/Bean.class"), new byte[] {1, 2, 3});
+        Files.write(archive.resolve("test/Other.class"), new byte[] {3, 2, 1});
+        return archive;
+    }
+}
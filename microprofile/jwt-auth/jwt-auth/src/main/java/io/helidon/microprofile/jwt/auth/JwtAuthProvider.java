@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.io.StringReader;
 import java.lang.annotation.Annotation;
 import java.net.MalformedURLException;
+import java.net.URI;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
@@ -37,6 +38,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -73,6 +75,7 @@ import io.helidon.security.jwt.jwk.JwkRSA;
 import io.helidon.security.providers.common.OutboundConfig;
 import io.helidon.security.providers.common.OutboundTarget;
 import io.helidon.security.providers.common.TokenCredential;
+import io.helidon.security.providers.common.VerifiedTokenCache;
 import io.helidon.security.spi.AuthenticationProvider;
 import io.helidon.security.spi.OutboundSecurityProvider;
 import io.helidon.security.spi.SynchronousProvider;
@@ -116,6 +119,7 @@ public class JwtAuthProvider extends SynchronousProvider implements Authenticati
     private final Jwk defaultJwk;
     private final Map<OutboundTarget, JwtOutboundTarget> targetToJwtConfig = new IdentityHashMap<>();
     private final String expectedIssuer;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     private JwtAuthProvider(Builder builder) {
         this.optional = builder.optional;
@@ -131,6 +135,7 @@ public class JwtAuthProvider extends SynchronousProvider implements Authenticati
         this.expectedAudience = builder.expectedAudience;
         this.defaultJwk = builder.defaultJwk;
         this.expectedIssuer = builder.expectedIssuer;
+        this.verifiedTokenCache = builder.verifiedTokenCache;
 
         if (null == atnTokenHandler) {
             defaultTokenHandler = TokenHandler.builder()
@@ -166,6 +171,12 @@ public class JwtAuthProvider extends SynchronousProvider implements Authenticati
         return Set.of(LoginConfig.class);
     }
 
+    @Override
+    protected boolean isNonBlocking() {
+        // keys from a remote mp.jwt.verify.publickey.location are refreshed, which may block on an unknown key id
+        return (null == verifyKeys) || !verifyKeys.isRefreshing();
+    }
+
     @Override
     protected AuthenticationResponse syncAuthenticate(ProviderRequest providerRequest) {
         if (!authenticate) {
@@ -201,6 +212,12 @@ public class JwtAuthProvider extends SynchronousProvider implements Authenticati
 
         return maybeToken
                 .map(token -> {
+                    if (null != verifiedTokenCache) {
+                        Optional<Subject> cached = verifiedTokenCache.get(token);
+                        if (cached.isPresent()) {
+                            return AuthenticationResponse.success(cached.get());
+                        }
+                    }
                     SignedJwt signedJwt;
                     try {
                         signedJwt = SignedJwt.parseToken(token);
@@ -214,7 +231,11 @@ public class JwtAuthProvider extends SynchronousProvider implements Authenticati
                         // verify the audience is correct
                         Errors validate = jwt.validate(expectedIssuer, expectedAudience);
                         if (validate.isValid()) {
-                            return AuthenticationResponse.success(buildSubject(jwt, signedJwt));
+                            Subject subject = buildSubject(jwt, signedJwt);
+                            if (null != verifiedTokenCache) {
+                                verifiedTokenCache.put(token, subject, jwt.notBefore(), jwt.expirationTime());
+                            }
+                            return AuthenticationResponse.success(subject);
                         } else {
                             return AuthenticationResponse.failed("Audience is invalid or missing: " + expectedAudience);
                         }
@@ -230,6 +251,15 @@ public class JwtAuthProvider extends SynchronousProvider implements Authenticati
                 });
     }
 
+    /**
+     * Cache of verified tokens, if configured.
+     *
+     * @return verified token cache, empty if tokens are verified on each request
+     */
+    public Optional<VerifiedTokenCache> verifiedTokenCache() {
+        return Optional.ofNullable(verifiedTokenCache);
+    }
+
     Subject buildSubject(Jwt jwt, SignedJwt signedJwt) {
         JsonWebTokenImpl principal = buildPrincipal(jwt, signedJwt);
 
@@ -520,7 +550,9 @@ public class JwtAuthProvider extends SynchronousProvider implements Authenticati
         private String issuer;
         private String expectedAudience;
         private String publicKeyPath;
+        private Config jwkRefresh = Config.empty();
         private String publicKey;
+        private VerifiedTokenCache verifiedTokenCache;
 
         private Builder() {
         }
@@ -574,13 +606,23 @@ public class JwtAuthProvider extends SynchronousProvider implements Authenticati
                     })
                     .orElseGet(() -> {
                         try (InputStream is = locateStream(uri)) {
-                            return getPublicKeyFromContent(is);
+                            String content = new String(is.readAllBytes(), UTF_8);
+                            if (isRemote(uri) && content.startsWith(JSON_START_MARK) && content.contains("keys")) {
+                                // JWKS of an identity server, which may rotate its keys
+                                return refreshingJwkKeys(Resource.create(uri, content),
+                                                         () -> Resource.create(URI.create(uri)));
+                            }
+                            return loadJwkKeys(content);
                         } catch (IOException e) {
                             throw new SecurityException("Failed to load public key(s) from : " + uri, e);
                         }
                     });
         }
 
+        private static boolean isRemote(String uri) {
+            return uri.startsWith("http://") || uri.startsWith("https://");
+        }
+
         private Optional<Path> locatePath(String uri) {
             try {
                 Path path = Paths.get(uri);
@@ -618,10 +660,6 @@ public class JwtAuthProvider extends SynchronousProvider implements Authenticati
             return is;
         }
 
-        private JwkKeys getPublicKeyFromContent(InputStream bufferedInputStream) throws IOException {
-            return loadJwkKeys(new String(bufferedInputStream.readAllBytes(), UTF_8));
-        }
-
         private JwkKeys loadJwkKeys(String stringContent) {
             Matcher m = PUBLIC_KEY_PATTERN.matcher(stringContent);
             if (m.find()) {
@@ -775,6 +813,18 @@ public class JwtAuthProvider extends SynchronousProvider implements Authenticati
             return this;
         }
 
+        /**
+         * JWK keys used to verify JWTs created by other parties, such as keys refreshed from an identity server.
+         *
+         * @param verifyKeys keys to verify signatures with
+         * @return updated builder instance
+         * @see JwkKeys.Builder#refreshResource(Supplier)
+         */
+        public Builder verifyJwk(JwkKeys verifyKeys) {
+            this.verifyKeys = verifyKeys;
+            return this;
+        }
+
         /**
          * Issuer used to create new JWTs.
          *
@@ -850,6 +900,7 @@ public class JwtAuthProvider extends SynchronousProvider implements Authenticati
             config.get("atn-token.jwt-audience").asString().ifPresent(this::expectedAudience);
             config.get("atn-token.default-key-id").asString().ifPresent(this::defaultKeyId);
             config.get("atn-token.verify-key").asString().ifPresent(this::publicKeyPath);
+            config.get("atn-token.verified-token-cache").ifExists(cache -> verifiedTokenCache(VerifiedTokenCache.create(cache)));
             config.get("sign-token").ifExists(outbound -> outboundConfig(OutboundConfig.create(outbound)));
             config.get("sign-token").ifExists(this::outbound);
 
@@ -862,6 +913,18 @@ public class JwtAuthProvider extends SynchronousProvider implements Authenticati
             return this;
         }
 
+        /**
+         * Cache of verified tokens, so a token presented again is not parsed and verified again
+         * until it expires. Tokens are verified on each request by default.
+         *
+         * @param cache cache to use, each provider instance needs its own cache
+         * @return updated builder instance
+         */
+        public Builder verifiedTokenCache(VerifiedTokenCache cache) {
+            this.verifiedTokenCache = cache;
+            return this;
+        }
+
         /**
          * Expected issuer in incoming requests.
          *
@@ -885,8 +948,22 @@ public class JwtAuthProvider extends SynchronousProvider implements Authenticati
         }
 
         private void verifyKeys(Config config) {
-            Resource.create(config, "jwk")
-                    .map(this::verifyJwk);
+            this.jwkRefresh = config.get("jwk-refresh");
+            Resource.create(config, "jwk").ifPresent(resource -> {
+                if (resource.sourceType() == Resource.Source.URL) {
+                    verifyJwk(refreshingJwkKeys(resource, () -> Resource.create(config, "jwk").get()));
+                } else {
+                    verifyJwk(resource);
+                }
+            });
+        }
+
+        // keys published on a URL may be rotated, the first resource is used for the first load
+        private JwkKeys refreshingJwkKeys(Resource first, Supplier<Resource> next) {
+            return JwkKeys.builder()
+                    .config(jwkRefresh)
+                    .refreshResource(first, next)
+                    .build();
         }
 
         private void outbound(Config config) {
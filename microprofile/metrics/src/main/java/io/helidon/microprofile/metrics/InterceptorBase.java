@@ -83,6 +83,7 @@ abstract class InterceptorBase<T extends Metric, A extends Annotation> {
     private final Function<A, Boolean> isAbsoluteFunction;
     private final Function<MetricRegistry, SortedMap<MetricID, T>> metricsMapFunction;
     private final String metricTypeName;
+    private final MetricBindings.Sites<T, A> sites;
 
     InterceptorBase(MetricRegistry registry,
                     Class<A> annotationClass,
@@ -98,6 +99,7 @@ abstract class InterceptorBase<T extends Metric, A extends Annotation> {
         this.isAbsoluteFunction = isAbsoluteFunction;
         this.metricsMapFunction = metricsMapFunction;
         this.metricTypeName = metricTypeName;
+        this.sites = MetricsCdiExtension.metricBindings().sites(annotationClass);
     }
 
     protected <T> Optional<T> getMetric(Map<MetricID, T> metricMap, MetricID metricID) {
@@ -127,17 +129,14 @@ abstract class InterceptorBase<T extends Metric, A extends Annotation> {
     }
 
     private <E extends Member & AnnotatedElement> Object called(InvocationContext context, E element) throws Exception {
-        MetricUtil.LookupResult<A> lookupResult = lookupAnnotation(element, annotationClass, getClass(context, element));
-        if (lookupResult != null) {
-            A annot = lookupResult.getAnnotation();
-            MetricID metricID = getMetricID(element, getClass(context, element), lookupResult.getType(),
-                                              nameFunction.apply(annot), tagsFunction.apply(annot),
-                                              isAbsoluteFunction.apply(annot));
-            Optional<T> metric = getMetric(metricsMapFunction.apply(registry), metricID);
-            T metricInstance = metric.orElseGet(() -> {
-                throw new IllegalStateException("No " + metricTypeName + " with ID [" + metricID
-                                                        + "] found in registry [" + registry + "]");
-            });
+        Class<?> clazz = getClass(context, element);
+        MetricBindings.Binding<T, A> binding = sites.get(element, clazz);
+        if (binding == null) {
+            binding = resolve(element, clazz);
+        }
+        T metricInstance = binding.metric();
+        if (metricInstance != null) {
+            A annot = binding.annotation();
             Exception ex = null;
             try {
                 return prepareAndInvoke(metricInstance, annot, context);
@@ -151,6 +150,44 @@ abstract class InterceptorBase<T extends Metric, A extends Annotation> {
         return context.proceed();
     }
 
+    /**
+     * Looks up the metric of a member which was not bound when the metrics were registered, such as a method annotated
+     * on a superclass invoked on a subclass instance. The result is bound, so the lookup happens only once.
+     *
+     * @param element method or constructor
+     * @param clazz class of the intercepted instance
+     * @param <E> method or constructor type
+     * @return binding of the element, with {@code null} metric if the element is not annotated
+     */
+    private <E extends Member & AnnotatedElement> MetricBindings.Binding<T, A> resolve(E element, Class<?> clazz) {
+        MetricUtil.LookupResult<A> lookupResult = lookupAnnotation(element, annotationClass, clazz);
+        MetricBindings.Binding<T, A> binding;
+        if (lookupResult == null) {
+            binding = new MetricBindings.Binding<>(null, null);
+        } else {
+            A annot = lookupResult.getAnnotation();
+            MetricID metricID = getMetricID(element, clazz, lookupResult.getType(),
+                                              nameFunction.apply(annot), tagsFunction.apply(annot),
+                                              isAbsoluteFunction.apply(annot));
+            Optional<T> metric = getMetric(metricsMapFunction.apply(registry), metricID);
+            if (metric.isPresent()) {
+                binding = new MetricBindings.Binding<>(metric.get(), annot);
+            } else {
+                // not registered under its own ID, e.g. recorded into the overflow series of the name or expired,
+                // registering it again resolves the series used by the registry and binds it
+                MetricsCdiExtension.bindMetric(element, clazz, lookupResult);
+                binding = sites.get(element, clazz);
+                if (binding == null) {
+                    throw new IllegalStateException("No " + metricTypeName + " with ID [" + metricID
+                                                            + "] found in registry [" + registry + "]");
+                }
+                return binding;
+            }
+        }
+        sites.put(element, clazz, binding);
+        return binding;
+    }
+
     /**
      * Performs any logic to be run before the intercepted method is invoked and
      * then invokes {@code context.proceed()}, returning the value returned by
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.microprofile.metrics;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Member;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.microprofile.metrics.Metric;
+
+/**
+ * Metrics of annotated methods and constructors, resolved once when the metrics are registered, so interceptors
+ * do not need to look them up in the registry on each invocation.
+ * <p>
+ * Bindings are keyed by the annotation type, the intercepted member and the class of the intercepted instance (the
+ * same member can be bound to different metrics in subclasses when annotated on class level). Lookups do not allocate.
+ */
+final class MetricBindings {
+
+    private final Map<Class<? extends Annotation>, Sites<?, ?>> sites = new ConcurrentHashMap<>();
+
+    /**
+     * Binds a metric to an annotated member.
+     *
+     * @param annotation metric annotation of the member
+     * @param member annotated method or constructor
+     * @param clazz class of the intercepted instances
+     * @param metric registered metric
+     */
+    void bind(Annotation annotation, Member member, Class<?> clazz, Metric metric) {
+        sites(annotation.annotationType()).put(member, clazz, new Binding<>(metric, annotation));
+    }
+
+    /**
+     * Bindings of a single annotation type.
+     *
+     * @param annotationType type of the metric annotation
+     * @param <T> type of the metric
+     * @param <A> type of the annotation
+     * @return bindings of the annotation type
+     */
+    @SuppressWarnings("unchecked")
+    <T extends Metric, A extends Annotation> Sites<T, A> sites(Class<A> annotationType) {
+        return (Sites<T, A>) sites.computeIfAbsent(annotationType, it -> new Sites<>());
+    }
+
+    void clear() {
+        sites.values().forEach(Sites::clear);
+    }
+
+    /**
+     * Bindings of annotated members to metrics of a single annotation type.
+     *
+     * @param <T> type of the metric
+     * @param <A> type of the annotation
+     */
+    static final class Sites<T extends Metric, A extends Annotation> {
+        private final Map<Member, Map<Class<?>, Binding<T, A>>> bindings = new ConcurrentHashMap<>();
+
+        private Sites() {
+        }
+
+        /**
+         * Binding of a member invoked on an instance of a class.
+         *
+         * @param member intercepted method or constructor
+         * @param clazz class of the intercepted instance
+         * @return binding or {@code null} if not bound yet
+         */
+        Binding<T, A> get(Member member, Class<?> clazz) {
+            Map<Class<?>, Binding<T, A>> byClass = bindings.get(member);
+            return (byClass == null) ? null : byClass.get(clazz);
+        }
+
+        @SuppressWarnings("unchecked")
+        void put(Member member, Class<?> clazz, Binding<?, ?> binding) {
+            bindings.computeIfAbsent(member, it -> new ConcurrentHashMap<>()).put(clazz, (Binding<T, A>) binding);
+        }
+
+        private void clear() {
+            bindings.clear();
+        }
+    }
+
+    /**
+     * A metric bound to an annotated member.
+     *
+     * @param <T> type of the metric
+     * @param <A> type of the annotation
+     */
+    static final class Binding<T extends Metric, A extends Annotation> {
+        private final T metric;
+        private final A annotation;
+
+        Binding(T metric, A annotation) {
+            this.metric = metric;
+            this.annotation = annotation;
+        }
+
+        /**
+         * The metric, {@code null} if the member is not annotated.
+         *
+         * @return the metric
+         */
+        T metric() {
+            return metric;
+        }
+
+        A annotation() {
+            return annotation;
+        }
+    }
+}
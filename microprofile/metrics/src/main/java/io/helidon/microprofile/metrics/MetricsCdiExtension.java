@@ -91,6 +91,8 @@ public class MetricsCdiExtension implements Extension {
     private static final List<Class<? extends Annotation>> METRIC_ANNOTATIONS
             = Arrays.asList(Counted.class, Metered.class, Timed.class, Gauge.class, ConcurrentGauge.class);
 
+    private static final MetricBindings METRIC_BINDINGS = new MetricBindings();
+
     private final Map<Bean<?>, AnnotatedMember<?>> producers = new HashMap<>();
 
     private final Map<MetricID, AnnotatedMethodConfigurator<?>> annotatedGaugeSites = new HashMap<>();
@@ -116,6 +118,20 @@ public class MetricsCdiExtension implements Extension {
     @Deprecated
     public static <E extends Member & AnnotatedElement>
     void registerMetric(E element, Class<?> clazz, LookupResult<? extends Annotation> lookupResult) {
+        bindMetric(element, clazz, lookupResult);
+    }
+
+    /**
+     * Registers the metric of an annotated member (or obtains the series the registry uses for it) and binds it to
+     * the member, see {@link #metricBindings()}.
+     *
+     * @param element element
+     * @param clazz class
+     * @param lookupResult lookup result
+     * @param <E> type of element
+     */
+    static <E extends Member & AnnotatedElement>
+    void bindMetric(E element, Class<?> clazz, LookupResult<? extends Annotation> lookupResult) {
         MetricRegistry registry = getMetricRegistry();
         Annotation annotation = lookupResult.getAnnotation();
 
@@ -128,7 +144,7 @@ public class MetricsCdiExtension implements Extension {
                                                 MetricType.COUNTER,
                                                 counted.unit(),
                                                 counted.reusable());
-            registry.counter(meta, tags(counted.tags()));
+            METRIC_BINDINGS.bind(counted, element, clazz, registry.counter(meta, tags(counted.tags())));
             LOGGER.log(Level.FINE, () -> "Registered counter " + metricName);
         } else if (annotation instanceof Metered) {
             Metered metered = (Metered) annotation;
@@ -139,7 +155,7 @@ public class MetricsCdiExtension implements Extension {
                                                 MetricType.METERED,
                                                 metered.unit(),
                                                 metered.reusable());
-            registry.meter(meta, tags(metered.tags()));
+            METRIC_BINDINGS.bind(metered, element, clazz, registry.meter(meta, tags(metered.tags())));
             LOGGER.log(Level.FINE, () -> "Registered meter " + metricName);
         } else if (annotation instanceof Timed) {
             Timed timed = (Timed) annotation;
@@ -150,7 +166,7 @@ public class MetricsCdiExtension implements Extension {
                                                 MetricType.TIMER,
                                                 timed.unit(),
                                                 timed.reusable());
-            registry.timer(meta, tags(timed.tags()));
+            METRIC_BINDINGS.bind(timed, element, clazz, registry.timer(meta, tags(timed.tags())));
             LOGGER.log(Level.FINE, () -> "Registered timer " + metricName);
         } else if (annotation instanceof ConcurrentGauge) {
             ConcurrentGauge concurrentGauge = (ConcurrentGauge) annotation;
@@ -162,7 +178,10 @@ public class MetricsCdiExtension implements Extension {
                                                 MetricType.CONCURRENT_GAUGE,
                                                 concurrentGauge.unit(),
                                                 concurrentGauge.reusable());
-            registry.concurrentGauge(meta, tags(concurrentGauge.tags()));
+            METRIC_BINDINGS.bind(concurrentGauge,
+                                 element,
+                                 clazz,
+                                 registry.concurrentGauge(meta, tags(concurrentGauge.tags())));
             LOGGER.log(Level.FINE, () -> "Registered concurrent gauge " + metricName);
         }
     }
@@ -194,6 +213,15 @@ public class MetricsCdiExtension implements Extension {
         return result;
     }
 
+    /**
+     * Metrics bound to annotated methods and constructors when they were registered.
+     *
+     * @return metric bindings
+     */
+    static MetricBindings metricBindings() {
+        return METRIC_BINDINGS;
+    }
+
     private static MetricRegistry getMetricRegistry() {
         return RegistryProducer.getDefaultRegistry();
     }
@@ -208,6 +236,7 @@ public class MetricsCdiExtension implements Extension {
 
         // Initialize our implementation
         RegistryProducer.clearApplicationRegistry();
+        METRIC_BINDINGS.clear();
 
         // Register beans manually
         discovery.addAnnotatedType(RegistryProducer.class, "RegistryProducer");
@@ -252,7 +281,7 @@ public class MetricsCdiExtension implements Extension {
                                 && (
                                 lookupResult.getType() != MetricUtil.MatchingType.METHOD
                                         || clazz.equals(m.getDeclaringClass()))) {
-                            registerMetric(m, clazz, lookupResult);
+                            bindMetric(m, clazz, lookupResult);
                         }
                     });
                 });
@@ -264,7 +293,7 @@ public class MetricsCdiExtension implements Extension {
                         LookupResult<? extends Annotation> lookupResult
                                 = lookupAnnotation(constructor.getAnnotated().getJavaMember(), annotation, clazz);
                         if (lookupResult != null) {
-                            registerMetric(constructor.getAnnotated().getJavaMember(), clazz, lookupResult);
+                            bindMetric(constructor.getAnnotated().getJavaMember(), clazz, lookupResult);
                         }
                     });
                 });
@@ -27,11 +27,13 @@ import org.eclipse.microprofile.metrics.Gauge;
 import org.eclipse.microprofile.metrics.Meter;
 import org.eclipse.microprofile.metrics.MetricID;
 import org.eclipse.microprofile.metrics.Timer;
+import org.eclipse.microprofile.metrics.annotation.Timed;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.number.OrderingComparison.greaterThan;
@@ -93,6 +95,18 @@ public class MetricsTest extends MetricsBaseTest {
         assertThat(timer.getMeanRate(), is(greaterThan(0.0)));
     }
 
+    @Test
+    public void testTimedBinding() throws Exception {
+        TimedBean bean = newBean(TimedBean.class);
+        Timer timer = getMetric(bean, "method1");
+        MetricBindings.Binding<Timer, Timed> binding = MetricsCdiExtension.metricBindings()
+                .<Timer, Timed>sites(Timed.class)
+                .get(TimedBean.class.getMethod("method1"), TimedBean.class);
+        // bound when the metric was registered, before the method is invoked
+        assertThat(binding, notNullValue());
+        assertThat(binding.metric(), sameInstance(timer));
+    }
+
     @Test
     public void testInjection() {
         InjectedBean bean = newBean(InjectedBean.class);
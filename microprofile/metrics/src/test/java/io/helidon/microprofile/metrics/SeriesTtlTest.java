@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.microprofile.metrics;
+
+import java.util.Map;
+
+import io.helidon.config.Config;
+import io.helidon.config.ConfigSources;
+import io.helidon.metrics.RegistryFactory;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.Tag;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests that the metric bound to an intercepted method outlives the expiry of its series.
+ */
+public class SeriesTtlTest extends MetricsBaseTest {
+
+    private static final MetricID COUNTER_ID = new MetricID(TaggedCountedBean.COUNTER_NAME, new Tag("kind", "interceptor"));
+
+    @BeforeEach
+    public void setUp() {
+        seriesTtl("PT0.2S");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        seriesTtl("PT0S");
+    }
+
+    @Test
+    public void testInterceptorBoundMetricOutlivesTtl() throws Exception {
+        TaggedCountedBean bean = newBean(TaggedCountedBean.class);
+        bean.method1();
+        Counter counter = getMetricRegistry().getCounters().get(COUNTER_ID);
+        long count = counter.getCount();
+
+        // idle series are removed while the registry is iterated
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (getMetricRegistry().getCounters().containsKey(COUNTER_ID) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(getMetricRegistry().getCounters(), not(hasKey(COUNTER_ID)));
+
+        // the interceptor still updates the bound counter, which registers the series again
+        bean.method1();
+        assertThat(getMetricRegistry().getCounters().get(COUNTER_ID), is(sameInstance(counter)));
+        assertThat(counter.getCount(), is(count + 1));
+    }
+
+    private static void seriesTtl(String ttl) {
+        RegistryFactory.getInstance(Config.builder()
+                                            .sources(ConfigSources.create(Map.of("series.ttl", ttl)))
+                                            .disableEnvironmentVariablesSource()
+                                            .disableSystemPropertiesSource()
+                                            .build());
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package io.helidon.microprofile.openapi;
 
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import io.helidon.openapi.OpenAPISupport;
 
@@ -29,7 +30,7 @@ import org.jboss.jandex.IndexView;
 public final class MPOpenAPIBuilder extends OpenAPISupport.Builder {
 
     private Optional<OpenApiConfig> openAPIConfig;
-    private Optional<IndexView> indexView;
+    private Supplier<IndexView> indexViewSupplier;
 
     @Override
     public OpenApiConfig openAPIConfig() {
@@ -38,7 +39,7 @@ public final class MPOpenAPIBuilder extends OpenAPISupport.Builder {
 
     @Override
     public IndexView indexView() {
-        return indexView.get();
+        return indexViewSupplier.get();
     }
 
     /**
@@ -61,7 +62,19 @@ public final class MPOpenAPIBuilder extends OpenAPISupport.Builder {
      * @return updated builder instance
      */
     public MPOpenAPIBuilder indexView(IndexView indexView) {
-        this.indexView = Optional.of(indexView);
+        this.indexViewSupplier = () -> indexView;
+        return this;
+    }
+
+    /**
+     * Sets the supplier of the IndexView instance to be passed to the smallrye OpenApi impl for
+     * annotation analysis. The supplier is not invoked if precomputed documents are used.
+     *
+     * @param indexViewSupplier supplier of {@link IndexView} instance containing endpoint classes
+     * @return updated builder instance
+     */
+    public MPOpenAPIBuilder indexView(Supplier<IndexView> indexViewSupplier) {
+        this.indexViewSupplier = indexViewSupplier;
         return this;
     }
 
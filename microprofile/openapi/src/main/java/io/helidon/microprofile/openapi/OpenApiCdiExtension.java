@@ -91,16 +91,19 @@ public class OpenApiCdiExtension implements Extension {
     }
 
     void registerOpenApi(@Observes @Initialized(ApplicationScoped.class) Object adv, BeanManager bm) {
-        try {
-            OpenAPISupport openApiSupport = new MPOpenAPIBuilder()
-                    .openAPIConfig(new OpenApiConfigImpl(mpConfig))
-                    .indexView(indexView())
-                    .build();
-
-            openApiSupport.configureEndpoint(RoutingBuilders.create(config.get("openapi")).routingBuilder());
-        } catch (IOException e) {
-            throw new DeploymentException("Failed to obtain index view", e);
-        }
+        OpenAPISupport openApiSupport = new MPOpenAPIBuilder()
+                .openAPIConfig(new OpenApiConfigImpl(mpConfig))
+                .indexView(() -> {
+                    try {
+                        return indexView();
+                    } catch (IOException e) {
+                        throw new DeploymentException("Failed to obtain index view", e);
+                    }
+                })
+                .usePrecomputedDocuments(config.get("openapi.use-precomputed-documents").asBoolean().orElse(false))
+                .build();
+
+        openApiSupport.configureEndpoint(RoutingBuilders.create(config.get("openapi")).routingBuilder());
     }
 
     /**
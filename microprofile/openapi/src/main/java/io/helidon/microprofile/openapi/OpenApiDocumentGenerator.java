@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.microprofile.openapi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.smallrye.openapi.api.OpenApiConfigImpl;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.jandex.Indexer;
+
+/**
+ * Build-time generator of the Jandex index and of the OpenAPI documents of an application.
+ * <p>
+ * Indexes the application classes into {@code META-INF/jandex.idx} (unless the index already exists, for example
+ * created by the {@code jandex-maven-plugin}) and writes the OpenAPI document in all supported formats, so
+ * neither indexing nor annotation scanning happens when the application starts. Documents are served
+ * with an entity tag, so clients can use conditional requests.
+ * <p>
+ * Run this class with the classpath of the application (including its configuration) and the application
+ * classes directory as the only argument, for example using the {@code exec} goal of the
+ * {@code exec-maven-plugin} in the {@code process-classes} phase:
+ * <pre>
+ * java -cp target/classes:target/libs/* io.helidon.microprofile.openapi.OpenApiDocumentGenerator target/classes
+ * </pre>
+ * The generated documents are served only when {@code openapi.use-precomputed-documents} is set to {@code true}.
+ * They reflect the OpenAPI configuration at build time, regenerate them (or remove them) when it changes.
+ */
+public final class OpenApiDocumentGenerator {
+    private static final Logger LOGGER = Logger.getLogger(OpenApiDocumentGenerator.class.getName());
+    private static final String INDEX_PATH = "META-INF/jandex.idx";
+
+    private OpenApiDocumentGenerator() {
+    }
+
+    /**
+     * Generate the index and documents.
+     *
+     * @param args application classes directory
+     * @throws IOException in case of errors reading the classes or writing the results
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Application classes directory is required");
+        }
+        generate(Paths.get(args[0]));
+    }
+
+    static void generate(Path classesDirectory) throws IOException {
+        Index index = index(classesDirectory);
+
+        new MPOpenAPIBuilder()
+                .openAPIConfig(new OpenApiConfigImpl(ConfigProvider.getConfig()))
+                .indexView(index)
+                .usePrecomputedDocuments(false)
+                .build()
+                .writePrecomputedDocuments(classesDirectory);
+
+        LOGGER.info("OpenAPI documents written to " + classesDirectory);
+    }
+
+    private static Index index(Path classesDirectory) throws IOException {
+        Path indexFile = classesDirectory.resolve(INDEX_PATH);
+        if (Files.exists(indexFile)) {
+            try (InputStream in = Files.newInputStream(indexFile)) {
+                return new IndexReader(in).read();
+            }
+        }
+
+        Indexer indexer = new Indexer();
+        List<Path> classFiles;
+        try (Stream<Path> files = Files.walk(classesDirectory)) {
+            classFiles = files.filter(it -> it.toString().endsWith(".class"))
+                    .collect(Collectors.toList());
+        }
+        for (Path classFile : classFiles) {
+            try (InputStream in = Files.newInputStream(classFile)) {
+                indexer.index(in);
+            }
+        }
+        Index index = indexer.complete();
+
+        Files.createDirectories(indexFile.getParent());
+        try (OutputStream out = Files.newOutputStream(indexFile)) {
+            new IndexWriter(out).write(index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.microprofile.openapi;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test that the build-time generator indexes classes and writes the OpenAPI documents.
+ */
+public class OpenApiDocumentGeneratorTest {
+
+    @Test
+    public void testGenerate() throws Exception {
+        Path classesDirectory = Files.createTempDirectory("openapi-classes");
+        copyClass(classesDirectory, TestApp.class);
+        copyClass(classesDirectory, TestApp.TestResources.class);
+
+        OpenApiDocumentGenerator.generate(classesDirectory);
+
+        assertTrue(Files.exists(classesDirectory.resolve("META-INF/jandex.idx")), "Jandex index was not written");
+        String yaml = Files.readString(classesDirectory.resolve("META-INF/helidon/openapi/openapi.yaml"),
+                                       StandardCharsets.UTF_8);
+        assertTrue(yaml.contains(TestApp.GO_SUMMARY), "YAML document does not describe the test app: " + yaml);
+        String json = Files.readString(classesDirectory.resolve("META-INF/helidon/openapi/openapi.json"),
+                                       StandardCharsets.UTF_8);
+        assertTrue(json.contains(TestApp.GO_SUMMARY), "JSON document does not describe the test app: " + json);
+    }
+
+    private static void copyClass(Path classesDirectory, Class<?> clazz) throws Exception {
+        String resource = clazz.getName().replace('.', '/') + ".class";
+        Path target = classesDirectory.resolve(resource);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = clazz.getClassLoader().getResourceAsStream(resource)) {
+            Files.copy(in, target);
+        }
+    }
+}
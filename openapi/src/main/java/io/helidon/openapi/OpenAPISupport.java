@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,12 +19,17 @@ package io.helidon.openapi;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -80,17 +85,29 @@ public class OpenAPISupport implements Service {
     private static final Logger LOGGER = Logger.getLogger(OpenAPISupport.class.getName());
 
     private static final String DEFAULT_STATIC_FILE_PATH_PREFIX = "META-INF/openapi.";
+    private static final String PRECOMPUTED_PATH_PREFIX = "META-INF/helidon/openapi/openapi.";
     private static final String OPENAPI_EXPLICIT_STATIC_FILE_LOG_MESSAGE_FORMAT = "Using specified OpenAPI static file %s";
     private static final String OPENAPI_DEFAULTED_STATIC_FILE_LOG_MESSAGE_FORMAT = "Using default OpenAPI static file %s";
 
     private final String webContext;
 
     private final OpenAPI model;
-    private final ConcurrentMap<Format, String> cachedDocuments = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Format, Document> cachedDocuments = new ConcurrentHashMap<>();
 
     private OpenAPISupport(Builder builder) {
         webContext = builder.webContext();
-        model = prepareModel(builder.openAPIConfig(), builder.indexView(), builder.staticFile());
+        // an explicitly configured static file always wins over the documents written at build time
+        Map<Format, Document> precomputed = builder.usePrecomputedDocuments && builder.staticFilePath.isEmpty()
+                ? precomputedDocuments()
+                : Map.of();
+        if (precomputed.isEmpty()) {
+            model = prepareModel(builder.openAPIConfig(), builder.indexView(), builder.staticFile());
+        } else {
+            // no need to scan annotations (or even to obtain the index), the documents were created at build time
+            LOGGER.log(Level.FINE, "Using precomputed OpenAPI documents {0}*", PRECOMPUTED_PATH_PREFIX);
+            model = null;
+            cachedDocuments.putAll(precomputed);
+        }
     }
 
     @Override
@@ -110,6 +127,22 @@ public class OpenAPISupport implements Service {
                 .get(webContext, this::prepareResponse);
     }
 
+    /**
+     * Writes the OpenAPI document in all supported formats to the directory, so they can be served without
+     * preparing the model at runtime. Intended to be used at build time, with the application classes directory
+     * as the target, see {@link Builder#usePrecomputedDocuments(boolean)}.
+     *
+     * @param classesDirectory root directory of application classes
+     * @throws IOException in case of errors serializing or writing the documents
+     */
+    public void writePrecomputedDocuments(Path classesDirectory) throws IOException {
+        for (OpenAPIMediaTypes type : OpenAPIMediaTypes.values()) {
+            Path target = classesDirectory.resolve(PRECOMPUTED_PATH_PREFIX + type.matchingTypes().get(0));
+            Files.createDirectories(target.getParent());
+            Files.write(target, document(type.format()).content);
+        }
+    }
+
     /**
      * Prepares the OpenAPI model that later will be used to create the OpenAPI
      * document for endpoints in this application.
@@ -172,10 +205,17 @@ public class OpenAPISupport implements Service {
 
         try {
             final MediaType resultMediaType = chooseResponseMediaType(req);
-            final String openAPIDocument = prepareDocument(resultMediaType);
+            final Document openAPIDocument = document(resultMediaType);
+            resp.headers().add(Http.Header.ETAG, openAPIDocument.etag);
+            resp.headers().add(Http.Header.VARY, Http.Header.ACCEPT);
+            if (openAPIDocument.matches(req.headers().values(Http.Header.IF_NONE_MATCH))) {
+                resp.status(Http.Status.NOT_MODIFIED_304);
+                resp.send();
+                return;
+            }
             resp.status(Http.Status.OK_200);
             resp.headers().add(Http.Header.CONTENT_TYPE, resultMediaType.toString());
-            resp.send(openAPIDocument);
+            resp.send(openAPIDocument.content);
         } catch (IOException ex) {
             resp.status(Http.Status.INTERNAL_SERVER_ERROR_500);
             resp.send("Error serializing OpenAPI document");
@@ -192,10 +232,10 @@ public class OpenAPISupport implements Service {
      * from its underlying data
      */
     String prepareDocument(MediaType resultMediaType) throws IOException {
-        if (model == null) {
-            throw new IllegalStateException("OpenAPI model used but has not been initialized");
-        }
+        return new String(document(resultMediaType).content, StandardCharsets.UTF_8);
+    }
 
+    private Document document(MediaType resultMediaType) throws IOException {
         OpenAPIMediaTypes matchingOpenAPIMediaType
                 = OpenAPIMediaTypes.byMediaType(resultMediaType)
                         .orElseGet(() -> {
@@ -206,20 +246,24 @@ public class OpenAPISupport implements Service {
                             return OpenAPIMediaTypes.DEFAULT_TYPE;
                         });
 
-        final Format resultFormat = matchingOpenAPIMediaType.format();
+        return document(matchingOpenAPIMediaType.format());
+    }
 
-        String result = cachedDocuments.computeIfAbsent(resultFormat,
+    private Document document(Format resultFormat) {
+        return cachedDocuments.computeIfAbsent(resultFormat,
                 fmt -> {
-                    String r = formatDocument(fmt);
+                    Document r = new Document(formatDocument(fmt).getBytes(StandardCharsets.UTF_8));
                     LOGGER.log(Level.FINER,
                             "Created and cached OpenAPI document in {0} format",
                             fmt.toString());
                     return r;
                 });
-        return result;
     }
 
     private String formatDocument(Format fmt) {
+        if (model == null) {
+            throw new IllegalStateException("OpenAPI model used but has not been initialized");
+        }
         try {
             return OpenApiSerializer.serialize(model, fmt);
         } catch (IOException ex) {
@@ -227,6 +271,66 @@ public class OpenAPISupport implements Service {
         }
     }
 
+    private static Map<Format, Document> precomputedDocuments() {
+        Map<Format, Document> result = new EnumMap<>(Format.class);
+        for (OpenAPIMediaTypes type : OpenAPIMediaTypes.values()) {
+            String path = PRECOMPUTED_PATH_PREFIX + type.matchingTypes().get(0);
+            try (InputStream is = getContextClassLoader().getResourceAsStream(path)) {
+                if (is == null) {
+                    // documents are always written together, do not mix precomputed and prepared ones
+                    return Map.of();
+                }
+                result.put(type.format(), new Document(is.readAllBytes()));
+            } catch (IOException ex) {
+                throw new RuntimeException("Error reading precomputed OpenAPI document " + path, ex);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Serialized OpenAPI document with its entity tag.
+     */
+    private static final class Document {
+        private final byte[] content;
+        private final String etag;
+
+        private Document(byte[] content) {
+            this.content = content;
+            this.etag = etag(content);
+        }
+
+        private boolean matches(List<String> ifNoneMatch) {
+            for (String value : ifNoneMatch) {
+                for (String tag : value.split(",")) {
+                    String trimmed = tag.trim();
+                    // weak comparison, as required for If-None-Match
+                    if (trimmed.startsWith("W/")) {
+                        trimmed = trimmed.substring(2);
+                    }
+                    if (trimmed.equals("*") || trimmed.equals(etag)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static String etag(byte[] content) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+                StringBuilder result = new StringBuilder("\"");
+                // half of the digest is plenty to identify a version of the document
+                for (int i = 0; i < digest.length / 2; i++) {
+                    result.append(String.format("%02x", digest[i]));
+                }
+                return result.append('"').toString();
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256 is not supported", ex);
+            }
+        }
+    }
+
     private MediaType chooseResponseMediaType(ServerRequest req) {
         /*
          * Response media type default is application/vnd.oai.openapi (YAML)
@@ -386,6 +490,7 @@ public class OpenAPISupport implements Service {
 
         private Optional<String> webContext = Optional.empty();
         private Optional<String> staticFilePath = Optional.empty();
+        private boolean usePrecomputedDocuments;
 
         @Override
         public OpenAPISupport build() {
@@ -460,6 +565,22 @@ public class OpenAPISupport implements Service {
             return this;
         }
 
+        /**
+         * Whether to serve the documents written at build time by
+         * {@link OpenAPISupport#writePrecomputedDocuments(Path)}, if present on the classpath. Such documents are
+         * served without preparing the OpenAPI model (including annotation scanning) at startup, so they
+         * must be regenerated whenever the application or its OpenAPI configuration changes.
+         * An explicitly set {@link #staticFile(String) static file} takes precedence over such documents.
+         * Defaults to {@code false}.
+         *
+         * @param use {@code true} to serve the documents written at build time
+         * @return updated builder instance
+         */
+        public Builder usePrecomputedDocuments(boolean use) {
+            this.usePrecomputedDocuments = use;
+            return this;
+        }
+
         /**
          * Sets the location of the static OpenAPI document file.
          *
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -40,8 +40,8 @@ public final class SEOpenAPISupportBuilder extends OpenAPISupport.Builder {
     /**
      * Set various builder attributes from the specified {@code Config} object.
      * <p>
-     * The {@code Config} object can specify {@value #CONFIG_PREFIX}.web-context
-     * and {@value #CONFIG_PREFIX}.static-file in addition to settings
+     * The {@code Config} object can specify {@value #CONFIG_PREFIX}.web-context,
+     * {@value #CONFIG_PREFIX}.static-file and {@value #CONFIG_PREFIX}.use-precomputed-documents in addition to settings
      * supported by {@link OpenAPIConfigImpl.Builder}.
      *
      * @param config the {@code Config} object possibly containing settings
@@ -51,6 +51,7 @@ public final class SEOpenAPISupportBuilder extends OpenAPISupport.Builder {
     public SEOpenAPISupportBuilder helidonConfig(Config config) {
         config.get(CONFIG_PREFIX + ".web-context").asString().ifPresent(this::webContext);
         config.get(CONFIG_PREFIX + ".static-file").asString().ifPresent(this::staticFile);
+        config.get(CONFIG_PREFIX + ".use-precomputed-documents").asBoolean().ifPresent(this::usePrecomputedDocuments);
         apiConfigBuilder.config(config);
         return this;
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,6 +30,8 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -193,6 +195,43 @@ public class ServerTest {
                 "Incorrectly found time-related item in greeting OpenAPI document");
     }
 
+    /**
+     * Makes sure that a document already known to the client is not sent again.
+     *
+     * @throws Exception in case of errors sending the request or receiving the
+     * response
+     */
+    @Test
+    public void testConditionalGet() throws Exception {
+        HttpURLConnection cnx = TestUtil.getURLConnection(
+                greetingWebServer.port(),
+                "GET",
+                GREETING_PATH,
+                MediaType.APPLICATION_OPENAPI_YAML);
+        assertEquals(200, cnx.getResponseCode());
+        String etag = cnx.getHeaderField("ETag");
+        assertNotNull(etag, "missing ETag");
+        assertEquals("Accept", cnx.getHeaderField("Vary"), "the document depends on the Accept header");
+        TestUtil.stringYAMLFromResponse(cnx);
+
+        cnx = TestUtil.getURLConnection(
+                greetingWebServer.port(),
+                "GET",
+                GREETING_PATH,
+                MediaType.APPLICATION_OPENAPI_YAML);
+        cnx.setRequestProperty("If-None-Match", etag);
+        assertEquals(304, cnx.getResponseCode());
+
+        cnx = TestUtil.getURLConnection(
+                greetingWebServer.port(),
+                "GET",
+                GREETING_PATH,
+                MediaType.APPLICATION_OPENAPI_JSON);
+        cnx.setRequestProperty("If-None-Match", etag);
+        assertEquals(200, cnx.getResponseCode());
+        assertNotEquals(etag, cnx.getHeaderField("ETag"), "JSON and YAML documents must have different ETags");
+    }
+
     private static void connectAndConsumePayload(MediaType mt) throws Exception {
         TestUtil.connectAndConsumePayload(greetingWebServer.port(), GREETING_PATH, mt);
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,16 +16,31 @@
 
 package io.helidon.security.abac.policy.el;
 
+import java.beans.FeatureDescriptor;
 import java.lang.reflect.Method;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.el.ArrayELResolver;
+import javax.el.BeanELResolver;
+import javax.el.CompositeELResolver;
+import javax.el.ELContext;
 import javax.el.ELException;
+import javax.el.ELResolver;
 import javax.el.ExpressionFactory;
 import javax.el.FunctionMapper;
+import javax.el.ListELResolver;
+import javax.el.MapELResolver;
+import javax.el.PropertyNotWritableException;
+import javax.el.ResourceBundleELResolver;
 import javax.el.StandardELContext;
+import javax.el.StaticFieldELResolver;
 import javax.el.ValueExpression;
 import javax.el.VariableMapper;
 
@@ -33,7 +48,6 @@ import io.helidon.common.Errors;
 import io.helidon.config.Config;
 import io.helidon.security.ProviderRequest;
 import io.helidon.security.SecurityContext;
-import io.helidon.security.SecurityEnvironment;
 import io.helidon.security.Subject;
 import io.helidon.security.abac.policy.spi.PolicyExecutor;
 
@@ -42,16 +56,33 @@ import io.helidon.security.abac.policy.spi.PolicyExecutor;
  *
  * See tutorial for details of the EL: <a href="https://docs.oracle.com/javaee/7/tutorial/jsf-el005.htm#BNAIK">https://docs
  * .oracle.com/javaee/7/tutorial/jsf-el005.htm#BNAIK</a>
+ * <p>
+ * Each policy statement is parsed once and the parsed expression is reused for all requests, as statements are
+ * expected to come from a limited set of annotations and configuration.
+ * Statements can be validated when the executor is built, see {@link Builder#addPolicyStatement(String)}.
  */
 public final class JavaxElPolicyExecutor implements PolicyExecutor {
     private static final Logger LOGGER = Logger.getLogger(JavaxElPolicyExecutor.class.getName());
     private static final AttributeResolver ATTRIBUTE_RESOLVER = new AttributeResolver();
     private final ExpressionFactory ef;
     private final List<CustomFunction> customMethods = new LinkedList<>();
+    private final Map<String, ParsedStatement> statements = new ConcurrentHashMap<>();
+    private final ELResolver resolver;
 
     private JavaxElPolicyExecutor(Builder builder) {
         this.ef = builder.expressionFactory;
         this.customMethods.addAll(builder.customMethods);
+        this.resolver = (null == ef) ? null : createResolver(ef);
+
+        if ((null == ef) && !builder.policyStatements.isEmpty()) {
+            throw new SecurityException("Cannot validate policy statements, expression language implementation is not "
+                                                + "available");
+        }
+        Errors.Collector collector = Errors.collector();
+        for (String statement : builder.policyStatements) {
+            parse(statement).failure().ifPresent(e -> collector.fatal(statement, "Invalid policy statement: " + e.getMessage()));
+        }
+        collector.collect().checkValid();
     }
 
     /**
@@ -84,28 +115,9 @@ public final class JavaxElPolicyExecutor implements PolicyExecutor {
 
     @Override
     public void executePolicy(String policyStatement, Errors.Collector collector, ProviderRequest request) {
-        StandardELContext context = new StandardELContext(ef);
-        context.addELResolver(ATTRIBUTE_RESOLVER);
-
-        FunctionMapper functions = context.getFunctionMapper();
-        VariableMapper variables = context.getVariableMapper();
-
-        customMethods.forEach(customFunction -> functions.mapFunction(customFunction.prefix,
-                                                                      customFunction.localName,
-                                                                      customFunction.method));
-
-        Subject userSubject = request.subject().orElse(SecurityContext.ANONYMOUS);
-
-        variable(variables, "user", userSubject, Subject.class);
-        variable(variables, "subject", userSubject, Subject.class);
-        variable(variables, "service", request.service().orElse(SecurityContext.ANONYMOUS), Subject.class);
-        variable(variables, "env", request.env(), SecurityEnvironment.class);
-        variable(variables, "object", request.getObject().orElse(null), Object.class);
-        variable(variables, "request", request, ProviderRequest.class);
-
         try {
-            ValueExpression expression = ef.createValueExpression(context, policyStatement, boolean.class);
-            boolean value = (boolean) expression.getValue(context);
+            ValueExpression expression = parse(policyStatement).expression();
+            boolean value = (boolean) expression.getValue(new PolicyContext(ef, resolver, request));
             if (!value) {
                 collector.fatal(this, "Policy statement \"" + policyStatement + "\" evaluated to false");
             }
@@ -118,9 +130,39 @@ public final class JavaxElPolicyExecutor implements PolicyExecutor {
         }
     }
 
-    private <T> void variable(VariableMapper variables, String varName, T object, Class<T> objectClass) {
-        ValueExpression variable = ef.createValueExpression(object, objectClass);
-        variables.setVariable(varName, variable);
+    // statements are parsed once, including the invalid ones, so they are not parsed again for each request
+    private ParsedStatement parse(String policyStatement) {
+        return statements.computeIfAbsent(policyStatement, statement -> {
+            // variables are resolved on evaluation by PolicyContext, only functions are needed to parse
+            StandardELContext context = new StandardELContext(ef);
+            FunctionMapper functions = context.getFunctionMapper();
+            customMethods.forEach(customFunction -> functions.mapFunction(customFunction.prefix,
+                                                                          customFunction.localName,
+                                                                          customFunction.method));
+            try {
+                return new ParsedStatement(ef.createValueExpression(context, statement, boolean.class), null);
+            } catch (ELException e) {
+                return new ParsedStatement(null, e);
+            }
+        });
+    }
+
+    private static ELResolver createResolver(ExpressionFactory ef) {
+        // same resolvers as used by StandardELContext
+        CompositeELResolver resolver = new CompositeELResolver();
+        resolver.add(new VariableResolver());
+        resolver.add(ATTRIBUTE_RESOLVER);
+        ELResolver streamResolver = ef.getStreamELResolver();
+        if (null != streamResolver) {
+            resolver.add(streamResolver);
+        }
+        resolver.add(new StaticFieldELResolver());
+        resolver.add(new MapELResolver(true));
+        resolver.add(new ResourceBundleELResolver());
+        resolver.add(new ListELResolver(true));
+        resolver.add(new ArrayELResolver(true));
+        resolver.add(new BeanELResolver(true));
+        return resolver;
     }
 
     /**
@@ -128,6 +170,7 @@ public final class JavaxElPolicyExecutor implements PolicyExecutor {
      */
     public static final class Builder implements io.helidon.common.Builder<JavaxElPolicyExecutor> {
         private final List<CustomFunction> customMethods = new LinkedList<>();
+        private final List<String> policyStatements = new LinkedList<>();
         private ExpressionFactory expressionFactory;
 
         private Builder() {
@@ -212,14 +255,31 @@ public final class JavaxElPolicyExecutor implements PolicyExecutor {
             return this;
         }
 
+        /**
+         * Add a policy statement to be parsed when the executor is built, so an invalid statement fails
+         * the build instead of requests that use it.
+         * Statements that are not added are parsed when first executed.
+         *
+         * @param policyStatement statement to validate
+         * @return updated builder instance
+         */
+        public Builder addPolicyStatement(String policyStatement) {
+            this.policyStatements.add(policyStatement);
+            return this;
+        }
+
         /**
          * Updated builder from configuration.
+         * Supported keys:
+         * <ul>
+         * <li>policy-statements: list of statements to validate, see {@link #addPolicyStatement(String)}</li>
+         * </ul>
          *
          * @param config configuration to update from
          * @return updated builder instance
          */
         public Builder config(Config config) {
-            // currently no configurable options exist
+            config.get("policy-statements").asList(String.class).ifPresent(list -> list.forEach(this::addPolicyStatement));
             return this;
         }
     }
@@ -235,4 +295,120 @@ public final class JavaxElPolicyExecutor implements PolicyExecutor {
             this.method = method;
         }
     }
+
+    private static final class ParsedStatement {
+        private final ValueExpression expression;
+        private final ELException failure;
+
+        private ParsedStatement(ValueExpression expression, ELException failure) {
+            this.expression = expression;
+            this.failure = failure;
+        }
+
+        private ValueExpression expression() {
+            if (null == failure) {
+                return expression;
+            }
+            throw failure;
+        }
+
+        private Optional<ELException> failure() {
+            return Optional.ofNullable(failure);
+        }
+    }
+
+    /**
+     * Evaluation context of a single request, lighter than a {@link StandardELContext}, as the resolvers are shared.
+     */
+    private static final class PolicyContext extends ELContext {
+        private final ELResolver resolver;
+
+        private PolicyContext(ExpressionFactory ef, ELResolver resolver, ProviderRequest request) {
+            this.resolver = resolver;
+            // used for type coercion
+            putContext(ExpressionFactory.class, ef);
+            // the expression language implementation may wrap this context, so variables are passed as a context object
+            putContext(ProviderRequest.class, request);
+        }
+
+        @Override
+        public ELResolver getELResolver() {
+            return resolver;
+        }
+
+        @Override
+        public FunctionMapper getFunctionMapper() {
+            // functions are bound when a statement is parsed
+            return null;
+        }
+
+        @Override
+        public VariableMapper getVariableMapper() {
+            // variables are resolved by VariableResolver
+            return null;
+        }
+    }
+
+    /**
+     * Resolves the top level variables available to policy statements from the request of a {@link PolicyContext}.
+     */
+    private static final class VariableResolver extends ELResolver {
+        @Override
+        public Object getValue(ELContext context, Object base, Object property) {
+            ProviderRequest request = (ProviderRequest) context.getContext(ProviderRequest.class);
+            if ((null != base) || (null == request)) {
+                return null;
+            }
+            Object value;
+            switch (String.valueOf(property)) {
+            case "user":
+            case "subject":
+                value = request.subject().orElse(SecurityContext.ANONYMOUS);
+                break;
+            case "service":
+                value = request.service().orElse(SecurityContext.ANONYMOUS);
+                break;
+            case "env":
+                value = request.env();
+                break;
+            case "object":
+                value = request.getObject().orElse(null);
+                break;
+            case "request":
+                value = request;
+                break;
+            default:
+                return null;
+            }
+            context.setPropertyResolved(true);
+            return value;
+        }
+
+        @Override
+        public Class<?> getType(ELContext context, Object base, Object property) {
+            return null;
+        }
+
+        @Override
+        public void setValue(ELContext context, Object base, Object property, Object value) {
+            if ((null == base) && (null != context.getContext(ProviderRequest.class))) {
+                throw new PropertyNotWritableException("Cannot write: " + property + ", as security expressions are read-only");
+            }
+        }
+
+        @Override
+        public boolean isReadOnly(ELContext context, Object base, Object property) {
+            return true;
+        }
+
+        @Override
+        public Iterator<FeatureDescriptor> getFeatureDescriptors(ELContext context, Object base) {
+            return null;
+        }
+
+        @Override
+        public Class<?> getCommonPropertyType(ELContext context, Object base) {
+            return (null == base) ? String.class : null;
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,9 @@ import io.helidon.security.Subject;
 
 import org.junit.jupiter.api.Test;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -83,6 +86,51 @@ public class JavaxElPolicyExecutorTest {
         collector.collect().checkValid();
     }
 
+    @Test
+    public void testParsedStatementReusedForRequests() {
+        JavaxElPolicyExecutor ex = JavaxElPolicyExecutor.create();
+        String statement = "${user.principal.id == object.owner}";
+
+        Errors.Collector collector = Errors.collector();
+        ex.executePolicy(statement, collector, request("first-user", new MyResource("first-user")));
+        collector.collect().checkValid();
+
+        collector = Errors.collector();
+        ex.executePolicy(statement, collector, request("second-user", new MyResource("second-user")));
+        collector.collect().checkValid();
+
+        collector = Errors.collector();
+        ex.executePolicy(statement, collector, request("second-user", new MyResource("first-user")));
+        assertThat(collector.collect().isValid(), is(false));
+
+        collector = Errors.collector();
+        ex.executePolicy("${object == null}", collector, request("second-user", null));
+        collector.collect().checkValid();
+    }
+
+    @Test
+    public void testInvalidStatement() {
+        JavaxElPolicyExecutor ex = JavaxElPolicyExecutor.create();
+
+        Errors.Collector collector = Errors.collector();
+        ex.executePolicy("${user.principal.id ==}", collector, request("user", null));
+        assertThat(collector.collect().isValid(), is(false));
+
+        JavaxElPolicyExecutor.Builder builder = JavaxElPolicyExecutor.builder()
+                .addPolicyStatement("${inRole(user, 'admin')}")
+                .addPolicyStatement("${user.principal.id ==}");
+        assertThrows(Errors.ErrorMessagesException.class, builder::build);
+    }
+
+    private static ProviderRequest request(String userId, MyResource object) {
+        ProviderRequest request = mock(ProviderRequest.class);
+        when(request.service()).thenReturn(Optional.empty());
+        when(request.subject()).thenReturn(Optional.of(Subject.create(Principal.create(userId))));
+        when(request.env()).thenReturn(SecurityEnvironment.create());
+        when(request.getObject()).thenReturn(Optional.ofNullable(object));
+        return request;
+    }
+
     // bean must be public, as otherwise EL cannot access properties
     public static class MyResource {
         private String owner;
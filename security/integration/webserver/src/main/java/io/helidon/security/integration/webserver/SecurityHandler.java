@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -583,8 +583,7 @@ public final class SecurityHandler implements Handler {
                     new ResponseProcessor<DataChunk, ByteBuffer>(responseChunkPublisher) {
                         @Override
                         public void onNext(DataChunk item) {
-                            // chunk not released, as security provider may use it later
-                            subscriber().onNext(item.data());
+                            subscriber().onNext(copyAndRelease(item));
                         }
                     };
             Flow.Publisher<ByteBuffer> securedBytes = filterFunction.apply(bytesFromBizLogic);
@@ -603,8 +602,7 @@ public final class SecurityHandler implements Handler {
                     new ResponseProcessor<DataChunk, ByteBuffer>(requestChunkPublisher) {
                         @Override
                         public void onNext(DataChunk item) {
-                            // chunk not released, as security provider may use it later
-                            subscriber().onNext(item.data());
+                            subscriber().onNext(copyAndRelease(item));
                         }
                     };
             Flow.Publisher<ByteBuffer> securedBytes = filterFunction.apply(bytesFromExternal);
@@ -617,6 +615,21 @@ public final class SecurityHandler implements Handler {
         });
     }
 
+    /**
+     * Copies the data of a chunk and releases it. The security provider may hold on to the bytes for later,
+     * while the chunk may be backed by a pooled buffer that must be returned.
+     *
+     * @param chunk chunk to copy
+     * @return buffer with a copy of the data
+     */
+    private static ByteBuffer copyAndRelease(DataChunk chunk) {
+        try {
+            return ByteBuffer.wrap(chunk.bytes());
+        } finally {
+            chunk.release();
+        }
+    }
+
     @SuppressWarnings("ThrowableNotThrown")
     private CompletionStage<AtxResult> processAuthorization(ServerRequest req,
                                                             ServerResponse res,
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.helidon.security.integration.webserver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.Response;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Single;
+import io.helidon.security.AuthenticationResponse;
+import io.helidon.security.Principal;
+import io.helidon.security.Security;
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.WebServer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.ResourceLeakDetector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+
+/**
+ * Unit test for {@link SecurityHandler} verifying that response chunks filtered by a security provider are released.
+ */
+public class WebSecurityEntityLeakTest {
+    private static final int REQUESTS = 50;
+    private static final Logger LEAK_LOGGER = Logger.getLogger(ResourceLeakDetector.class.getName());
+
+    private static final List<ByteBuf> BUFFERS = new CopyOnWriteArrayList<>();
+    private static final List<String> LEAKS = new CopyOnWriteArrayList<>();
+    private static final Handler LEAK_HANDLER = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            String message = record.getMessage();
+            if (message != null && message.contains("LEAK")) {
+                LEAKS.add(message);
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private static ResourceLeakDetector.Level originalLevel;
+    private static WebServer server;
+    private static Client client;
+
+    @BeforeAll
+    public static void initClass() throws Exception {
+        originalLevel = ResourceLeakDetector.getLevel();
+        ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+        LEAK_LOGGER.addHandler(LEAK_HANDLER);
+
+        Routing routing = Routing.builder()
+                .register(WebSecurity.create(buildSecurity()))
+                .get("/pooled", WebSecurity.authenticate())
+                .get("/pooled", (req, res) -> {
+                    ByteBuf byteBuf = PooledByteBufAllocator.DEFAULT.directBuffer();
+                    byteBuf.writeCharSequence("Hello", StandardCharsets.UTF_8);
+                    BUFFERS.add(byteBuf);
+                    res.send(Single.just(DataChunk.create(true, byteBuf.nioBuffer(), byteBuf::release)));
+                })
+                .get("/string", WebSecurity.authenticate())
+                .get("/string", (req, res) -> res.send("Hello"))
+                .build();
+
+        client = ClientBuilder.newClient();
+        server = WebServer.create(routing).start().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void afterClass() throws Exception {
+        client.close();
+        server.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        LEAK_LOGGER.removeHandler(LEAK_HANDLER);
+        ResourceLeakDetector.setLevel(originalLevel);
+    }
+
+    private static Security buildSecurity() {
+        return Security.builder().addAuthenticationProvider(request -> {
+            request.responseEntity().ifPresent(message -> message.filter(WebSecurityEntityLeakTest::suffix));
+            return CompletableFuture.completedFuture(AuthenticationResponse.success(Principal.create("user")));
+        }).build();
+    }
+
+    private static Flow.Publisher<ByteBuffer> suffix(Flow.Publisher<ByteBuffer> publisher) {
+        return subscriber -> publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriber.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                subscriber.onNext(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onNext(ByteBuffer.wrap(" Suffix".getBytes(StandardCharsets.UTF_8)));
+                subscriber.onComplete();
+            }
+        });
+    }
+
+    @Test
+    public void testFilteredChunksReleased() {
+        for (int i = 0; i < REQUESTS; i++) {
+            assertThat(get("/pooled"), is("Hello Suffix"));
+            assertThat(get("/string"), is("Hello Suffix"));
+        }
+        for (ByteBuf byteBuf : BUFFERS) {
+            assertThat(byteBuf.refCnt(), is(0));
+        }
+
+        // leaks are reported once the unreleased buffers are collected and a new buffer is tracked
+        System.gc();
+        for (int i = 0; i < REQUESTS; i++) {
+            assertThat(get("/string"), is("Hello Suffix"));
+        }
+        assertThat(LEAKS, is(empty()));
+    }
+
+    private static String get(String path) {
+        Response response = client.target("http://localhost:" + server.port())
+                .path(path)
+                .request()
+                .get();
+        assertThat(response.getStatus(), is(200));
+        return response.readEntity(String.class);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,12 @@
 
 package io.helidon.security.jwt;
 
-import java.io.StringReader;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.json.Json;
 import javax.json.JsonObject;
@@ -37,8 +36,6 @@ import io.helidon.security.jwt.jwk.JwkKeys;
  * with a dot.
  */
 public final class SignedJwt {
-    private static final Pattern JWT_PATTERN = Pattern
-            .compile("([a-zA-Z0-9/=+]+)\\.([a-zA-Z0-9/=+]+)\\.([a-zA-Z0-9_\\-/=+]*)");
     private static final Base64.Decoder URL_DECODER = Base64.getUrlDecoder();
     private static final Base64.Encoder URL_ENCODER = Base64.getUrlEncoder();
     private static final JsonReaderFactory JSON = Json.createReaderFactory(Collections.emptyMap());
@@ -48,6 +45,7 @@ public final class SignedJwt {
     private final JsonObject payloadJson;
     private final byte[] signedBytes;
     private final byte[] signature;
+    private volatile Jwt jwt;
 
     private SignedJwt(String tokenContent, JsonObject headerJson, JsonObject payloadJson, byte[] signedBytes, byte[] signature) {
         this.tokenContent = tokenContent;
@@ -150,41 +148,55 @@ public final class SignedJwt {
     public static SignedJwt parseToken(String tokenContent) {
         Errors.Collector collector = Errors.collector();
 
-        Matcher matcher = JWT_PATTERN.matcher(tokenContent);
-        if (matcher.matches()) {
-            String headerBase64 = matcher.group(1);
-            String payloadBase64 = matcher.group(2);
-            String signatureBase64 = matcher.group(3);
-
-            // these all can fail
-            String headerJsonString = decode(headerBase64, collector, "JWT header");
-            String payloadJsonString = decode(payloadBase64, collector, "JWT payload");
-            byte[] signatureBytes = decodeBytes(signatureBase64, collector, "JWT signature");
-
-            // if failed, do not continue
-            collector.collect().checkValid();
-
-            String signedContent = headerBase64 + '.' + payloadBase64;
-
-            JsonObject headerJson = parseJson(headerJsonString, collector, headerBase64, "JWT header");
-            JsonObject contentJson = parseJson(payloadJsonString, collector, payloadBase64, "JWT payload");
-
-            collector.collect().checkValid();
-
-            return new SignedJwt(
-                    tokenContent,
-                    headerJson,
-                    contentJson,
-                    signedContent.getBytes(StandardCharsets.UTF_8),
-                    signatureBytes);
-        } else {
+        // compact serialization is ASCII only, so the token is processed as bytes (ranges of a single array)
+        // instead of splitting it with a regular expression and decoding each part from a new String
+        int headerEnd = tokenContent.indexOf('.');
+        int payloadEnd = (headerEnd < 0) ? -1 : tokenContent.indexOf('.', headerEnd + 1);
+        if ((headerEnd < 1)
+                || (payloadEnd < headerEnd + 2)
+                || (tokenContent.indexOf('.', payloadEnd + 1) >= 0)
+                || !isAscii(tokenContent)) {
             throw new JwtException("Not a JWT token: " + tokenContent);
         }
+        byte[] tokenBytes = tokenContent.getBytes(StandardCharsets.US_ASCII);
+
+        // these all can fail
+        byte[] headerBytes = decode(tokenBytes, 0, headerEnd, collector, "JWT header");
+        byte[] payloadBytes = decode(tokenBytes, headerEnd + 1, payloadEnd, collector, "JWT payload");
+        byte[] signatureBytes = decode(tokenBytes, payloadEnd + 1, tokenBytes.length, collector, "JWT signature");
+
+        // if failed, do not continue
+        collector.collect().checkValid();
+
+        JsonObject headerJson = parseJson(headerBytes, collector, tokenContent.substring(0, headerEnd), "JWT header");
+        JsonObject contentJson = parseJson(payloadBytes,
+                                           collector,
+                                           tokenContent.substring(headerEnd + 1, payloadEnd),
+                                           "JWT payload");
+
+        collector.collect().checkValid();
+
+        return new SignedJwt(
+                tokenContent,
+                headerJson,
+                contentJson,
+                // signature is computed over the encoded header and payload, exactly as received
+                Arrays.copyOf(tokenBytes, payloadEnd),
+                signatureBytes);
+    }
+
+    private static boolean isAscii(String tokenContent) {
+        for (int i = 0; i < tokenContent.length(); i++) {
+            if (tokenContent.charAt(i) > 127) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private static JsonObject parseJson(String jsonString, Errors.Collector collector, String base64, String description) {
+    private static JsonObject parseJson(byte[] json, Errors.Collector collector, String base64, String description) {
         try {
-            return JSON.createReader(new StringReader(jsonString)).readObject();
+            return JSON.createReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8).readObject();
         } catch (Exception e) {
             collector.fatal(base64, description + " is not a valid JSON object (value is base64 encoded)");
             return null;
@@ -199,20 +211,15 @@ public final class SignedJwt {
         return URL_ENCODER.encodeToString(bytes);
     }
 
-    private static String decode(String base64, Errors.Collector collector, String description) {
+    private static byte[] decode(byte[] token, int from, int to, Errors.Collector collector, String description) {
         try {
-            return new String(URL_DECODER.decode(base64), StandardCharsets.UTF_8);
+            ByteBuffer decoded = URL_DECODER.decode(ByteBuffer.wrap(token, from, to - from));
+            byte[] result = decoded.array();
+            // the backing array has the exact size with current JDKs, do not rely on it
+            return (decoded.remaining() == result.length) ? result : Arrays.copyOf(result, decoded.remaining());
         } catch (Exception e) {
-            collector.fatal(base64, description + " is not a base64 encoded string.");
-            return null;
-        }
-    }
-
-    private static byte[] decodeBytes(String base64, Errors.Collector collector, String description) {
-        try {
-            return URL_DECODER.decode(base64);
-        } catch (Exception e) {
-            collector.fatal(base64, description + " is not a base64 encoded string.");
+            collector.fatal(new String(token, from, to - from, StandardCharsets.US_ASCII),
+                            description + " is not a base64 encoded string.");
             return null;
         }
     }
@@ -269,7 +276,13 @@ public final class SignedJwt {
      * @throws RuntimeException in case one of the fields has invalid content (e.g. timestamp is invalid)
      */
     public Jwt getJwt() {
-        return new Jwt(headerJson, payloadJson);
+        // Jwt is immutable, create it once
+        Jwt result = jwt;
+        if (null == result) {
+            result = new Jwt(headerJson, payloadJson);
+            jwt = result;
+        }
+        return result;
     }
 
     /**
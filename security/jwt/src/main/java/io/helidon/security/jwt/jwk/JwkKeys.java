@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,8 @@ package io.helidon.security.jwt.jwk;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -25,6 +27,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -34,6 +44,7 @@ import javax.json.JsonObject;
 import javax.json.JsonReaderFactory;
 
 import io.helidon.common.configurable.Resource;
+import io.helidon.config.Config;
 
 /**
  * A representation of the JSON web keys document - a map of key ids to corresponding web keys.
@@ -48,17 +59,43 @@ import io.helidon.common.configurable.Resource;
  * Optional&lt;Jwk&gt; key = keys
  * .forKeyId("cc34c0a0-bd5a-4a3c-a50d-a2a7db7643df");
  * </pre>
+ *
+ * Keys published by an identity server may be rotated. Such keys can be loaded using
+ * {@link Builder#refreshResource(Supplier)}, in which case they are reloaded in the background
+ * every {@link Builder#refreshInterval(Duration) refresh interval} and whenever a key id that is not known
+ * is requested (at most once per {@link Builder#minRefreshDelay(Duration) minimal refresh delay}).
+ * Concurrent requests for unknown key ids share a single reload. If a reload fails, the last loaded keys are used.
  */
 public final class JwkKeys {
+    /**
+     * Default interval of background reload of refreshed keys.
+     */
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofMinutes(15);
+    /**
+     * Default maximal random deviation from the refresh interval.
+     */
+    public static final Duration DEFAULT_REFRESH_JITTER = Duration.ofMinutes(1);
+    /**
+     * Default minimal delay between two reloads of refreshed keys.
+     */
+    public static final Duration DEFAULT_MIN_REFRESH_DELAY = Duration.ofSeconds(30);
+
     private static final Logger LOGGER = Logger.getLogger(JwkKeys.class.getName());
     private static final JsonReaderFactory JSON = Json.createReaderFactory(Collections.emptyMap());
 
-    private final Map<String, Jwk> keyMap = new HashMap<>();
-    private final List<Jwk> noKeyIdKeys = new LinkedList<>();
+    private volatile KeyIndex keyIndex;
+    private final Refresh refresh;
 
     private JwkKeys(Builder builder) {
-        this.keyMap.putAll(builder.keyMap);
-        this.noKeyIdKeys.addAll(builder.noKeyIdKeys);
+        if (null == builder.refreshResource) {
+            this.refresh = null;
+            this.keyIndex = new KeyIndex(builder.keyMap, builder.noKeyIdKeys);
+        } else {
+            this.refresh = new Refresh(builder);
+            // the first load must succeed, there are no previous keys to fall back to
+            this.keyIndex = refresh.load();
+            refresh.schedule(this);
+        }
     }
 
     /**
@@ -72,12 +109,28 @@ public final class JwkKeys {
 
     /**
      * Get a JWK for defined key id if present.
+     * If these keys are refreshed and the key id is not known, the keys are reloaded unless they were reloaded
+     * recently.
      *
      * @param keyId keyId of the key to obtain from this keys
      * @return Jwk if present
      */
     public Optional<Jwk> forKeyId(String keyId) {
-        return Optional.ofNullable(keyMap.get(keyId));
+        Jwk jwk = keyIndex.keyMap.get(keyId);
+        if ((null == jwk) && (null != refresh)) {
+            jwk = refresh.refreshOnMiss(this).keyMap.get(keyId);
+        }
+        return Optional.ofNullable(jwk);
+    }
+
+    /**
+     * Whether these keys are reloaded from a resource, see {@link Builder#refreshResource(Supplier)}.
+     * Lookup of an unknown key id in refreshed keys may block while the keys are reloaded.
+     *
+     * @return {@code true} if these keys are refreshed, {@code false} if they are only kept in memory
+     */
+    public boolean isRefreshing() {
+        return null != refresh;
     }
 
     /**
@@ -86,18 +139,111 @@ public final class JwkKeys {
      * @return all keys configured
      */
     public List<Jwk> keys() {
+        KeyIndex current = keyIndex;
         List<Jwk> result = new LinkedList<>();
-        result.addAll(noKeyIdKeys);
-        result.addAll(keyMap.values());
+        result.addAll(current.noKeyIdKeys);
+        result.addAll(current.keyMap.values());
+        return result;
+    }
+
+    // reloads the keys, keeping the current ones on failure; concurrent callers share a single reload
+    private KeyIndex reload() {
+        CompletableFuture<KeyIndex> future = new CompletableFuture<>();
+        CompletableFuture<KeyIndex> inProgress = refresh.inProgress.compareAndExchange(null, future);
+        if (null != inProgress) {
+            return inProgress.join();
+        }
+        refresh.lastReload.set(System.nanoTime());
+        KeyIndex result = keyIndex;
+        try {
+            result = refresh.load();
+            keyIndex = result;
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to reload JWK keys, using last known keys", e);
+        } finally {
+            refresh.inProgress.set(null);
+            // callers waiting for this reload must not block forever, even on an error
+            future.complete(result);
+        }
         return result;
     }
 
+    // an immutable snapshot of keys, replaced as a whole on reload
+    private static final class KeyIndex {
+        private final Map<String, Jwk> keyMap;
+        private final List<Jwk> noKeyIdKeys;
+
+        private KeyIndex(Map<String, Jwk> keyMap, List<Jwk> noKeyIdKeys) {
+            this.keyMap = new HashMap<>(keyMap);
+            this.noKeyIdKeys = new LinkedList<>(noKeyIdKeys);
+        }
+    }
+
+    private static final class Refresh {
+        private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "helidon-jwk-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        private final Supplier<Resource> resource;
+        private final long intervalMillis;
+        private final long jitterMillis;
+        private final long minDelayNanos;
+        private final AtomicReference<CompletableFuture<KeyIndex>> inProgress = new AtomicReference<>();
+        private final AtomicLong lastReload = new AtomicLong();
+
+        private Refresh(Builder builder) {
+            this.resource = builder.refreshResource;
+            this.intervalMillis = builder.refreshInterval.toMillis();
+            this.jitterMillis = Math.min(builder.refreshJitter.toMillis(), intervalMillis / 2);
+            this.minDelayNanos = builder.minRefreshDelay.toNanos();
+            this.lastReload.set(System.nanoTime());
+        }
+
+        private KeyIndex load() {
+            Builder builder = new Builder().resource(resource.get());
+            return new KeyIndex(builder.keyMap, builder.noKeyIdKeys);
+        }
+
+        private KeyIndex refreshOnMiss(JwkKeys keys) {
+            long last = lastReload.get();
+            if (System.nanoTime() - last < minDelayNanos || !lastReload.compareAndSet(last, System.nanoTime())) {
+                // reloaded recently, or a reload has just been started by another thread
+                CompletableFuture<KeyIndex> current = inProgress.get();
+                return (null == current) ? keys.keyIndex : current.join();
+            }
+            return keys.reload();
+        }
+
+        // the task only holds a weak reference, so keys that are no longer used stop being refreshed
+        private void schedule(JwkKeys keys) {
+            WeakReference<JwkKeys> reference = new WeakReference<>(keys);
+            long jitter = (jitterMillis == 0) ? 0 : ThreadLocalRandom.current().nextLong(-jitterMillis, jitterMillis + 1);
+            SCHEDULER.schedule(() -> {
+                JwkKeys current = reference.get();
+                if (null != current) {
+                    try {
+                        current.reload();
+                    } finally {
+                        // keep refreshing even if the reload failed with an unexpected error
+                        schedule(current);
+                    }
+                }
+            }, intervalMillis + jitter, TimeUnit.MILLISECONDS);
+        }
+    }
+
     /**
      * Builder of {@link JwkKeys}.
      */
     public static final class Builder implements io.helidon.common.Builder<JwkKeys> {
         private final List<Jwk> noKeyIdKeys = new LinkedList<>();
         private final Map<String, Jwk> keyMap = new HashMap<>();
+        private Supplier<Resource> refreshResource;
+        private Duration refreshInterval = DEFAULT_REFRESH_INTERVAL;
+        private Duration refreshJitter = DEFAULT_REFRESH_JITTER;
+        private Duration minRefreshDelay = DEFAULT_MIN_REFRESH_DELAY;
 
         private Builder() {
         }
@@ -112,6 +258,25 @@ public final class JwkKeys {
             return new JwkKeys(this);
         }
 
+        /**
+         * Update refresh settings of this builder from configuration.
+         * Supported keys:
+         * <ul>
+         * <li>interval: {@link #refreshInterval(Duration)}</li>
+         * <li>jitter: {@link #refreshJitter(Duration)}</li>
+         * <li>min-delay: {@link #minRefreshDelay(Duration)}</li>
+         * </ul>
+         *
+         * @param config configuration node with refresh settings
+         * @return updated builder instance
+         */
+        public Builder config(Config config) {
+            config.get("interval").as(Duration.class).ifPresent(this::refreshInterval);
+            config.get("jitter").as(Duration.class).ifPresent(this::refreshJitter);
+            config.get("min-delay").as(Duration.class).ifPresent(this::minRefreshDelay);
+            return this;
+        }
+
         /**
          * Add a new JWK to this keys.
          *
@@ -147,6 +312,85 @@ public final class JwkKeys {
             return this;
         }
 
+        /**
+         * Load keys from a resource (must point to JSON text content) and keep reloading them, such as
+         * keys published by an identity server on its {@code jwks_uri}.
+         * The supplier is called for each reload, as a {@link Resource} can only be read once.
+         * The keys are loaded when {@link #build()} is called, keys added through {@link #addKey(Jwk)} or
+         * {@link #resource(Resource)} are ignored.
+         *
+         * @param resourceSupplier supplier of the resource with JSON data
+         * @return updated builder instance
+         */
+        public Builder refreshResource(Supplier<Resource> resourceSupplier) {
+            this.refreshResource = Objects.requireNonNull(resourceSupplier, "Json resource supplier must not be null");
+            return this;
+        }
+
+        /**
+         * Load keys from a resource and keep reloading them, using an already created resource for the first load,
+         * such as a resource created from configuration to find out whether it is a URL.
+         * The supplier is called for each following reload.
+         *
+         * @param first            resource with JSON data used for the first load
+         * @param resourceSupplier supplier of the resource with JSON data for the following loads
+         * @return updated builder instance
+         * @see #refreshResource(Supplier)
+         */
+        public Builder refreshResource(Resource first, Supplier<Resource> resourceSupplier) {
+            Objects.requireNonNull(first, "Json resource must not be null");
+            Objects.requireNonNull(resourceSupplier, "Json resource supplier must not be null");
+            AtomicReference<Resource> firstResource = new AtomicReference<>(first);
+            return refreshResource(() -> Optional.ofNullable(firstResource.getAndSet(null)).orElseGet(resourceSupplier));
+        }
+
+        /**
+         * Interval of background reload of keys configured through {@link #refreshResource(Supplier)}.
+         * Defaults to {@link #DEFAULT_REFRESH_INTERVAL}.
+         *
+         * @param interval interval between two background reloads
+         * @return updated builder instance
+         */
+        public Builder refreshInterval(Duration interval) {
+            if (interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("Refresh interval must be positive, but is " + interval);
+            }
+            this.refreshInterval = interval;
+            return this;
+        }
+
+        /**
+         * Maximal random deviation from the {@link #refreshInterval(Duration) refresh interval}, so instances
+         * started at the same time do not reload their keys at the same time.
+         * Limited to half of the refresh interval, defaults to {@link #DEFAULT_REFRESH_JITTER}.
+         *
+         * @param jitter maximal deviation, zero to reload exactly in the refresh interval
+         * @return updated builder instance
+         */
+        public Builder refreshJitter(Duration jitter) {
+            if (jitter.isNegative()) {
+                throw new IllegalArgumentException("Refresh jitter must not be negative, but is " + jitter);
+            }
+            this.refreshJitter = jitter;
+            return this;
+        }
+
+        /**
+         * Minimal delay between two reloads of keys configured through {@link #refreshResource(Supplier)}
+         * caused by requests for an unknown key id. This protects the identity server from tokens with
+         * invalid key ids. Defaults to {@link #DEFAULT_MIN_REFRESH_DELAY}.
+         *
+         * @param delay minimal delay
+         * @return updated builder instance
+         */
+        public Builder minRefreshDelay(Duration delay) {
+            if (delay.isNegative()) {
+                throw new IllegalArgumentException("Minimal refresh delay must not be negative, but is " + delay);
+            }
+            this.minRefreshDelay = delay;
+            return this;
+        }
+
         private void addKeys(JsonObject jsonObject) {
             JsonArray keyArray = jsonObject.getJsonArray("keys");
             keyArray.forEach(it -> {
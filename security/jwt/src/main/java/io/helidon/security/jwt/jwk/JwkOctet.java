@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -71,6 +71,8 @@ public class JwkOctet extends Jwk {
     }
 
     private final byte[] keyBytes;
+    // Mac is not thread safe, each thread gets its own, initialized with the secret key
+    private final ThreadLocal<Mac> initializedMac = ThreadLocal.withInitial(this::createMac);
 
     private JwkOctet(Builder builder) {
         super(builder, ALG_HS256);
@@ -127,6 +129,12 @@ public class JwkOctet extends Jwk {
             return EMPTY_BYTES;
         }
 
+        // doFinal resets the mac, so it can be reused
+        return initializedMac.get().doFinal(bytesToSign);
+    }
+
+    private Mac createMac() {
+        String alg = getSignatureAlgorithm();
         Mac mac = JwtUtil.getMac(alg);
         SecretKeySpec secretKey = new SecretKeySpec(keyBytes, alg);
         try {
@@ -134,8 +142,7 @@ public class JwkOctet extends Jwk {
         } catch (InvalidKeyException e) {
             throw new JwtException("Failed to init Mac for algorithm: " + alg, e);
         }
-
-        return mac.doFinal(bytesToSign);
+        return mac;
     }
 
     private String getSignatureAlgorithm() {
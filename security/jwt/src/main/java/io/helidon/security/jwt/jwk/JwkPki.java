@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -71,6 +71,8 @@ abstract class JwkPki extends Jwk {
     private final Optional<List<X509Certificate>> certificateChain;
     private final Optional<byte[]> sha1Thumbprint;
     private final Optional<byte[]> sha256Thumbprint;
+    // Signature is not thread safe, each thread gets its own, initialized for verification with the public key
+    private final ThreadLocal<Signature> initializedVerifier = ThreadLocal.withInitial(this::createVerifier);
 
     JwkPki(Builder<?> builder, PrivateKey privKey, PublicKey pubKey, String defaultAlgorithm) {
         super(builder, defaultAlgorithm);
@@ -112,15 +114,27 @@ abstract class JwkPki extends Jwk {
             return verifyNoneAlg(signatureToVerify);
         }
 
-        Signature signature = JwtUtil.getSignature(alg);
+        Signature signature = initializedVerifier.get();
 
         try {
-            signature.initVerify(publicKey);
+            // verify resets the signature to the state after initVerify, so it can be reused
             signature.update(signedBytes);
             return signature.verify(signatureToVerify);
+        } catch (Exception e) {
+            // state of the signature is not defined after a failure
+            initializedVerifier.remove();
+            throw new JwtException("Failed to verify signature. It may still be valid, but an exception was thrown", e);
+        }
+    }
+
+    private Signature createVerifier() {
+        Signature signature = JwtUtil.getSignature(signatureAlgorithm());
+        try {
+            signature.initVerify(publicKey);
         } catch (Exception e) {
             throw new JwtException("Failed to verify signature. It may still be valid, but an exception was thrown", e);
         }
+        return signature;
     }
 
     @Override
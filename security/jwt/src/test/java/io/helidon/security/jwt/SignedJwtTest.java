@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package io.helidon.security.jwt;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
 import java.util.logging.Logger;
 
 import io.helidon.common.Errors;
@@ -29,6 +32,7 @@ import org.junit.jupiter.api.Test;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -141,4 +145,35 @@ public class SignedJwtTest {
     public void testWrongToken() {
         assertThrows(Errors.ErrorMessagesException.class, () -> SignedJwt.parseToken(WRONG_TOKEN));
     }
+
+    @Test
+    public void testNotAJwt() {
+        assertThrows(JwtException.class, () -> SignedJwt.parseToken("header.payload"));
+        assertThrows(JwtException.class, () -> SignedJwt.parseToken("header.payload.signature.other"));
+        assertThrows(JwtException.class, () -> SignedJwt.parseToken(".payload.signature"));
+        assertThrows(JwtException.class, () -> SignedJwt.parseToken("header..signature"));
+    }
+
+    @Test
+    public void testParseSignedBytes() {
+        SignedJwt signedJwt = SignedJwt.parseToken(AUTH_0_TOKEN);
+        String signedContent = AUTH_0_TOKEN.substring(0, AUTH_0_TOKEN.lastIndexOf('.'));
+
+        assertThat(signedJwt.getSignedBytes(), is(signedContent.getBytes(StandardCharsets.US_ASCII)));
+        assertThat(signedJwt.getJwt(), sameInstance(signedJwt.getJwt()));
+    }
+
+    @Test
+    public void testUrlSafeCharacters() {
+        // {"alg":"none","x":"??>"} and {"sub":"~~~"} encode to base64 with '_' and '-'
+        String header = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"alg\":\"none\",\"x\":\"??>\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"~~~\"}".getBytes(StandardCharsets.UTF_8));
+
+        SignedJwt signedJwt = SignedJwt.parseToken(header + "." + payload + ".");
+
+        assertThat(signedJwt.getJwt().subject(), is(Optional.of("~~~")));
+        assertThat(signedJwt.getSignature(), is(new byte[0]));
+    }
 }
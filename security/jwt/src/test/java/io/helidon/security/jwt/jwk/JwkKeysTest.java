@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,9 +19,11 @@ package io.helidon.security.jwt.jwk;
 import java.nio.charset.StandardCharsets;
 import java.security.interfaces.ECPrivateKey;
 import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.helidon.common.configurable.Resource;
 import io.helidon.security.jwt.JwtException;
@@ -328,4 +330,76 @@ public class JwkKeysTest {
             }, () -> fail("The key should be present in built keys"));
         }, () -> fail("Key \"" + fileKeyid + "\" should be present in jwk_data.json"));
     }
+
+    @Test
+    public void testRefreshOnUnknownKeyId() {
+        AtomicInteger loads = new AtomicInteger();
+        JwkKeys keys = JwkKeys.builder()
+                .refreshResource(() -> Resource.create((loads.getAndIncrement() == 0) ? "google-jwk.json" : "auth0-jwk.json"))
+                .minRefreshDelay(Duration.ZERO)
+                .build();
+
+        assertThat(loads.get(), is(1));
+        assertThat(keys.forKeyId("eb29843dd7334cf989e1db6a2b0c6e07a10a9cd3").isPresent(), is(true));
+        assertThat(loads.get(), is(1));
+
+        // rotated keys
+        assertThat(keys.forKeyId("QzBCMDM1QTI2MjRFMTFDNDBDRTYwRkU4RDdEMzU5RTcwNDRBNjhCNQ").isPresent(), is(true));
+        assertThat(loads.get(), is(2));
+        assertThat(keys.forKeyId("eb29843dd7334cf989e1db6a2b0c6e07a10a9cd3").isPresent(), is(false));
+        assertThat(keys.keys().size(), is(1));
+    }
+
+    @Test
+    public void testRefreshFirstResource() {
+        AtomicInteger loads = new AtomicInteger();
+        JwkKeys keys = JwkKeys.builder()
+                .refreshResource(Resource.create("google-jwk.json"), () -> {
+                    loads.incrementAndGet();
+                    return Resource.create("auth0-jwk.json");
+                })
+                .minRefreshDelay(Duration.ZERO)
+                .build();
+
+        assertThat(loads.get(), is(0));
+        assertThat(keys.forKeyId("eb29843dd7334cf989e1db6a2b0c6e07a10a9cd3").isPresent(), is(true));
+
+        // the supplier is used for reloads
+        assertThat(keys.forKeyId("QzBCMDM1QTI2MjRFMTFDNDBDRTYwRkU4RDdEMzU5RTcwNDRBNjhCNQ").isPresent(), is(true));
+        assertThat(loads.get(), is(1));
+    }
+
+    @Test
+    public void testRefreshRateLimited() {
+        AtomicInteger loads = new AtomicInteger();
+        JwkKeys keys = JwkKeys.builder()
+                .refreshResource(() -> {
+                    loads.incrementAndGet();
+                    return Resource.create("google-jwk.json");
+                })
+                .minRefreshDelay(Duration.ofHours(1))
+                .build();
+
+        assertThat(keys.forKeyId("unknown").isPresent(), is(false));
+        assertThat(keys.forKeyId("unknown").isPresent(), is(false));
+        assertThat(loads.get(), is(1));
+    }
+
+    @Test
+    public void testRefreshFailureKeepsKeys() {
+        AtomicInteger loads = new AtomicInteger();
+        JwkKeys keys = JwkKeys.builder()
+                .refreshResource(() -> {
+                    if (loads.getAndIncrement() == 0) {
+                        return Resource.create("google-jwk.json");
+                    }
+                    throw new IllegalStateException("Identity server is not available");
+                })
+                .minRefreshDelay(Duration.ZERO)
+                .build();
+
+        assertThat(keys.forKeyId("unknown").isPresent(), is(false));
+        assertThat(loads.get(), is(2));
+        assertThat(keys.forKeyId("eb29843dd7334cf989e1db6a2b0c6e07a10a9cd3").isPresent(), is(true));
+    }
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.security.providers.common;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.helidon.config.Config;
+import io.helidon.security.Subject;
+
+/**
+ * Cache of successfully verified tokens (such as JWT), so the same token presented again is not parsed and its
+ * signature not verified again.
+ * <p>
+ * Tokens are keyed by their SHA-256 digest, the raw token is not stored. A cached token is only valid within its
+ * not-before and expiration times, and is evicted once it expires. As the validation done by the provider depends
+ * only on the token and the provider configuration, each provider instance must use its own cache.
+ */
+public final class VerifiedTokenCache {
+    /**
+     * Default maximal number of cached tokens.
+     */
+    public static final long DEFAULT_MAX_SIZE = 10_000;
+
+    private final EvictableCache<String, Entry> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private VerifiedTokenCache(Builder builder) {
+        this.cache = builder.cacheBuilder
+                .maxSize(builder.maxSize)
+                .evictor((key, entry) -> !entry.isValid(Instant.now()))
+                .build();
+    }
+
+    /**
+     * A new builder.
+     *
+     * @return builder to create a new instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create a cache from configuration.
+     * See {@link Builder#config(Config)} for the list of configuration keys.
+     *
+     * @param config configuration of the cache
+     * @return a new cache
+     */
+    public static VerifiedTokenCache create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Subject of a token verified earlier.
+     *
+     * @param token raw token
+     * @return subject created when the token was verified, empty if the token is not cached or is no longer valid
+     */
+    public Optional<Subject> get(String token) {
+        Optional<Subject> result = cache.get(digest(token)).map(Entry::subject);
+        if (result.isPresent()) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Cache a successfully verified token.
+     *
+     * @param token raw token
+     * @param subject subject created from the token
+     * @param notBefore time before which the token must not be accepted, if defined by the token
+     * @param expiration time after which the token must not be accepted, if defined by the token
+     */
+    public void put(String token, Subject subject, Optional<Instant> notBefore, Optional<Instant> expiration) {
+        Entry entry = new Entry(subject, notBefore.orElse(null), expiration.orElse(null));
+        if (entry.isValid(Instant.now())) {
+            cache.computeValue(digest(token), () -> Optional.of(entry));
+        }
+    }
+
+    /**
+     * Current number of cached tokens (including expired ones not yet evicted).
+     *
+     * @return number of cached tokens
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Number of {@link #get(String) lookups} that found a valid token.
+     *
+     * @return hit count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of {@link #get(String) lookups} that did not find a valid token.
+     *
+     * @return miss count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Ratio of lookups that found a valid token.
+     *
+     * @return hit rate between {@code 0} and {@code 1}, {@code 0} if there was no lookup yet
+     */
+    public double hitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return (total == 0) ? 0 : ((double) hitCount / total);
+    }
+
+    /**
+     * Close this cache, stopping eviction of tokens.
+     */
+    public void close() {
+        cache.close();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Fluent API builder for {@link VerifiedTokenCache}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<VerifiedTokenCache> {
+        private final EvictableCache.Builder<String, Entry> cacheBuilder = EvictableCache.builder();
+        private long maxSize = DEFAULT_MAX_SIZE;
+
+        private Builder() {
+        }
+
+        @Override
+        public VerifiedTokenCache build() {
+            return new VerifiedTokenCache(this);
+        }
+
+        /**
+         * Maximal number of cached tokens. When the cache is full, new tokens are verified each time.
+         *
+         * @param maxSize maximal number of cached tokens, defaults to {@value VerifiedTokenCache#DEFAULT_MAX_SIZE}
+         * @return updated builder instance
+         */
+        public Builder maxSize(long maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Update this builder from configuration.
+         * Options expected under the current config node:
+         * <table border="1">
+         * <caption>Configuration parameters</caption>
+         * <tr><th>key</th><th>default value</th><th>description</th></tr>
+         * <tr><td>max-size</td><td>{@value VerifiedTokenCache#DEFAULT_MAX_SIZE}</td><td>Maximal number of cached tokens</td></tr>
+         * </table>
+         * Inactivity timeout and eviction scheduling use the keys of {@link EvictableCache.Builder#config(Config)}.
+         *
+         * @param config configuration to load from
+         * @return updated builder instance
+         */
+        public Builder config(Config config) {
+            config.get("max-size").asLong().ifPresent(this::maxSize);
+            cacheBuilder.config(config);
+            return this;
+        }
+    }
+
+    private static final class Entry {
+        private final Subject subject;
+        private final Instant notBefore;
+        private final Instant expiration;
+
+        private Entry(Subject subject, Instant notBefore, Instant expiration) {
+            this.subject = subject;
+            this.notBefore = notBefore;
+            this.expiration = expiration;
+        }
+
+        private Subject subject() {
+            return subject;
+        }
+
+        private boolean isValid(Instant now) {
+            return ((null == notBefore) || !now.isBefore(notBefore))
+                    && ((null == expiration) || now.isBefore(expiration));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.security.providers.common;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import io.helidon.security.Principal;
+import io.helidon.security.Subject;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Unit test for {@link VerifiedTokenCache}.
+ */
+class VerifiedTokenCacheTest {
+    private static final Subject SUBJECT = Subject.create(Principal.create("jack"));
+
+    @Test
+    void testCaching() {
+        VerifiedTokenCache cache = VerifiedTokenCache.builder().build();
+        Instant now = Instant.now();
+
+        assertThat(cache.get("token"), is(Optional.empty()));
+        cache.put("token", SUBJECT, Optional.of(now.minusSeconds(10)), Optional.of(now.plus(1, ChronoUnit.HOURS)));
+        assertThat(cache.get("token"), is(Optional.of(SUBJECT)));
+        assertThat(cache.get("other-token"), is(Optional.empty()));
+
+        assertThat(cache.size(), is(1));
+        assertThat(cache.hitCount(), is(1L));
+        assertThat(cache.missCount(), is(2L));
+        assertThat(cache.hitRate(), is(1.0 / 3));
+
+        cache.close();
+    }
+
+    @Test
+    void testValidity() throws InterruptedException {
+        VerifiedTokenCache cache = VerifiedTokenCache.builder().build();
+        Instant now = Instant.now();
+
+        cache.put("expired", SUBJECT, Optional.empty(), Optional.of(now.minusSeconds(1)));
+        cache.put("not-yet-valid", SUBJECT, Optional.of(now.plus(1, ChronoUnit.HOURS)), Optional.empty());
+        cache.put("expiring", SUBJECT, Optional.empty(), Optional.of(now.plusMillis(100)));
+        assertThat(cache.size(), is(1));
+        assertThat(cache.get("expired"), is(Optional.empty()));
+        assertThat(cache.get("not-yet-valid"), is(Optional.empty()));
+        assertThat(cache.get("expiring"), is(Optional.of(SUBJECT)));
+
+        Thread.sleep(200);
+        assertThat(cache.get("expiring"), is(Optional.empty()));
+
+        cache.close();
+    }
+}
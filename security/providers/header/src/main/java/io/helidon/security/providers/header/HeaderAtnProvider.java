@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -75,6 +75,12 @@ public class HeaderAtnProvider extends SynchronousProvider implements Authentica
         return new Builder();
     }
 
+    @Override
+    protected boolean isNonBlocking() {
+        // only processes headers
+        return true;
+    }
+
     @Override
     protected AuthenticationResponse syncAuthenticate(ProviderRequest providerRequest) {
         if (!authenticate) {
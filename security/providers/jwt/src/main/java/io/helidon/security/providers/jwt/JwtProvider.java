@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -47,6 +47,7 @@ import io.helidon.security.jwt.jwk.JwkKeys;
 import io.helidon.security.providers.common.OutboundConfig;
 import io.helidon.security.providers.common.OutboundTarget;
 import io.helidon.security.providers.common.TokenCredential;
+import io.helidon.security.providers.common.VerifiedTokenCache;
 import io.helidon.security.spi.AuthenticationProvider;
 import io.helidon.security.spi.OutboundSecurityProvider;
 import io.helidon.security.spi.SynchronousProvider;
@@ -83,6 +84,7 @@ public final class JwtProvider extends SynchronousProvider implements Authentica
     private final String issuer;
     private final Map<OutboundTarget, JwtOutboundTarget> targetToJwtConfig = new IdentityHashMap<>();
     private final Jwk defaultJwk;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     private JwtProvider(Builder builder) {
         this.optional = builder.optional;
@@ -97,6 +99,7 @@ public final class JwtProvider extends SynchronousProvider implements Authentica
         this.issuer = builder.issuer;
         this.expectedAudience = builder.expectedAudience;
         this.verifySignature = builder.verifySignature;
+        this.verifiedTokenCache = builder.verifiedTokenCache;
 
         if (null == atnTokenHandler) {
             defaultTokenHandler = TokenHandler.builder()
@@ -137,6 +140,12 @@ public final class JwtProvider extends SynchronousProvider implements Authentica
         return builder().config(config).build();
     }
 
+    @Override
+    protected boolean isNonBlocking() {
+        // an unknown key id in refreshed verification keys fetches the keys from a remote server
+        return (null == verifyKeys) || !verifyKeys.isRefreshing();
+    }
+
     @Override
     protected AuthenticationResponse syncAuthenticate(ProviderRequest providerRequest) {
         if (!authenticate) {
@@ -166,6 +175,12 @@ public final class JwtProvider extends SynchronousProvider implements Authentica
     }
 
     private AuthenticationResponse authenticateToken(String token) {
+        if (null != verifiedTokenCache) {
+            Optional<Subject> cached = verifiedTokenCache.get(token);
+            if (cached.isPresent()) {
+                return AuthenticationResponse.success(cached.get());
+            }
+        }
         SignedJwt signedJwt;
         try {
             signedJwt = SignedJwt.parseToken(token);
@@ -180,7 +195,7 @@ public final class JwtProvider extends SynchronousProvider implements Authentica
                 // verify the audience is correct
                 Errors validate = jwt.validate(null, expectedAudience);
                 if (validate.isValid()) {
-                    return AuthenticationResponse.success(buildSubject(jwt, signedJwt));
+                    return success(token, jwt, buildSubject(jwt, signedJwt));
                 } else {
                     return AuthenticationResponse.failed("Audience is invalid or missing: " + expectedAudience);
                 }
@@ -188,8 +203,25 @@ public final class JwtProvider extends SynchronousProvider implements Authentica
                 return AuthenticationResponse.failed(errors.toString());
             }
         } else {
-            return AuthenticationResponse.success(buildSubject(signedJwt.getJwt(), signedJwt));
+            Jwt jwt = signedJwt.getJwt();
+            return success(token, jwt, buildSubject(jwt, signedJwt));
+        }
+    }
+
+    private AuthenticationResponse success(String token, Jwt jwt, Subject subject) {
+        if (null != verifiedTokenCache) {
+            verifiedTokenCache.put(token, subject, jwt.notBefore(), jwt.expirationTime());
         }
+        return AuthenticationResponse.success(subject);
+    }
+
+    /**
+     * Cache of verified tokens, if configured.
+     *
+     * @return verified token cache, empty if tokens are verified on each request
+     */
+    public Optional<VerifiedTokenCache> verifiedTokenCache() {
+        return Optional.ofNullable(verifiedTokenCache);
     }
 
     Subject buildSubject(Jwt jwt, SignedJwt signedJwt) {
@@ -598,6 +630,7 @@ public final class JwtProvider extends SynchronousProvider implements Authentica
         private JwkKeys signKeys;
         private String issuer;
         private String expectedAudience;
+        private VerifiedTokenCache verifiedTokenCache;
 
         private Builder() {
         }
@@ -758,6 +791,30 @@ public final class JwtProvider extends SynchronousProvider implements Authentica
             return this;
         }
 
+        /**
+         * JWK keys used to verify JWTs created by other parties, such as keys refreshed from an identity server.
+         *
+         * @param verifyKeys keys to verify signatures with
+         * @return updated builder instance
+         * @see JwkKeys.Builder#refreshResource(java.util.function.Supplier)
+         */
+        public Builder verifyJwk(JwkKeys verifyKeys) {
+            this.verifyKeys = verifyKeys;
+            return this;
+        }
+
+        /**
+         * Cache of verified tokens, so a token presented again is not parsed and verified again
+         * until it expires. Tokens are verified on each request by default.
+         *
+         * @param cache cache to use, each provider instance needs its own cache
+         * @return updated builder instance
+         */
+        public Builder verifiedTokenCache(VerifiedTokenCache cache) {
+            this.verifiedTokenCache = cache;
+            return this;
+        }
+
         /**
          * Issuer used to create new JWTs.
          *
@@ -785,6 +842,7 @@ public final class JwtProvider extends SynchronousProvider implements Authentica
             config.get("atn-token").ifExists(this::verifyKeys);
             config.get("atn-token.jwt-audience").asString().ifPresent(this::expectedAudience);
             config.get("atn-token.verify-signature").asBoolean().ifPresent(this::verifySignature);
+            config.get("atn-token.verified-token-cache").ifExists(cache -> verifiedTokenCache(VerifiedTokenCache.create(cache)));
             config.get("sign-token").ifExists(outbound -> outboundConfig(OutboundConfig.create(outbound)));
             config.get("sign-token").ifExists(this::outbound);
             config.get("allow-unsigned").asBoolean().ifPresent(this::allowUnsigned);
@@ -802,7 +860,17 @@ public final class JwtProvider extends SynchronousProvider implements Authentica
         }
 
         private void verifyKeys(Config config) {
-            Resource.create(config, "jwk").ifPresent(this::verifyJwk);
+            Resource.create(config, "jwk").ifPresent(resource -> {
+                if (resource.sourceType() == Resource.Source.URL) {
+                    // keys published on a URL may be rotated
+                    verifyJwk(JwkKeys.builder()
+                                      .config(config.get("jwk-refresh"))
+                                      .refreshResource(resource, () -> Resource.create(config, "jwk").get())
+                                      .build());
+                } else {
+                    verifyJwk(resource);
+                }
+            });
         }
 
         private void outbound(Config config) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -41,6 +41,7 @@ import io.helidon.security.jwt.jwk.JwkEC;
 import io.helidon.security.jwt.jwk.JwkKeys;
 import io.helidon.security.jwt.jwk.JwkOctet;
 import io.helidon.security.jwt.jwk.JwkRSA;
+import io.helidon.security.providers.common.VerifiedTokenCache;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
@@ -49,6 +50,7 @@ import org.mockito.Mockito;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.mock;
@@ -73,6 +75,21 @@ public class JwtProviderTest {
         providersConfig = Config.create();
     }
 
+    @Test
+    public void testNonBlockingOnlyWithLocalKeys() {
+        JwtProvider local = JwtProvider.builder()
+                .verifyJwk(verifyKeys)
+                .build();
+        assertThat(local.isNonBlocking(), is(true));
+
+        JwtProvider refreshed = JwtProvider.builder()
+                .verifyJwk(JwkKeys.builder()
+                                   .refreshResource(() -> Resource.create("verify-jwk.json"))
+                                   .build())
+                .build();
+        assertThat(refreshed.isNonBlocking(), is(false));
+    }
+
     @Test
     public void testWrongToken() {
         JwtProvider provider = JwtProvider.create(providersConfig.get("jwt"));
@@ -320,6 +337,55 @@ public class JwtProviderTest {
         assertThat(authenticationResponse.status(), is(SecurityResponse.SecurityStatus.FAILURE));
     }
 
+    @Test
+    public void testVerifiedTokenCache() {
+        JwtProvider provider = JwtProvider.builder()
+                .config(providersConfig.get("jwt"))
+                .verifiedTokenCache(VerifiedTokenCache.builder().build())
+                .build();
+
+        SecurityContext context = Mockito.mock(SecurityContext.class);
+        when(context.user()).thenReturn(Optional.of(Subject.create(Principal.builder()
+                                                                            .name("user1")
+                                                                            .id("user1-id")
+                                                                            .build())));
+        ProviderRequest request = mock(ProviderRequest.class);
+        when(request.securityContext()).thenReturn(context);
+        SecurityEnvironment outboundEnv = SecurityEnvironment.builder()
+                .path("/ec")
+                .transport("http")
+                .targetUri(URI.create("http://localhost:8080/ec"))
+                .build();
+        String signedToken = provider.syncOutbound(request, outboundEnv, EndpointConfig.create())
+                .requestHeaders()
+                .get("Authorization")
+                .get(0)
+                .substring("bearer ".length());
+
+        ProviderRequest atnRequest = mock(ProviderRequest.class);
+        when(atnRequest.env()).thenReturn(SecurityEnvironment.builder()
+                                                  .header("Authorization", "bearer " + signedToken)
+                                                  .build());
+
+        AuthenticationResponse first = provider.syncAuthenticate(atnRequest);
+        AuthenticationResponse second = provider.syncAuthenticate(atnRequest);
+        assertThat(first.status(), is(SecurityResponse.SecurityStatus.SUCCESS));
+        assertThat(second.status(), is(SecurityResponse.SecurityStatus.SUCCESS));
+        assertThat(second.user().get(), sameInstance(first.user().get()));
+
+        VerifiedTokenCache cache = provider.verifiedTokenCache().get();
+        assertThat(cache.hitCount(), is(1L));
+        assertThat(cache.missCount(), is(1L));
+
+        // tampered token is not served from the cache
+        when(atnRequest.env()).thenReturn(SecurityEnvironment.builder()
+                                                  .header("Authorization", "bearer " + signedToken + "x")
+                                                  .build());
+        assertThat(provider.syncAuthenticate(atnRequest).status(), is(SecurityResponse.SecurityStatus.FAILURE));
+        assertThat(cache.size(), is(1));
+        cache.close();
+    }
+
     @Test
     public void testOctBothWays() {
         String userId = "user1-id";
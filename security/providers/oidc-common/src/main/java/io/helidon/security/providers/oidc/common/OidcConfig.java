@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -209,6 +209,12 @@ import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
  *     <td>A resource pointing to JWK with public keys of signing certificates used to validate JWT</td>
  * </tr>
  * <tr>
+ *     <td>sign-jwk-refresh</td>
+ *     <td>&nbsp;</td>
+ *     <td>Refresh settings (interval, jitter, min-delay) of keys obtained from a URL, see
+ *     {@link JwkKeys.Builder#config(Config)}</td>
+ * </tr>
+ * <tr>
  *     <td>introspect-endpoint-uri</td>
  *     <td>"introspection_endpoint" in OIDC metadata, or identity-uri/oauth2/v1/introspect</td>
  *     <td>When validate-with-jwk is set to "false", this is the endpoint used</td>
@@ -724,6 +730,7 @@ public final class OidcConfig {
         private URI tokenEndpointUri;
         private URI authorizationEndpointUri;
         private JwkKeys signJwk;
+        private Config signJwkRefresh = Config.empty();
         private boolean oidcMetadataWellKnown = true;
 
         private boolean validateJwtWithJwk = DEFAULT_JWT_VALIDATE_JWK;
@@ -780,8 +787,10 @@ public final class OidcConfig {
                                                  "jwks_uri",
                                                  null);
                     if (null != jwkUri) {
+                        // keys of the identity server may be rotated
                         this.signJwk = JwkKeys.builder()
-                                .resource(Resource.create(jwkUri))
+                                .config(signJwkRefresh)
+                                .refreshResource(() -> Resource.create(jwkUri))
                                 .build();
                     }
                 }
@@ -894,7 +903,18 @@ public final class OidcConfig {
             config.get("base-scopes").asString().ifPresent(this::baseScopes);
             Resource.create(config, "oidc-metadata").ifPresent(this::oidcMetadata);
             config.get("oidc-metadata-well-known").asBoolean().ifPresent(this::oidcMetadataWellKnown);
-            Resource.create(config, "sign-jwk").ifPresent(this::signJwk);
+            this.signJwkRefresh = config.get("sign-jwk-refresh");
+            Resource.create(config, "sign-jwk").ifPresent(resource -> {
+                if (resource.sourceType() == Resource.Source.URL) {
+                    // keys of the identity server may be rotated
+                    signJwk(JwkKeys.builder()
+                                    .config(signJwkRefresh)
+                                    .refreshResource(resource, () -> Resource.create(config, "sign-jwk").get())
+                                    .build());
+                } else {
+                    signJwk(resource);
+                }
+            });
             config.get("token-endpoint-uri").as(URI.class).ifPresent(this::tokenEndpointUri);
             config.get("authorization-endpoint-uri").as(URI.class).ifPresent(this::authorizationEndpointUri);
 
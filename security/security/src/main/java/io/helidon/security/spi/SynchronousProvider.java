@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,10 @@
 package io.helidon.security.spi;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 import io.helidon.security.AuthenticationResponse;
 import io.helidon.security.AuthorizationResponse;
@@ -33,8 +36,14 @@ import io.helidon.security.SecurityEnvironment;
  * Just override the method for your provider and let the magic begin.
  * As java does not allow for multiple inheritance of classes, this is an easy way to implement methods
  * for all SPI interfaces without forcing each provider to handle all types of security.
+ * <p>
+ * The synchronous methods are invoked in the {@link io.helidon.security.SecurityContext#executorService() security
+ * executor service}, unless the provider declares it never blocks by overriding {@link #isNonBlocking()}, in which
+ * case they are invoked on the calling thread.
  */
 public abstract class SynchronousProvider implements SecurityProvider {
+    private final LongAdder asyncExecutions = new LongAdder();
+    private final LongAdder inlineExecutions = new LongAdder();
     /**
      * Authenticate a request.
      * This may be just resolving headers (tokens) or full authentication (basic auth).
@@ -48,9 +57,7 @@ public abstract class SynchronousProvider implements SecurityProvider {
      * @see AuthenticationResponse#success(io.helidon.security.Subject)
      */
     public final CompletionStage<AuthenticationResponse> authenticate(ProviderRequest providerRequest) {
-        return CompletableFuture
-                .supplyAsync(() -> syncAuthenticate(providerRequest),
-                             providerRequest.securityContext().executorService());
+        return execute(providerRequest, () -> syncAuthenticate(providerRequest));
     }
 
     /**
@@ -64,8 +71,7 @@ public abstract class SynchronousProvider implements SecurityProvider {
      * @see AuthorizationResponse#permit()
      */
     public final CompletionStage<AuthorizationResponse> authorize(ProviderRequest providerRequest) {
-        return CompletableFuture.supplyAsync(() -> syncAuthorize(providerRequest),
-                                             providerRequest.securityContext().executorService());
+        return execute(providerRequest, () -> syncAuthorize(providerRequest));
     }
 
     /**
@@ -82,8 +88,56 @@ public abstract class SynchronousProvider implements SecurityProvider {
     public final CompletionStage<OutboundSecurityResponse> outboundSecurity(ProviderRequest providerRequest,
                                                                             SecurityEnvironment outboundEnv,
                                                                             EndpointConfig outboundConfig) {
-        return CompletableFuture.supplyAsync(() -> syncOutbound(providerRequest, outboundEnv, outboundConfig),
-                                             providerRequest.securityContext().executorService());
+        return execute(providerRequest, () -> syncOutbound(providerRequest, outboundEnv, outboundConfig));
+    }
+
+    /**
+     * Whether the synchronous methods of this provider never block (e.g. they only process headers and
+     * verify signatures). Such methods are invoked on the calling thread, which avoids a hand-off to the
+     * security executor service for each request. Override to return {@code true} only if no blocking
+     * operation (such as a call to a remote server or a database) may be done, as the calling thread may be
+     * an event loop thread.
+     *
+     * @return {@code true} if this provider never blocks, defaults to {@code false}
+     */
+    protected boolean isNonBlocking() {
+        return false;
+    }
+
+    /**
+     * Number of requests processed by this provider in the security executor service.
+     *
+     * @return count of requests processed asynchronously
+     * @see #isNonBlocking()
+     */
+    public final long asyncExecutions() {
+        return asyncExecutions.sum();
+    }
+
+    /**
+     * Number of requests processed by this provider on the calling thread.
+     *
+     * @return count of requests processed on the calling thread
+     * @see #isNonBlocking()
+     */
+    public final long inlineExecutions() {
+        return inlineExecutions.sum();
+    }
+
+    private <T> CompletionStage<T> execute(ProviderRequest providerRequest, Supplier<T> method) {
+        if (!isNonBlocking()) {
+            asyncExecutions.increment();
+            return CompletableFuture.supplyAsync(method, providerRequest.securityContext().executorService());
+        }
+        inlineExecutions.increment();
+        try {
+            return CompletableFuture.completedFuture(method.get());
+        } catch (RuntimeException e) {
+            // same as completion of supplyAsync
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new CompletionException(e));
+            return failed;
+        }
     }
 
     /**
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -50,6 +50,27 @@ public class SynchronousProviderTest {
         checkResponse(outboundSecurityResponse);
     }
 
+    @Test
+    public void testNonBlockingProvider() {
+        Atn async = new Atn();
+        NonBlockingAtn inline = new NonBlockingAtn();
+        Security security = Security.builder()
+                .addAuthenticationProvider(async, "async")
+                .addAuthenticationProvider(inline, "inline")
+                .build();
+
+        SecurityContext context = security.contextBuilder("unit_test").build();
+
+        checkResponse(context.atnClientBuilder().explicitProvider("inline").buildAndGet());
+        assertThat(inline.calledOn, is(Thread.currentThread()));
+        assertThat(inline.inlineExecutions(), is(1L));
+        assertThat(inline.asyncExecutions(), is(0L));
+
+        checkResponse(context.atnClientBuilder().explicitProvider("async").buildAndGet());
+        assertThat(async.inlineExecutions(), is(0L));
+        assertThat(async.asyncExecutions(), is(1L));
+    }
+
     private void checkResponse(SecurityResponse response) {
         assertThat(response.status(), is(SecurityResponse.SecurityStatus.ABSTAIN));
         assertThat(response.description().isPresent(), is(true));
@@ -66,6 +87,21 @@ public class SynchronousProviderTest {
         }
     }
 
+    private class NonBlockingAtn extends Atn {
+        private volatile Thread calledOn;
+
+        @Override
+        protected boolean isNonBlocking() {
+            return true;
+        }
+
+        @Override
+        protected AuthenticationResponse syncAuthenticate(ProviderRequest providerRequest) {
+            calledOn = Thread.currentThread();
+            return super.syncAuthenticate(providerRequest);
+        }
+    }
+
     private class Atz extends SynchronousProvider implements AuthorizationProvider {
         @Override
         protected AuthorizationResponse syncAuthorize(ProviderRequest providerRequest) {
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.benchmarks.security.jwt;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.Errors;
+import io.helidon.security.jwt.Jwt;
+import io.helidon.security.jwt.SignedJwt;
+import io.helidon.security.jwt.jwk.Jwk;
+import io.helidon.security.jwt.jwk.JwkEC;
+import io.helidon.security.jwt.jwk.JwkKeys;
+import io.helidon.security.jwt.jwk.JwkRSA;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing and signature verification of typical access tokens signed with {@code RS256} and {@code ES256},
+ * as done by the JWT security providers for each request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+    private static final String KEY_ID = "benchmark-key";
+
+    @Param({JwkRSA.ALG_RS256, JwkEC.ALG_ES256})
+    private String algorithm;
+
+    private JwkKeys keys;
+    private String token;
+
+    /**
+     * Creates a key pair and a token signed by it.
+     *
+     * @throws Exception in case the key pair cannot be created
+     */
+    @Setup
+    public void setup() throws Exception {
+        Jwk jwk = JwkRSA.ALG_RS256.equals(algorithm) ? rsaJwk() : ecJwk();
+        keys = JwkKeys.builder().addKey(jwk).build();
+
+        Instant now = Instant.now();
+        Jwt jwt = Jwt.builder()
+                .algorithm(algorithm)
+                .keyId(KEY_ID)
+                .issuer("https://issuer.example.com")
+                .subject("user@example.com")
+                .preferredUsername("user")
+                .audience("https://api.example.com")
+                .issueTime(now)
+                .notBefore(now)
+                .expirationTime(now.plus(1, ChronoUnit.DAYS))
+                .addScope("orders:read")
+                .addScope("orders:write")
+                .addUserGroup("users")
+                .build();
+        token = SignedJwt.sign(jwt, keys).tokenContent();
+    }
+
+    /**
+     * Parses the token without verifying it.
+     *
+     * @return parsed token
+     */
+    @Benchmark
+    public SignedJwt parse() {
+        return SignedJwt.parseToken(token);
+    }
+
+    /**
+     * Parses the token, verifies its signature and validates its claims.
+     *
+     * @return validation errors
+     */
+    @Benchmark
+    public Errors parseAndVerify() {
+        SignedJwt signedJwt = SignedJwt.parseToken(token);
+        Errors errors = signedJwt.verifySignature(keys);
+        if (errors.isValid()) {
+            return signedJwt.getJwt().validate("https://issuer.example.com", "https://api.example.com");
+        }
+        return errors;
+    }
+
+    private static Jwk rsaJwk() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        return JwkRSA.builder()
+                .keyId(KEY_ID)
+                .algorithm(JwkRSA.ALG_RS256)
+                .publicKey((RSAPublicKey) keyPair.getPublic())
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .build();
+    }
+
+    private static Jwk ecJwk() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+        return JwkEC.builder()
+                .keyId(KEY_ID)
+                .algorithm(JwkEC.ALG_ES256)
+                .publicKey((ECPublicKey) keyPair.getPublic())
+                .privateKey((ECPrivateKey) keyPair.getPrivate())
+                .build();
+    }
+}
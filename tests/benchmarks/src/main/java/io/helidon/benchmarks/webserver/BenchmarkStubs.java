@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.benchmarks.webserver;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+import io.helidon.common.http.ContextualRegistry;
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
+import io.helidon.webserver.BareRequest;
+import io.helidon.webserver.BareResponse;
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.ServerConfiguration;
+import io.helidon.webserver.WebServer;
+
+/**
+ * Minimal SPI implementations to drive {@link Routing} without a network.
+ */
+final class BenchmarkStubs {
+
+    private BenchmarkStubs() {
+    }
+
+    /**
+     * A web server which is never started.
+     */
+    static final class StubWebServer implements WebServer {
+        private final ContextualRegistry context = ContextualRegistry.create();
+
+        @Override
+        public ServerConfiguration configuration() {
+            return null;
+        }
+
+        @Override
+        public CompletionStage<WebServer> start() {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletionStage<WebServer> whenShutdown() {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletionStage<WebServer> shutdown() {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public boolean isRunning() {
+            return true;
+        }
+
+        @Override
+        public ContextualRegistry context() {
+            return context;
+        }
+
+        @Override
+        public int port(String socketName) {
+            return 0;
+        }
+    }
+
+    /**
+     * A request without a body.
+     */
+    static final class StubBareRequest implements BareRequest {
+        private final WebServer webServer;
+        private final Http.RequestMethod method;
+        private final URI uri;
+        private final Map<String, List<String>> headers;
+
+        StubBareRequest(WebServer webServer, Http.RequestMethod method, String uri) {
+            this(webServer, method, uri, Collections.emptyMap());
+        }
+
+        StubBareRequest(WebServer webServer, Http.RequestMethod method, String uri, Map<String, List<String>> headers) {
+            this.webServer = webServer;
+            this.method = method;
+            this.uri = URI.create(uri);
+            this.headers = headers;
+        }
+
+        @Override
+        public WebServer webServer() {
+            return webServer;
+        }
+
+        @Override
+        public Http.RequestMethod method() {
+            return method;
+        }
+
+        @Override
+        public Http.Version version() {
+            return Http.Version.V1_1;
+        }
+
+        @Override
+        public URI uri() {
+            return uri;
+        }
+
+        @Override
+        public String localAddress() {
+            return "127.0.0.1";
+        }
+
+        @Override
+        public int localPort() {
+            return 8080;
+        }
+
+        @Override
+        public String remoteAddress() {
+            return "127.0.0.1";
+        }
+
+        @Override
+        public int remotePort() {
+            return 40000;
+        }
+
+        @Override
+        public boolean isSecure() {
+            return false;
+        }
+
+        @Override
+        public Map<String, List<String>> headers() {
+            return headers;
+        }
+
+        @Override
+        public Flow.Publisher<DataChunk> bodyPublisher() {
+            return subscriber -> { };
+        }
+
+        @Override
+        public long requestId() {
+            return 1;
+        }
+    }
+
+    /**
+     * A response which completes immediately and drops all data.
+     */
+    static final class StubBareResponse implements BareResponse {
+        private final CompletableFuture<BareResponse> completed = CompletableFuture.completedFuture(this);
+
+        @Override
+        public void writeStatusAndHeaders(Http.ResponseStatus status, Map<String, List<String>> headers) {
+        }
+
+        @Override
+        public CompletionStage<BareResponse> whenHeadersCompleted() {
+            return completed;
+        }
+
+        @Override
+        public CompletionStage<BareResponse> whenCompleted() {
+            return completed;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(DataChunk data) {
+            data.release();
+        }
+
+        @Override
+        public void onError(Throwable thr) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        @Override
+        public long requestId() {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.benchmarks.webserver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Multi;
+import io.helidon.media.common.ContentReaders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading of request content split to chunks by {@link ContentReaders#readBytes(java.util.concurrent.Flow.Publisher)}
+ * and {@link ContentReaders#readString(java.util.concurrent.Flow.Publisher, java.nio.charset.Charset)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentReadersBenchmark {
+
+    @Param({"1", "16"})
+    private int chunks;
+
+    @Param({"1024", "16384"})
+    private int chunkSize;
+
+    private byte[][] content;
+
+    /**
+     * Prepares the chunks content.
+     */
+    @Setup
+    public void setup() {
+        content = new byte[chunks][];
+        for (int i = 0; i < chunks; i++) {
+            content[i] = new byte[chunkSize];
+            Arrays.fill(content[i], (byte) ('a' + i % 26));
+        }
+    }
+
+    /**
+     * Collects all chunks to a byte array.
+     *
+     * @return content bytes
+     * @throws ExecutionException never, content is read synchronously
+     * @throws InterruptedException never, content is read synchronously
+     */
+    @Benchmark
+    public byte[] readBytes() throws ExecutionException, InterruptedException {
+        return ContentReaders.readBytes(publisher()).get();
+    }
+
+    /**
+     * Collects all chunks to a string.
+     *
+     * @return content string
+     * @throws ExecutionException never, content is read synchronously
+     * @throws InterruptedException never, content is read synchronously
+     */
+    @Benchmark
+    public String readString() throws ExecutionException, InterruptedException {
+        return ContentReaders.readString(publisher(), StandardCharsets.UTF_8).get();
+    }
+
+    // chunks are consumed by reading, new ones are created for each invocation
+    private Multi<DataChunk> publisher() {
+        DataChunk[] dataChunks = new DataChunk[chunks];
+        for (int i = 0; i < chunks; i++) {
+            dataChunks[i] = DataChunk.create(ByteBuffer.wrap(content[i]));
+        }
+        return Multi.just(dataChunks);
+    }
+}
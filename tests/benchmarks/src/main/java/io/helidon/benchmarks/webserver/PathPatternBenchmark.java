@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.benchmarks.webserver;
+
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.webserver.PathMatcher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures compilation of path patterns by {@link PathMatcher#create(String)} and matching of request paths
+ * by the compiled matchers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathPatternBenchmark {
+
+    @Param({"literal", "parameter", "regexp", "optional"})
+    private String kind;
+
+    private String pattern;
+    private String path;
+    private PathMatcher matcher;
+
+    /**
+     * Selects a pattern and a matching path of the benchmarked kind.
+     */
+    @Setup
+    public void setup() {
+        switch (kind) {
+        case "literal":
+            pattern = "/api/v1/customers/orders";
+            path = "/api/v1/customers/orders";
+            break;
+        case "parameter":
+            pattern = "/api/v1/customers/{customer}/orders/{order}";
+            path = "/api/v1/customers/acme/orders/42";
+            break;
+        case "regexp":
+            pattern = "/api/v1/customers/{customer:[a-z]+}/orders/{order:\\d+}";
+            path = "/api/v1/customers/acme/orders/42";
+            break;
+        case "optional":
+            pattern = "/api/v1/customers[/{customer}]/orders/{+}";
+            path = "/api/v1/customers/acme/orders/42/items";
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown pattern kind: " + kind);
+        }
+        matcher = PathMatcher.create(pattern);
+        if (!matcher.match(path).matches()) {
+            throw new IllegalStateException("Pattern " + pattern + " does not match " + path);
+        }
+    }
+
+    /**
+     * Compiles the pattern.
+     *
+     * @return compiled matcher
+     */
+    @Benchmark
+    public PathMatcher compile() {
+        return PathMatcher.create(pattern);
+    }
+
+    /**
+     * Matches the whole path, including extraction of path parameters.
+     *
+     * @return match result
+     */
+    @Benchmark
+    public PathMatcher.Result match() {
+        PathMatcher.Result result = matcher.match(path);
+        result.params();
+        return result;
+    }
+
+    /**
+     * Matches a prefix of the path, as done for paths of registered services.
+     *
+     * @return prefix match result
+     */
+    @Benchmark
+    public PathMatcher.PrefixResult prefixMatch() {
+        return matcher.prefixMatch(path);
+    }
+}
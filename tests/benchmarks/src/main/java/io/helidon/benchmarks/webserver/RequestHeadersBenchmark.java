@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.benchmarks.webserver;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.Http;
+import io.helidon.webserver.BareRequest;
+import io.helidon.webserver.BareResponse;
+import io.helidon.webserver.RequestHeaders;
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.WebServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures creation of {@link RequestHeaders} from the headers of a typical browser request, followed by a lookup
+ * of a few headers, as done for requests of an HTTP SPI implementation other than the Netty based one.
+ * The {@link #noHeaders()} benchmark routes the same request without headers and serves as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestHeadersBenchmark {
+
+    private Routing routing;
+    private BareRequest browserRequest;
+    private BareRequest emptyRequest;
+    private BareResponse response;
+    private Optional<String> lastValue;
+
+    /**
+     * Prepares requests with and without the headers of a typical browser request.
+     */
+    @Setup
+    public void setup() {
+        Map<String, List<String>> headersMap = new LinkedHashMap<>();
+        headersMap.put(Http.Header.HOST, List.of("localhost:8080"));
+        headersMap.put(Http.Header.USER_AGENT, List.of("Mozilla/5.0 (X11; Linux x86_64; rv:72.0) Gecko/20100101 Firefox/72.0"));
+        headersMap.put(Http.Header.ACCEPT, List.of("text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"));
+        headersMap.put(Http.Header.ACCEPT_LANGUAGE, List.of("en-US,en;q=0.5"));
+        headersMap.put(Http.Header.ACCEPT_ENCODING, List.of("gzip, deflate, br"));
+        headersMap.put(Http.Header.CONNECTION, List.of("keep-alive"));
+        headersMap.put(Http.Header.COOKIE, List.of("session=6a1b2c3d4e5f; theme=dark"));
+        headersMap.put(Http.Header.CACHE_CONTROL, List.of("max-age=0"));
+        headersMap.put("Upgrade-Insecure-Requests", List.of("1"));
+        headersMap.put("X-Request-Id", List.of("5b4a3c2d-1e0f-4a5b-9c8d-7e6f5a4b3c2d"));
+
+        routing = Routing.builder()
+                .get("/headers", (req, res) -> lastValue = lookup(req.headers()))
+                .build();
+
+        WebServer webServer = new BenchmarkStubs.StubWebServer();
+        browserRequest = new BenchmarkStubs.StubBareRequest(webServer, Http.Method.GET, "http://localhost/headers", headersMap);
+        emptyRequest = new BenchmarkStubs.StubBareRequest(webServer, Http.Method.GET, "http://localhost/headers");
+        response = new BenchmarkStubs.StubBareResponse();
+    }
+
+    /**
+     * Routes the request with the browser headers and reads a few of them.
+     *
+     * @return last header value
+     */
+    @Benchmark
+    public Optional<String> browserHeaders() {
+        routing.route(browserRequest, response);
+        return lastValue;
+    }
+
+    /**
+     * Routes the request without headers and reads a few of them.
+     *
+     * @return last header value
+     */
+    @Benchmark
+    public Optional<String> noHeaders() {
+        routing.route(emptyRequest, response);
+        return lastValue;
+    }
+
+    private static Optional<String> lookup(RequestHeaders headers) {
+        headers.first(Http.Header.HOST);
+        headers.first(Http.Header.CONTENT_TYPE);
+        headers.contentLength();
+        return headers.first("x-request-id");
+    }
+}
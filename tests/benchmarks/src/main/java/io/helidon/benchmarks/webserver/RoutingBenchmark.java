@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.benchmarks.webserver;
+
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.Http;
+import io.helidon.webserver.BareRequest;
+import io.helidon.webserver.BareResponse;
+import io.helidon.webserver.Handler;
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.WebServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares lookup in large route tables by the default route crawler and by the compiled routing
+ * (see {@link Routing.Builder#compiledRouting(boolean)}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+    private static final Handler VOID_HANDLER = (req, res) -> { };
+
+    @Param({"10", "100", "500"})
+    private int routes;
+
+    @Param({"false", "true"})
+    private boolean compiled;
+
+    private Routing routing;
+    private BareRequest firstRoute;
+    private BareRequest lastRoute;
+    private BareRequest nestedRoute;
+    private BareResponse response;
+
+    /**
+     * Registers {@code 4 * routes} routes and prepares requests.
+     */
+    @Setup
+    public void setup() {
+        Routing.Builder builder = Routing.builder()
+                .compiledRouting(compiled);
+        for (int i = 0; i < routes; i++) {
+            builder.get("/api/resource" + i + "/{id}", VOID_HANDLER)
+                    .post("/api/resource" + i, VOID_HANDLER)
+                    .put("/api/resource" + i + "/{id}", VOID_HANDLER)
+                    .delete("/api/resource" + i + "/{id}", VOID_HANDLER);
+        }
+        builder.register("/nested/{tenant}", rules -> rules.get("/items/{id}", VOID_HANDLER));
+        routing = builder.build();
+
+        WebServer webServer = new BenchmarkStubs.StubWebServer();
+        firstRoute = new BenchmarkStubs.StubBareRequest(webServer, Http.Method.GET, "http://localhost/api/resource0/42");
+        lastRoute = new BenchmarkStubs.StubBareRequest(webServer,
+                                                       Http.Method.GET,
+                                                       "http://localhost/api/resource" + (routes - 1) + "/42");
+        nestedRoute = new BenchmarkStubs.StubBareRequest(webServer, Http.Method.GET, "http://localhost/nested/acme/items/42");
+        response = new BenchmarkStubs.StubBareResponse();
+    }
+
+    /**
+     * Routes a request matched by the first registered routes.
+     */
+    @Benchmark
+    public void firstRoute() {
+        routing.route(firstRoute, response);
+    }
+
+    /**
+     * Routes a request matched by the last registered routes.
+     */
+    @Benchmark
+    public void lastRoute() {
+        routing.route(lastRoute, response);
+    }
+
+    /**
+     * Routes a request matched by a route of a nested service registered after all other routes.
+     */
+    @Benchmark
+    public void nestedRoute() {
+        routing.route(nestedRoute, response);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.benchmarks.webserver;
+
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.Parameters;
+import io.helidon.webserver.BareRequest;
+import io.helidon.webserver.BareResponse;
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.WebServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures decoding of query strings to the {@link io.helidon.webserver.ServerRequest#queryParams()} of routed requests.
+ * The {@link #noQuery()} benchmark routes a request without a query and serves as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UriComponentBenchmark {
+
+    private static final String PLAIN_QUERY = "page=2&size=50&sort=name&order=asc&fields=id&fields=name&fields=email";
+    private static final String ENCODED_QUERY = "q=caf%C3%A9+cr%C3%A8me&filter=price%3E10%26price%3C20"
+            + "&redirect=https%3A%2F%2Fexample.com%2Fpath%3Fa%3D1&tag=a+b&tag=c%2Fd";
+
+    private Routing routing;
+    private BareRequest noQuery;
+    private BareRequest plainQuery;
+    private BareRequest encodedQuery;
+    private BareResponse response;
+    private Parameters lastParams;
+
+    /**
+     * Prepares requests with the benchmarked queries.
+     */
+    @Setup
+    public void setup() {
+        routing = Routing.builder()
+                .get("/search", (req, res) -> lastParams = req.queryParams())
+                .build();
+
+        WebServer webServer = new BenchmarkStubs.StubWebServer();
+        noQuery = new BenchmarkStubs.StubBareRequest(webServer, Http.Method.GET, "http://localhost/search");
+        plainQuery = new BenchmarkStubs.StubBareRequest(webServer, Http.Method.GET, "http://localhost/search?" + PLAIN_QUERY);
+        encodedQuery = new BenchmarkStubs.StubBareRequest(webServer,
+                                                          Http.Method.GET,
+                                                          "http://localhost/search?" + ENCODED_QUERY);
+        response = new BenchmarkStubs.StubBareResponse();
+    }
+
+    /**
+     * Routes a request without a query.
+     *
+     * @return decoded parameters
+     */
+    @Benchmark
+    public Parameters noQuery() {
+        routing.route(noQuery, response);
+        return lastParams;
+    }
+
+    /**
+     * Routes a request with a query without any encoded characters.
+     *
+     * @return decoded parameters
+     */
+    @Benchmark
+    public Parameters plainQuery() {
+        routing.route(plainQuery, response);
+        return lastParams;
+    }
+
+    /**
+     * Routes a request with a query with percent encoded characters and pluses.
+     *
+     * @return decoded parameters
+     */
+    @Benchmark
+    public Parameters encodedQuery() {
+        routing.route(encodedQuery, response);
+        return lastParams;
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.benchmarks.webserver;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.webserver.Routing;
+import io.helidon.webserver.ServerConfiguration;
+import io.helidon.webserver.WebServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a full request/response cycle of a {@link NettyWebServer} over a loopback keep-alive connection,
+ * including HTTP parsing and encoding, routing and writing of the response.
+ * <p>
+ * Each benchmark thread uses its own connection, run with {@code -t} to measure concurrent connections.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebServerBenchmark {
+
+    /**
+     * The server shared by all benchmark threads.
+     */
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        @Param({"16", "16384"})
+        private int responseSize;
+
+        private WebServer webServer;
+
+        /**
+         * Starts the server.
+         *
+         * @throws Exception if the server fails to start
+         */
+        @Setup
+        public void start() throws Exception {
+            byte[] entity = new byte[responseSize];
+            Arrays.fill(entity, (byte) 'x');
+            webServer = WebServer.create(ServerConfiguration.builder()
+                                                 .bindAddress(InetAddress.getLoopbackAddress())
+                                                 .port(0),
+                                         Routing.builder()
+                                                 .get("/hello", (req, res) -> res.send("Hello World!"))
+                                                 .get("/entity", (req, res) -> res.send(entity))
+                                                 .post("/echo", (req, res) -> req.content()
+                                                         .as(byte[].class)
+                                                         .thenAccept(res::send))
+                                                 .build())
+                    .start()
+                    .toCompletableFuture()
+                    .get(10, TimeUnit.SECONDS);
+        }
+
+        /**
+         * Stops the server.
+         *
+         * @throws Exception if the server fails to stop
+         */
+        @TearDown
+        public void stop() throws Exception {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * A blocking HTTP/1.1 client with a keep-alive connection per benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Client {
+
+        private static final byte[] BODY = "{\"message\":\"Hello World!\"}".getBytes(StandardCharsets.US_ASCII);
+
+        private Socket socket;
+        private OutputStream out;
+        private InputStream in;
+        private byte[] hello;
+        private byte[] entity;
+        private byte[] echo;
+
+        /**
+         * Opens the connection.
+         *
+         * @param server the server to connect to
+         * @throws IOException if the connection cannot be opened
+         */
+        @Setup(Level.Trial)
+        public void connect(Server server) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), server.webServer.port());
+            socket.setTcpNoDelay(true);
+            out = socket.getOutputStream();
+            in = new BufferedInputStream(socket.getInputStream());
+            hello = request("GET /hello HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            entity = request("GET /entity HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            echo = request("POST /echo HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                                   + "Content-Length: " + BODY.length + "\r\n\r\n"
+                                   + new String(BODY, StandardCharsets.US_ASCII));
+        }
+
+        /**
+         * Closes the connection.
+         *
+         * @throws IOException if the connection cannot be closed
+         */
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            socket.close();
+        }
+
+        private int exchange(byte[] request) throws IOException {
+            out.write(request);
+            out.flush();
+            return readResponse();
+        }
+
+        // reads status line and headers, skips content of the length from Content-Length or chunks
+        private int readResponse() throws IOException {
+            boolean chunked = false;
+            int contentLength = 0;
+            String line = readLine();
+            if (!line.startsWith("HTTP/1.1 200")) {
+                throw new IOException("Unexpected response: " + line);
+            }
+            for (line = readLine(); !line.isEmpty(); line = readLine()) {
+                int colon = line.indexOf(':');
+                String name = line.substring(0, colon);
+                if ("content-length".equalsIgnoreCase(name)) {
+                    contentLength = Integer.parseInt(line.substring(colon + 1).trim());
+                } else if ("transfer-encoding".equalsIgnoreCase(name)) {
+                    chunked = line.substring(colon + 1).trim().equalsIgnoreCase("chunked");
+                }
+            }
+            if (!chunked) {
+                skip(contentLength);
+                return contentLength;
+            }
+            int total = 0;
+            for (int size = chunkSize(); size > 0; size = chunkSize()) {
+                skip(size);
+                readLine();
+                total += size;
+            }
+            readLine();
+            return total;
+        }
+
+        private int chunkSize() throws IOException {
+            return Integer.parseInt(readLine().trim(), 16);
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) {
+                    throw new IOException("Connection closed");
+                }
+                if (b != '\r') {
+                    line.append((char) b);
+                }
+            }
+            return line.toString();
+        }
+
+        private void skip(int length) throws IOException {
+            int remaining = length;
+            while (remaining > 0) {
+                long skipped = in.skip(remaining);
+                if (skipped <= 0) {
+                    throw new IOException("Connection closed");
+                }
+                remaining -= skipped;
+            }
+        }
+
+        private static byte[] request(String request) {
+            return request.getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Sends a short text response.
+     *
+     * @param client the client
+     * @return response content length
+     * @throws IOException if the request fails
+     */
+    @Benchmark
+    public int hello(Client client) throws IOException {
+        return client.exchange(client.hello);
+    }
+
+    /**
+     * Sends a byte array response of the configured size.
+     *
+     * @param client the client
+     * @return response content length
+     * @throws IOException if the request fails
+     */
+    @Benchmark
+    public int entity(Client client) throws IOException {
+        return client.exchange(client.entity);
+    }
+
+    /**
+     * Reads the request content and sends it back.
+     *
+     * @param client the client
+     * @return response content length
+     * @throws IOException if the request fails
+     */
+    @Benchmark
+    public int echo(Client client) throws IOException {
+        return client.exchange(client.echo);
+    }
+}
@@ -24,6 +24,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import io.helidon.config.Config;
+import io.helidon.tracing.AdaptiveSampler;
 import io.helidon.tracing.TracerBuilder;
 
 import io.jaegertracing.Configuration;
@@ -143,6 +144,11 @@ import io.opentracing.util.GlobalTracer;
  *         <td>&nbsp;</td>
  *         <td>see {@link io.helidon.tracing.TracerBuilder}</td>
  *     </tr>
+ *     <tr>
+ *         <td>{@code sampling}</td>
+ *         <td>&nbsp;</td>
+ *         <td>Tail based {@link #adaptiveSampler(AdaptiveSampler) adaptive sampler}</td>
+ *     </tr>
  * </table>
  *
  * @see <a href="https://github.com/jaegertracing/jaeger-client-java/blob/master/jaeger-core/README.md">Jaeger configuration</a>
@@ -173,6 +179,7 @@ public class JaegerTracerBuilder implements TracerBuilder<JaegerTracerBuilder> {
     private String samplerManager;
     private boolean enabled = DEFAULT_ENABLED;
     private boolean global = true;
+    private AdaptiveSampler adaptiveSampler;
 
     /**
      * Default constructor, does not modify any state.
@@ -273,6 +280,18 @@ public class JaegerTracerBuilder implements TracerBuilder<JaegerTracerBuilder> {
         return this;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Traces should be sampled by the Jaeger sampler (such as {@link SamplerType#CONSTANT} sampler with parameter
+     * {@code 1}), so the adaptive sampler can choose from all of them.
+     */
+    @Override
+    public JaegerTracerBuilder adaptiveSampler(AdaptiveSampler sampler) {
+        this.adaptiveSampler = sampler;
+        return this;
+    }
+
     /**
      * Configure username and password for basic authentication.
      *
@@ -345,6 +364,7 @@ public class JaegerTracerBuilder implements TracerBuilder<JaegerTracerBuilder> {
                 });
 
         config.get("global").asBoolean().ifPresent(this::registerGlobal);
+        config.get("sampling").ifExists(it -> adaptiveSampler(AdaptiveSampler.create(it)));
 
         return this;
     }
@@ -464,6 +484,10 @@ public class JaegerTracerBuilder implements TracerBuilder<JaegerTracerBuilder> {
             result = NoopTracerFactory.create();
         }
 
+        if (enabled && (adaptiveSampler != null)) {
+            result = adaptiveSampler.wrap(result);
+        }
+
         if (global) {
             GlobalTracer.registerIfAbsent(result);
         }
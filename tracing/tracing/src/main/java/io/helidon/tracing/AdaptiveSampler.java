@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.tracing;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.helidon.config.Config;
+
+import io.opentracing.Tracer;
+
+/**
+ * Tail based sampler keeping the number of reported spans of each endpoint within a budget, while always keeping
+ * the interesting traces.
+ * <p>
+ * The sampler {@link #wrap(Tracer) wraps} a tracer of any {@link TracerBuilder tracer implementation}. Spans of a local
+ * trace (all spans started in this process under the same local root span) are buffered until the root span finishes,
+ * then the whole local trace is either reported or dropped:
+ * <ul>
+ *     <li>traces with a span tagged with {@link io.opentracing.tag.Tags#ERROR error} are kept,</li>
+ *     <li>traces with a root span running longer than the {@link Builder#slowThreshold(Duration) slow threshold}
+ *     are kept,</li>
+ *     <li>traces with a span explicitly tagged with a positive {@link io.opentracing.tag.Tags#SAMPLING_PRIORITY}
+ *     are kept,</li>
+ *     <li>other traces are kept while their endpoint has not exceeded its
+ *     {@link Builder#spansPerSecond(double) spans per second budget}.</li>
+ * </ul>
+ * An endpoint is identified by the {@code http.method} tag of the root span (if present) and the first available of:
+ * <ul>
+ *     <li>the {@value #HTTP_ROUTE_TAG} tag, the template of the route that handled the request, set by the web
+ *     server,</li>
+ *     <li>the path of the {@link io.opentracing.tag.Tags#HTTP_URL http.url} tag,</li>
+ *     <li>the operation name of the root span.</li>
+ * </ul>
+ * Endpoints identified by the path share the {@code max-endpoints} limit, so paths with parameters, when not
+ * identified by the route, end up in a shared budget.
+ * <p>
+ * Dropped spans are tagged with {@link io.opentracing.tag.Tags#SAMPLING_PRIORITY} of {@code 0} before they are
+ * finished, which both Jaeger and Zipkin (Brave) tracers honour by not reporting the span. The sampler of the wrapped
+ * tracer should sample all traces (such as Jaeger {@code const} sampler with {@code 1}), otherwise the head decision
+ * of the tracer drops traces before this sampler sees them. Sampling decisions are local, downstream services
+ * receive the decision of the wrapped tracer.
+ * <p>
+ * The sampler is configured using the {@code sampling} node of tracing configuration:
+ * <table class="config">
+ *     <caption>Adaptive Sampler Configuration Options</caption>
+ *     <tr>
+ *         <th>key</th>
+ *         <th>default value</th>
+ *         <th>description</th>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code enabled}</td>
+ *         <td>{@code true}</td>
+ *         <td>Whether the sampler is used when the {@code sampling} node is present</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code spans-per-second}</td>
+ *         <td>{@value #DEFAULT_SPANS_PER_SECOND}</td>
+ *         <td>Budget of reported spans per second of each endpoint</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code slow-threshold}</td>
+ *         <td>{@code PT1S}</td>
+ *         <td>Traces with root span running longer are always kept</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code keep-errors}</td>
+ *         <td>{@code true}</td>
+ *         <td>Whether traces with errors are always kept</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code max-endpoints}</td>
+ *         <td>{@value #DEFAULT_MAX_ENDPOINTS}</td>
+ *         <td>Maximal number of endpoints with their own budget, further endpoints share a single budget</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code max-buffered-spans}</td>
+ *         <td>{@value #DEFAULT_MAX_BUFFERED_SPANS}</td>
+ *         <td>Maximal number of spans of a local trace buffered before the decision is made without waiting
+ *         for the root span</td>
+ *     </tr>
+ * </table>
+ */
+public final class AdaptiveSampler {
+    /**
+     * Default budget of spans per second of an endpoint.
+     */
+    public static final double DEFAULT_SPANS_PER_SECOND = 100;
+    /**
+     * Default maximal number of endpoints with their own budget.
+     */
+    public static final int DEFAULT_MAX_ENDPOINTS = 1000;
+    /**
+     * Default maximal number of spans of a local trace buffered before the decision is made.
+     */
+    public static final int DEFAULT_MAX_BUFFERED_SPANS = 1000;
+    /**
+     * Tag of the root span with the template of the route that handled the HTTP request.
+     */
+    public static final String HTTP_ROUTE_TAG = "http.route";
+    static final Duration DEFAULT_SLOW_THRESHOLD = Duration.ofSeconds(1);
+    static final String OVERFLOW_ENDPOINT = "overflow";
+
+    private final boolean enabled;
+    private final double spansPerSecond;
+    private final long slowThresholdMicros;
+    private final boolean keepErrors;
+    private final int maxEndpoints;
+    private final int maxBufferedSpans;
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+    private final LongAdder keptTraces = new LongAdder();
+    private final LongAdder droppedTraces = new LongAdder();
+
+    private AdaptiveSampler(Builder builder) {
+        this.enabled = builder.enabled;
+        this.spansPerSecond = builder.spansPerSecond;
+        this.slowThresholdMicros = TimeUnit.NANOSECONDS.toMicros(builder.slowThreshold.toNanos());
+        this.keepErrors = builder.keepErrors;
+        this.maxEndpoints = builder.maxEndpoints;
+        this.maxBufferedSpans = builder.maxBufferedSpans;
+    }
+
+    /**
+     * A new fluent API builder.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create a new sampler from configuration.
+     *
+     * @param config the {@code sampling} configuration node
+     * @return a new sampler
+     * @see AdaptiveSampler
+     */
+    public static AdaptiveSampler create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Wraps a tracer, so spans it creates are sampled by this sampler.
+     *
+     * @param tracer tracer to wrap
+     * @return a tracer sampling spans, or the provided tracer if this sampler is disabled
+     */
+    public Tracer wrap(Tracer tracer) {
+        if (!enabled || (tracer instanceof SamplingTracer)) {
+            return tracer;
+        }
+        return new SamplingTracer(tracer, this);
+    }
+
+    /**
+     * Whether this sampler is enabled.
+     *
+     * @return {@code true} if tracers are {@link #wrap(Tracer) wrapped}
+     */
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Number of local traces reported so far.
+     *
+     * @return kept traces count
+     */
+    public long keptTraces() {
+        return keptTraces.sum();
+    }
+
+    /**
+     * Number of local traces dropped so far.
+     *
+     * @return dropped traces count
+     */
+    public long droppedTraces() {
+        return droppedTraces.sum();
+    }
+
+    int maxBufferedSpans() {
+        return maxBufferedSpans;
+    }
+
+    /**
+     * Decides whether to keep a local trace.
+     *
+     * @param endpoint endpoint of the root span
+     * @param spans number of spans of the local trace
+     * @param errored whether any of the spans is tagged as error
+     * @param forced whether any of the spans requested sampling by a positive sampling priority
+     * @param durationMicros duration of the root span, {@code -1} if not known yet
+     * @return {@code true} to report the spans
+     */
+    boolean keep(String endpoint, int spans, boolean errored, boolean forced, long durationMicros) {
+        boolean keep = forced
+                || (keepErrors && errored)
+                || (durationMicros >= slowThresholdMicros)
+                || budget(endpoint).tryAcquire(spans);
+        if (keep) {
+            keptTraces.increment();
+        } else {
+            droppedTraces.increment();
+        }
+        return keep;
+    }
+
+    private Budget budget(String endpoint) {
+        Budget budget = budgets.get(endpoint);
+        if (budget != null) {
+            return budget;
+        }
+        if (budgets.size() >= maxEndpoints) {
+            endpoint = OVERFLOW_ENDPOINT;
+        }
+        return budgets.computeIfAbsent(endpoint, it -> new Budget(spansPerSecond, System.nanoTime()));
+    }
+
+    /**
+     * Token bucket of spans per second of a single endpoint, allowing a burst of one second worth of spans.
+     */
+    static final class Budget {
+        private final double perNano;
+        private final double capacity;
+        private double available;
+        private long lastNanos;
+
+        Budget(double spansPerSecond, long nowNanos) {
+            this.perNano = spansPerSecond / TimeUnit.SECONDS.toNanos(1);
+            // at least a single span, so budgets lower than a span per second still keep some traces
+            this.capacity = (spansPerSecond > 0) ? Math.max(1, spansPerSecond) : 0;
+            this.available = capacity;
+            this.lastNanos = nowNanos;
+        }
+
+        boolean tryAcquire(int spans) {
+            return tryAcquire(spans, System.nanoTime());
+        }
+
+        /**
+         * Acquires spans if at least one is available. A trace larger than the remaining budget is kept and the budget
+         * becomes negative, so large traces are not starved by small ones.
+         */
+        synchronized boolean tryAcquire(int spans, long nowNanos) {
+            available = Math.min(capacity, available + (nowNanos - lastNanos) * perNano);
+            lastNanos = nowNanos;
+            if (available < 1) {
+                return false;
+            }
+            available -= spans;
+            return true;
+        }
+    }
+
+    /**
+     * Fluent API builder for {@link AdaptiveSampler}.
+     */
+    public static final class Builder implements io.helidon.common.Builder<AdaptiveSampler> {
+        private boolean enabled = true;
+        private double spansPerSecond = DEFAULT_SPANS_PER_SECOND;
+        private Duration slowThreshold = DEFAULT_SLOW_THRESHOLD;
+        private boolean keepErrors = true;
+        private int maxEndpoints = DEFAULT_MAX_ENDPOINTS;
+        private int maxBufferedSpans = DEFAULT_MAX_BUFFERED_SPANS;
+
+        private Builder() {
+        }
+
+        @Override
+        public AdaptiveSampler build() {
+            return new AdaptiveSampler(this);
+        }
+
+        /**
+         * Update this builder from configuration.
+         *
+         * @param config the {@code sampling} configuration node
+         * @return updated builder
+         * @see AdaptiveSampler
+         */
+        public Builder config(Config config) {
+            config.get("enabled").asBoolean().ifPresent(this::enabled);
+            config.get("spans-per-second").asDouble().ifPresent(this::spansPerSecond);
+            config.get("slow-threshold").as(Duration.class).ifPresent(this::slowThreshold);
+            config.get("keep-errors").asBoolean().ifPresent(this::keepErrors);
+            config.get("max-endpoints").asInt().ifPresent(this::maxEndpoints);
+            config.get("max-buffered-spans").asInt().ifPresent(this::maxBufferedSpans);
+            return this;
+        }
+
+        /**
+         * Whether the sampler is enabled, a disabled sampler does not {@link AdaptiveSampler#wrap(Tracer) wrap}
+         * tracers.
+         *
+         * @param enabled set to {@code false} to disable the sampler
+         * @return updated builder
+         */
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * Budget of reported spans per second of each endpoint.
+         *
+         * @param spansPerSecond spans per second
+         * @return updated builder
+         */
+        public Builder spansPerSecond(double spansPerSecond) {
+            if (spansPerSecond < 0) {
+                throw new IllegalArgumentException("Spans per second must not be negative: " + spansPerSecond);
+            }
+            this.spansPerSecond = spansPerSecond;
+            return this;
+        }
+
+        /**
+         * Traces with a root span running longer than this threshold are always kept.
+         *
+         * @param slowThreshold slow trace threshold
+         * @return updated builder
+         */
+        public Builder slowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+            return this;
+        }
+
+        /**
+         * Whether traces with a span tagged as error are always kept.
+         *
+         * @param keepErrors set to {@code false} to apply the budget to errored traces as well
+         * @return updated builder
+         */
+        public Builder keepErrors(boolean keepErrors) {
+            this.keepErrors = keepErrors;
+            return this;
+        }
+
+        /**
+         * Maximal number of endpoints with their own budget. Further endpoints share a single budget.
+         *
+         * @param maxEndpoints maximal number of endpoints
+         * @return updated builder
+         */
+        public Builder maxEndpoints(int maxEndpoints) {
+            this.maxEndpoints = maxEndpoints;
+            return this;
+        }
+
+        /**
+         * Maximal number of spans of a local trace buffered while waiting for the root span. When exceeded, the
+         * decision is made without knowing the duration of the root span.
+         *
+         * @param maxBufferedSpans maximal number of buffered spans
+         * @return updated builder
+         */
+        public Builder maxBufferedSpans(int maxBufferedSpans) {
+            this.maxBufferedSpans = maxBufferedSpans;
+            return this;
+        }
+    }
+}
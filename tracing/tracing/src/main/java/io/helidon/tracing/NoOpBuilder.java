@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -92,6 +92,11 @@ final class NoOpBuilder implements TracerBuilder<NoOpBuilder> {
         return this;
     }
 
+    @Override
+    public NoOpBuilder adaptiveSampler(AdaptiveSampler sampler) {
+        return this;
+    }
+
     @Override
     public Tracer build() {
         return NoopTracerFactory.create();
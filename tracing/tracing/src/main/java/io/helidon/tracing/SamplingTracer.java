@@ -0,0 +1,520 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.opentracing.References;
+import io.opentracing.Scope;
+import io.opentracing.ScopeManager;
+import io.opentracing.Span;
+import io.opentracing.SpanContext;
+import io.opentracing.Tracer;
+import io.opentracing.propagation.Format;
+import io.opentracing.tag.Tag;
+import io.opentracing.tag.Tags;
+import io.opentracing.util.ThreadLocalScopeManager;
+
+/**
+ * Tracer buffering finished spans of each local trace until its root span finishes, so the {@link AdaptiveSampler}
+ * can decide with knowledge of the whole trace.
+ * <p>
+ * Spans, span contexts and scopes are wrapped, wrapped instances are unwrapped before they are passed to the
+ * delegate tracer. Start and finish timestamps are always provided to the delegate, as spans are finished later
+ * than when {@link Span#finish()} is called.
+ */
+final class SamplingTracer implements Tracer {
+    private final Tracer delegate;
+    private final AdaptiveSampler sampler;
+    private final ScopeManager scopeManager;
+
+    SamplingTracer(Tracer delegate, AdaptiveSampler sampler) {
+        this.delegate = delegate;
+        this.sampler = sampler;
+        this.scopeManager = new SamplingScopeManager(delegate.scopeManager());
+    }
+
+    @Override
+    public ScopeManager scopeManager() {
+        return scopeManager;
+    }
+
+    @Override
+    public Span activeSpan() {
+        return scopeManager.activeSpan();
+    }
+
+    @Override
+    public Scope activateSpan(Span span) {
+        return scopeManager.activate(span);
+    }
+
+    @Override
+    public SpanBuilder buildSpan(String operationName) {
+        return new SampledSpanBuilder(operationName);
+    }
+
+    @Override
+    public <C> void inject(SpanContext spanContext, Format<C> format, C carrier) {
+        delegate.inject(unwrap(spanContext), format, carrier);
+    }
+
+    @Override
+    public <C> SpanContext extract(Format<C> format, C carrier) {
+        return delegate.extract(format, carrier);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public String toString() {
+        return "SamplingTracer(" + delegate + ")";
+    }
+
+    static long nowMicros() {
+        Instant now = Instant.now();
+        return TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + TimeUnit.NANOSECONDS.toMicros(now.getNano());
+    }
+
+    private static SpanContext unwrap(SpanContext spanContext) {
+        return (spanContext instanceof SampledSpanContext)
+                ? ((SampledSpanContext) spanContext).delegate
+                : spanContext;
+    }
+
+    private static Span unwrap(Span span) {
+        return (span instanceof SampledSpan) ? ((SampledSpan) span).delegate : span;
+    }
+
+    private static boolean isError(String key, Object value) {
+        return Tags.ERROR.getKey().equals(key)
+                && (Boolean.TRUE.equals(value) || "true".equals(value));
+    }
+
+    private static boolean isForced(String key, Object value) {
+        return Tags.SAMPLING_PRIORITY.getKey().equals(key)
+                && (value instanceof Number)
+                && ((Number) value).intValue() > 0;
+    }
+
+    private final class SampledSpanBuilder implements SpanBuilder {
+        private final SpanBuilder builder;
+        private final String operationName;
+        private LocalTrace trace;
+        private boolean hasParent;
+        private boolean ignoreActiveSpan;
+        private boolean errored;
+        private boolean forced;
+        private String httpMethod;
+        private String httpRoute;
+        private String httpUrl;
+        private long startMicros = -1;
+
+        private SampledSpanBuilder(String operationName) {
+            this.builder = delegate.buildSpan(operationName);
+            this.operationName = operationName;
+        }
+
+        @Override
+        public SpanBuilder asChildOf(SpanContext parent) {
+            return addReference(References.CHILD_OF, parent);
+        }
+
+        @Override
+        public SpanBuilder asChildOf(Span parent) {
+            return (parent == null) ? this : asChildOf(parent.context());
+        }
+
+        @Override
+        public SpanBuilder addReference(String referenceType, SpanContext referencedContext) {
+            if (referencedContext == null) {
+                return this;
+            }
+            if ((trace == null) && (referencedContext instanceof SampledSpanContext)) {
+                trace = ((SampledSpanContext) referencedContext).trace;
+            }
+            hasParent = true;
+            builder.addReference(referenceType, unwrap(referencedContext));
+            return this;
+        }
+
+        @Override
+        public SpanBuilder ignoreActiveSpan() {
+            ignoreActiveSpan = true;
+            builder.ignoreActiveSpan();
+            return this;
+        }
+
+        @Override
+        public SpanBuilder withTag(String key, String value) {
+            tagged(key, value);
+            builder.withTag(key, value);
+            return this;
+        }
+
+        @Override
+        public SpanBuilder withTag(String key, boolean value) {
+            tagged(key, value);
+            builder.withTag(key, value);
+            return this;
+        }
+
+        @Override
+        public SpanBuilder withTag(String key, Number value) {
+            tagged(key, value);
+            builder.withTag(key, value);
+            return this;
+        }
+
+        @Override
+        public <T> SpanBuilder withTag(Tag<T> tag, T value) {
+            tagged(tag.getKey(), value);
+            builder.withTag(tag, value);
+            return this;
+        }
+
+        @Override
+        public SpanBuilder withStartTimestamp(long microseconds) {
+            startMicros = microseconds;
+            return this;
+        }
+
+        @Override
+        public Span start() {
+            if (!hasParent && !ignoreActiveSpan) {
+                Span active = scopeManager.activeSpan();
+                if (active != null) {
+                    asChildOf(active);
+                    builder.ignoreActiveSpan();
+                }
+            }
+            if (startMicros < 0) {
+                startMicros = nowMicros();
+            }
+            Span span = builder.withStartTimestamp(startMicros).start();
+            boolean root = (trace == null);
+            if (root) {
+                trace = new LocalTrace(sampler);
+            }
+            SampledSpan result = new SampledSpan(span, trace, operationName, startMicros);
+            result.httpMethod = httpMethod;
+            result.httpRoute = httpRoute;
+            result.httpUrl = httpUrl;
+            if (root) {
+                trace.root = result;
+            }
+            if (errored) {
+                trace.errored = true;
+            }
+            if (forced) {
+                trace.forced = true;
+            }
+            return result;
+        }
+
+        private void tagged(String key, Object value) {
+            if (isError(key, value)) {
+                errored = true;
+            } else if (isForced(key, value)) {
+                forced = true;
+            } else if (value instanceof String) {
+                if (Tags.HTTP_METHOD.getKey().equals(key)) {
+                    httpMethod = (String) value;
+                } else if (AdaptiveSampler.HTTP_ROUTE_TAG.equals(key)) {
+                    httpRoute = (String) value;
+                } else if (Tags.HTTP_URL.getKey().equals(key)) {
+                    httpUrl = (String) value;
+                }
+            }
+        }
+    }
+
+    /**
+     * Spans started under the same local root span.
+     */
+    private static final class LocalTrace {
+        private final AdaptiveSampler sampler;
+        private final List<SampledSpan> finished = new ArrayList<>();
+        private volatile SampledSpan root;
+        private volatile boolean errored;
+        private volatile boolean forced;
+        // null while the decision is pending
+        private Boolean keep;
+
+        private LocalTrace(AdaptiveSampler sampler) {
+            this.sampler = sampler;
+        }
+
+        void finished(SampledSpan span) {
+            List<SampledSpan> toFinish;
+            boolean decision;
+            synchronized (this) {
+                if (keep == null) {
+                    finished.add(span);
+                    long durationMicros;
+                    if (span == root) {
+                        durationMicros = span.finishMicros - span.startMicros;
+                    } else if (finished.size() > sampler.maxBufferedSpans()) {
+                        durationMicros = -1;
+                    } else {
+                        return;
+                    }
+                    keep = sampler.keep(root.endpoint(), finished.size(), errored, forced, durationMicros);
+                    toFinish = new ArrayList<>(finished);
+                    finished.clear();
+                } else {
+                    toFinish = List.of(span);
+                }
+                decision = keep;
+            }
+            for (SampledSpan sampledSpan : toFinish) {
+                sampledSpan.report(decision);
+            }
+        }
+    }
+
+    private static final class SampledSpanContext implements SpanContext {
+        private final SpanContext delegate;
+        private final LocalTrace trace;
+
+        private SampledSpanContext(SpanContext delegate, LocalTrace trace) {
+            this.delegate = delegate;
+            this.trace = trace;
+        }
+
+        @Override
+        public String toTraceId() {
+            return delegate.toTraceId();
+        }
+
+        @Override
+        public String toSpanId() {
+            return delegate.toSpanId();
+        }
+
+        @Override
+        public Iterable<Map.Entry<String, String>> baggageItems() {
+            return delegate.baggageItems();
+        }
+    }
+
+    private static final class SampledSpan implements Span {
+        private final Span delegate;
+        private final LocalTrace trace;
+        private final long startMicros;
+        private volatile String operationName;
+        private volatile String httpMethod;
+        private volatile String httpRoute;
+        private volatile String httpUrl;
+        private volatile long finishMicros;
+        private volatile boolean finishCalled;
+
+        private SampledSpan(Span delegate, LocalTrace trace, String operationName, long startMicros) {
+            this.delegate = delegate;
+            this.trace = trace;
+            this.operationName = operationName;
+            this.startMicros = startMicros;
+        }
+
+        @Override
+        public SpanContext context() {
+            // the delegate may create a new context when baggage changes
+            return new SampledSpanContext(delegate.context(), trace);
+        }
+
+        @Override
+        public Span setTag(String key, String value) {
+            tagged(key, value);
+            delegate.setTag(key, value);
+            return this;
+        }
+
+        @Override
+        public Span setTag(String key, boolean value) {
+            tagged(key, value);
+            delegate.setTag(key, value);
+            return this;
+        }
+
+        @Override
+        public Span setTag(String key, Number value) {
+            tagged(key, value);
+            delegate.setTag(key, value);
+            return this;
+        }
+
+        @Override
+        public <T> Span setTag(Tag<T> tag, T value) {
+            tagged(tag.getKey(), value);
+            delegate.setTag(tag, value);
+            return this;
+        }
+
+        @Override
+        public Span log(Map<String, ?> fields) {
+            delegate.log(fields);
+            return this;
+        }
+
+        @Override
+        public Span log(long timestampMicroseconds, Map<String, ?> fields) {
+            delegate.log(timestampMicroseconds, fields);
+            return this;
+        }
+
+        @Override
+        public Span log(String event) {
+            delegate.log(event);
+            return this;
+        }
+
+        @Override
+        public Span log(long timestampMicroseconds, String event) {
+            delegate.log(timestampMicroseconds, event);
+            return this;
+        }
+
+        @Override
+        public Span setBaggageItem(String key, String value) {
+            delegate.setBaggageItem(key, value);
+            return this;
+        }
+
+        @Override
+        public String getBaggageItem(String key) {
+            return delegate.getBaggageItem(key);
+        }
+
+        @Override
+        public Span setOperationName(String operationName) {
+            this.operationName = operationName;
+            delegate.setOperationName(operationName);
+            return this;
+        }
+
+        @Override
+        public void finish() {
+            finish(nowMicros());
+        }
+
+        @Override
+        public void finish(long finishMicros) {
+            if (finishCalled) {
+                return;
+            }
+            finishCalled = true;
+            this.finishMicros = finishMicros;
+            trace.finished(this);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+
+        private String endpoint() {
+            // the root span of HTTP requests has the same name for all requests, the route identifies the endpoint
+            String target = httpRoute;
+            if (target == null) {
+                String url = httpUrl;
+                target = (url == null) ? operationName : path(url);
+            }
+            String method = httpMethod;
+            return (method == null) ? target : method + " " + target;
+        }
+
+        private void report(boolean keep) {
+            if (!keep) {
+                delegate.setTag(Tags.SAMPLING_PRIORITY, 0);
+            }
+            delegate.finish(finishMicros);
+        }
+
+        private void tagged(String key, Object value) {
+            if (isError(key, value)) {
+                trace.errored = true;
+            } else if (isForced(key, value)) {
+                trace.forced = true;
+            } else if (value instanceof String) {
+                if (Tags.HTTP_METHOD.getKey().equals(key)) {
+                    httpMethod = (String) value;
+                } else if (AdaptiveSampler.HTTP_ROUTE_TAG.equals(key)) {
+                    httpRoute = (String) value;
+                } else if (Tags.HTTP_URL.getKey().equals(key)) {
+                    httpUrl = (String) value;
+                }
+            }
+        }
+    }
+
+    /**
+     * Path of an URL, without the query and fragment.
+     *
+     * @param url absolute or relative URL
+     * @return the path
+     */
+    static String path(String url) {
+        int start = url.indexOf("://");
+        start = (start < 0) ? 0 : url.indexOf('/', start + 3);
+        if (start < 0) {
+            return "/";
+        }
+        int end = url.length();
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            if (c == '?' || c == '#') {
+                end = i;
+            }
+        }
+        return (start == end) ? "/" : url.substring(start, end);
+    }
+
+    /**
+     * Activates spans on the delegate scope manager, so instrumentation of the delegate (such as logging
+     * correlation) keeps working, and keeps track of the wrapped spans.
+     */
+    private static final class SamplingScopeManager implements ScopeManager {
+        private final ScopeManager delegate;
+        private final ThreadLocalScopeManager local = new ThreadLocalScopeManager();
+
+        private SamplingScopeManager(ScopeManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Scope activate(Span span) {
+            Scope delegateScope = delegate.activate(unwrap(span));
+            Scope localScope = local.activate(span);
+            return () -> {
+                localScope.close();
+                delegateScope.close();
+            };
+        }
+
+        @Override
+        public Span activeSpan() {
+            return local.activeSpan();
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@ package io.helidon.tracing;
 
 import java.net.URI;
 import java.util.Objects;
+import java.util.logging.Logger;
 
 import io.helidon.common.Builder;
 import io.helidon.config.Config;
@@ -257,6 +258,27 @@ public interface TracerBuilder<T extends TracerBuilder> extends Builder<Tracer>
      */
     T registerGlobal(boolean global);
 
+    /**
+     * Tail based sampler applied to the built tracer, so the number of reported spans of each endpoint stays
+     * within a budget while errored and slow traces are always reported.
+     * When the builder is configured from config, the sampler is created from the {@code sampling} node
+     * (see {@link AdaptiveSampler} for supported keys).
+     *
+     * <p>
+     * Tracer implementations not supporting adaptive sampling ignore the sampler and log a warning, the built
+     * tracer can still be wrapped using {@link AdaptiveSampler#wrap(Tracer)}.
+     *
+     * @param sampler sampler to {@link AdaptiveSampler#wrap(Tracer) wrap} the built tracer with
+     * @return updated builder instance
+     */
+    @SuppressWarnings("unchecked")
+    default T adaptiveSampler(AdaptiveSampler sampler) {
+        Logger.getLogger(TracerBuilder.class.getName())
+                .warning("Adaptive sampling is not supported by " + getClass().getName()
+                                 + ", ignoring the sampler, use AdaptiveSampler.wrap(Tracer) instead");
+        return (T) this;
+    }
+
     /**
      * Build a tracer instance from this builder.
      *
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ module io.helidon.tracing {
     requires io.helidon.common;
     requires io.helidon.common.serviceloader;
     requires io.helidon.config;
+    requires java.logging;
     requires transitive io.opentracing.api;
     requires io.opentracing.noop;
     requires io.opentracing.util;
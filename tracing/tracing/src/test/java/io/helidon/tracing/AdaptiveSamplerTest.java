@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.tracing;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.config.Config;
+import io.helidon.config.ConfigSources;
+
+import io.opentracing.Scope;
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.tag.Tags;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+
+/**
+ * Unit test for {@link AdaptiveSampler}.
+ */
+class AdaptiveSamplerTest {
+    @Test
+    void testTailDecision() {
+        MockTracer mockTracer = new MockTracer();
+        AdaptiveSampler sampler = AdaptiveSampler.builder()
+                .spansPerSecond(0)
+                .build();
+        Tracer tracer = sampler.wrap(mockTracer);
+
+        Span root = tracer.buildSpan("root").start();
+        Span child;
+        try (Scope ignored = tracer.activateSpan(root)) {
+            assertThat(tracer.activeSpan(), sameInstance(root));
+            child = tracer.buildSpan("child").start();
+        }
+        Span grandChild = tracer.buildSpan("grand-child").asChildOf(child.context()).start();
+        Tags.ERROR.set(grandChild, true);
+        grandChild.finish();
+        child.finish();
+
+        // buffered until the root span finishes
+        assertThat(mockTracer.finishedSpans(), hasSize(0));
+        root.finish();
+
+        List<MockSpan> finished = mockTracer.finishedSpans();
+        assertThat(finished, hasSize(3));
+        for (MockSpan span : finished) {
+            assertThat(span.context().traceId(), is(finished.get(2).context().traceId()));
+            assertThat(span.tags().get(Tags.SAMPLING_PRIORITY.getKey()), nullValue());
+        }
+        assertThat(finished.get(0).parentId(), is(finished.get(1).context().spanId()));
+        assertThat(finished.get(1).parentId(), is(finished.get(2).context().spanId()));
+
+        // no budget, no error and not slow
+        mockTracer.reset();
+        Span dropped = tracer.buildSpan("root").start();
+        tracer.buildSpan("child").asChildOf(dropped).start().finish();
+        dropped.finish();
+        assertDropped(mockTracer.finishedSpans(), 2);
+
+        assertThat(sampler.keptTraces(), is(1L));
+        assertThat(sampler.droppedTraces(), is(1L));
+    }
+
+    @Test
+    void testSlowTrace() {
+        MockTracer mockTracer = new MockTracer();
+        Tracer tracer = AdaptiveSampler.builder()
+                .spansPerSecond(0)
+                .slowThreshold(Duration.ofMillis(100))
+                .build()
+                .wrap(mockTracer);
+
+        long start = SamplingTracer.nowMicros() - TimeUnit.SECONDS.toMicros(1);
+        Span root = tracer.buildSpan("slow").withStartTimestamp(start).start();
+        root.finish();
+
+        List<MockSpan> finished = mockTracer.finishedSpans();
+        assertThat(finished, hasSize(1));
+        assertThat(finished.get(0).tags().get(Tags.SAMPLING_PRIORITY.getKey()), nullValue());
+        assertThat(finished.get(0).startMicros(), is(start));
+    }
+
+    @Test
+    void testEndpointBudget() {
+        MockTracer mockTracer = new MockTracer();
+        Tracer tracer = AdaptiveSampler.builder()
+                .spansPerSecond(2)
+                .build()
+                .wrap(mockTracer);
+
+        for (int i = 0; i < 3; i++) {
+            tracer.buildSpan("endpoint").withTag(Tags.HTTP_METHOD, "GET").start().finish();
+        }
+        tracer.buildSpan("endpoint").withTag(Tags.HTTP_METHOD, "POST").start().finish();
+
+        List<MockSpan> finished = mockTracer.finishedSpans();
+        assertThat(finished, hasSize(4));
+        assertThat(finished.get(0).tags().get(Tags.SAMPLING_PRIORITY.getKey()), nullValue());
+        assertThat(finished.get(1).tags().get(Tags.SAMPLING_PRIORITY.getKey()), nullValue());
+        assertThat(finished.get(2).tags().get(Tags.SAMPLING_PRIORITY.getKey()), is(0));
+        assertThat(finished.get(3).tags().get(Tags.SAMPLING_PRIORITY.getKey()), nullValue());
+    }
+
+    @Test
+    void testRouteBudget() {
+        MockTracer mockTracer = new MockTracer();
+        Tracer tracer = AdaptiveSampler.builder()
+                .spansPerSecond(1)
+                .build()
+                .wrap(mockTracer);
+
+        // all web server requests share the span name, the route set once routed identifies the endpoint
+        for (String route : new String[] {"/greet", "/greet/{name}", "/greet"}) {
+            Span span = tracer.buildSpan("HTTP Request")
+                    .withTag(Tags.HTTP_METHOD, "GET")
+                    .withTag(Tags.HTTP_URL, "http://localhost:8080/greet/x")
+                    .start();
+            span.setTag(AdaptiveSampler.HTTP_ROUTE_TAG, route);
+            span.finish();
+        }
+        // without a route, the path of the URL identifies the endpoint
+        tracer.buildSpan("HTTP Request")
+                .withTag(Tags.HTTP_METHOD, "GET")
+                .withTag(Tags.HTTP_URL, "http://localhost:8080/other?q=1")
+                .start()
+                .finish();
+
+        List<MockSpan> finished = mockTracer.finishedSpans();
+        assertThat(finished, hasSize(4));
+        assertThat(finished.get(0).tags().get(Tags.SAMPLING_PRIORITY.getKey()), nullValue());
+        assertThat(finished.get(1).tags().get(Tags.SAMPLING_PRIORITY.getKey()), nullValue());
+        assertThat(finished.get(2).tags().get(Tags.SAMPLING_PRIORITY.getKey()), is(0));
+        assertThat(finished.get(3).tags().get(Tags.SAMPLING_PRIORITY.getKey()), nullValue());
+    }
+
+    @Test
+    void testUrlPath() {
+        assertThat(SamplingTracer.path("http://localhost:8080/greet/x?q=1#top"), is("/greet/x"));
+        assertThat(SamplingTracer.path("http://localhost:8080"), is("/"));
+        assertThat(SamplingTracer.path("http://localhost:8080?q=1"), is("/"));
+        assertThat(SamplingTracer.path("/greet?q=1"), is("/greet"));
+    }
+
+    @Test
+    void testBudgetRefill() {
+        AdaptiveSampler.Budget budget = new AdaptiveSampler.Budget(10, 0);
+
+        assertThat(budget.tryAcquire(15, 0), is(true));
+        assertThat(budget.tryAcquire(1, 0), is(false));
+        // half a second gives 5 spans, still in debt
+        assertThat(budget.tryAcquire(1, TimeUnit.MILLISECONDS.toNanos(500)), is(false));
+        assertThat(budget.tryAcquire(1, TimeUnit.MILLISECONDS.toNanos(1000)), is(true));
+        // capacity is limited to one second
+        assertThat(budget.tryAcquire(100, TimeUnit.SECONDS.toNanos(100)), is(true));
+        assertThat(budget.tryAcquire(1, TimeUnit.SECONDS.toNanos(100)), is(false));
+    }
+
+    @Test
+    void testConfig() {
+        Config config = Config.builder()
+                .sources(ConfigSources.create(Map.of("sampling.enabled", "false",
+                                                     "sampling.spans-per-second", "10")))
+                .build();
+        AdaptiveSampler sampler = AdaptiveSampler.create(config.get("sampling"));
+        MockTracer mockTracer = new MockTracer();
+
+        assertThat(sampler.enabled(), is(false));
+        assertThat(sampler.wrap(mockTracer), sameInstance(mockTracer));
+    }
+
+    private static void assertDropped(List<MockSpan> spans, int count) {
+        assertThat(spans, hasSize(count));
+        for (MockSpan span : spans) {
+            assertThat(span.tags().get(Tags.SAMPLING_PRIORITY.getKey()), is(0));
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -94,6 +94,8 @@ class TracerBuilderTest {
                 .addTracerTag("key3", true)
                 .enabled(true)
                 .registerGlobal(true)
+                // not supported by this builder, ignored
+                .adaptiveSampler(AdaptiveSampler.builder().build())
                 // make sure we do not lose the builder type
                 .first("first")
                 .second("second")
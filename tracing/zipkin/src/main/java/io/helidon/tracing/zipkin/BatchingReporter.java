@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.tracing.zipkin;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import zipkin2.Call;
+import zipkin2.Span;
+import zipkin2.codec.BytesEncoder;
+import zipkin2.reporter.Reporter;
+import zipkin2.reporter.ReporterMetrics;
+import zipkin2.reporter.Sender;
+
+/**
+ * Reporter which never blocks the threads finishing spans.
+ * <p>
+ * Spans are offered to a bounded lock-free ring buffer and dropped when it is full. A single daemon thread drains
+ * the buffer, encodes the spans and sends them in batches limited by the number of spans, the maximal message size
+ * of the {@link Sender} and a timeout. Batches which cannot be sent are written to an optional {@link SpanSpool}
+ * and replayed once the collector accepts messages again. While the collector is not available, sending is retried
+ * with an exponential back-off and batches are spooled directly.
+ */
+final class BatchingReporter implements Reporter<Span>, Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(BatchingReporter.class.getName());
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(30);
+    // limits the time spent replaying, so new spans do not overflow meanwhile
+    private static final int MAX_REPLAYED_BATCHES = 10;
+
+    private final Sender sender;
+    private final BytesEncoder<Span> encoder;
+    private final ReporterMetrics metrics;
+    private final ZipkinReporterMetrics zipkinMetrics;
+    private final SpanRing ring;
+    private final int batchSize;
+    private final long timeoutNanos;
+    private final SpanSpool spool;
+    private final Thread thread;
+
+    private volatile boolean closed;
+    // accessed only by the reporting thread
+    private long backoffNanos;
+    private long retryAt;
+    private boolean collectorDown;
+
+    private BatchingReporter(Sender sender,
+                             BytesEncoder<Span> encoder,
+                             ReporterMetrics metrics,
+                             int queueSize,
+                             int batchSize,
+                             long timeoutNanos,
+                             SpanSpool spool) {
+        this.sender = sender;
+        this.encoder = encoder;
+        this.metrics = metrics;
+        this.zipkinMetrics = (metrics instanceof ZipkinReporterMetrics) ? (ZipkinReporterMetrics) metrics : null;
+        this.ring = new SpanRing(queueSize);
+        this.batchSize = batchSize;
+        this.timeoutNanos = timeoutNanos;
+        this.spool = spool;
+        this.thread = new Thread(this::run, "helidon-zipkin-reporter");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Creates and starts a new reporter.
+     *
+     * @param sender       sender of the batches, its encoding must match the encoder
+     * @param encoder      encoder of spans
+     * @param metrics      metrics of the reporter, possibly {@link ZipkinReporterMetrics}
+     * @param queueSize    capacity of the ring buffer
+     * @param batchSize    maximal number of spans in a message
+     * @param timeoutNanos maximal time a span waits for a batch to fill
+     * @param spool        spool of spans which could not be sent, or {@code null} to drop them
+     * @return a started reporter
+     */
+    static BatchingReporter start(Sender sender,
+                                  BytesEncoder<Span> encoder,
+                                  ReporterMetrics metrics,
+                                  int queueSize,
+                                  int batchSize,
+                                  long timeoutNanos,
+                                  SpanSpool spool) {
+        BatchingReporter reporter = new BatchingReporter(sender,
+                                                         encoder,
+                                                         metrics,
+                                                         queueSize,
+                                                         batchSize,
+                                                         timeoutNanos,
+                                                         spool);
+        reporter.thread.start();
+        return reporter;
+    }
+
+    @Override
+    public void report(Span span) {
+        metrics.incrementSpans(1);
+        if (closed || !ring.offer(span)) {
+            metrics.incrementSpansDropped(1);
+        } else if (ring.size() == batchSize) {
+            // a full batch is ready, unpark the reporter only once
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Number of spans waiting in the ring buffer.
+     *
+     * @return queued spans
+     */
+    int queuedSpans() {
+        return ring.size();
+    }
+
+    /**
+     * Sends spans reported so far and stops the reporting thread. Spans which cannot be sent are kept in the spool.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Span> batch = new ArrayList<>(batchSize);
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            boolean closing = closed;
+            try {
+                drain(batch);
+                long now = System.nanoTime();
+                if (!closing && batch.size() < batchSize && now - deadline < 0) {
+                    LockSupport.parkNanos(this, deadline - now);
+                    continue;
+                }
+                metrics.updateQueuedSpans(ring.size());
+                if (!batch.isEmpty()) {
+                    export(batch);
+                }
+                replay();
+            } catch (RuntimeException e) {
+                // the reporting thread must survive failures of the sender, the spool or the metrics
+                LOGGER.log(Level.WARNING, "Failed to report " + batch.size() + " spans to Zipkin collector", e);
+            }
+            batch.clear();
+            if (closing && ring.size() == 0) {
+                break;
+            }
+            deadline = System.nanoTime() + timeoutNanos;
+        }
+        if (spool != null) {
+            try {
+                spool.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to close Zipkin span spool", e);
+            }
+        }
+    }
+
+    private void drain(List<Span> batch) {
+        while (batch.size() < batchSize) {
+            Span span = ring.poll();
+            if (span == null) {
+                return;
+            }
+            batch.add(span);
+        }
+    }
+
+    private void export(List<Span> batch) {
+        int maxBytes = sender.messageMaxBytes();
+        List<byte[]> message = new ArrayList<>(batch.size());
+        int messageBytes = 0;
+        for (Span span : batch) {
+            byte[] encoded;
+            try {
+                encoded = encoder.encode(span);
+            } catch (RuntimeException e) {
+                metrics.incrementSpansDropped(1);
+                continue;
+            }
+            int spanBytes = sender.encoding().listSizeInBytes(encoded.length);
+            if (spanBytes > maxBytes) {
+                metrics.incrementSpansDropped(1);
+                continue;
+            }
+            if (messageBytes + spanBytes > maxBytes) {
+                sendOrSpool(message);
+                message = new ArrayList<>(batch.size());
+                messageBytes = 0;
+            }
+            metrics.incrementSpanBytes(encoded.length);
+            message.add(encoded);
+            messageBytes += spanBytes;
+        }
+        if (!message.isEmpty()) {
+            sendOrSpool(message);
+        }
+    }
+
+    private void sendOrSpool(List<byte[]> message) {
+        // keep the order of spans, do not overtake spooled spans
+        boolean spooled = spool != null && !spool.isEmpty();
+        if (spooled || collectorUnavailable() || !send(message)) {
+            if (spool != null && spool.append(message)) {
+                if (zipkinMetrics != null) {
+                    zipkinMetrics.incrementSpansSpooled(message.size());
+                }
+            } else {
+                metrics.incrementSpansDropped(message.size());
+            }
+        }
+    }
+
+    private void replay() {
+        if (spool == null) {
+            return;
+        }
+        for (int i = 0; i < MAX_REPLAYED_BATCHES && !spool.isEmpty() && !collectorUnavailable(); i++) {
+            List<byte[]> message = spool.peek(batchSize, sender.messageMaxBytes());
+            if (message.isEmpty()) {
+                // only corrupted records were left
+                spool.removePeeked();
+                return;
+            }
+            if (!send(message)) {
+                return;
+            }
+            spool.removePeeked();
+            if (zipkinMetrics != null) {
+                zipkinMetrics.incrementSpansReplayed(message.size());
+            }
+        }
+    }
+
+    private boolean collectorUnavailable() {
+        return collectorDown && System.nanoTime() - retryAt < 0;
+    }
+
+    private boolean send(List<byte[]> message) {
+        long start = System.nanoTime();
+        try {
+            Call<Void> call = sender.sendSpans(message);
+            call.execute();
+        } catch (IOException | RuntimeException e) {
+            metrics.incrementMessagesDropped(e);
+            backoffNanos = collectorDown ? Math.min(MAX_BACKOFF_NANOS, backoffNanos * 2) : MIN_BACKOFF_NANOS;
+            retryAt = System.nanoTime() + backoffNanos;
+            if (!collectorDown) {
+                LOGGER.log(Level.WARNING, "Failed to send spans to Zipkin collector, "
+                        + ((spool == null) ? "dropping spans" : "spooling spans") + " until it is available", e);
+            }
+            collectorDown = true;
+            return false;
+        }
+        if (zipkinMetrics != null) {
+            zipkinMetrics.updateExportLatency(System.nanoTime() - start);
+        }
+        metrics.incrementMessages();
+        metrics.incrementMessageBytes(sender.messageSizeInBytes(message));
+        if (collectorDown) {
+            LOGGER.info("Zipkin collector is available again");
+            collectorDown = false;
+        }
+        return true;
+    }
+
+    /**
+     * Bounded multi-producer single-consumer ring buffer of spans.
+     * <p>
+     * Producers claim a sequence using a CAS on the tail and publish the span into its slot. The consumer frees the
+     * slot before moving the head, so a producer never claims a slot which was not consumed.
+     */
+    static final class SpanRing {
+        private final AtomicReferenceArray<Span> slots;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head;
+
+        SpanRing(int capacity) {
+            int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+            this.slots = new AtomicReferenceArray<>(size);
+            this.mask = size - 1;
+        }
+
+        boolean offer(Span span) {
+            long claimed;
+            do {
+                claimed = tail.get();
+                if (claimed - head >= slots.length()) {
+                    return false;
+                }
+            } while (!tail.compareAndSet(claimed, claimed + 1));
+            slots.lazySet((int) claimed & mask, span);
+            return true;
+        }
+
+        Span poll() {
+            long current = head;
+            int index = (int) current & mask;
+            // null also if a producer claimed the slot but did not publish the span yet
+            Span span = slots.get(index);
+            if (span == null) {
+                return null;
+            }
+            slots.lazySet(index, null);
+            head = current + 1;
+            return span;
+        }
+
+        int size() {
+            return (int) Math.max(0, tail.get() - head);
+        }
+
+        int capacity() {
+            return slots.length();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.tracing.zipkin;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.helidon.metrics.RegistryFactory;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
+
+/**
+ * Reporter metrics registered in the vendor registry of Helidon metrics, tagged with the name of the service.
+ * <p>
+ * Used by default when Helidon metrics are on the classpath, see {@link ZipkinTracerBuilder#reporterMetrics(
+ * zipkin2.reporter.ReporterMetrics)}.
+ */
+final class RegistryReporterMetrics implements ZipkinReporterMetrics {
+
+    private static final String PREFIX = "zipkin.reporter.";
+
+    private final Counter messages;
+    private final Counter messagesDropped;
+    private final Counter messageBytes;
+    private final Counter spans;
+    private final Counter spanBytes;
+    private final Counter spansDropped;
+    private final Counter spansSpooled;
+    private final Counter spansReplayed;
+    private final Timer exportLatency;
+    private final AtomicInteger queuedSpans = new AtomicInteger();
+    private final AtomicInteger queuedBytes = new AtomicInteger();
+
+    private RegistryReporterMetrics(MetricRegistry registry, Tag service) {
+        messages = counter(registry, service, "messages", "Messages sent to the Zipkin collector", MetricUnits.NONE);
+        messagesDropped = counter(registry, service, "messages.dropped",
+                                  "Messages which could not be sent to the Zipkin collector", MetricUnits.NONE);
+        messageBytes = counter(registry, service, "message.bytes",
+                               "Bytes of messages sent to the Zipkin collector", MetricUnits.BYTES);
+        spans = counter(registry, service, "spans", "Spans reported", MetricUnits.NONE);
+        spanBytes = counter(registry, service, "span.bytes", "Bytes of encoded spans", MetricUnits.BYTES);
+        spansDropped = counter(registry, service, "spans.dropped", "Spans dropped", MetricUnits.NONE);
+        spansSpooled = counter(registry, service, "spans.spooled", "Spans written to the spool file", MetricUnits.NONE);
+        spansReplayed = counter(registry, service, "spans.replayed", "Spans replayed from the spool file",
+                                MetricUnits.NONE);
+        exportLatency = registry.timer(metadata("export.latency",
+                                                "Time to send a message to the Zipkin collector",
+                                                MetricType.TIMER,
+                                                MetricUnits.NANOSECONDS),
+                                       service);
+        gauge(registry, service, "queued.spans", "Spans waiting to be sent", MetricUnits.NONE, queuedSpans);
+        gauge(registry, service, "queued.bytes", "Bytes of spans waiting to be sent", MetricUnits.BYTES, queuedBytes);
+    }
+
+    /**
+     * Creates reporter metrics of a service. Helidon metrics must be on the classpath.
+     *
+     * @param serviceName name of the service
+     * @return reporter metrics
+     */
+    static ZipkinReporterMetrics create(String serviceName) {
+        return new RegistryReporterMetrics(RegistryFactory.getInstance().getRegistry(MetricRegistry.Type.VENDOR),
+                                           new Tag("service", serviceName));
+    }
+
+    @Override
+    public void incrementMessages() {
+        messages.inc();
+    }
+
+    @Override
+    public void incrementMessagesDropped(Throwable cause) {
+        messagesDropped.inc();
+    }
+
+    @Override
+    public void incrementSpans(int quantity) {
+        spans.inc(quantity);
+    }
+
+    @Override
+    public void incrementSpanBytes(int quantity) {
+        spanBytes.inc(quantity);
+    }
+
+    @Override
+    public void incrementMessageBytes(int quantity) {
+        messageBytes.inc(quantity);
+    }
+
+    @Override
+    public void incrementSpansDropped(int quantity) {
+        spansDropped.inc(quantity);
+    }
+
+    @Override
+    public void updateQueuedSpans(int update) {
+        queuedSpans.set(update);
+    }
+
+    @Override
+    public void updateQueuedBytes(int update) {
+        queuedBytes.set(update);
+    }
+
+    @Override
+    public void updateExportLatency(long latencyNanos) {
+        exportLatency.update(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void incrementSpansSpooled(int quantity) {
+        spansSpooled.inc(quantity);
+    }
+
+    @Override
+    public void incrementSpansReplayed(int quantity) {
+        spansReplayed.inc(quantity);
+    }
+
+    private static Counter counter(MetricRegistry registry, Tag service, String name, String description, String unit) {
+        return registry.counter(metadata(name, description, MetricType.COUNTER, unit), service);
+    }
+
+    private static void gauge(MetricRegistry registry,
+                              Tag service,
+                              String name,
+                              String description,
+                              String unit,
+                              AtomicInteger value) {
+        Metadata metadata = metadata(name, description, MetricType.GAUGE, unit);
+        synchronized (registry) {
+            // a tracer built again for the same service replaces the gauges of the previous one
+            MetricID metricID = new MetricID(metadata.getName(), service);
+            if (registry.getGauges().containsKey(metricID)) {
+                registry.remove(metricID);
+            }
+            registry.register(metadata, (Gauge<Integer>) value::get, service);
+        }
+    }
+
+    private static Metadata metadata(String name, String description, MetricType type, String unit) {
+        return Metadata.builder()
+                .withName(PREFIX + name)
+                .withDescription(description)
+                .withType(type)
+                .withUnit(unit)
+                .build();
+    }
+}
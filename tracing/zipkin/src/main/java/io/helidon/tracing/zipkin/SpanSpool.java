@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.tracing.zipkin;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import zipkin2.codec.Encoding;
+
+/**
+ * Memory-mapped file keeping encoded spans that could not be sent to the collector, to be replayed later.
+ * <p>
+ * The file starts with a header holding the encoding of the spans and the read and write positions, followed by
+ * records of a length and the encoded span. As positions are part of the mapped file, spans spooled before a restart
+ * are replayed afterwards. Once all the records are replayed, both positions are reset to the start. When spans do not
+ * fit behind the last record, the records not replayed yet are moved to the start to reclaim the space of the replayed
+ * ones.
+ * <p>
+ * A record with an invalid length, such as after a crash in the middle of writing the file, discards the records from
+ * it to the end of the spool.
+ * <p>
+ * Not thread safe, used only by the reporting thread of {@link BatchingReporter}.
+ */
+final class SpanSpool implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(SpanSpool.class.getName());
+    private static final int MAGIC = 0x5A53504C;
+    private static final int MAGIC_POSITION = 0;
+    private static final int ENCODING_POSITION = 4;
+    private static final int READ_POSITION = 8;
+    private static final int WRITE_POSITION = 12;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_HEADER_SIZE = 4;
+    private static final int COPY_BUFFER_SIZE = 8192;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int peekedPosition = -1;
+
+    private SpanSpool(FileChannel channel, MappedByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Opens a spool file, creating it if it does not exist. Records of a spool with a different size or encoding
+     * are discarded.
+     *
+     * @param file     the file
+     * @param size     size of the file in bytes
+     * @param encoding encoding of the spooled spans
+     * @return an opened spool
+     * @throws IOException if the file cannot be mapped
+     */
+    static SpanSpool open(Path file, int size, Encoding encoding) throws IOException {
+        if (size <= HEADER_SIZE + RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("Spool size must be greater than " + (HEADER_SIZE + RECORD_HEADER_SIZE)
+                                                       + " bytes, but is: " + size);
+        }
+        FileChannel channel = FileChannel.open(file,
+                                               StandardOpenOption.CREATE,
+                                               StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE);
+        try {
+            boolean resized = channel.size() != size;
+            if (resized) {
+                channel.truncate(0);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            SpanSpool spool = new SpanSpool(channel, buffer);
+            if (resized || !spool.valid(encoding)) {
+                buffer.putInt(MAGIC_POSITION, MAGIC);
+                buffer.putInt(ENCODING_POSITION, encoding.ordinal());
+                spool.reset();
+            }
+            return spool;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends encoded spans, either all of them or none if they do not fit.
+     *
+     * @param spans encoded spans
+     * @return {@code true} if the spans were spooled, {@code false} if the spool is full
+     */
+    boolean append(List<byte[]> spans) {
+        int write = buffer.getInt(WRITE_POSITION);
+        long required = 0;
+        for (byte[] span : spans) {
+            required += RECORD_HEADER_SIZE + span.length;
+        }
+        if (write + required > buffer.capacity()) {
+            if (usedBytes() + required > buffer.capacity() - HEADER_SIZE) {
+                return false;
+            }
+            write = compact();
+        }
+        for (byte[] span : spans) {
+            buffer.putInt(write, span.length);
+            buffer.position(write + RECORD_HEADER_SIZE);
+            buffer.put(span);
+            write += RECORD_HEADER_SIZE + span.length;
+        }
+        // publish the records only once written
+        buffer.putInt(WRITE_POSITION, write);
+        return true;
+    }
+
+    /**
+     * Reads the oldest spooled spans without removing them, see {@link #removePeeked()}.
+     *
+     * @param maxSpans maximal number of spans to read
+     * @param maxBytes maximal sum of sizes of the spans to read, at least one span is read
+     * @return encoded spans, empty if the spool is empty
+     */
+    List<byte[]> peek(int maxSpans, int maxBytes) {
+        int read = buffer.getInt(READ_POSITION);
+        int write = buffer.getInt(WRITE_POSITION);
+        List<byte[]> result = new ArrayList<>();
+        int bytes = 0;
+        while (read < write && result.size() < maxSpans) {
+            int length = (write - read < RECORD_HEADER_SIZE) ? -1 : buffer.getInt(read);
+            if (length < 0 || length > write - read - RECORD_HEADER_SIZE) {
+                LOGGER.warning("Zipkin span spool contains a corrupted record, discarding "
+                                       + (write - read) + " bytes of spooled spans");
+                // keep the records read so far, they are removed with the corrupted ones
+                buffer.putInt(WRITE_POSITION, read);
+                break;
+            }
+            if (!result.isEmpty() && bytes + length > maxBytes) {
+                break;
+            }
+            byte[] span = new byte[length];
+            buffer.position(read + RECORD_HEADER_SIZE);
+            buffer.get(span);
+            result.add(span);
+            bytes += length;
+            read += RECORD_HEADER_SIZE + length;
+        }
+        peekedPosition = read;
+        return result;
+    }
+
+    /**
+     * Removes spans returned by the last {@link #peek(int, int)}, once they were sent.
+     */
+    void removePeeked() {
+        if (peekedPosition < 0) {
+            return;
+        }
+        if (peekedPosition >= buffer.getInt(WRITE_POSITION)) {
+            reset();
+        } else {
+            buffer.putInt(READ_POSITION, peekedPosition);
+        }
+        peekedPosition = -1;
+    }
+
+    boolean isEmpty() {
+        return buffer.getInt(READ_POSITION) >= buffer.getInt(WRITE_POSITION);
+    }
+
+    /**
+     * Number of bytes used by spooled spans.
+     *
+     * @return used bytes
+     */
+    int usedBytes() {
+        return buffer.getInt(WRITE_POSITION) - buffer.getInt(READ_POSITION);
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private boolean valid(Encoding encoding) {
+        int read = buffer.getInt(READ_POSITION);
+        int write = buffer.getInt(WRITE_POSITION);
+        return buffer.getInt(MAGIC_POSITION) == MAGIC
+                && buffer.getInt(ENCODING_POSITION) == encoding.ordinal()
+                && read >= HEADER_SIZE
+                && read <= write
+                && write <= buffer.capacity();
+    }
+
+    /**
+     * Moves the records not replayed yet to the start of the spool.
+     *
+     * @return the new write position
+     */
+    private int compact() {
+        int read = buffer.getInt(READ_POSITION);
+        int used = usedBytes();
+        // a crash while records are moved must not leave the positions pointing to partially moved records
+        buffer.putInt(MAGIC_POSITION, 0);
+        // the target precedes the source, so copying in ascending blocks never overwrites bytes not copied yet
+        byte[] block = new byte[Math.min(COPY_BUFFER_SIZE, Math.max(1, used))];
+        for (int copied = 0; copied < used; copied += block.length) {
+            int length = Math.min(block.length, used - copied);
+            buffer.position(read + copied);
+            buffer.get(block, 0, length);
+            buffer.position(HEADER_SIZE + copied);
+            buffer.put(block, 0, length);
+        }
+        buffer.putInt(READ_POSITION, HEADER_SIZE);
+        buffer.putInt(WRITE_POSITION, HEADER_SIZE + used);
+        buffer.putInt(MAGIC_POSITION, MAGIC);
+        if (peekedPosition >= 0) {
+            peekedPosition -= read - HEADER_SIZE;
+        }
+        return HEADER_SIZE + used;
+    }
+
+    private void reset() {
+        buffer.putInt(READ_POSITION, HEADER_SIZE);
+        buffer.putInt(WRITE_POSITION, HEADER_SIZE);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.tracing.zipkin;
+
+import zipkin2.reporter.ReporterMetrics;
+
+/**
+ * Metrics of reporting spans to the Zipkin collector, see {@link ZipkinTracerBuilder#reporterMetrics(ReporterMetrics)}.
+ * <p>
+ * Extends {@link ReporterMetrics}, which provides the queue depth ({@link #updateQueuedSpans(int)}) and dropped
+ * spans ({@link #incrementSpansDropped(int)}), with metrics of the {@link ZipkinTracerBuilder#batching(boolean)
+ * batching reporter}.
+ */
+public interface ZipkinReporterMetrics extends ReporterMetrics {
+
+    /**
+     * A message was sent to the collector.
+     *
+     * @param latencyNanos time to send the message, including the response of the collector
+     */
+    default void updateExportLatency(long latencyNanos) {
+    }
+
+    /**
+     * Spans were written to the spool file, as the collector was not available.
+     *
+     * @param quantity number of spans
+     */
+    default void incrementSpansSpooled(int quantity) {
+    }
+
+    /**
+     * Spans were read from the spool file and sent to the collector.
+     *
+     * @param quantity number of spans
+     */
+    default void incrementSpansReplayed(int quantity) {
+    }
+}
@@ -16,15 +16,20 @@
 
 package io.helidon.tracing.zipkin;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import io.helidon.config.Config;
+import io.helidon.tracing.AdaptiveSampler;
 import io.helidon.tracing.Tag;
 import io.helidon.tracing.TracerBuilder;
 
@@ -35,9 +40,11 @@ import io.opentracing.noop.NoopTracerFactory;
 import io.opentracing.util.GlobalTracer;
 import zipkin2.Span;
 import zipkin2.codec.BytesEncoder;
+import zipkin2.codec.Encoding;
 import zipkin2.codec.SpanBytesEncoder;
 import zipkin2.reporter.AsyncReporter;
 import zipkin2.reporter.Reporter;
+import zipkin2.reporter.ReporterMetrics;
 import zipkin2.reporter.Sender;
 import zipkin2.reporter.urlconnection.URLConnectionSender;
 
@@ -100,6 +107,41 @@ import zipkin2.reporter.urlconnection.URLConnectionSender;
  *         <td>&nbsp;</td>
  *         <td>see {@link TracerBuilder}</td>
  *     </tr>
+ *     <tr>
+ *         <td>{@code batching.enabled}</td>
+ *         <td>{@code false}</td>
+ *         <td>Whether to use the non-blocking {@link #batching(boolean) batching reporter}</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code batching.queue-size}</td>
+ *         <td>10000</td>
+ *         <td>Number of spans waiting to be sent, further spans are dropped</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code batching.batch-size}</td>
+ *         <td>500</td>
+ *         <td>Maximal number of spans sent in a single message</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code batching.timeout}</td>
+ *         <td>{@code PT1S}</td>
+ *         <td>Maximal time a span waits for a batch to fill</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code batching.spool-file}</td>
+ *         <td>&nbsp;</td>
+ *         <td>File keeping spans while the collector is not available, spans are dropped if not set</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code batching.spool-size}</td>
+ *         <td>16777216</td>
+ *         <td>Size of the spool file in bytes</td>
+ *     </tr>
+ *     <tr>
+ *         <td>{@code sampling}</td>
+ *         <td>&nbsp;</td>
+ *         <td>Tail based {@link #adaptiveSampler(AdaptiveSampler) adaptive sampler}</td>
+ *     </tr>
  * </table>
  *
  * @see <a href="http://zipkin.io/pages/instrumenting.html#core-data-structures">Zipkin Attributes</a>
@@ -112,6 +154,10 @@ public class ZipkinTracerBuilder implements TracerBuilder<ZipkinTracerBuilder> {
     static final String DEFAULT_ZIPKIN_HOST = "127.0.0.1";
     static final Version DEFAULT_VERSION = Version.V2;
     static final boolean DEFAULT_ENABLED = true;
+    static final int DEFAULT_QUEUE_SIZE = 10000;
+    static final int DEFAULT_BATCH_SIZE = 500;
+    static final Duration DEFAULT_BATCH_TIMEOUT = Duration.ofSeconds(1);
+    static final int DEFAULT_SPOOL_SIZE = 16 * 1024 * 1024;
 
     private final List<Tag<?>> tags = new LinkedList<>();
     private String serviceName;
@@ -124,6 +170,14 @@ public class ZipkinTracerBuilder implements TracerBuilder<ZipkinTracerBuilder> {
     private String userInfo;
     private boolean enabled = DEFAULT_ENABLED;
     private boolean global = true;
+    private AdaptiveSampler adaptiveSampler;
+    private boolean batching;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private Duration batchTimeout = DEFAULT_BATCH_TIMEOUT;
+    private Path spoolFile;
+    private int spoolSize = DEFAULT_SPOOL_SIZE;
+    private ReporterMetrics reporterMetrics;
 
     /**
      * Default constructor, does not modify state.
@@ -238,6 +292,17 @@ public class ZipkinTracerBuilder implements TracerBuilder<ZipkinTracerBuilder> {
         return this;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Brave samples all traces by default, so the adaptive sampler can choose from all of them.
+     */
+    @Override
+    public ZipkinTracerBuilder adaptiveSampler(AdaptiveSampler sampler) {
+        this.adaptiveSampler = sampler;
+        return this;
+    }
+
     @Override
     public ZipkinTracerBuilder config(Config config) {
         config.get("enabled").asBoolean().ifPresent(this::enabled);
@@ -270,6 +335,15 @@ public class ZipkinTracerBuilder implements TracerBuilder<ZipkinTracerBuilder> {
                 });
 
         config.get("global").asBoolean().ifPresent(this::registerGlobal);
+        config.get("sampling").ifExists(it -> adaptiveSampler(AdaptiveSampler.create(it)));
+
+        Config batchingConfig = config.get("batching");
+        batchingConfig.get("enabled").asBoolean().ifPresent(this::batching);
+        batchingConfig.get("queue-size").asInt().ifPresent(this::queueSize);
+        batchingConfig.get("batch-size").asInt().ifPresent(this::batchSize);
+        batchingConfig.get("timeout").as(Duration.class).ifPresent(this::batchTimeout);
+        batchingConfig.get("spool-file").as(Path.class).ifPresent(this::spoolFile);
+        batchingConfig.get("spool-size").asInt().ifPresent(this::spoolSize);
 
         return this;
     }
@@ -291,8 +365,21 @@ public class ZipkinTracerBuilder implements TracerBuilder<ZipkinTracerBuilder> {
 
             Sender buildSender = (this.sender == null) ? createSender() : this.sender;
 
-            Reporter<Span> reporter = AsyncReporter.builder(buildSender)
-                    .build(version.encoder());
+            ReporterMetrics metrics = (reporterMetrics == null) ? defaultReporterMetrics() : reporterMetrics;
+            Reporter<Span> reporter;
+            if (batching) {
+                reporter = BatchingReporter.start(buildSender,
+                                                  encoder(buildSender.encoding()),
+                                                  metrics,
+                                                  queueSize,
+                                                  batchSize,
+                                                  batchTimeout.toNanos(),
+                                                  openSpool(buildSender.encoding()));
+            } else {
+                reporter = AsyncReporter.builder(buildSender)
+                        .metrics(metrics)
+                        .build(version.encoder());
+            }
 
             // Now, create a Brave tracing component with the service name you want to see in Zipkin.
             //   (the dependency is io.zipkin.brave:brave)
@@ -314,6 +401,10 @@ public class ZipkinTracerBuilder implements TracerBuilder<ZipkinTracerBuilder> {
             result = NoopTracerFactory.create();
         }
 
+        if (enabled && (adaptiveSampler != null)) {
+            result = adaptiveSampler.wrap(result);
+        }
+
         if (global) {
             GlobalTracer.registerIfAbsent(result);
         }
@@ -360,6 +451,133 @@ public class ZipkinTracerBuilder implements TracerBuilder<ZipkinTracerBuilder> {
         return this;
     }
 
+    /**
+     * Whether to report spans using a reporter which never blocks the threads finishing spans, even when the collector
+     * is not available.
+     * <p>
+     * Spans are queued in a bounded lock-free buffer (see {@link #queueSize(int)}) and sent by a single thread in
+     * batches (see {@link #batchSize(int)} and {@link #batchTimeout(Duration)}). With {@link Version#V2} and the
+     * default sender, spans are encoded using the compact proto3 format. Spans which cannot be sent are kept in
+     * a memory-mapped {@link #spoolFile(Path) spool file} and sent once the collector is available again.
+     * Defaults to {@code false}, using the Zipkin {@link AsyncReporter}.
+     *
+     * @param batching whether to use the batching reporter
+     * @return updated builder instance
+     */
+    public ZipkinTracerBuilder batching(boolean batching) {
+        this.batching = batching;
+        return this;
+    }
+
+    /**
+     * Maximal number of spans waiting to be sent by the {@link #batching(boolean) batching reporter}, further spans are
+     * dropped. Rounded up to a power of two.
+     *
+     * @param queueSize capacity of the queue
+     * @return updated builder instance
+     */
+    public ZipkinTracerBuilder queueSize(int queueSize) {
+        this.queueSize = queueSize;
+        return this;
+    }
+
+    /**
+     * Maximal number of spans sent in a single message by the {@link #batching(boolean) batching reporter}.
+     * Messages are also limited by the maximal message size of the sender.
+     *
+     * @param batchSize number of spans
+     * @return updated builder instance
+     */
+    public ZipkinTracerBuilder batchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Maximal time a span waits for a batch to fill before it is sent by the {@link #batching(boolean) batching
+     * reporter}.
+     *
+     * @param batchTimeout the timeout
+     * @return updated builder instance
+     */
+    public ZipkinTracerBuilder batchTimeout(Duration batchTimeout) {
+        this.batchTimeout = batchTimeout;
+        return this;
+    }
+
+    /**
+     * File used by the {@link #batching(boolean) batching reporter} to keep spans while the collector is not available.
+     * Spans kept in the file are also sent after a restart. Spans are dropped if not configured.
+     *
+     * @param spoolFile the spool file
+     * @return updated builder instance
+     */
+    public ZipkinTracerBuilder spoolFile(Path spoolFile) {
+        this.spoolFile = spoolFile;
+        return this;
+    }
+
+    /**
+     * Size of the {@link #spoolFile(Path) spool file} in bytes. Spans are dropped once it is full.
+     *
+     * @param spoolSize size in bytes
+     * @return updated builder instance
+     */
+    public ZipkinTracerBuilder spoolSize(int spoolSize) {
+        this.spoolSize = spoolSize;
+        return this;
+    }
+
+    /**
+     * Metrics of the reporter, such as the number of queued and dropped spans. The {@link #batching(boolean) batching
+     * reporter} also reports export latency and spooled spans to {@link ZipkinReporterMetrics}.
+     * <p>
+     * Defaults to counters, timers and gauges named {@code zipkin.reporter.*} in the vendor registry of Helidon metrics,
+     * tagged with the service name, if Helidon metrics are on the classpath. Use
+     * {@link ReporterMetrics#NOOP_METRICS} to disable them.
+     *
+     * @param reporterMetrics reporter metrics
+     * @return updated builder instance
+     */
+    public ZipkinTracerBuilder reporterMetrics(ReporterMetrics reporterMetrics) {
+        this.reporterMetrics = reporterMetrics;
+        return this;
+    }
+
+    private ReporterMetrics defaultReporterMetrics() {
+        try {
+            Class.forName("io.helidon.metrics.RegistryFactory");
+        } catch (ClassNotFoundException | LinkageError e) {
+            LOGGER.fine("Helidon metrics are not on the classpath, Zipkin reporter metrics are disabled");
+            return ReporterMetrics.NOOP_METRICS;
+        }
+        return RegistryReporterMetrics.create(serviceName);
+    }
+
+    private BytesEncoder<Span> encoder(Encoding encoding) {
+        switch (encoding) {
+        case PROTO3:
+            return SpanBytesEncoder.PROTO3;
+        case THRIFT:
+            return SpanBytesEncoder.THRIFT;
+        default:
+            return version.encoder();
+        }
+    }
+
+    private SpanSpool openSpool(Encoding encoding) {
+        if (null == spoolFile) {
+            return null;
+        }
+        try {
+            return SpanSpool.open(spoolFile, spoolSize, encoding);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, e, () -> "Cannot open Zipkin span spool " + spoolFile + ", spans will be dropped "
+                    + "while the collector is not available");
+            return null;
+        }
+    }
+
     private void configApiVersion(String version) {
         String workingVersion = version.trim().toLowerCase();
 
@@ -397,7 +615,12 @@ public class ZipkinTracerBuilder implements TracerBuilder<ZipkinTracerBuilder> {
         URI endpoint = createEndpoint();
 
         try {
-            return URLConnectionSender.newBuilder().endpoint(endpoint.toURL()).build();
+            URLConnectionSender.Builder builder = URLConnectionSender.newBuilder().endpoint(endpoint.toURL());
+            if (batching && version == Version.V2) {
+                // proto3 is only defined for the v2 model
+                builder.encoding(Encoding.PROTO3);
+            }
+            return builder.build();
         } catch (MalformedURLException e) {
             throw new IllegalArgumentException("Cannot convert to URL: " + endpoint, e);
         }
@@ -443,6 +666,34 @@ public class ZipkinTracerBuilder implements TracerBuilder<ZipkinTracerBuilder> {
         return enabled;
     }
 
+    AdaptiveSampler adaptiveSampler() {
+        return adaptiveSampler;
+    }
+
+    boolean isBatching() {
+        return batching;
+    }
+
+    int queueSize() {
+        return queueSize;
+    }
+
+    int batchSize() {
+        return batchSize;
+    }
+
+    Duration batchTimeout() {
+        return batchTimeout;
+    }
+
+    Path spoolFile() {
+        return spoolFile;
+    }
+
+    int spoolSize() {
+        return spoolSize;
+    }
+
     /**
      * Versions available for Zipkin API.
      */
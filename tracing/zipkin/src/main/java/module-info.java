@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ module io.helidon.tracing.zipkin {
     requires io.helidon.common;
     requires io.helidon.config;
     requires io.helidon.tracing;
+    requires static io.helidon.metrics;
 
     requires java.logging;
     requires io.opentracing.util;
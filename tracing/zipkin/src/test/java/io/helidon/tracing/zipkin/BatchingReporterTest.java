@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.tracing.zipkin;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import zipkin2.Call;
+import zipkin2.Callback;
+import zipkin2.Span;
+import zipkin2.codec.Encoding;
+import zipkin2.codec.SpanBytesDecoder;
+import zipkin2.codec.SpanBytesEncoder;
+import zipkin2.reporter.InMemoryReporterMetrics;
+import zipkin2.reporter.Sender;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+
+/**
+ * Unit test for {@link BatchingReporter} and {@link SpanSpool}.
+ */
+class BatchingReporterTest {
+
+    private static final long TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    void testRing() {
+        BatchingReporter.SpanRing ring = new BatchingReporter.SpanRing(3);
+        assertThat(ring.capacity(), is(4));
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(span(i)), is(true));
+        }
+        assertThat(ring.offer(span(4)), is(false));
+        assertThat(ring.size(), is(4));
+        assertThat(ring.poll().id(), is(id(0)));
+        assertThat(ring.offer(span(5)), is(true));
+        for (int i : new int[] {1, 2, 3, 5}) {
+            assertThat(ring.poll().id(), is(id(i)));
+        }
+        assertThat(ring.poll(), is((Span) null));
+        assertThat(ring.size(), is(0));
+    }
+
+    @Test
+    void testBatches() {
+        TestSender sender = new TestSender();
+        InMemoryReporterMetrics metrics = new InMemoryReporterMetrics();
+        BatchingReporter reporter = BatchingReporter.start(sender, SpanBytesEncoder.PROTO3, metrics, 64, 10, TIMEOUT_NANOS, null);
+        for (int i = 0; i < 25; i++) {
+            reporter.report(span(i));
+        }
+        reporter.close();
+
+        assertThat(sender.spans(), is(ids(0, 25)));
+        assertThat(sender.messages.get(0).size(), is(10));
+        assertThat(metrics.spans(), is(25L));
+        assertThat(metrics.spansDropped(), is(0L));
+    }
+
+    @Test
+    void testDroppedWhenFull() {
+        TestSender sender = new TestSender();
+        sender.available = false;
+        InMemoryReporterMetrics metrics = new InMemoryReporterMetrics();
+        BatchingReporter reporter = BatchingReporter.start(sender, SpanBytesEncoder.PROTO3, metrics, 4, 100,
+                                                           TimeUnit.SECONDS.toNanos(10), null);
+        for (int i = 0; i < 6; i++) {
+            reporter.report(span(i));
+        }
+        assertThat(reporter.queuedSpans(), is(4));
+        assertThat(metrics.spansDropped(), is(2L));
+        reporter.close();
+        // the collector is not available and there is no spool
+        assertThat(metrics.spansDropped(), is(6L));
+    }
+
+    @Test
+    void testSpoolAndReplay() throws Exception {
+        Path file = Files.createTempFile("zipkin", ".spool");
+        try {
+            TestSender sender = new TestSender();
+            sender.available = false;
+            TestMetrics metrics = new TestMetrics();
+            BatchingReporter reporter = BatchingReporter.start(sender,
+                                                               SpanBytesEncoder.PROTO3,
+                                                               metrics,
+                                                               64,
+                                                               10,
+                                                               TIMEOUT_NANOS,
+                                                               SpanSpool.open(file, 4096, Encoding.PROTO3));
+            for (int i = 0; i < 15; i++) {
+                reporter.report(span(i));
+            }
+            reporter.close();
+            assertThat(sender.spans(), is(empty()));
+            assertThat(metrics.spooled, is(15));
+
+            // spooled spans survive a restart and are sent first
+            sender.available = true;
+            reporter = BatchingReporter.start(sender,
+                                              SpanBytesEncoder.PROTO3,
+                                              metrics,
+                                              64,
+                                              10,
+                                              TIMEOUT_NANOS,
+                                              SpanSpool.open(file, 4096, Encoding.PROTO3));
+            for (int i = 15; i < 20; i++) {
+                reporter.report(span(i));
+            }
+            reporter.close();
+            assertThat(sender.spans(), is(ids(0, 20)));
+            // new spans are spooled too, so they do not overtake the spooled ones
+            assertThat(metrics.replayed, is(20));
+            assertThat(metrics.exports > 0, is(true));
+
+            try (SpanSpool spool = SpanSpool.open(file, 4096, Encoding.PROTO3)) {
+                assertThat(spool.isEmpty(), is(true));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testSpoolFull() throws Exception {
+        Path file = Files.createTempFile("zipkin", ".spool");
+        try (SpanSpool spool = SpanSpool.open(file, 64, Encoding.PROTO3)) {
+            assertThat(spool.append(List.of(new byte[20])), is(true));
+            assertThat(spool.append(List.of(new byte[10], new byte[10])), is(false));
+            assertThat(spool.usedBytes(), is(24));
+            assertThat(spool.peek(10, 1000).size(), is(1));
+            spool.removePeeked();
+            assertThat(spool.isEmpty(), is(true));
+            assertThat(spool.append(List.of(new byte[10], new byte[10])), is(true));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testSpoolCompacted() throws Exception {
+        Path file = Files.createTempFile("zipkin", ".spool");
+        try (SpanSpool spool = SpanSpool.open(file, 64, Encoding.PROTO3)) {
+            assertThat(spool.append(List.of(new byte[20])), is(true));
+            assertThat(spool.append(List.of(new byte[] {1})), is(true));
+            assertThat(spool.peek(1, 1000).size(), is(1));
+            spool.removePeeked();
+            assertThat(spool.append(List.of(new byte[] {2, 3})), is(true));
+            // does not fit behind the last record, but does once the replayed record is reclaimed
+            assertThat(spool.append(List.of(new byte[20])), is(true));
+            assertThat(spool.usedBytes(), is(35));
+            List<byte[]> spans = spool.peek(10, 1000);
+            assertThat(spans.size(), is(3));
+            assertThat(spans.get(0)[0], is((byte) 1));
+            assertThat(spans.get(1)[1], is((byte) 3));
+            assertThat(spans.get(2).length, is(20));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testSpoolCorruptedRecord() throws Exception {
+        Path file = Files.createTempFile("zipkin", ".spool");
+        try {
+            try (SpanSpool spool = SpanSpool.open(file, 128, Encoding.PROTO3)) {
+                assertThat(spool.append(List.of(new byte[10], new byte[10], new byte[10])), is(true));
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                // length of the second record
+                raf.seek(16 + 4 + 10);
+                raf.writeInt(-5);
+            }
+            try (SpanSpool spool = SpanSpool.open(file, 128, Encoding.PROTO3)) {
+                assertThat(spool.peek(10, 1000).size(), is(1));
+                spool.removePeeked();
+                assertThat(spool.isEmpty(), is(true));
+                assertThat(spool.append(List.of(new byte[10])), is(true));
+                assertThat(spool.peek(10, 1000).size(), is(1));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testReporterSurvivesFailures() throws InterruptedException {
+        TestSender sender = new TestSender();
+        TestMetrics metrics = new TestMetrics();
+        metrics.queuedFailures = 1;
+        BatchingReporter reporter = BatchingReporter.start(sender, SpanBytesEncoder.PROTO3, metrics, 64, 10, TIMEOUT_NANOS, null);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (metrics.queuedFailures > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(metrics.queuedFailures, is(0));
+        for (int i = 0; i < 5; i++) {
+            reporter.report(span(i));
+        }
+        reporter.close();
+        assertThat(sender.spans(), is(ids(0, 5)));
+    }
+
+    private static Span span(int i) {
+        return Span.newBuilder()
+                .traceId(id(i))
+                .id(id(i))
+                .name("span-" + i)
+                .timestamp(1_000_000L + i)
+                .duration(10)
+                .build();
+    }
+
+    private static String id(int i) {
+        return String.format("%016x", i + 1);
+    }
+
+    private static List<String> ids(int from, int to) {
+        List<String> result = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            result.add(id(i));
+        }
+        return result;
+    }
+
+    private static final class TestMetrics implements ZipkinReporterMetrics {
+        private volatile int spooled;
+        private volatile int replayed;
+        private volatile int exports;
+        private volatile int queuedFailures;
+
+        @Override
+        public void incrementMessages() {
+        }
+
+        @Override
+        public void incrementMessagesDropped(Throwable cause) {
+        }
+
+        @Override
+        public void incrementSpans(int quantity) {
+        }
+
+        @Override
+        public void incrementSpanBytes(int quantity) {
+        }
+
+        @Override
+        public void incrementMessageBytes(int quantity) {
+        }
+
+        @Override
+        public void incrementSpansDropped(int quantity) {
+        }
+
+        @Override
+        public void updateQueuedSpans(int update) {
+            if (queuedFailures > 0) {
+                queuedFailures--;
+                throw new IllegalStateException("Failing metrics");
+            }
+        }
+
+        @Override
+        public void updateQueuedBytes(int update) {
+        }
+
+        @Override
+        public void updateExportLatency(long latencyNanos) {
+            exports++;
+        }
+
+        @Override
+        public void incrementSpansSpooled(int quantity) {
+            spooled += quantity;
+        }
+
+        @Override
+        public void incrementSpansReplayed(int quantity) {
+            replayed += quantity;
+        }
+    }
+
+    private static final class TestSender extends Sender {
+        private final List<List<byte[]>> messages = new CopyOnWriteArrayList<>();
+        private volatile boolean available = true;
+
+        @Override
+        public Encoding encoding() {
+            return Encoding.PROTO3;
+        }
+
+        @Override
+        public int messageMaxBytes() {
+            return 500_000;
+        }
+
+        @Override
+        public int messageSizeInBytes(List<byte[]> encodedSpans) {
+            return encoding().listSizeInBytes(encodedSpans);
+        }
+
+        @Override
+        public Call<Void> sendSpans(List<byte[]> encodedSpans) {
+            return new Call.Base<>() {
+                @Override
+                protected Void doExecute() throws IOException {
+                    if (!available) {
+                        throw new IOException("Collector is not available");
+                    }
+                    messages.add(encodedSpans);
+                    return null;
+                }
+
+                @Override
+                protected void doEnqueue(Callback<Void> callback) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public Call<Void> clone() {
+                    return sendSpans(encodedSpans);
+                }
+            };
+        }
+
+        List<String> spans() {
+            List<String> result = new ArrayList<>();
+            for (List<byte[]> message : messages) {
+                for (byte[] encoded : message) {
+                    result.add(SpanBytesDecoder.PROTO3.decodeOne(encoded).id());
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,20 +16,28 @@
 
 package io.helidon.tracing.zipkin;
 
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
 
 import io.helidon.config.Config;
+import io.helidon.metrics.RegistryFactory;
+import io.helidon.tracing.AdaptiveSampler;
 import io.helidon.tracing.Tag;
 import io.helidon.tracing.TracerBuilder;
 
 import io.opentracing.Tracer;
 import io.opentracing.noop.NoopTracer;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -136,4 +144,43 @@ class ZipkinTracerBuilderTest {
                 Tag.create("tag6", 741)
         ));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testConfigBatching() {
+        TracerBuilder<?> builder = TracerBuilder.create(config.get("tracing.zipkin-batching"));
+
+        ZipkinTracerBuilder zBuilder = (ZipkinTracerBuilder) builder;
+
+        assertThat(zBuilder.isBatching(), is(true));
+        assertThat(zBuilder.queueSize(), is(2048));
+        assertThat(zBuilder.batchSize(), is(100));
+        assertThat(zBuilder.batchTimeout(), is(Duration.ofMillis(500)));
+        assertThat(zBuilder.spoolFile(), is(Paths.get("target/zipkin.spool")));
+        assertThat(zBuilder.spoolSize(), is(65536));
+    }
+
+    @Test
+    void testConfigSampling() {
+        TracerBuilder<?> builder = TracerBuilder.create(config.get("tracing.zipkin-sampling"));
+
+        ZipkinTracerBuilder zBuilder = (ZipkinTracerBuilder) builder;
+        AdaptiveSampler sampler = zBuilder.adaptiveSampler();
+
+        assertThat(sampler, notNullValue());
+        assertThat(sampler.enabled(), is(true));
+        Tracer tracer = zBuilder.registerGlobal(false).build();
+        assertThat(tracer, not(instanceOf(ZipkinTracer.class)));
+    }
+
+    @Test
+    void testDefaultReporterMetrics() {
+        ZipkinTracerBuilder.forService("metrics-service")
+                .registerGlobal(false)
+                .build();
+
+        MetricRegistry vendor = RegistryFactory.getInstance().getRegistry(MetricRegistry.Type.VENDOR);
+        org.eclipse.microprofile.metrics.Tag service = new org.eclipse.microprofile.metrics.Tag("service", "metrics-service");
+        assertThat(vendor.getCounters().containsKey(new MetricID("zipkin.reporter.spans", service)), is(true));
+        assertThat(vendor.getGauges().containsKey(new MetricID("zipkin.reporter.queued.spans", service)), is(true));
+    }
+}
@@ -27,6 +27,7 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Logger;
@@ -241,7 +242,10 @@ public class JerseySupport implements Service {
 
         private void doAccept(ServerRequest req, ServerResponse res) {
             CompletableFuture<Void> whenHandleFinishes = new CompletableFuture<>();
-            ResponseWriter responseWriter = new ResponseWriter(res, req, whenHandleFinishes);
+            boolean onEventLoop = handleOnEventLoop(req);
+            // the entity of a request handled on the event loop is buffered, waiting for the connection to request
+            // more data would block the event loop which is the only thread able to request it
+            ResponseWriter responseWriter = new ResponseWriter(res, req, whenHandleFinishes, onEventLoop);
             ContainerRequest requestContext = new ContainerRequest(baseUri(req),
                                                                    requestUri(req),
                                                                    req.method().name(),
@@ -252,12 +256,14 @@ public class JerseySupport implements Service {
 
             requestContext.setWriter(responseWriter);
 
+            Executor executor = onEventLoop ? Runnable::run : service;
+
             req.content()
                     .as(InputStream.class)
                     .thenAccept(is -> {
                         requestContext.setEntityStream(is);
 
-                        service.execute(() -> { // No need to use submit() since the future is not used.
+                        executor.execute(() -> { // No need to use submit() since the future is not used.
                             try {
                                 LOGGER.finer("Handling in Jersey started.");
 
@@ -285,6 +291,22 @@ public class JerseySupport implements Service {
                         return null;
                     });
         }
+
+        /**
+         * Requests of {@link io.helidon.webserver.EventLoopSafe event loop safe} routes are handled by Jersey on the
+         * calling thread, unless there is an entity. Reading the entity stream blocks until the event loop delivers
+         * the content, so it must not happen on the event loop. The response entity of such requests is buffered and
+         * sent once written, see {@link ResponseWriter}.
+         */
+        private boolean handleOnEventLoop(ServerRequest req) {
+            if (!req.isEventLoopSafe()) {
+                return false;
+            }
+            if (req.headers().contentLength().orElse(0) > 0) {
+                return false;
+            }
+            return req.headers().first(Http.Header.TRANSFER_ENCODING).isEmpty();
+        }
     }
 
     /**
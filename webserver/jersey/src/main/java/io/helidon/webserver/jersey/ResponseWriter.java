@@ -16,6 +16,7 @@
 
 package io.helidon.webserver.jersey;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
@@ -97,11 +98,27 @@ class ResponseWriter implements ContainerResponseWriter {
     private final ServerResponse res;
     private final ServerRequest req;
     private final CompletableFuture<Void> whenHandleFinishes;
+    private final boolean buffered;
+
+    private volatile BufferedEntity bufferedEntity;
 
     ResponseWriter(ServerResponse res, ServerRequest req, CompletableFuture<Void> whenHandleFinishes) {
+        this(res, req, whenHandleFinishes, false);
+    }
+
+    /**
+     * @param res the response
+     * @param req the request
+     * @param whenHandleFinishes completed once Jersey finishes the handling
+     * @param buffered whether to buffer the entity and send it once written instead of streaming it; used when
+     *                 Jersey runs on the event loop, where writing to the {@link OutputStreamPublisher} would block
+     *                 waiting for demand that only the (blocked) event loop can signal
+     */
+    ResponseWriter(ServerResponse res, ServerRequest req, CompletableFuture<Void> whenHandleFinishes, boolean buffered) {
         this.res = res;
         this.req = req;
         this.whenHandleFinishes = whenHandleFinishes;
+        this.buffered = buffered;
     }
 
     @Override
@@ -135,6 +152,11 @@ class ResponseWriter implements ContainerResponseWriter {
             res.headers().put(entry.getKey(), entry.getValue());
         }
 
+        if (buffered) {
+            bufferedEntity = new BufferedEntity();
+            return bufferedEntity;
+        }
+
         res.send(Multi.from(publisher)
                 .map(byteBuffer -> DataChunk.create(doFlush(context, byteBuffer), byteBuffer, true)));
 
@@ -156,6 +178,14 @@ class ResponseWriter implements ContainerResponseWriter {
 
     @Override
     public void commit() {
+        if (buffered) {
+            // Jersey doesn't close the OutputStream when there is no entity
+            BufferedEntity entity = bufferedEntity;
+            if (entity != null) {
+                entity.close();
+            }
+            return;
+        }
         try {
             // Jersey doesn't close the OutputStream when there is no entity
             // as such the publisher needs to be closed from here ...
@@ -193,4 +223,25 @@ class ResponseWriter implements ContainerResponseWriter {
         return MediaType.SERVER_SENT_EVENTS_TYPE.isCompatible(context.getMediaType())
                 || byteBuffer.hasArray() && byteBuffer.array().length == 0;
     }
+
+    /**
+     * Collects the entity in memory and sends it as a whole once closed, so writing never blocks. Flushing has no
+     * effect, streaming responses (e.g. server sent events) are not sent until completed.
+     */
+    private final class BufferedEntity extends ByteArrayOutputStream {
+        private boolean sent;
+
+        @Override
+        public synchronized void close() {
+            if (sent) {
+                return;
+            }
+            sent = true;
+            if (size() == 0) {
+                res.send();
+            } else {
+                res.send(toByteArray());
+            }
+        }
+    }
 }
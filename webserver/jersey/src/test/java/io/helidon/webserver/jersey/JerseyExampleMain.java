@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.WebTarget;
 
+import io.helidon.webserver.EventLoopSafe;
 import io.helidon.webserver.Routing;
 import io.helidon.webserver.ServerConfiguration;
 import io.helidon.webserver.WebServer;
@@ -105,6 +106,10 @@ public final class JerseyExampleMain {
                                             .register("/jersey",
                                                       JerseySupport.builder()
                                                                    .register(JerseyExampleResource.class))
+                                            .register("/jersey-safe",
+                                                      EventLoopSafe.service(JerseySupport.builder()
+                                                                                    .register(JerseyExampleResource.class)
+                                                                                    .build()))
                                             .any("/jersey/second", (req, res) -> {
                                                 req.content()
                                                    .as(String.class)
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -40,6 +40,7 @@ import javax.ws.rs.core.UriInfo;
 import io.helidon.webserver.ServerRequest;
 import io.helidon.webserver.ServerResponse;
 
+import io.netty.util.concurrent.FastThreadLocalThread;
 import io.opentracing.SpanContext;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -100,6 +101,12 @@ public class JerseyExampleResource {
         return Response.accepted("Hello Long: " + JerseySupportTest.longData(LARGE_DATA_SIZE_BYTES) + "!").build();
     }
 
+    @GET
+    @Path("eventloop")
+    public Response eventLoop() {
+        return Response.ok(String.valueOf(Thread.currentThread() instanceof FastThreadLocalThread)).build();
+    }
+
     @GET
     @Path("noentity")
     public Response noEntity() {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,8 +20,12 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.net.URI;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 
@@ -37,6 +41,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import static io.helidon.webserver.jersey.JerseySupport.basePath;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -152,6 +157,36 @@ public class JerseySupportTest {
         doAssert(response, "Hello: " + data.toString() + "!");
     }
 
+    @Test
+    public void eventLoopSafe() throws Exception {
+        doAssert(get("jersey/first/eventloop"), "false");
+        doAssert(get("jersey-safe/first/eventloop"), "true");
+        // requests with an entity are always handled by the executor service
+        doAssert(post("jersey-safe/first/hello"), "Hello: my-entity!");
+        // entities bigger than the connection buffer must not block the event loop
+        doAssert(get("jersey-safe/first/longhello"),
+                 "Hello Long: " + longData(JerseyExampleResource.LARGE_DATA_SIZE_BYTES) + "!");
+        doAssert(get("jersey-safe/first/error/noentity"), "", 543);
+    }
+
+    @Test
+    public void eventLoopSafeSlowClient() throws Exception {
+        // the client reads slowly, so the connection stops accepting data until the event loop flushes it
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(1024);
+            socket.setSoTimeout(10_000);
+            socket.connect(new InetSocketAddress("localhost", JerseyExampleMain.INSTANCE.webServer(true).port()));
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /jersey-safe/first/longhello HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                              .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            Thread.sleep(500);
+            byte[] response = socket.getInputStream().readAllBytes();
+            String expected = "Hello Long: " + longData(JerseyExampleResource.LARGE_DATA_SIZE_BYTES) + "!";
+            assertThat(new String(response, StandardCharsets.UTF_8), containsString(expected));
+        }
+    }
+
     @Test
     public void errorNoEntity() throws Exception {
         Response response = get("jersey/first/error/noentity");
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,8 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -148,4 +150,29 @@ public class FileSystemContentHandlerTest {
         assertThat(responseToString(response), is("A CSS"));
         assertThat(response.headers().first(Http.Header.CONTENT_TYPE).orElse(null), is(MediaType.TEXT_PLAIN.toString()));
     }
+
+    @Test
+    public void serveFromCache() throws Exception {
+        Path file = folder.root().toPath().resolve("foo.txt");
+        Routing routing = Routing.builder()
+                .register("/some", StaticContentSupport.builder(folder.root().toPath())
+                                                       .cacheSize(1024)
+                                                       .build())
+                .build();
+        TestResponse response = TestClient.create(routing)
+                .path("/some/foo.txt")
+                .get();
+        assertThat(response.status(), is(Http.Status.OK_200));
+        assertThat(responseToString(response), is("Foo TXT"));
+        assertThat(response.headers().first(Http.Header.CONTENT_TYPE).orElse(null), is(MediaType.TEXT_PLAIN.toString()));
+
+        // modified file must not be served from the cache
+        Files.write(file, "Modified Foo TXT".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(10)));
+        response = TestClient.create(routing)
+                .path("/some/foo.txt")
+                .get();
+        assertThat(response.status(), is(Http.Status.OK_200));
+        assertThat(responseToString(response), is("Modified Foo TXT"));
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -45,6 +45,7 @@ class BareRequestImpl implements BareRequest {
     private final SSLEngine sslEngine;
     private final long requestId;
     private final URI uri;
+    private final RequestHeaders requestHeaders;
 
     BareRequestImpl(HttpRequest request,
                     Flow.Publisher<DataChunk> publisher,
@@ -59,6 +60,7 @@ class BareRequestImpl implements BareRequest {
         this.sslEngine = sslEngine;
         this.requestId = requestId;
         this.uri = URI.create(nettyRequest.uri());
+        this.requestHeaders = new NettyRequestHeaders(nettyRequest.headers());
     }
 
     @Override
@@ -125,6 +127,16 @@ class BareRequestImpl implements BareRequest {
         return map;
     }
 
+    /**
+     * Returns a read only view of the request headers backed directly by the Netty request.
+     * Unlike {@link #headers()} it doesn't copy any header.
+     *
+     * @return request headers
+     */
+    RequestHeaders requestHeaders() {
+        return requestHeaders;
+    }
+
     @Override
     public Flow.Publisher<DataChunk> bodyPublisher() {
         return publisher;
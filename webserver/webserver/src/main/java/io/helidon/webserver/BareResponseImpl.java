@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package io.helidon.webserver;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -23,6 +24,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Flow;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -30,19 +32,29 @@ import java.util.logging.Logger;
 import io.helidon.common.http.DataChunk;
 import io.helidon.common.http.Http;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.DefaultFileRegion;
 import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseEncoder;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.handler.stream.ChunkedNioFile;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 
@@ -60,11 +72,31 @@ class BareResponseImpl implements BareResponse {
     private static final String HTTP_2_HEADER_PREFIX = "x-http2";
     private static final SocketClosedException CLOSED = new SocketClosedException("Response channel is closed!");
     private static final LastHttpContent LAST_HTTP_CONTENT = new DefaultLastHttpContent(Unpooled.EMPTY_BUFFER);
+    private static final int FILE_CHUNK_SIZE = 8192;
+    private static final AtomicReferenceFieldUpdater<BareResponseImpl, RouteMetrics.Recorder> ROUTE_RECORDER =
+            AtomicReferenceFieldUpdater.newUpdater(BareResponseImpl.class, RouteMetrics.Recorder.class, "routeRecorder");
+    private static final AtomicReferenceFieldUpdater<BareResponseImpl, DataChunk> FIRST_CHUNK =
+            AtomicReferenceFieldUpdater.newUpdater(BareResponseImpl.class, DataChunk.class, "firstChunk");
+    // replaces the route recorder once the response is completed, so late routes are not recorded
+    private static final RouteMetrics.Recorder COMPLETED = new RouteMetrics.Recorder() {
+        @Override
+        public void enter() {
+        }
+
+        @Override
+        public void exit() {
+        }
+
+        @Override
+        public void complete(int statusCode, boolean failed, long durationNanos) {
+        }
+    };
 
     private final boolean keepAlive;
     private final ChannelHandlerContext ctx;
     private final AtomicBoolean statusHeadersSent = new AtomicBoolean(false);
     private final AtomicBoolean internallyClosed = new AtomicBoolean(false);
+    private final AtomicBoolean awaitingWritability = new AtomicBoolean(false);
     private final CompletableFuture<BareResponse> responseFuture;
     private final CompletableFuture<BareResponse> headersFuture;
     private final BooleanSupplier requestContentConsumed;
@@ -78,6 +110,11 @@ class BareResponseImpl implements BareResponse {
     private volatile DataChunk firstChunk;
     private volatile DefaultHttpResponse response;
     private volatile boolean lengthOptimization;
+    private volatile boolean compressible;
+    private volatile int statusCode;
+    private volatile RouteRecorders routeRecorders;
+    private volatile RouteMetrics.Recorder routeRecorder;
+    private volatile long routedNanos;
 
     /**
      * @param ctx the channel handler context
@@ -114,6 +151,17 @@ class BareResponseImpl implements BareResponse {
     }
 
     private void responseComplete(BareResponse self, Throwable throwable) {
+        RouteRecorders recorders = routeRecorders;
+        if (recorders != null) {
+            long duration = System.nanoTime() - routedNanos;
+            RouteMetrics.Recorder recorder = ROUTE_RECORDER.getAndSet(this, COMPLETED);
+            if (recorder == null) {
+                recorder = recorders.unmatched();
+            } else {
+                recorder.exit();
+            }
+            recorder.complete(statusCode, throwable != null, duration);
+        }
         if (throwable == null) {
             headersFuture.complete(this);
         } else {
@@ -122,8 +170,69 @@ class BareResponseImpl implements BareResponse {
         channelClosedFuture.removeListener(channelClosedListener);
     }
 
+    /**
+     * Starts recording {@link RouteMetrics} of this response, the request is being routed.
+     *
+     * @param recorders recorders of the routes
+     */
+    void routeMetrics(RouteRecorders recorders) {
+        this.routedNanos = System.nanoTime();
+        this.routeRecorders = recorders;
+    }
+
+    /**
+     * The request reached a route, its recorder replaces the recorder of the previous route.
+     *
+     * @param route the route
+     */
+    void route(HandlerRoute route) {
+        route(routeRecorders.recorder(route));
+    }
+
+    /**
+     * The request was passed by all routes, its response is recorded as {@link RouteMetrics#UNMATCHED_ROUTE}.
+     */
+    void unmatched() {
+        route(routeRecorders.unmatched());
+    }
+
+    private void route(RouteMetrics.Recorder recorder) {
+        RouteMetrics.Recorder previous;
+        do {
+            previous = routeRecorder;
+            if (previous == COMPLETED) {
+                return;
+            }
+        } while (!ROUTE_RECORDER.compareAndSet(this, previous, recorder));
+        recorder.enter();
+        if (previous != null) {
+            previous.exit();
+        }
+    }
+
     private void channelClosed(Future<? super Void> future) {
         responseFuture.completeExceptionally(CLOSED);
+        // nothing more can be written, stop the producer (which may be blocked waiting for demand)
+        cancelSubscription();
+        releaseFirstChunk();
+    }
+
+    private void cancelSubscription() {
+        Flow.Subscription subscription = this.subscription;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    /**
+     * Releases the cached first chunk (if any), it is never written once the channel is closed or the response
+     * failed.
+     */
+    private void releaseFirstChunk() {
+        DataChunk chunk = FIRST_CHUNK.getAndSet(this, null);
+        if (chunk != null) {
+            chunk.release();
+        }
     }
 
     @Override
@@ -133,6 +242,7 @@ class BareResponseImpl implements BareResponse {
             throw new IllegalStateException("Status and headers were already sent");
         }
 
+        statusCode = status.code();
         response = new DefaultHttpResponse(HTTP_1_1, valueOf(status.code()));
         for (Map.Entry<String, List<String>> headerEntry : headers.entrySet()) {
             response.headers().add(headerEntry.getKey(), headerEntry.getValue());
@@ -223,9 +333,10 @@ class BareResponseImpl implements BareResponse {
      */
     private void writeLastContent(final Throwable throwable, final ChannelFutureListener closeAction) {
         if (lengthOptimization) {
-            if (firstChunk != null) {
+            DataChunk chunk = firstChunk;
+            if (chunk != null) {
                 HttpUtil.setTransferEncodingChunked(response, false);
-                HttpUtil.setContentLength(response, firstChunk.data().remaining());
+                HttpUtil.setContentLength(response, chunk.data().remaining());
             }
             initWriteResponse();
         }
@@ -239,6 +350,8 @@ class BareResponseImpl implements BareResponse {
         return future -> {
             if (!future.isSuccess()) {
                 completeResponseFuture(new IllegalStateException(message, future.cause()));
+                cancelSubscription();
+                releaseFirstChunk();
             }
         };
     }
@@ -255,28 +368,78 @@ class BareResponseImpl implements BareResponse {
     @Override
     public void onSubscribe(Flow.Subscription subscription) {
         this.subscription = subscription;
-        subscription.request(Long.MAX_VALUE);
+        if (!ctx.channel().isOpen()) {
+            // closed before subscribed, the close listener may have missed the subscription
+            subscription.cancel();
+            return;
+        }
+        subscription.request(1);
+    }
+
+    /**
+     * Requests the next chunk if the channel accepts more data, otherwise flushes the pending data and waits
+     * for {@link #writabilityChanged()}. This keeps the amount of data buffered by the connection bounded by
+     * its write buffer water marks, no matter how fast the publisher produces data.
+     */
+    private void requestNext() {
+        Flow.Subscription subscription = this.subscription;
+        if (subscription == null) {
+            return;
+        }
+        if (ctx.channel().isWritable()) {
+            subscription.request(1);
+            return;
+        }
+        awaitingWritability.set(true);
+        ctx.flush();
+        // the channel may have become writable before the flag was set
+        if (ctx.channel().isWritable() && awaitingWritability.compareAndSet(true, false)) {
+            subscription.request(1);
+        }
+    }
+
+    /**
+     * Called by {@link ForwardingHandler} once the channel becomes writable again.
+     */
+    void writabilityChanged() {
+        Flow.Subscription subscription = this.subscription;
+        if (subscription != null
+                && ctx.channel().isWritable()
+                && awaitingWritability.compareAndSet(true, false)) {
+            subscription.request(1);
+        }
     }
 
     @Override
     public void onNext(DataChunk data) {
         if (internallyClosed.get()) {
+            if (data != null) {
+                data.release();
+            }
             throw new IllegalStateException("Response is already closed!");
         }
         if (data != null) {
             if (data.isFlushChunk()) {
                 ctx.flush();
-                return;
-            }
-            if (lengthOptimization) {
-                if (firstChunk == null) {
-                    firstChunk = data.isReadOnly() ? data : data.duplicate();      // cache first chunk
-                    return;
+            } else if (lengthOptimization && firstChunk == null) {
+                if (data.isReadOnly()) {
+                    firstChunk = data;      // cache first chunk
+                } else {
+                    firstChunk = data.duplicate();
+                    data.release();
                 }
-                initWriteResponse();
+                if (!ctx.channel().isOpen()) {
+                    // closed while caching, the chunk would never be written
+                    releaseFirstChunk();
+                }
+            } else {
+                if (lengthOptimization) {
+                    initWriteResponse();
+                }
+                sendData(data);
             }
-            sendData(data);
         }
+        requestNext();
     }
 
     /**
@@ -285,6 +448,8 @@ class BareResponseImpl implements BareResponse {
      * @return Future of response or first chunk.
      */
     private ChannelFuture initWriteResponse() {
+        HttpCompressionHandler compressor = ctx.pipeline().get(HttpCompressionHandler.class);
+        compressible = compressor != null && compressor.isCompressible(response);
         ChannelFuture cf = ctx.write(response)
                 .addListener(future -> {
                     if (future.isSuccess()) {
@@ -294,9 +459,9 @@ class BareResponseImpl implements BareResponse {
                 .addListener(completeOnFailureListener("An exception occurred when writing headers."))
                 .addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
         response = null;
-        if (firstChunk != null) {
-            cf = sendData(firstChunk);
-            firstChunk = null;
+        DataChunk chunk = FIRST_CHUNK.getAndSet(this, null);
+        if (chunk != null) {
+            cf = sendData(chunk);
         }
         lengthOptimization = false;
         return cf;
@@ -305,7 +470,20 @@ class BareResponseImpl implements BareResponse {
     private ChannelFuture sendData(DataChunk data) {
             LOGGER.finest(() -> log("Sending data chunk"));
 
-            DefaultHttpContent httpContent = new DefaultHttpContent(Unpooled.wrappedBuffer(data.data()));
+            Object httpContent = null;
+            if (data instanceof FileDataChunk && !((FileDataChunk) data).isLoaded()) {
+                httpContent = fileContent((FileDataChunk) data);
+            }
+            if (httpContent == null) {
+                ByteBuf byteBuf;
+                if (data instanceof ByteBufDataChunk) {
+                    // Netty releases the buffer once written
+                    byteBuf = ((ByteBufDataChunk) data).transferByteBuf();
+                } else {
+                    byteBuf = Unpooled.wrappedBuffer(data.data());
+                }
+                httpContent = new DefaultHttpContent(byteBuf);
+            }
 
             LOGGER.finest(() -> log("Sending data chunk on event loop thread."));
 
@@ -325,24 +503,58 @@ class BareResponseImpl implements BareResponse {
                     .addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
     }
 
+    /**
+     * Creates a message transferring the file region without reading it whole to the heap. Plaintext HTTP/1.1
+     * connections use a {@link DefaultFileRegion} ({@code sendfile} where supported), TLS connections, compressed
+     * responses and HTTP/2 read the file in chunks through the {@link ChunkedWriteHandler}.
+     *
+     * @param chunk a file chunk
+     * @return a message to write or {@code null} if the pipeline does not support file transfer
+     */
+    private Object fileContent(FileDataChunk chunk) {
+        ChannelPipeline pipeline = ctx.pipeline();
+        if (!compressible && pipeline.get(SslHandler.class) == null && pipeline.get(HttpResponseEncoder.class) != null) {
+            return new DefaultFileRegion(chunk.transferChannel(), chunk.position(), chunk.count());
+        }
+        if (pipeline.get(ChunkedWriteHandler.class) == null) {
+            return null;
+        }
+        try {
+            return new ChunkedFileContent(new ChunkedNioFile(chunk.transferChannel(),
+                                                             chunk.position(),
+                                                             chunk.count(),
+                                                             FILE_CHUNK_SIZE));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read file region!", e);
+        }
+    }
+
+    /**
+     * Allocator of the channel, used to create {@link ByteBufDataChunk}s written by this response
+     * without copying.
+     *
+     * @return the channel allocator
+     */
+    ByteBufAllocator allocator() {
+        return ctx.alloc();
+    }
+
     private String log(String s) {
         return "(reqID: " + requestId + ") " + s;
     }
 
     @Override
     public void onError(Throwable thr) {
+        // the content is incomplete, do not write its first chunk as if it was the whole entity
+        releaseFirstChunk();
         completeInternal(thr);
-        if (subscription != null) {
-            subscription.cancel();
-        }
+        cancelSubscription();
     }
 
     @Override
     public void onComplete() {
         completeInternal(null);
-        if (subscription != null) {
-            subscription.cancel();
-        }
+        cancelSubscription();
     }
 
     @Override
@@ -359,4 +571,49 @@ class BareResponseImpl implements BareResponse {
     public long requestId() {
         return requestId;
     }
+
+    /**
+     * Chunks of a file as {@link HttpContent}, so they can be compressed by {@link HttpCompressionHandler}.
+     * Unlike {@link io.netty.handler.codec.http.HttpChunkedInput} no last content is produced, it is written
+     * once the response completes.
+     */
+    private static final class ChunkedFileContent implements ChunkedInput<HttpContent> {
+        private final ChunkedNioFile file;
+
+        private ChunkedFileContent(ChunkedNioFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public boolean isEndOfInput() throws Exception {
+            return file.isEndOfInput();
+        }
+
+        @Override
+        public void close() throws Exception {
+            file.close();
+        }
+
+        @Deprecated
+        @Override
+        public HttpContent readChunk(ChannelHandlerContext ctx) throws Exception {
+            return readChunk(ctx.alloc());
+        }
+
+        @Override
+        public HttpContent readChunk(ByteBufAllocator allocator) throws Exception {
+            ByteBuf buf = file.readChunk(allocator);
+            return (buf == null) ? null : new DefaultHttpContent(buf);
+        }
+
+        @Override
+        public long length() {
+            return file.length();
+        }
+
+        @Override
+        public long progress() {
+            return file.progress();
+        }
+    }
 }
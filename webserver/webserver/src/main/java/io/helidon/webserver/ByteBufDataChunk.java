@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import io.helidon.common.http.DataChunk;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+
+/**
+ * A {@link DataChunk} implementation that owns a (typically pooled and direct) {@link ByteBuf}.
+ * <p>
+ * {@link BareResponseImpl} writes the buffer to the channel as is, without wrapping or copying, and hands its
+ * ownership over to Netty which releases it once written. If the chunk is not written, {@link #release()} returns
+ * the buffer to its allocator.
+ */
+final class ByteBufDataChunk implements DataChunk {
+
+    private final ByteBuf byteBuf;
+    private final boolean flush;
+    private final AtomicBoolean released = new AtomicBoolean();
+    private ByteBuffer data;
+
+    private ByteBufDataChunk(ByteBuf byteBuf, boolean flush) {
+        this.byteBuf = Objects.requireNonNull(byteBuf, "The ByteBuf must not be null!");
+        this.flush = flush;
+    }
+
+    /**
+     * Creates a data chunk which takes over the ownership of provided buffer.
+     *
+     * @param byteBuf a buffer to own
+     * @param flush   a signal that chunk should be written and flushed
+     * @return a data chunk
+     */
+    static ByteBufDataChunk create(ByteBuf byteBuf, boolean flush) {
+        return new ByteBufDataChunk(byteBuf, flush);
+    }
+
+    /**
+     * Creates a data chunk holding a copy of provided bytes in a buffer obtained from the allocator.
+     *
+     * @param allocator an allocator to use
+     * @param bytes     bytes to copy
+     * @return a data chunk
+     */
+    static ByteBufDataChunk create(ByteBufAllocator allocator, byte[] bytes) {
+        ByteBuf byteBuf = allocator.ioBuffer(bytes.length);
+        byteBuf.writeBytes(bytes);
+        return new ByteBufDataChunk(byteBuf, false);
+    }
+
+    /**
+     * Creates a data chunk with encoded characters, encoding directly into a buffer obtained from the allocator.
+     *
+     * @param allocator an allocator to use
+     * @param cs        characters to encode
+     * @param charset   a charset to use
+     * @return a data chunk
+     */
+    static ByteBufDataChunk create(ByteBufAllocator allocator, CharSequence cs, Charset charset) {
+        ByteBuf byteBuf;
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            byteBuf = allocator.ioBuffer(ByteBufUtil.utf8Bytes(cs));
+            ByteBufUtil.writeUtf8(byteBuf, cs);
+        } else {
+            byteBuf = ByteBufUtil.encodeString(allocator, CharBuffer.wrap(cs), charset);
+        }
+        return new ByteBufDataChunk(byteBuf, false);
+    }
+
+    /**
+     * Creates a publisher of a single data chunk obtained from the factory once requested. Unlike a publisher
+     * of an existing chunk, no buffer is allocated unless the chunk is actually requested (so nothing leaks
+     * if the publisher is never subscribed or the subscription is cancelled) and each subscriber gets its own chunk.
+     *
+     * @param factory creates the data chunk
+     * @return a publisher of a single data chunk
+     */
+    static Flow.Publisher<DataChunk> publisher(Supplier<ByteBufDataChunk> factory) {
+        Objects.requireNonNull(factory, "The data chunk factory must not be null!");
+        return subscriber -> subscriber.onSubscribe(new LazySubscription(factory, subscriber));
+    }
+
+    @Override
+    public ByteBuffer data() {
+        if (released.get()) {
+            throw new IllegalStateException("The data chunk was already released!");
+        }
+        if (data == null) {
+            data = byteBuf.nioBuffer();
+        }
+        return data;
+    }
+
+    @Override
+    public boolean flush() {
+        return flush;
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released.get();
+    }
+
+    @Override
+    public void release() {
+        if (released.compareAndSet(false, true)) {
+            byteBuf.release();
+        }
+    }
+
+    /**
+     * The buffer is owned by this chunk and never reused, so it can be cached without a copy.
+     *
+     * @return always {@code true}
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * Transfers the ownership of the underlying buffer to the caller. The chunk is released afterwards, yet
+     * the buffer is not, the caller is responsible for that (writing it to a Netty channel does so).
+     * Bytes already read from {@link #data()} are skipped.
+     *
+     * @return the underlying buffer
+     * @throws IllegalStateException if this chunk was already released
+     */
+    ByteBuf transferByteBuf() {
+        if (!released.compareAndSet(false, true)) {
+            throw new IllegalStateException("The data chunk was already released!");
+        }
+        if (data != null) {
+            byteBuf.readerIndex(byteBuf.readerIndex() + data.position());
+        }
+        return byteBuf;
+    }
+
+    private static final class LazySubscription implements Flow.Subscription {
+        private final Supplier<ByteBufDataChunk> factory;
+        private final Flow.Subscriber<? super DataChunk> subscriber;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private LazySubscription(Supplier<ByteBufDataChunk> factory, Flow.Subscriber<? super DataChunk> subscriber) {
+            this.factory = factory;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            if (n <= 0) {
+                subscriber.onError(new IllegalArgumentException("Requested a non-positive number of items: " + n));
+                return;
+            }
+            ByteBufDataChunk chunk;
+            try {
+                chunk = factory.get();
+            } catch (RuntimeException e) {
+                subscriber.onError(e);
+                return;
+            }
+            subscriber.onNext(chunk);
+            subscriber.onComplete();
+        }
+
+        @Override
+        public void cancel() {
+            done.set(true);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,6 +30,7 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.Instant;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Flow;
 import java.util.jar.JarEntry;
@@ -48,6 +49,8 @@ class ClassPathContentHandler extends StaticContentHandler {
     private final ClassLoader classLoader;
     // URL's hash code and equal are not suitable for map or set
     private final Map<String, ExtractedJarEntry> extracted = new ConcurrentHashMap<>();
+    // precompressed siblings of jar entries, jar entries do not change so both hits and misses are kept
+    private final Map<String, Optional<URL>> precompressedEntries = new ConcurrentHashMap<>();
     private final String root;
     private final String rootWithTrailingSlash;
 
@@ -55,7 +58,16 @@ class ClassPathContentHandler extends StaticContentHandler {
                             ContentTypeSelector contentTypeSelector,
                             String root,
                             ClassLoader classLoader) {
-        super(welcomeFilename, contentTypeSelector);
+        this(welcomeFilename, contentTypeSelector, root, classLoader, null, false);
+    }
+
+    ClassPathContentHandler(String welcomeFilename,
+                            ContentTypeSelector contentTypeSelector,
+                            String root,
+                            ClassLoader classLoader,
+                            StaticContentCache cache,
+                            boolean precompressed) {
+        super(welcomeFilename, contentTypeSelector, cache, precompressed);
 
         this.classLoader = (classLoader == null) ? this.getClass().getClassLoader() : classLoader;
         this.root = root;
@@ -66,6 +78,15 @@ class ClassPathContentHandler extends StaticContentHandler {
                                               ContentTypeSelector selector,
                                               String clRoot,
                                               ClassLoader classLoader) {
+        return create(welcomeFileName, selector, clRoot, classLoader, null, false);
+    }
+
+    static StaticContentHandler create(String welcomeFileName,
+                                       ContentTypeSelector selector,
+                                       String clRoot,
+                                       ClassLoader classLoader,
+                                       StaticContentCache cache,
+                                       boolean precompressed) {
         ClassLoader contentClassloader = (classLoader == null)
                 ? ClassPathContentHandler.class.getClassLoader()
                 : classLoader;
@@ -80,7 +101,7 @@ class ClassPathContentHandler extends StaticContentHandler {
             throw new IllegalArgumentException("Cannot serve full classpath, please configure a classpath prefix");
         }
 
-        return new ClassPathContentHandler(welcomeFileName, selector, clRoot, contentClassloader);
+        return new ClassPathContentHandler(welcomeFileName, selector, clRoot, contentClassloader, cache, precompressed);
     }
 
     @SuppressWarnings("checkstyle:RegexpSinglelineJava")
@@ -128,7 +149,11 @@ class ClassPathContentHandler extends StaticContentHandler {
         switch (url.getProtocol()) {
         case "file":
             FileSystemContentHandler
-                    .sendFile(method, Paths.get(url.toURI()), request, response, contentTypeSelector(), welcomePageName());
+                    .sendFile(method,
+                              Paths.get(url.toURI()),
+                              request,
+                              response,
+                              this);
             break;
         case "jar":
             return sendJar(method, requestedResource, url, request, response);
@@ -146,12 +171,45 @@ class ClassPathContentHandler extends StaticContentHandler {
                             ServerRequest request,
                             ServerResponse response) throws URISyntaxException {
 
+        StaticContentCache cache = cache();
+        if (cache != null) {
+            // jar entries do not change, no need to validate
+            StaticContentCache.CachedContent content = cache.get(requestedResource);
+            if (content == null && !extracted.containsKey(requestedResource)) {
+                content = loadJarEntry(url, cache);
+                if (content != null) {
+                    cache.put(requestedResource, content);
+                }
+            }
+            if (content != null) {
+                sendCached(method, content, fileName(url), request, response, contentTypeSelector());
+                return true;
+            }
+        }
+
         ExtractedJarEntry extrEntry = extracted.computeIfAbsent(requestedResource, thePath -> extractJarEntry(url));
         if (extrEntry.tempFile == null) {
             return false;
         }
+
+        ExtractedJarEntry content = extrEntry;
+        String encoding = null;
+        if (precompressed()) {
+            URL brotli = precompressedEntry(requestedResource, BROTLI);
+            URL gzip = precompressedEntry(requestedResource, GZIP);
+            if (brotli != null || gzip != null) {
+                response.headers().add(Http.Header.VARY, Http.Header.ACCEPT_ENCODING);
+                encoding = selectEncoding(request.headers().values(Http.Header.ACCEPT_ENCODING), brotli != null, gzip != null);
+                if (encoding != null) {
+                    URL variantUrl = BROTLI.equals(encoding) ? brotli : gzip;
+                    content = extracted.computeIfAbsent(precompressedName(requestedResource, encoding),
+                                                        thePath -> extractJarEntry(variantUrl));
+                }
+            }
+        }
+
         if (extrEntry.lastModified != null) {
-            processEtag(String.valueOf(extrEntry.lastModified.toEpochMilli()), request.headers(), response.headers());
+            processEtag(etag(extrEntry.lastModified, encoding), request.headers(), response.headers());
             processModifyHeaders(extrEntry.lastModified, request.headers(), response.headers());
         }
 
@@ -162,15 +220,32 @@ class ClassPathContentHandler extends StaticContentHandler {
                            response.headers(),
                            contentTypeSelector());
 
+        if (encoding != null) {
+            response.headers().put(Http.Header.CONTENT_ENCODING, encoding);
+        }
         if (method == Http.Method.HEAD) {
             response.send();
         } else {
-            response.send(extrEntry.tempFile);
+            response.send(content.tempFile);
         }
 
         return true;
     }
 
+    /**
+     * Precompressed sibling of a jar entry, such as {@code app.js.gz} for {@code app.js}.
+     *
+     * @param resource the resource
+     * @param encoding {@link #GZIP} or {@link #BROTLI}
+     * @return URL of the sibling or {@code null} if there is no precompressed jar entry
+     */
+    private URL precompressedEntry(String resource, String encoding) {
+        return precompressedEntries.computeIfAbsent(precompressedName(resource, encoding), name -> {
+            URL url = classLoader.getResource(name);
+            return (url != null && "jar".equals(url.getProtocol())) ? Optional.of(url) : Optional.empty();
+        }).orElse(null);
+    }
+
     private void sendUrlStream(Http.RequestMethod method, URL url, ServerRequest request, ServerResponse response)
             throws IOException {
 
@@ -230,6 +305,50 @@ class ClassPathContentHandler extends StaticContentHandler {
         return path;
     }
 
+    /**
+     * Reads a small jar entry to memory, so it does not have to be extracted to a temporary file.
+     *
+     * @return cached content or {@code null} if the entry is a directory or too large to be cached
+     */
+    private StaticContentCache.CachedContent loadJarEntry(URL url, StaticContentCache cache) {
+        try {
+            JarURLConnection jarUrlConnection = (JarURLConnection) url.openConnection();
+            JarFile jarFile = jarUrlConnection.getJarFile();
+            JarEntry jarEntry = jarUrlConnection.getJarEntry();
+            try {
+                if (jarEntry.isDirectory() || !cache.accepts(jarEntry.getSize())) {
+                    return null;
+                }
+                byte[] bytes;
+                try (InputStream is = jarFile.getInputStream(jarEntry)) {
+                    bytes = is.readAllBytes();
+                }
+                byte[] gzip = precompressed() ? readPrecompressed(jarFile, jarEntry, GZIP) : null;
+                byte[] brotli = precompressed() ? readPrecompressed(jarFile, jarEntry, BROTLI) : null;
+                return StaticContentCache.CachedContent.create(bytes,
+                                                               gzip,
+                                                               brotli,
+                                                               getLastModified(jarFile.getName()));
+            } finally {
+                if (!jarUrlConnection.getUseCaches()) {
+                    jarFile.close();
+                }
+            }
+        } catch (IOException ioe) {
+            throw new HttpException("Cannot load JAR file!", Http.Status.INTERNAL_SERVER_ERROR_500, ioe);
+        }
+    }
+
+    private static byte[] readPrecompressed(JarFile jarFile, JarEntry jarEntry, String encoding) throws IOException {
+        JarEntry entry = jarFile.getJarEntry(precompressedName(jarEntry.getName(), encoding));
+        if (entry == null || entry.isDirectory()) {
+            return null;
+        }
+        try (InputStream is = jarFile.getInputStream(entry)) {
+            return is.readAllBytes();
+        }
+    }
+
     private ExtractedJarEntry extractJarEntry(URL url) {
         try {
             JarURLConnection jarUrlConnection = (JarURLConnection) url.openConnection();
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.helidon.common.http.MediaType;
+import io.helidon.config.Config;
+
+/**
+ * Configuration of on-the-fly HTTP/1.1 response compression.
+ * <p>
+ * A response is compressed if compression is enabled, the client accepts one of the configured
+ * {@link #encodings() encodings}, the response content type matches one of the {@link #mediaTypes() media types},
+ * the response does not have a {@code Content-Encoding} yet (e.g. precompressed static content) and the content
+ * length is either unknown or at least {@link #minSize()}.
+ */
+public interface CompressionConfiguration {
+
+    /**
+     * Default minimal size of compressed responses in bytes.
+     */
+    int DEFAULT_MIN_SIZE = 1024;
+
+    /**
+     * Default compression level.
+     */
+    int DEFAULT_LEVEL = 6;
+
+    /**
+     * The {@code gzip} content encoding.
+     */
+    String GZIP = "gzip";
+
+    /**
+     * The {@code deflate} content encoding.
+     */
+    String DEFLATE = "deflate";
+
+    /**
+     * Media types compressed by default.
+     */
+    List<MediaType> DEFAULT_MEDIA_TYPES = List.of(MediaType.create("text", MediaType.WILDCARD_VALUE),
+                                                  MediaType.APPLICATION_JSON,
+                                                  MediaType.create("application", "javascript"),
+                                                  MediaType.APPLICATION_XML,
+                                                  MediaType.APPLICATION_XHTML_XML,
+                                                  MediaType.create("image", "svg+xml"),
+                                                  MediaType.APPLICATION_YAML);
+
+    /**
+     * Whether response compression is enabled.
+     *
+     * @return {@code true} if enabled
+     */
+    boolean enabled();
+
+    /**
+     * Responses with a known content length lower than this value are not compressed.
+     *
+     * @return minimal content length in bytes
+     */
+    int minSize();
+
+    /**
+     * Compression level, {@code 1} yields the fastest and {@code 9} the best compression.
+     *
+     * @return compression level
+     */
+    int level();
+
+    /**
+     * Media types of responses to compress, may contain wildcard subtypes such as {@code text/*}.
+     *
+     * @return media types
+     */
+    List<MediaType> mediaTypes();
+
+    /**
+     * Content encodings offered to clients.
+     *
+     * @return content encodings, subset of {@value #GZIP} and {@value #DEFLATE}
+     */
+    Set<String> encodings();
+
+    /**
+     * Create a new fluent API builder.
+     *
+     * @return a new builder instance
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates new instance with defaults from external configuration source.
+     *
+     * @param config the externalized configuration
+     * @return a new instance
+     */
+    static CompressionConfiguration create(Config config) {
+        return builder().config(config).build();
+    }
+
+    /**
+     * Builder for {@link CompressionConfiguration}.
+     */
+    final class Builder implements io.helidon.common.Builder<CompressionConfiguration> {
+
+        private boolean enabled = false;
+        private int minSize = DEFAULT_MIN_SIZE;
+        private int level = DEFAULT_LEVEL;
+        private List<MediaType> mediaTypes = DEFAULT_MEDIA_TYPES;
+        private Set<String> encodings = Set.of(GZIP, DEFLATE);
+
+        private Builder() {
+        }
+
+        /**
+         * Enables response compression. Default value is {@code false}.
+         * <p>
+         * Configuration key: {@code enabled}
+         *
+         * @param enabled whether to compress responses
+         * @return updated builder
+         */
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * Sets minimal content length of compressed responses. Default value is {@value #DEFAULT_MIN_SIZE}.
+         * <p>
+         * Configuration key: {@code min-size}
+         *
+         * @param minSize minimal content length in bytes
+         * @return updated builder
+         */
+        public Builder minSize(int minSize) {
+            if (minSize < 0) {
+                throw new IllegalArgumentException("Minimal size must not be negative: " + minSize);
+            }
+            this.minSize = minSize;
+            return this;
+        }
+
+        /**
+         * Sets compression level between {@code 1} and {@code 9}. Default value is {@value #DEFAULT_LEVEL}.
+         * <p>
+         * Configuration key: {@code level}
+         *
+         * @param level compression level
+         * @return updated builder
+         */
+        public Builder level(int level) {
+            if (level < 1 || level > 9) {
+                throw new IllegalArgumentException("Compression level must be between 1 and 9: " + level);
+            }
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Sets media types of responses to compress. Default value is {@link #DEFAULT_MEDIA_TYPES}.
+         * <p>
+         * Configuration key: {@code media-types}
+         *
+         * @param mediaTypes media types, may contain wildcard subtypes
+         * @return updated builder
+         */
+        public Builder mediaTypes(Collection<MediaType> mediaTypes) {
+            this.mediaTypes = List.copyOf(mediaTypes);
+            return this;
+        }
+
+        /**
+         * Sets content encodings offered to clients. Default value is {@value #GZIP} and {@value #DEFLATE}.
+         * <p>
+         * Brotli is not available for on-the-fly compression, yet precompressed brotli static content is served by
+         * {@link StaticContentSupport}.
+         * <p>
+         * Configuration key: {@code encodings}
+         *
+         * @param encodings content encodings
+         * @return updated builder
+         * @throws IllegalArgumentException if an encoding is not supported
+         */
+        public Builder encodings(Collection<String> encodings) {
+            Set<String> result = new LinkedHashSet<>();
+            for (String encoding : encodings) {
+                String normalized = encoding.trim().toLowerCase(Locale.ROOT);
+                if (!GZIP.equals(normalized) && !DEFLATE.equals(normalized)) {
+                    throw new IllegalArgumentException("Unsupported content encoding: " + encoding
+                                                               + ", supported encodings are " + GZIP + " and " + DEFLATE);
+                }
+                result.add(normalized);
+            }
+            this.encodings = Collections.unmodifiableSet(result);
+            return this;
+        }
+
+        /**
+         * Sets configuration values included in provided {@link Config} parameter.
+         *
+         * @param config the configuration to use
+         * @return updated builder
+         */
+        public Builder config(Config config) {
+            config.get("enabled").asBoolean().ifPresent(this::enabled);
+            config.get("min-size").asInt().ifPresent(this::minSize);
+            config.get("level").asInt().ifPresent(this::level);
+            config.get("media-types").asList(String.class)
+                    .ifPresent(list -> mediaTypes(list.stream().map(MediaType::parse).collect(Collectors.toList())));
+            config.get("encodings").asList(String.class).ifPresent(this::encodings);
+            return this;
+        }
+
+        @Override
+        public CompressionConfiguration build() {
+            boolean enabled = this.enabled;
+            int minSize = this.minSize;
+            int level = this.level;
+            List<MediaType> mediaTypes = this.mediaTypes;
+            Set<String> encodings = this.encodings;
+            return new CompressionConfiguration() {
+                @Override
+                public boolean enabled() {
+                    return enabled && !encodings.isEmpty();
+                }
+
+                @Override
+                public int minSize() {
+                    return minSize;
+                }
+
+                @Override
+                public int level() {
+                    return level;
+                }
+
+                @Override
+                public List<MediaType> mediaTypes() {
+                    return mediaTypes;
+                }
+
+                @Override
+                public Set<String> encodings() {
+                    return encodings;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Objects;
+
+/**
+ * Marks a {@link Handler} or a {@link Service} that never blocks, so the request can be processed completely on the
+ * event loop thread which received it, including writing of the response.
+ * <p>
+ * Routes are always invoked on the event loop thread. Integrations which usually offload request processing to a
+ * worker pool (such as Jersey) process requests of event loop safe routes on the calling thread instead, see
+ * {@link ServerRequest#isEventLoopSafe()}. A route is event loop safe if its handler or any of the services that
+ * registered it is marked.
+ * <p>
+ * Blocking an event loop thread stalls all connections served by it. Blocking calls in event loop safe routes
+ * can be reported by the {@link ServerConfiguration#eventLoopWatchdogMillis() event loop watchdog}.
+ * <p>
+ * Handlers and services may implement this interface directly, or be wrapped using {@link #handler(Handler)}
+ * and {@link #service(Service)}:
+ * <pre>{@code
+ * Routing.builder()
+ *         .get("/health", EventLoopSafe.handler((req, res) -> res.send("OK")))
+ *         .register("/cache", EventLoopSafe.service(cacheService))
+ * }</pre>
+ */
+public interface EventLoopSafe {
+
+    /**
+     * Marks a handler as event loop safe.
+     *
+     * @param handler a handler that never blocks
+     * @return a handler implementing this interface
+     */
+    static Handler handler(Handler handler) {
+        Objects.requireNonNull(handler, "Parameter 'handler' is null!");
+        if (handler instanceof EventLoopSafe) {
+            return handler;
+        }
+        return (Handler & EventLoopSafe) handler::accept;
+    }
+
+    /**
+     * Marks a service as event loop safe, together with all the routes it registers.
+     *
+     * @param service a service that never blocks
+     * @return a service implementing this interface
+     */
+    static Service service(Service service) {
+        Objects.requireNonNull(service, "Parameter 'service' is null!");
+        if (service instanceof EventLoopSafe) {
+            return service;
+        }
+        return (Service & EventLoopSafe) service::update;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Debugging aid reporting {@link EventLoopSafe} handlers which block the calling thread for longer than a threshold.
+ * <p>
+ * A daemon thread periodically checks handlers in progress and logs the stack trace of the thread executing
+ * a handler once it exceeds the threshold, which usually points to the blocking call.
+ */
+final class EventLoopWatchdog {
+
+    private static final Logger LOGGER = Logger.getLogger(EventLoopWatchdog.class.getName());
+
+    private final long thresholdNanos;
+    private final Map<Thread, Execution> executions = new ConcurrentHashMap<>();
+    private final AtomicLong blockedCount = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+
+    private EventLoopWatchdog(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "helidon-event-loop-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, thresholdMillis / 2);
+        scheduler.scheduleAtFixedRate(this::check, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts a new watchdog.
+     *
+     * @param thresholdMillis handlers running longer than this are reported
+     * @return a new watchdog, to be {@link #stop() stopped} with the server
+     */
+    static EventLoopWatchdog start(long thresholdMillis) {
+        return new EventLoopWatchdog(thresholdMillis);
+    }
+
+    /**
+     * Marks start of a handler on the current thread. Nested handlers (invoked by {@code next()} from a watched handler)
+     * are covered by the outermost one.
+     *
+     * @param route the route being executed
+     * @return an execution to {@link Execution#close() close} once the handler returns
+     */
+    Execution enter(HandlerRoute route) {
+        Thread thread = Thread.currentThread();
+        Execution execution = new Execution(executions, thread, route, System.nanoTime());
+        return (executions.putIfAbsent(thread, execution) == null) ? execution : Execution.NESTED;
+    }
+
+    /**
+     * Number of blocked handlers reported so far.
+     *
+     * @return blocked handlers count
+     */
+    long blockedCount() {
+        return blockedCount.get();
+    }
+
+    void stop() {
+        scheduler.shutdownNow();
+        executions.clear();
+    }
+
+    private void check() {
+        long now = System.nanoTime();
+        for (Execution execution : executions.values()) {
+            long duration = now - execution.startNanos;
+            if (duration > thresholdNanos && !execution.reported) {
+                execution.reported = true;
+                blockedCount.incrementAndGet();
+                StackTraceElement[] stackTrace = execution.thread.getStackTrace();
+                // the handler may have returned meanwhile, do not report a stack trace of another task
+                if (executions.get(execution.thread) == execution) {
+                    BlockedEventLoopException blocked = new BlockedEventLoopException(execution, duration);
+                    blocked.setStackTrace(stackTrace);
+                    LOGGER.log(Level.WARNING, blocked.getMessage(), blocked);
+                }
+            }
+        }
+    }
+
+    /**
+     * A handler in progress.
+     */
+    static final class Execution implements AutoCloseable {
+        private static final Execution NESTED = new Execution(null, null, null, 0);
+
+        private final Map<Thread, Execution> executions;
+        private final Thread thread;
+        private final HandlerRoute route;
+        private final long startNanos;
+        private volatile boolean reported;
+
+        private Execution(Map<Thread, Execution> executions, Thread thread, HandlerRoute route, long startNanos) {
+            this.executions = executions;
+            this.thread = thread;
+            this.route = route;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void close() {
+            if (executions != null) {
+                executions.remove(thread, this);
+            }
+        }
+    }
+
+    /**
+     * Carries the stack trace of a blocked thread to the log.
+     */
+    private static final class BlockedEventLoopException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private BlockedEventLoopException(Execution execution, long durationNanos) {
+            super("Thread " + execution.thread.getName() + " has been blocked for "
+                          + TimeUnit.NANOSECONDS.toMillis(durationNanos) + " ms by an event loop safe route "
+                          + execution.route + ", current stack trace follows");
+        }
+    }
+}
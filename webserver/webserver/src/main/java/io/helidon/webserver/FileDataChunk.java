@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.http.DataChunk;
+
+/**
+ * A {@link DataChunk} representing a region of a file.
+ * <p>
+ * {@link BareResponseImpl} transfers the region to the channel without reading it to the heap, using
+ * {@link io.netty.channel.DefaultFileRegion} (sendfile) on plaintext HTTP/1.1 connections and bounded chunked reads
+ * with TLS, compression or HTTP/2. Anyone else accessing {@link #data()} gets the region read into memory.
+ */
+final class FileDataChunk implements DataChunk {
+
+    private static final Logger LOGGER = Logger.getLogger(FileDataChunk.class.getName());
+
+    private final FileChannel channel;
+    private final long position;
+    private final long count;
+    private final AtomicBoolean released = new AtomicBoolean();
+    private ByteBuffer data;
+
+    private FileDataChunk(FileChannel channel, long position, long count) {
+        this.channel = Objects.requireNonNull(channel, "The FileChannel must not be null!");
+        this.position = position;
+        this.count = count;
+    }
+
+    /**
+     * Creates a data chunk which takes over the ownership of provided channel.
+     *
+     * @param channel  a file channel, closed once the chunk is written or released
+     * @param position position of the region in the file
+     * @param count    number of bytes of the region
+     * @return a data chunk
+     */
+    static FileDataChunk create(FileChannel channel, long position, long count) {
+        return new FileDataChunk(channel, position, count);
+    }
+
+    @Override
+    public ByteBuffer data() {
+        if (released.get()) {
+            throw new IllegalStateException("The data chunk was already released!");
+        }
+        if (data == null) {
+            if (count > Integer.MAX_VALUE) {
+                throw new IllegalStateException("File region is too large to be read into memory: " + count);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) count);
+            try {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read file region!", e);
+            }
+            buffer.flip();
+            data = buffer;
+        }
+        return data;
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released.get();
+    }
+
+    @Override
+    public void release() {
+        if (released.compareAndSet(false, true)) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Cannot close file channel", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * Whether the region was already read into memory by {@link #data()}.
+     *
+     * @return {@code true} if the region was read
+     */
+    boolean isLoaded() {
+        return data != null;
+    }
+
+    long position() {
+        return position;
+    }
+
+    long count() {
+        return count;
+    }
+
+    /**
+     * Transfers the ownership of the underlying channel to the caller. The chunk is released afterwards, yet
+     * the channel is not closed, the caller is responsible for that.
+     *
+     * @return the file channel
+     * @throws IllegalStateException if this chunk was already released
+     */
+    FileChannel transferChannel() {
+        if (!released.compareAndSet(false, true)) {
+            throw new IllegalStateException("The data chunk was already released!");
+        }
+        return channel;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Instant;
 import java.util.logging.Logger;
 
@@ -33,14 +34,30 @@ class FileSystemContentHandler extends StaticContentHandler {
     private final Path root;
 
     FileSystemContentHandler(String welcomeFilename, ContentTypeSelector contentTypeSelector, Path root) {
-        super(welcomeFilename, contentTypeSelector);
+        this(welcomeFilename, contentTypeSelector, root, null, false);
+    }
+
+    FileSystemContentHandler(String welcomeFilename,
+                             ContentTypeSelector contentTypeSelector,
+                             Path root,
+                             StaticContentCache cache,
+                             boolean precompressed) {
+        super(welcomeFilename, contentTypeSelector, cache, precompressed);
 
         this.root = root.toAbsolutePath().normalize();
     }
 
     public static StaticContentHandler create(String welcomeFileName, ContentTypeSelector selector, Path fsRoot) {
+        return create(welcomeFileName, selector, fsRoot, null, false);
+    }
+
+    static StaticContentHandler create(String welcomeFileName,
+                                       ContentTypeSelector selector,
+                                       Path fsRoot,
+                                       StaticContentCache cache,
+                                       boolean precompressed) {
         if (Files.exists(fsRoot) && Files.isDirectory(fsRoot)) {
-            return new FileSystemContentHandler(welcomeFileName, selector, fsRoot);
+            return new FileSystemContentHandler(welcomeFileName, selector, fsRoot, cache, precompressed);
         } else {
             throw new IllegalArgumentException("Cannot create file system static content, path "
                                                        + fsRoot.toAbsolutePath()
@@ -71,7 +88,7 @@ class FileSystemContentHandler extends StaticContentHandler {
             return false;
         }
 
-        sendFile(method, path, request, response, contentTypeSelector(), welcomePageName());
+        sendFile(method, path, request, response, this);
 
         return true;
     }
@@ -80,9 +97,12 @@ class FileSystemContentHandler extends StaticContentHandler {
                          Path path,
                          ServerRequest request,
                          ServerResponse response,
-                         ContentTypeSelector contentTypeSelector,
-                         String welcomePage)
+                         StaticContentHandler handler)
             throws IOException {
+        ContentTypeSelector contentTypeSelector = handler.contentTypeSelector();
+        String welcomePage = handler.welcomePageName();
+        StaticContentCache cache = handler.cache();
+        boolean precompressed = handler.precompressed();
 
         // we know the file exists, though it may be a directory
         //First doHandle a directory case
@@ -103,23 +123,118 @@ class FileSystemContentHandler extends StaticContentHandler {
             throw new HttpException("File is not accessible", Http.Status.FORBIDDEN_403);
         }
 
+        if (cache != null && sendFromCache(method, path, request, response, contentTypeSelector, cache, precompressed)) {
+            return;
+        }
+
+        Path content = path;
+        String encoding = null;
+        if (precompressed) {
+            Path brotli = precompressedSibling(path, BROTLI);
+            Path gzip = precompressedSibling(path, GZIP);
+            if (brotli != null || gzip != null) {
+                response.headers().add(Http.Header.VARY, Http.Header.ACCEPT_ENCODING);
+                encoding = selectEncoding(request.headers().values(Http.Header.ACCEPT_ENCODING), brotli != null, gzip != null);
+                if (encoding != null) {
+                    content = BROTLI.equals(encoding) ? brotli : gzip;
+                }
+            }
+        }
+
         // Caching headers support
         try {
             Instant lastMod = Files.getLastModifiedTime(path).toInstant();
-            processEtag(String.valueOf(lastMod.toEpochMilli()), request.headers(), response.headers());
+            processEtag(etag(lastMod, encoding), request.headers(), response.headers());
             processModifyHeaders(lastMod, request.headers(), response.headers());
         } catch (IOException | SecurityException e) {
             // Cannot get mod time or size - well, we cannot tell if it was modified or not. Don't support cache headers
         }
 
         processContentType(fileName(path), request.headers(), response.headers(), contentTypeSelector);
+        if (encoding != null) {
+            response.headers().put(Http.Header.CONTENT_ENCODING, encoding);
+        }
         if (method == Http.Method.HEAD) {
             response.send();
         } else {
-            response.send(path);
+            response.send(content);
         }
     }
 
+    /**
+     * Precompressed sibling of a file, such as {@code app.js.gz} for {@code app.js}.
+     *
+     * @param path     the file
+     * @param encoding {@link #GZIP} or {@link #BROTLI}
+     * @return the sibling or {@code null} if there is no readable precompressed file
+     */
+    private static Path precompressedSibling(Path path, String encoding) {
+        Path sibling = path.resolveSibling(precompressedName(fileName(path), encoding));
+        return (Files.isRegularFile(sibling) && Files.isReadable(sibling)) ? sibling : null;
+    }
+
+    /**
+     * Validator of the precompressed siblings of a file, which changes once a sibling is modified, added or removed.
+     *
+     * @param path the file
+     * @return modification times and sizes of the siblings
+     */
+    private static String siblingsValidator(Path path) {
+        StringBuilder validator = new StringBuilder();
+        for (String encoding : new String[] {BROTLI, GZIP}) {
+            Path sibling = path.resolveSibling(precompressedName(fileName(path), encoding));
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(sibling, BasicFileAttributes.class);
+                validator.append(attributes.lastModifiedTime()).append('/').append(attributes.size());
+            } catch (IOException | SecurityException e) {
+                // no such sibling
+                validator.append('-');
+            }
+            validator.append(';');
+        }
+        return validator.toString();
+    }
+
+    /**
+     * Sends the file from the cache, loading it first if not cached yet or modified since cached.
+     *
+     * @return {@code false} if the file is too large to be cached
+     */
+    private static boolean sendFromCache(Http.RequestMethod method,
+                                         Path path,
+                                         ServerRequest request,
+                                         ServerResponse response,
+                                         ContentTypeSelector contentTypeSelector,
+                                         StaticContentCache cache,
+                                         boolean precompressed) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        if (!cache.accepts(attributes.size())) {
+            return false;
+        }
+        Instant lastMod = attributes.lastModifiedTime().toInstant();
+        String key = path.toAbsolutePath().toString();
+        StaticContentCache.CachedContent content = cache.get(key);
+        String siblingsValidator = precompressed ? siblingsValidator(path) : null;
+        if (content == null || !content.isValid(lastMod, attributes.size(), siblingsValidator)) {
+            byte[] bytes = Files.readAllBytes(path);
+            if (!cache.accepts(bytes.length)) {
+                // modified in the meantime
+                return false;
+            }
+            // precompressed siblings, brotli is only available this way as there is no brotli encoder at hand
+            Path brotliPath = precompressed ? precompressedSibling(path, BROTLI) : null;
+            Path gzipPath = precompressed ? precompressedSibling(path, GZIP) : null;
+            content = StaticContentCache.CachedContent.create(bytes,
+                                                              (gzipPath == null) ? null : Files.readAllBytes(gzipPath),
+                                                              (brotliPath == null) ? null : Files.readAllBytes(brotliPath),
+                                                              lastMod,
+                                                              siblingsValidator);
+            cache.put(key, content);
+        }
+        sendCached(method, content, fileName(path), request, response, contentTypeSelector);
+        return true;
+    }
+
     /**
      * Find welcome file in provided directory or throw not found {@link HttpException}.
      *
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -61,6 +61,7 @@ public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
     // this field is always accessed by the very same thread; as such, it doesn't need to be
     // concurrency aware
     private RequestContext requestContext;
+    private BareResponseImpl bareResponse;
 
     ForwardingHandler(Routing routing,
                       NettyWebServer webServer,
@@ -87,6 +88,14 @@ public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
         }
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (bareResponse != null && ctx.channel().isWritable()) {
+            bareResponse.writabilityChanged();
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, Object msg) {
         LOGGER.fine(() -> String.format("[Handler: %s] Received object: %s", System.identityHashCode(this), msg.getClass()));
@@ -115,6 +124,7 @@ public class ForwardingHandler extends SimpleChannelInboundHandler<Object> {
 
             BareResponseImpl bareResponse =
                     new BareResponseImpl(ctx, request, publisherRef::isCompleted, Thread.currentThread(), requestId);
+            this.bareResponse = bareResponse;
             bareResponse.whenCompleted()
                         .thenRun(() -> {
                             RequestContext requestContext = this.requestContext;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -37,6 +37,7 @@ class HandlerRoute implements Route {
     private final Handler handler;
     private final List<Service> serviceContext;
     private final HttpMethodPredicate methodPredicate;
+    private final boolean eventLoopSafe;
 
     private final Map<String, String> diagnosticEvent;
 
@@ -67,6 +68,8 @@ class HandlerRoute implements Route {
         }
         this.pathMatcher = pathMatcher == null ? EMPTY_PATH_MATCHER : pathMatcher;
         this.handler = handler;
+        this.eventLoopSafe = (handler instanceof EventLoopSafe)
+                || this.serviceContext.stream().anyMatch(EventLoopSafe.class::isInstance);
         // Construct diagnostic event
         Map<String, String> eventData = new HashMap<>(5);
         eventData.put("event", "handler");
@@ -134,6 +137,24 @@ class HandlerRoute implements Route {
         return handler;
     }
 
+    /**
+     * Returns an effective {@link PathMatcher}.
+     *
+     * @return a path matcher, never {@code null}
+     */
+    PathMatcher pathMatcher() {
+        return pathMatcher;
+    }
+
+    /**
+     * Whether the handler or any of the services which registered it is {@link EventLoopSafe}.
+     *
+     * @return {@code true} if this route never blocks
+     */
+    boolean isEventLoopSafe() {
+        return eventLoopSafe;
+    }
+
     public Map<String, String> diagnosticEvent() {
         return diagnosticEvent;
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -94,10 +94,7 @@ class HashRequestHeaders extends ReadOnlyParameters implements RequestHeaders {
         if (cookies == null) {
             synchronized (internalLock) {
                 if (cookies == null) {
-                    List<Parameters> list = all(Http.Header.COOKIE).stream()
-                                                    .map(CookieParser::parse)
-                                                    .collect(Collectors.toList());
-                    cookies = Parameters.toUnmodifiableParameters(HashParameters.concat(list));
+                    cookies = parseCookies(all(Http.Header.COOKIE));
                 }
             }
         }
@@ -108,14 +105,7 @@ class HashRequestHeaders extends ReadOnlyParameters implements RequestHeaders {
     public List<MediaType> acceptedTypes() {
         List<MediaType> result = this.acceptedtypesCache;
         if (result == null) {
-            List<String> acceptValues = all(Http.Header.ACCEPT);
-            result = acceptValues.size() == 1 && HUC_ACCEPT_DEFAULT.equals(acceptValues.get(0))
-                    ? HUC_ACCEPT_DEFAULT_TYPES : acceptValues.stream()
-                            .flatMap(h -> Utils.tokenize(',', "\"", false, h).stream())
-                            .map(String::trim)
-                            .map(MediaType::parse)
-                            .collect(Collectors.toList());
-            result = Collections.unmodifiableList(result);
+            result = parseAcceptedTypes(all(Http.Header.ACCEPT));
             this.acceptedtypesCache = result;
         }
         return result;
@@ -123,17 +113,52 @@ class HashRequestHeaders extends ReadOnlyParameters implements RequestHeaders {
 
     @Override
     public boolean isAccepted(MediaType mediaType) {
-        Objects.requireNonNull(mediaType, "Parameter 'mediaType' is null!");
-        List<MediaType> acceptedTypes = acceptedTypes();
-        return acceptedTypes.isEmpty() || acceptedTypes.stream().anyMatch(mediaType);
+        return isAccepted(acceptedTypes(), mediaType);
     }
 
     @Override
     public Optional<MediaType> bestAccepted(MediaType... mediaTypes) {
+        return bestAccepted(acceptedTypes(), mediaTypes);
+    }
+
+    /**
+     * Parses values of the {@value io.helidon.common.http.Http.Header#COOKIE} header.
+     *
+     * @param cookieValues header values
+     * @return unmodifiable cookie parameters
+     */
+    static Parameters parseCookies(List<String> cookieValues) {
+        List<Parameters> list = cookieValues.stream()
+                                        .map(CookieParser::parse)
+                                        .collect(Collectors.toList());
+        return Parameters.toUnmodifiableParameters(HashParameters.concat(list));
+    }
+
+    /**
+     * Parses values of the {@value io.helidon.common.http.Http.Header#ACCEPT} header.
+     *
+     * @param acceptValues header values
+     * @return unmodifiable list of accepted media types
+     */
+    static List<MediaType> parseAcceptedTypes(List<String> acceptValues) {
+        List<MediaType> result = acceptValues.size() == 1 && HUC_ACCEPT_DEFAULT.equals(acceptValues.get(0))
+                ? HUC_ACCEPT_DEFAULT_TYPES : acceptValues.stream()
+                        .flatMap(h -> Utils.tokenize(',', "\"", false, h).stream())
+                        .map(String::trim)
+                        .map(MediaType::parse)
+                        .collect(Collectors.toList());
+        return Collections.unmodifiableList(result);
+    }
+
+    static boolean isAccepted(List<MediaType> acceptedTypes, MediaType mediaType) {
+        Objects.requireNonNull(mediaType, "Parameter 'mediaType' is null!");
+        return acceptedTypes.isEmpty() || acceptedTypes.stream().anyMatch(mediaType);
+    }
+
+    static Optional<MediaType> bestAccepted(List<MediaType> accepts, MediaType... mediaTypes) {
         if (mediaTypes == null || mediaTypes.length == 0) {
             return Optional.empty();
         }
-        List<MediaType> accepts = acceptedTypes();
         if (accepts == null || accepts.isEmpty()) {
             return Optional.ofNullable(mediaTypes[0]);
         }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+
+import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
+
+/**
+ * Compresses responses according to the {@link CompressionConfiguration}.
+ * <p>
+ * Only content sent as {@link io.netty.handler.codec.http.HttpContent} is compressed, {@link BareResponseImpl} must not
+ * use file regions for responses that are {@link #isCompressible(HttpResponse) compressible}.
+ */
+class HttpCompressionHandler extends HttpContentCompressor {
+
+    // Netty defaults
+    private static final int WINDOW_BITS = 15;
+    private static final int MEM_LEVEL = 8;
+
+    private final int minSize;
+    private final List<MediaType> mediaTypes;
+    private final Set<String> encodings;
+
+    HttpCompressionHandler(CompressionConfiguration configuration) {
+        super(configuration.level(), WINDOW_BITS, MEM_LEVEL, 0);
+        this.minSize = configuration.minSize();
+        this.mediaTypes = configuration.mediaTypes();
+        this.encodings = configuration.encodings();
+    }
+
+    /**
+     * Whether the response may be compressed, depending on the client's {@code Accept-Encoding}.
+     *
+     * @param response response headers
+     * @return {@code true} if the response may be compressed
+     */
+    boolean isCompressible(HttpResponse response) {
+        HttpHeaders headers = response.headers();
+        String contentEncoding = headers.get(HttpHeaderNames.CONTENT_ENCODING);
+        if (contentEncoding != null && !HttpHeaderValues.IDENTITY.contentEqualsIgnoreCase(contentEncoding)) {
+            return false;
+        }
+        long contentLength = HttpUtil.getContentLength(response, -1L);
+        if (contentLength >= 0 && contentLength < minSize) {
+            return false;
+        }
+        String contentType = headers.get(HttpHeaderNames.CONTENT_TYPE);
+        if (contentType == null) {
+            return false;
+        }
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parse(contentType);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        for (MediaType candidate : mediaTypes) {
+            if (candidate.test(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected Result beginEncode(HttpResponse response, String acceptEncoding) throws Exception {
+        if (!isCompressible(response)) {
+            return null;
+        }
+        // the representation depends on Accept-Encoding, even if this client does not accept any encoding
+        if (!response.headers().contains(HttpHeaderNames.VARY, Http.Header.ACCEPT_ENCODING, true)) {
+            response.headers().add(HttpHeaderNames.VARY, Http.Header.ACCEPT_ENCODING);
+        }
+        String accepted = filterAcceptEncoding(acceptEncoding);
+        if (accepted.isEmpty()) {
+            return null;
+        }
+        return super.beginEncode(response, accepted);
+    }
+
+    /**
+     * Removes codings that are not configured from the {@code Accept-Encoding} header value, so Netty only chooses
+     * from the configured ones.
+     *
+     * @param acceptEncoding value of the {@code Accept-Encoding} header
+     * @return filtered value, empty if no configured encoding is accepted
+     */
+    String filterAcceptEncoding(String acceptEncoding) {
+        StringBuilder result = new StringBuilder(acceptEncoding.length());
+        for (String token : acceptEncoding.split(",")) {
+            int paramsIndex = token.indexOf(';');
+            String coding = ((paramsIndex < 0) ? token : token.substring(0, paramsIndex)).trim().toLowerCase(Locale.ROOT);
+            String params = (paramsIndex < 0) ? "" : token.substring(paramsIndex);
+            if ("*".equals(coding)) {
+                // Netty uses gzip for a wildcard
+                coding = encodings.contains(CompressionConfiguration.GZIP)
+                        ? CompressionConfiguration.GZIP
+                        : CompressionConfiguration.DEFLATE;
+            } else if (!encodings.contains(coding)) {
+                continue;
+            }
+            if (result.length() > 0) {
+                result.append(',');
+            }
+            result.append(coding).append(params);
+        }
+        return result.toString();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -40,6 +40,7 @@ import io.netty.handler.codec.http2.Http2CodecUtil;
 import io.netty.handler.codec.http2.Http2ServerUpgradeCodec;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.util.AsciiString;
 
 /**
@@ -99,13 +100,21 @@ class HttpInitializer extends ChannelInitializer<SocketChannel> {
 
             p.addLast(cleartextHttp2ServerUpgradeHandler);
             p.addLast(new HelidonEventLogger());
+            // files cannot be transferred by sendfile through HTTP/2 framing, they are read in chunks instead
+            p.addLast(new ChunkedWriteHandler());
         } else {
             p.addLast(new HttpRequestDecoder());
             // Uncomment the following line if you don't want to handle HttpChunks.
             //        p.addLast(new HttpObjectAggregator(1048576));
             p.addLast(new HttpResponseEncoder());
-            // Remove the following line if you don't want automatic content compression.
-            //p.addLast(new HttpContentCompressor());
+            CompressionConfiguration compression = serverConfig.compression();
+            if (compression.enabled()) {
+                p.addLast(new HttpCompressionHandler(compression));
+            }
+            if (sslContext != null || compression.enabled()) {
+                // files cannot be transferred by sendfile through TLS or compressed, they are read in chunks instead
+                p.addLast(new ChunkedWriteHandler());
+            }
         }
 
         // Helidon's forwarding handler
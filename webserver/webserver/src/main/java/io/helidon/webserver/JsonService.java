@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -66,6 +66,40 @@ public abstract class JsonService implements Service, Handler {
         }
     }
 
+    /**
+     * Determines if a stream of JSON values is an accepted response type, using {@code Accept} and response
+     * {@code Content-Type} headers. Streams are written either as a JSON array or, if explicitly accepted by the client,
+     * as newline delimited JSON ({@link MediaType#APPLICATION_X_NDJSON}).
+     * <p>
+     * Sets the response {@code Content-Type} header if not set and a stream is accepted.
+     *
+     * @param request a server request
+     * @param response a server response
+     * @return {@code true} if a JSON stream is accepted
+     */
+    protected boolean acceptsJsonStream(ServerRequest request, ServerResponse response) {
+        final MediaType responseType = response.headers().contentType().orElse(null);
+        if (responseType != null) {
+            return isNdJson(responseType) || MediaType.JSON_PREDICATE.test(responseType);
+        }
+        for (final MediaType type : request.headers().acceptedTypes()) {
+            // wildcards are served as JSON arrays, newline delimited JSON must be requested explicitly
+            if (isNdJson(type)) {
+                response.headers().contentType(MediaType.APPLICATION_X_NDJSON);
+                return true;
+            }
+            if (toJsonResponseType(type) != null) {
+                break;
+            }
+        }
+        return acceptsJson(request, response);
+    }
+
+    private static boolean isNdJson(MediaType type) {
+        return MediaType.APPLICATION_X_NDJSON.type().equals(type.type())
+                && MediaType.APPLICATION_X_NDJSON.subtype().equals(type.subtype());
+    }
+
     private MediaType toJsonResponseType(List<MediaType> acceptedTypes) {
         if (acceptedTypes == null || acceptedTypes.isEmpty()) {
             // None provided, so go ahead and return JSON.
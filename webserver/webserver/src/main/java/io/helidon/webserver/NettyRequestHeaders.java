@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.net.URI;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+import io.helidon.common.http.Parameters;
+
+import io.netty.handler.codec.http.HttpHeaders;
+
+/**
+ * A read only {@link RequestHeaders} view of Netty {@link HttpHeaders}.
+ * <p>
+ * Values are read directly from the Netty request, nothing is copied when the instance is created.
+ * Parsed values of {@code Content-Type}, {@code Accept} and {@code Cookie} headers are cached on first access.
+ */
+class NettyRequestHeaders implements RequestHeaders {
+
+    private final HttpHeaders headers;
+    private final Object internalLock = new Object();
+    private volatile Parameters cookies;
+    private volatile List<MediaType> acceptedTypesCache;
+    private volatile Optional<MediaType> contentTypeCache;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param headers Netty request headers, must not be modified afterwards
+     */
+    NettyRequestHeaders(HttpHeaders headers) {
+        this.headers = headers;
+    }
+
+    @Override
+    public Optional<String> first(String name) {
+        return Optional.ofNullable(headers.get(name));
+    }
+
+    @Override
+    public List<String> all(String name) {
+        List<String> values = headers.getAll(name);
+        return values.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(values);
+    }
+
+    @Override
+    public Optional<MediaType> contentType() {
+        Optional<MediaType> result = contentTypeCache;
+        if (result == null) {
+            result = first(Http.Header.CONTENT_TYPE).map(MediaType::parse);
+            contentTypeCache = result;
+        }
+        return result;
+    }
+
+    @Override
+    public OptionalLong contentLength() {
+        String v = headers.get(Http.Header.CONTENT_LENGTH);
+        if (v == null) {
+            return OptionalLong.empty();
+        } else {
+            return OptionalLong.of(Long.parseLong(v));
+        }
+    }
+
+    @Override
+    public Parameters cookies() {
+        if (cookies == null) {
+            synchronized (internalLock) {
+                if (cookies == null) {
+                    cookies = HashRequestHeaders.parseCookies(all(Http.Header.COOKIE));
+                }
+            }
+        }
+        return cookies;
+    }
+
+    @Override
+    public List<MediaType> acceptedTypes() {
+        List<MediaType> result = acceptedTypesCache;
+        if (result == null) {
+            result = HashRequestHeaders.parseAcceptedTypes(all(Http.Header.ACCEPT));
+            acceptedTypesCache = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isAccepted(MediaType mediaType) {
+        return HashRequestHeaders.isAccepted(acceptedTypes(), mediaType);
+    }
+
+    @Override
+    public Optional<MediaType> bestAccepted(MediaType... mediaTypes) {
+        return HashRequestHeaders.bestAccepted(acceptedTypes(), mediaTypes);
+    }
+
+    @Override
+    public Optional<ZonedDateTime> acceptDatetime() {
+        return first(Http.Header.ACCEPT_DATETIME).map(Http.DateTime::parse);
+    }
+
+    @Override
+    public Optional<ZonedDateTime> date() {
+        return first(Http.Header.DATE).map(Http.DateTime::parse);
+    }
+
+    @Override
+    public Optional<ZonedDateTime> ifModifiedSince() {
+        return first(Http.Header.IF_MODIFIED_SINCE).map(Http.DateTime::parse);
+    }
+
+    @Override
+    public Optional<ZonedDateTime> ifUnmodifiedSince() {
+        return first(Http.Header.IF_UNMODIFIED_SINCE).map(Http.DateTime::parse);
+    }
+
+    @Override
+    public Optional<URI> referer() {
+        return first(Http.Header.REFERER).map(URI::create);
+    }
+
+    @Override
+    public Map<String, List<String>> toMap() {
+        Map<String, List<String>> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, String> entry : headers) {
+            result.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).add(entry.getValue());
+        }
+        return result;
+    }
+
+    @Override
+    public List<String> put(String key, String... values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<String> put(String key, Iterable<String> values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<String> putIfAbsent(String key, String... values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<String> putIfAbsent(String key, Iterable<String> values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<String> computeIfAbsent(String key, Function<String, Iterable<String>> values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<String> computeSingleIfAbsent(String key, Function<String, String> value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void putAll(Parameters parameters) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void add(String key, String... values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void add(String key, Iterable<String> values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(Parameters parameters) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<String> remove(String key) {
+        throw new UnsupportedOperationException();
+    }
+}
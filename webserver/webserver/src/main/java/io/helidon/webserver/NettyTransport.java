@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+
+/**
+ * Resolved Netty implementation of a {@link Transport}.
+ * <p>
+ * Native transports are loaded reflectively so they stay optional dependencies of the web server.
+ */
+final class NettyTransport {
+
+    private static final Logger LOGGER = Logger.getLogger(NettyTransport.class.getName());
+
+    private static final NettyTransport NIO = new NettyTransport(Transport.NIO,
+                                                                 NioEventLoopGroup.class,
+                                                                 NioServerSocketChannel.class,
+                                                                 null);
+
+    private final Transport transport;
+    private final Class<? extends EventLoopGroup> eventLoopGroupClass;
+    private final Class<? extends ServerChannel> serverChannelClass;
+    private final ChannelOption<Boolean> reusePortOption;
+
+    private NettyTransport(Transport transport,
+                           Class<? extends EventLoopGroup> eventLoopGroupClass,
+                           Class<? extends ServerChannel> serverChannelClass,
+                           ChannelOption<Boolean> reusePortOption) {
+        this.transport = transport;
+        this.eventLoopGroupClass = eventLoopGroupClass;
+        this.serverChannelClass = serverChannelClass;
+        this.reusePortOption = reusePortOption;
+    }
+
+    /**
+     * Resolves the requested transport, falling back to {@link Transport#NIO} if it is not available.
+     *
+     * @param requested requested transport, {@code null} is handled as {@link Transport#AUTO}
+     * @return resolved transport, never {@link Transport#AUTO}
+     */
+    static NettyTransport resolve(Transport requested) {
+        if (requested == null) {
+            requested = Transport.AUTO;
+        }
+        switch (requested) {
+        case NIO:
+            return NIO;
+        case EPOLL:
+            return load(Transport.EPOLL, "io.netty.channel.epoll", "Epoll", true);
+        case IO_URING:
+            return load(Transport.IO_URING, "io.netty.incubator.channel.uring", "IOUring", true);
+        case AUTO:
+        default:
+            return load(Transport.EPOLL, "io.netty.channel.epoll", "Epoll", false);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static NettyTransport load(Transport transport, String pkg, String prefix, boolean explicit) {
+        try {
+            ClassLoader classLoader = NettyTransport.class.getClassLoader();
+            Class<?> availability = Class.forName(pkg + "." + prefix, true, classLoader);
+            if (!(Boolean) availability.getMethod("isAvailable").invoke(null)) {
+                Throwable cause = (Throwable) availability.getMethod("unavailabilityCause").invoke(null);
+                return fallback(transport, explicit, cause);
+            }
+            Class<? extends EventLoopGroup> groupClass = (Class<? extends EventLoopGroup>)
+                    Class.forName(pkg + "." + prefix + "EventLoopGroup", true, classLoader);
+            Class<? extends ServerChannel> channelClass = (Class<? extends ServerChannel>)
+                    Class.forName(pkg + "." + prefix + "ServerSocketChannel", true, classLoader);
+            ChannelOption<Boolean> reusePort = (ChannelOption<Boolean>)
+                    Class.forName(pkg + "." + prefix + "ChannelOption", true, classLoader)
+                            .getField("SO_REUSEPORT")
+                            .get(null);
+            return new NettyTransport(transport, groupClass, channelClass, reusePort);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return fallback(transport, explicit, e);
+        }
+    }
+
+    private static NettyTransport fallback(Transport transport, boolean explicit, Throwable cause) {
+        Level level = explicit ? Level.WARNING : Level.FINE;
+        if (LOGGER.isLoggable(level)) {
+            LOGGER.log(level, "Transport " + transport + " is not available, falling back to " + Transport.NIO
+                    + ". Cause: " + cause);
+        }
+        return NIO;
+    }
+
+    /**
+     * Resolved transport.
+     *
+     * @return transport in use, never {@link Transport#AUTO}
+     */
+    Transport transport() {
+        return transport;
+    }
+
+    /**
+     * Server channel class to use with {@link io.netty.bootstrap.ServerBootstrap#channel(Class)}.
+     *
+     * @return server channel class
+     */
+    Class<? extends ServerChannel> serverChannelClass() {
+        return serverChannelClass;
+    }
+
+    /**
+     * Native {@code SO_REUSEPORT} channel option.
+     *
+     * @return the option or {@code null} if the transport does not support it
+     */
+    ChannelOption<Boolean> reusePortOption() {
+        return reusePortOption;
+    }
+
+    /**
+     * Creates a new event loop group of this transport.
+     *
+     * @param threads number of threads, {@code 0} for the Netty default
+     * @return new event loop group
+     */
+    EventLoopGroup createEventLoopGroup(int threads) {
+        try {
+            return eventLoopGroupClass.getConstructor(int.class).newInstance(Math.max(threads, 0));
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Cannot create " + transport + " event loop group", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + transport + " event loop group", e);
+        }
+    }
+}
@@ -30,6 +30,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -43,8 +44,6 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.handler.ssl.ApplicationProtocolConfig;
@@ -64,6 +63,8 @@ class NettyWebServer implements WebServer {
     private static final String EXIT_ON_STARTED_KEY = "exit.on.started";
     private static final boolean EXIT_ON_STARTED = "!".equals(System.getProperty(EXIT_ON_STARTED_KEY));
 
+    private final NettyTransport transport;
+    private final EventLoopWatchdog watchdog;
     private final EventLoopGroup bossGroup;
     private final EventLoopGroup workerGroup;
     private final Map<String, ServerBootstrap> bootstraps = new HashMap<>();
@@ -74,7 +75,10 @@ class NettyWebServer implements WebServer {
     private final CompletableFuture<WebServer> channelsCloseFuture = new CompletableFuture<>();
     private final CompletableFuture<WebServer> threadGroupsShutdownFuture = new CompletableFuture<>();
     private final ContextualRegistry contextualRegistry;
-    private final ConcurrentMap<String, Channel> channels = new ConcurrentHashMap<>();
+    private final Map<String, Integer> acceptors = new HashMap<>();
+    // bound channels with their socket names, several per socket if acceptors share the port
+    private final ConcurrentMap<Channel, String> boundChannels = new ConcurrentHashMap<>();
+    private final AtomicInteger startedSockets = new AtomicInteger();
     private final List<HttpInitializer> initializers = new LinkedList<>();
 
     private volatile boolean started;
@@ -92,11 +96,33 @@ class NettyWebServer implements WebServer {
     NettyWebServer(ServerConfiguration config,
                    Routing routing,
                    Map<String, Routing> namedRoutings) {
+        this(config, routing, namedRoutings, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param config           a server configuration instance
+     * @param routing          a default routing instance
+     * @param namedRoutings    the named routings of the configured additional server sockets
+     * @param reusePortThreads number of acceptor channels bound to a socket with {@code SO_REUSEPORT} enabled
+     */
+    NettyWebServer(ServerConfiguration config,
+                   Routing routing,
+                   Map<String, Routing> namedRoutings,
+                   int reusePortThreads) {
         Set<Map.Entry<String, SocketConfiguration>> sockets = config.sockets().entrySet();
 
         HelidonFeatures.print(HelidonFlavor.SE);
-        this.bossGroup = new NioEventLoopGroup(sockets.size());
-        this.workerGroup = config.workersCount() <= 0 ? new NioEventLoopGroup() : new NioEventLoopGroup(config.workersCount());
+        this.transport = NettyTransport.resolve(config.transport());
+        int acceptorsCount = 0;
+        for (Map.Entry<String, SocketConfiguration> entry : sockets) {
+            int count = acceptors(entry.getKey(), entry.getValue(), reusePortThreads);
+            acceptors.put(entry.getKey(), count);
+            acceptorsCount += count;
+        }
+        this.bossGroup = transport.createEventLoopGroup(acceptorsCount);
+        this.workerGroup = transport.createEventLoopGroup(config.workersCount());
         // the contextual registry needs to be created as a different type is expected. Once we remove ContextualRegistry
         // we can simply use the one from config
         Context context = config.context();
@@ -105,7 +131,11 @@ class NettyWebServer implements WebServer {
         } else {
             this.contextualRegistry = ContextualRegistry.create(config.context());
         }
+        this.contextualRegistry.register(transport.transport());
         this.configuration = config;
+        this.watchdog = (config.eventLoopWatchdogMillis() > 0)
+                ? EventLoopWatchdog.start(config.eventLoopWatchdogMillis())
+                : null;
 
         for (Map.Entry<String, SocketConfiguration> entry : sockets) {
             String name = entry.getKey();
@@ -150,11 +180,14 @@ class NettyWebServer implements WebServer {
             if (soConfig.receiveBufferSize() > 0) {
                 bootstrap.option(ChannelOption.SO_RCVBUF, soConfig.receiveBufferSize());
             }
+            if (soConfig.reusePort() && transport.reusePortOption() != null) {
+                bootstrap.option(transport.reusePortOption(), true);
+            }
 
             HttpInitializer childHandler = new HttpInitializer(sslContext, namedRoutings.getOrDefault(name, routing), this);
             initializers.add(childHandler);
             bootstrap.group(bossGroup, workerGroup)
-                     .channel(NioServerSocketChannel.class)
+                     .channel(transport.serverChannelClass())
                      .handler(new LoggingHandler(LogLevel.DEBUG))
                      .childHandler(childHandler);
 
@@ -162,21 +195,52 @@ class NettyWebServer implements WebServer {
         }
     }
 
+    /**
+     * Number of acceptor channels to bind for a socket. With {@code SO_REUSEPORT} on a native transport, several
+     * channels bind the same port, each served by its own boss thread, and the kernel balances incoming connections
+     * among them.
+     *
+     * @param name             socket name
+     * @param soConfig         socket configuration
+     * @param reusePortThreads number of channels to bind if {@code SO_REUSEPORT} is supported
+     * @return number of channels to bind
+     */
+    private int acceptors(String name, SocketConfiguration soConfig, int reusePortThreads) {
+        if (!soConfig.reusePort()) {
+            return 1;
+        }
+        if (transport.reusePortOption() == null) {
+            LOGGER.warning(() -> "Channel '" + name + "': SO_REUSEPORT is not supported by transport "
+                    + transport.transport() + ", ignoring.");
+            return 1;
+        }
+        return Math.max(reusePortThreads, 1);
+    }
+
     @Override
     public ServerConfiguration configuration() {
         return configuration;
     }
 
+    /**
+     * Watchdog reporting blocked event loop threads.
+     *
+     * @return the watchdog or {@code null} if disabled
+     */
+    EventLoopWatchdog watchdog() {
+        return watchdog;
+    }
+
     @Override
     public synchronized CompletionStage<WebServer> start() {
         if (!started) {
 
             channelsUpFuture.thenAccept(this::started)
                             .exceptionally(throwable -> {
-                                if (channels.isEmpty()) {
+                                if (boundChannels.isEmpty()) {
                                     startFailureHandler(throwable);
                                 }
-                                for (Channel channel : channels.values()) {
+                                for (Channel channel : boundChannels.keySet()) {
                                     channel.close();
                                 }
                                 return null;
@@ -203,48 +267,32 @@ class NettyWebServer implements WebServer {
                 try {
                     bootstrap.bind(configuration.bindAddress(), port).addListener(channelFuture -> {
                         if (!channelFuture.isSuccess()) {
-                            LOGGER.info(() -> "Channel '" + name + "' startup failed with message '"
-                                    + channelFuture.cause().getMessage() + "'.");
-                            channelsUpFuture.completeExceptionally(new IllegalStateException("Channel startup failed: " + name,
-                                                                                             channelFuture.cause()));
+                            channelStartupFailed(name, channelFuture.cause());
                             return;
                         }
 
                         Channel channel = ((ChannelFuture) channelFuture).channel();
-                        LOGGER.info(() -> "Channel '" + name + "' started: " + channel);
-                        channels.put(name, channel);
-
-                        channel.closeFuture().addListener(future -> {
-                            LOGGER.info(() -> "Channel '" + name + "' closed: " + channel);
-                            channels.remove(name);
-                            if (channelsUpFuture.isCompletedExceptionally()) {
-                                // we're in a startup failure handler
-                                if (channels.isEmpty()) {
-                                    channelsUpFuture.exceptionally(this::startFailureHandler);
-                                    // all the channels are down
-                                } else if (future.cause() != null) {
-                                    LOGGER.log(Level.WARNING,
-                                               "Startup failure channel close failure",
-                                               new IllegalStateException(future.cause()));
-                                }
-                            } else {
-                                if (!future.isSuccess()) {
-                                    channelsCloseFuture.completeExceptionally(new IllegalStateException("Channel stop failure.",
-                                                                                                        future.cause()));
-                                } else if (channels.isEmpty()) {
-                                    channelsCloseFuture.complete(this);
-                                }
-                                // else we're waiting for the rest of the channels to start, successful branch
-                            }
-                        });
+                        channelStarted(name, channel);
 
-                        if (channelsUpFuture.isCompletedExceptionally()) {
-                            channel.close();
+                        int additional = acceptors.get(name) - 1;
+                        if (additional == 0 || channelsUpFuture.isCompletedExceptionally()) {
+                            socketStarted(bootstrapsSize);
+                            return;
                         }
-
-                        if (channels.size() >= bootstrapsSize) {
-                            LOGGER.finer(() -> "All channels started: " + channels.size());
-                            channelsUpFuture.complete(this);
+                        // the other acceptors bind the address actually used by the first one, so an ephemeral
+                        // port is shared as well
+                        AtomicInteger remaining = new AtomicInteger(additional);
+                        for (int i = 0; i < additional; i++) {
+                            bootstrap.bind(channel.localAddress()).addListener(acceptorFuture -> {
+                                if (!acceptorFuture.isSuccess()) {
+                                    channelStartupFailed(name, acceptorFuture.cause());
+                                    return;
+                                }
+                                channelStarted(name, ((ChannelFuture) acceptorFuture).channel());
+                                if (remaining.decrementAndGet() == 0) {
+                                    socketStarted(bootstrapsSize);
+                                }
+                            });
                         }
                     });
                 } catch (RejectedExecutionException e) {
@@ -263,6 +311,51 @@ class NettyWebServer implements WebServer {
         return startFuture;
     }
 
+    private void channelStartupFailed(String name, Throwable cause) {
+        LOGGER.info(() -> "Channel '" + name + "' startup failed with message '" + cause.getMessage() + "'.");
+        channelsUpFuture.completeExceptionally(new IllegalStateException("Channel startup failed: " + name, cause));
+    }
+
+    private void channelStarted(String name, Channel channel) {
+        LOGGER.info(() -> "Channel '" + name + "' started: " + channel + ", transport: " + transport.transport());
+        boundChannels.put(channel, name);
+
+        channel.closeFuture().addListener(future -> {
+            LOGGER.info(() -> "Channel '" + name + "' closed: " + channel);
+            boundChannels.remove(channel);
+            if (channelsUpFuture.isCompletedExceptionally()) {
+                // we're in a startup failure handler
+                if (boundChannels.isEmpty()) {
+                    channelsUpFuture.exceptionally(this::startFailureHandler);
+                    // all the channels are down
+                } else if (future.cause() != null) {
+                    LOGGER.log(Level.WARNING,
+                               "Startup failure channel close failure",
+                               new IllegalStateException(future.cause()));
+                }
+            } else {
+                if (!future.isSuccess()) {
+                    channelsCloseFuture.completeExceptionally(new IllegalStateException("Channel stop failure.",
+                                                                                        future.cause()));
+                } else if (boundChannels.isEmpty()) {
+                    channelsCloseFuture.complete(this);
+                }
+                // else we're waiting for the rest of the channels to start, successful branch
+            }
+        });
+
+        if (channelsUpFuture.isCompletedExceptionally()) {
+            channel.close();
+        }
+    }
+
+    private void socketStarted(int socketsCount) {
+        if (startedSockets.incrementAndGet() >= socketsCount) {
+            LOGGER.finer(() -> "All channels started: " + boundChannels.size());
+            channelsUpFuture.complete(this);
+        }
+    }
+
     private void started(WebServer server) {
         if (EXIT_ON_STARTED) {
             LOGGER.info(String.format("Exiting, -D%s set.",  EXIT_ON_STARTED_KEY));
@@ -309,6 +402,9 @@ class NettyWebServer implements WebServer {
         }
 
         forceQueuesRelease();
+        if (watchdog != null) {
+            watchdog.stop();
+        }
 
         // there's no need for a quiet time as the channel is not expected to be used from now on
         Future<?> bossGroupFuture = bossGroup.shutdownGracefully(0, 10, TimeUnit.SECONDS);
@@ -342,10 +438,10 @@ class NettyWebServer implements WebServer {
         if (!startFuture.isDone()) {
             startFuture.cancel(true);
         }
-        if (channels.isEmpty()) {
+        if (boundChannels.isEmpty()) {
             channelsCloseFuture.complete(this);
         }
-        for (Channel channel : channels.values()) {
+        for (Channel channel : boundChannels.keySet()) {
             channel.close();
         }
         return shutdownFuture;
@@ -368,11 +464,23 @@ class NettyWebServer implements WebServer {
 
     @Override
     public int port(String name) {
-        Channel channel = channels.get(name);
-        if (channel == null) {
-            return -1;
+        // all the channels of a socket share the same port
+        for (Map.Entry<Channel, String> entry : boundChannels.entrySet()) {
+            if (entry.getValue().equals(name)) {
+                SocketAddress address = entry.getKey().localAddress();
+                return address instanceof InetSocketAddress ? ((InetSocketAddress) address).getPort() : -1;
+            }
         }
-        SocketAddress address = channel.localAddress();
-        return address instanceof InetSocketAddress ? ((InetSocketAddress) address).getPort() : -1;
+        return -1;
+    }
+
+    /**
+     * Number of channels bound for a socket, more than one if several acceptors share the port.
+     *
+     * @param name socket name
+     * @return number of bound channels
+     */
+    int boundChannels(String name) {
+        return (int) boundChannels.values().stream().filter(name::equals).count();
     }
 }
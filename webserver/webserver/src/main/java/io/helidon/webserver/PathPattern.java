@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,11 @@
 
 package io.helidon.webserver;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.regex.Matcher;
@@ -78,6 +80,11 @@ final class PathPattern {
     static PathMatcher compile(CharSequence pattern) {
         Objects.requireNonNull(pattern, "Parameter 'pattern' is null!");
 
+        SegmentPathMatcher segmentMatcher = SegmentPathMatcher.parse(pattern.toString());
+        if (segmentMatcher != null) {
+            return segmentMatcher;
+        }
+
         StringBuilder regexp = new StringBuilder(pattern.length() * 2);
         StringBuilder canonical = new StringBuilder(pattern.length());
         boolean isRegexp = false;
@@ -143,9 +150,9 @@ final class PathPattern {
         }
         try {
             if (isRegexp) {
-                return new RegexpPathMatcher(regexp.toString(), paramToGroupName);
+                return new RegexpPathMatcher(pattern.toString(), regexp.toString(), paramToGroupName);
             } else {
-                return new CanonicalPathMatcher(canonical.toString());
+                return new CanonicalPathMatcher(pattern.toString(), canonical.toString());
             }
         } catch (RuntimeException e) {
             throw new IllegalPathPatternException("Cannot parse generated regular expression!", pattern.toString(), 0);
@@ -160,6 +167,65 @@ final class PathPattern {
         }
     }
 
+    /**
+     * Returns leading segments of the path pattern which contain no parameters, optional sections nor escapes.
+     * Every path matched by the pattern must start with these segments.
+     *
+     * @param pattern a Web Server path pattern
+     * @return a list of literal segments, never {@code null}
+     */
+    static List<String> literalPrefix(String pattern) {
+        List<String> result = new ArrayList<>();
+        if (pattern.isEmpty() || pattern.charAt(0) != '/') {
+            return result;
+        }
+        int start = 1;
+        while (start < pattern.length()) {
+            int end = pattern.indexOf('/', start);
+            if (end < 0) {
+                end = pattern.length();
+            }
+            String segment = pattern.substring(start, end);
+            if (segment.isEmpty() || !isLiteral(segment)) {
+                break;
+            }
+            result.add(segment);
+            start = end + 1;
+        }
+        return result;
+    }
+
+    private static boolean isLiteral(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            switch (segment.charAt(i)) {
+            case '\\':
+            case '[':
+            case ']':
+            case '{':
+            case '}':
+                return false;
+            default:
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsLineTerminator(String str, int fromIndex) {
+        // Regexp '.' doesn't match line terminators, matchers without regexp must behave the same way
+        for (int i = fromIndex; i < str.length(); i++) {
+            switch (str.charAt(i)) {
+            case '\n':
+            case '\r':
+            case '\u0085':
+            case '\u2028':
+            case '\u2029':
+                return true;
+            default:
+            }
+        }
+        return false;
+    }
+
     private static String parseParameter(CharIterator iter, StringBuilder builder, int index) {
         StringBuilder name = new StringBuilder();
         boolean first = true;
@@ -283,11 +349,32 @@ final class PathPattern {
         }
     }
 
+    /**
+     * A {@link PathMatcher} compiled from the Web Server path pattern.
+     */
+    interface CompiledMatcher extends PathMatcher {
+
+        /**
+         * Returns the original Web Server path pattern this matcher was compiled from.
+         *
+         * @return a path pattern
+         */
+        String pattern();
+
+        /**
+         * Returns leading path segments which must be present verbatim in every matched path.
+         *
+         * @return a list of literal segments, never {@code null}
+         */
+        List<String> literalPrefix();
+    }
+
     /**
      * Path matcher using standard {@code String.equals()} and {@code String.startWith()} methods.
      */
-    static class CanonicalPathMatcher implements PathMatcher {
+    static class CanonicalPathMatcher implements CompiledMatcher {
 
+        private final String source;
         private final String pattern;
 
         /**
@@ -297,10 +384,49 @@ final class PathPattern {
          * @throws NullPointerException  In case of {@code null} pattern parameter.
          */
         CanonicalPathMatcher(String pattern) {
+            this(pattern, pattern);
+        }
+
+        /**
+         * Creates new instance.
+         *
+         * @param source an original path pattern.
+         * @param pattern an exact pattern.
+         * @throws NullPointerException  In case of {@code null} pattern parameter.
+         */
+        CanonicalPathMatcher(String source, String pattern) {
             Objects.requireNonNull(pattern, "Parameter 'pattern' is null!");
+            this.source = source;
             this.pattern = pattern;
         }
 
+        @Override
+        public String pattern() {
+            return source;
+        }
+
+        @Override
+        public List<String> literalPrefix() {
+            // Whole pattern is literal, only stop on empty segment
+            List<String> result = new ArrayList<>();
+            if (pattern.isEmpty() || pattern.charAt(0) != '/') {
+                return result;
+            }
+            int start = 1;
+            while (start < pattern.length()) {
+                int end = pattern.indexOf('/', start);
+                if (end < 0) {
+                    end = pattern.length();
+                }
+                if (end == start) {
+                    break;
+                }
+                result.add(pattern.substring(start, end));
+                start = end + 1;
+            }
+            return result;
+        }
+
         @Override
         public Result match(CharSequence path) {
             Objects.requireNonNull(path, "Parameter 'path' is null!");
@@ -341,10 +467,11 @@ final class PathPattern {
     /**
      * Regular expression based matcher.
      */
-    static class RegexpPathMatcher implements PathMatcher {
+    static class RegexpPathMatcher implements CompiledMatcher {
 
         private static final String RIGHT_PART_PARAM_NAME = PARAM_PREFIX + "rightpart";
 
+        private final String source;
         private final Map<String, String> paramToGroupName;
         private final Pattern pattern;
         private final Pattern leftPattern;
@@ -352,13 +479,15 @@ final class PathPattern {
         /**
          * Creates new instance.
          *
+         * @param source an original path pattern.
          * @param regexp an regular expression.
          * @param paramToGroupName a map of pattern parameter names and it's regexp matching group names.
          * @throws NullPointerException  In case of {@code null} regexp parameter.
          * @throws PatternSyntaxException If the expression's syntax is invalid.
          */
-        RegexpPathMatcher(String regexp, Map<String, String> paramToGroupName) {
+        RegexpPathMatcher(String source, String regexp, Map<String, String> paramToGroupName) {
             Objects.requireNonNull(regexp, "Parameter 'pattern' is null!");
+            this.source = source;
             this.pattern = Pattern.compile(regexp);
             this.leftPattern = Pattern.compile(regexp + "(?<" + RIGHT_PART_PARAM_NAME + ">/.+)?");
             if (paramToGroupName == null) {
@@ -368,6 +497,16 @@ final class PathPattern {
             }
         }
 
+        @Override
+        public String pattern() {
+            return source;
+        }
+
+        @Override
+        public List<String> literalPrefix() {
+            return PathPattern.literalPrefix(source);
+        }
+
         @Override
         public Result match(CharSequence path) {
             Matcher matcher = pattern.matcher(path);
@@ -416,6 +555,177 @@ final class PathPattern {
         }
     }
 
+    /**
+     * Matcher for patterns composed only from whole literal segments and whole {@code {param}} segments, optionally
+     * ending with a greedy {@code {+param}} segment. Matches without regular expressions.
+     */
+    static class SegmentPathMatcher implements CompiledMatcher {
+
+        private final String source;
+        // Literal value or parameter name (null for nameless parameters) of each segment
+        private final String[] segments;
+        private final boolean[] params;
+        private final boolean greedy;
+
+        private SegmentPathMatcher(String source, String[] segments, boolean[] params, boolean greedy) {
+            this.source = source;
+            this.segments = segments;
+            this.params = params;
+            this.greedy = greedy;
+        }
+
+        /**
+         * Creates new instance if the pattern can be matched without regular expressions.
+         *
+         * @param pattern a Web Server path pattern
+         * @return new instance or {@code null} if the pattern is not supported
+         */
+        static SegmentPathMatcher parse(String pattern) {
+            if (pattern.isEmpty() || pattern.charAt(0) != '/') {
+                return null;
+            }
+            List<String> segments = new ArrayList<>();
+            List<Boolean> params = new ArrayList<>();
+            boolean hasParam = false;
+            boolean greedy = false;
+            int start = 1;
+            while (start <= pattern.length()) {
+                if (greedy) {
+                    // Greedy parameter must be the last segment
+                    return null;
+                }
+                int end = pattern.indexOf('/', start);
+                if (end < 0) {
+                    end = pattern.length();
+                }
+                String segment = pattern.substring(start, end);
+                if (isLiteral(segment)) {
+                    segments.add(segment);
+                    params.add(false);
+                } else if (segment.length() >= 2
+                        && segment.charAt(0) == '{'
+                        && segment.charAt(segment.length() - 1) == '}') {
+                    String name = segment.substring(1, segment.length() - 1);
+                    if (!isLiteral(name) || name.indexOf(':') >= 0) {
+                        return null;
+                    }
+                    if (!name.isEmpty() && name.charAt(0) == '+') {
+                        greedy = true;
+                        name = name.substring(1);
+                    }
+                    name = name.trim();
+                    segments.add(name.isEmpty() ? null : name);
+                    params.add(true);
+                    hasParam = true;
+                } else {
+                    return null;
+                }
+                start = end + 1;
+            }
+            if (!hasParam) {
+                return null;
+            }
+            boolean[] paramsArray = new boolean[params.size()];
+            for (int i = 0; i < paramsArray.length; i++) {
+                paramsArray[i] = params.get(i);
+            }
+            return new SegmentPathMatcher(pattern, segments.toArray(new String[0]), paramsArray, greedy);
+        }
+
+        @Override
+        public String pattern() {
+            return source;
+        }
+
+        @Override
+        public List<String> literalPrefix() {
+            return PathPattern.literalPrefix(source);
+        }
+
+        @Override
+        public Result match(CharSequence path) {
+            Objects.requireNonNull(path, "Parameter 'path' is null!");
+            String s = path.toString();
+            Map<String, String> params = new HashMap<>();
+            if (matchSegments(s, params) == s.length()) {
+                return new PositiveResult(params);
+            } else {
+                return NOT_MATCHED_RESULT;
+            }
+        }
+
+        @Override
+        public PrefixResult prefixMatch(CharSequence path) {
+            Objects.requireNonNull(path, "Parameter 'path' is null!");
+            String s = path.toString();
+            Map<String, String> params = new HashMap<>();
+            int end = matchSegments(s, params);
+            if (end < 0) {
+                return NOT_MATCHED_RESULT;
+            }
+            if (end == s.length()) {
+                return new PositiveResult(params, "/");
+            }
+            // The remaining part always starts with slash but it must not be just the slash
+            if (end + 1 < s.length() && !containsLineTerminator(s, end)) {
+                return new PositiveResult(params, s.substring(end));
+            } else {
+                return NOT_MATCHED_RESULT;
+            }
+        }
+
+        /**
+         * Matches all segments from the beginning of the path.
+         *
+         * @param path a path to match
+         * @param paramValues a map to fill with resolved parameters
+         * @return an index of the first not matched character or {@code -1} if not matched
+         */
+        private int matchSegments(String path, Map<String, String> paramValues) {
+            int length = path.length();
+            int position = 0;
+            for (int i = 0; i < segments.length; i++) {
+                if (position >= length || path.charAt(position) != '/') {
+                    return -1;
+                }
+                position++;
+                String segment = segments[i];
+                if (greedy && i == segments.length - 1) {
+                    if (position >= length || containsLineTerminator(path, position)) {
+                        return -1;
+                    }
+                    if (segment != null) {
+                        paramValues.put(segment, path.substring(position));
+                    }
+                    return length;
+                }
+                int end = path.indexOf('/', position);
+                if (end < 0) {
+                    end = length;
+                }
+                if (params[i]) {
+                    if (end == position) {
+                        return -1;
+                    }
+                    if (segment != null) {
+                        paramValues.put(segment, path.substring(position, end));
+                    }
+                } else if (end - position != segment.length() || !path.startsWith(segment, position)) {
+                    return -1;
+                }
+                position = end;
+            }
+            return position;
+        }
+
+        @Override
+        public String toString() {
+            return "SegmentPathMatcher{"
+                    + "pattern=" + source
+                    + '}';
+        }
+    }
+
     /**
      * Represents ({@code matches == true}) positive result.
      */
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -82,7 +82,9 @@ abstract class Request implements ServerRequest {
         this.webServer = webServer;
         this.context = ContextualRegistry.create(webServer.context());
         this.queryParams = UriComponent.decodeQuery(req.uri().getRawQuery(), true);
-        this.headers = new HashRequestHeaders(bareRequest.headers());
+        this.headers = (req instanceof BareRequestImpl)
+                ? ((BareRequestImpl) req).requestHeaders()
+                : new HashRequestHeaders(req.headers());
         this.content = new Content();
     }
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -44,8 +44,13 @@ import io.opentracing.Tracer;
 class RequestRouting implements Routing {
 
     private static final Logger LOGGER = Logger.getLogger(RequestRouting.class.getName());
+    // the same as io.helidon.tracing.AdaptiveSampler.HTTP_ROUTE_TAG, the web server does not depend on it
+    private static final String HTTP_ROUTE_TAG = "http.route";
 
     private final RouteList routes;
+    private final RouteIndex routeIndex;
+    private final RouteRecorders routeRecorders;
+    private final Map<HandlerRoute, String> routeTemplates;
     private final List<ErrorHandlerRecord<?>> errorHandlers;
     private final List<Consumer<WebServer>> newWebServerCallbacks;
 
@@ -53,11 +58,20 @@ class RequestRouting implements Routing {
      * Creates new instance.
      *
      * @param routes                effective route
+     * @param routeIndex            compiled index of the routes or {@code null} to crawl all routes
+     * @param routeRecorders        recorders of route metrics or {@code null} not to record them
      * @param errorHandlers         a list of error handlers
      * @param newWebServerCallbacks a list af callback handlers for registration in new {@link WebServer}. It is copied.
      */
-    RequestRouting(RouteList routes, List<ErrorHandlerRecord<?>> errorHandlers, List<Consumer<WebServer>> newWebServerCallbacks) {
+    RequestRouting(RouteList routes,
+                   RouteIndex routeIndex,
+                   RouteRecorders routeRecorders,
+                   List<ErrorHandlerRecord<?>> errorHandlers,
+                   List<Consumer<WebServer>> newWebServerCallbacks) {
         this.routes = routes;
+        this.routeIndex = routeIndex;
+        this.routeRecorders = routeRecorders;
+        this.routeTemplates = RouteRecorders.templates(routes);
         this.errorHandlers = errorHandlers;
         this.newWebServerCallbacks = new ArrayList<>(newWebServerCallbacks);
     }
@@ -67,12 +81,23 @@ class RequestRouting implements Routing {
         try {
             WebServer webServer = bareRequest.webServer();
             RoutedResponse response = new RoutedResponse(webServer, bareResponse);
+            BareResponseImpl recordedResponse = null;
+            if (routeRecorders != null && bareResponse instanceof BareResponseImpl) {
+                recordedResponse = (BareResponseImpl) bareResponse;
+                recordedResponse.routeMetrics(routeRecorders);
+            }
             // Jersey needs the raw path (not decoded) so we get that too
             String path = canonicalize(bareRequest.uri().normalize().getPath());
             String rawPath = canonicalize(bareRequest.uri().normalize().getRawPath());
 
-            Crawler crawler = new Crawler(routes, path, rawPath, bareRequest.method());
-            RoutedRequest nextRequests = new RoutedRequest(bareRequest, response, webServer, crawler, errorHandlers);
+            Crawler crawler = new Crawler(routes, routeIndex, path, rawPath, bareRequest.method());
+            RoutedRequest nextRequests = new RoutedRequest(bareRequest,
+                                                           response,
+                                                           webServer,
+                                                           crawler,
+                                                           errorHandlers,
+                                                           routeTemplates,
+                                                           recordedResponse);
 
             Contexts.runInContext(nextRequests.context(), (Runnable) nextRequests::next);
         } catch (Error | RuntimeException e) {
@@ -113,6 +138,8 @@ class RequestRouting implements Routing {
     private static class Crawler {
 
         private final List<Route> routes;
+        private final RouteIndex routeIndex;
+        private final int[] candidates;
         private final Request.Path contextPath;
         private final String path;
         private final String rawPath;
@@ -125,14 +152,17 @@ class RequestRouting implements Routing {
          * Creates new instance.
          *
          * @param routes      routs to crawl throw.
+         * @param routeIndex  compiled index of the routes or {@code null} to crawl all routes.
          * @param contextPath a path representing URI path context.
          * @param path        an URI path to route.
          * @param rawPath     not decoded URI path to route.
          * @param method      an HTTP method to route.
          */
-        private Crawler(List<Route> routes, Request.Path contextPath, String path, String rawPath,
+        private Crawler(List<Route> routes, RouteIndex routeIndex, Request.Path contextPath, String path, String rawPath,
                         Http.RequestMethod method) {
             this.routes = routes;
+            this.routeIndex = routeIndex;
+            this.candidates = routeIndex == null ? null : routeIndex.candidates(method, path);
             this.path = path;
             this.rawPath = rawPath;
             this.contextPath = contextPath;
@@ -143,12 +173,17 @@ class RequestRouting implements Routing {
          * Creates new instance of 'the root crawler'.
          *
          * @param routes routs to crawl throw.
+         * @param routeIndex compiled index of the routes or {@code null} to crawl all routes.
          * @param path   a URI path to route.
          * @param rawPath not decoded URI path to route.
          * @param method an HTTP method to route.
          */
-        Crawler(List<Route> routes, String path, String rawPath, Http.RequestMethod method) {
-            this(routes, null, path, rawPath, method);
+        Crawler(List<Route> routes, RouteIndex routeIndex, String path, String rawPath, Http.RequestMethod method) {
+            this(routes, routeIndex, null, path, rawPath, method);
+        }
+
+        private int size() {
+            return candidates == null ? routes.size() : candidates.length;
         }
 
         /**
@@ -158,7 +193,7 @@ class RequestRouting implements Routing {
          * @return a next item.
          */
         public Item next() {
-            while ((subCrawler != null) || (++index < routes.size())) {
+            while ((subCrawler != null) || (++index < size())) {
                 if (subCrawler != null) {
                     Item result = subCrawler.next();
                     if (result != null) {
@@ -167,7 +202,8 @@ class RequestRouting implements Routing {
                         subCrawler = null;
                     }
                 } else {
-                    Route route = routes.get(index);
+                    int routePosition = candidates == null ? index : candidates[index];
+                    Route route = routes.get(routePosition);
                     if (route.accepts(method)) {
                         if (route instanceof HandlerRoute) {
                             HandlerRoute hr = (HandlerRoute) route;
@@ -181,6 +217,7 @@ class RequestRouting implements Routing {
                             PathMatcher.PrefixResult rawPrefixMatch = rl.prefixMatch(rawPath);
                             if (prefixMatch.matches()) {
                                 subCrawler = new Crawler(rl,
+                                                         routeIndex == null ? null : routeIndex.nested(routePosition),
                                                          Request.Path.create(contextPath, path, rawPath, prefixMatch.params()),
                                                          prefixMatch.remainingPart(),
                                                          rawPrefixMatch.remainingPart(),
@@ -221,6 +258,9 @@ class RequestRouting implements Routing {
         private final LinkedList<ErrorHandlerRecord<? extends Throwable>> errorHandlers;
         private final Path path;
         private final RoutedResponse response;
+        private final boolean eventLoopSafe;
+        private final Map<HandlerRoute, String> routeTemplates;
+        private final BareResponseImpl recordedResponse;
 
         private final AtomicBoolean nexted = new AtomicBoolean(false);
 
@@ -232,17 +272,24 @@ class RequestRouting implements Routing {
          * @param webServer     the relevant server
          * @param crawler       a crawler to use for {@code next} method implementation
          * @param errorHandlers a list of error handlers
+         * @param routeTemplates templates of the routes, tagged on the request span
+         * @param recordedResponse a bare response recording route metrics or {@code null}
          */
         RoutedRequest(BareRequest req,
                       RoutedResponse response,
                       WebServer webServer,
                       Crawler crawler,
-                      List<ErrorHandlerRecord<?>> errorHandlers) {
+                      List<ErrorHandlerRecord<?>> errorHandlers,
+                      Map<HandlerRoute, String> routeTemplates,
+                      BareResponseImpl recordedResponse) {
             super(req, webServer);
             this.crawler = crawler;
             this.errorHandlers = new LinkedList<>(errorHandlers);
             this.path = null;
             this.response = response;
+            this.eventLoopSafe = false;
+            this.routeTemplates = routeTemplates;
+            this.recordedResponse = recordedResponse;
         }
 
         /**
@@ -252,16 +299,21 @@ class RequestRouting implements Routing {
          * @param response      a response implementation
          * @param path          a matched path
          * @param errorHandlers a list of error handlers
+         * @param eventLoopSafe whether the matched route is {@link EventLoopSafe}
          */
         RoutedRequest(RoutedRequest request,
                       RoutedResponse response,
                       Path path,
-                      List<ErrorHandlerRecord<?>> errorHandlers) {
+                      List<ErrorHandlerRecord<?>> errorHandlers,
+                      boolean eventLoopSafe) {
             super(request);
             this.crawler = request.crawler;
             this.response = response;
             this.path = path;
             this.errorHandlers = new LinkedList<>(errorHandlers);
+            this.eventLoopSafe = eventLoopSafe;
+            this.routeTemplates = request.routeTemplates;
+            this.recordedResponse = request.recordedResponse;
         }
 
         @Override
@@ -283,37 +335,68 @@ class RequestRouting implements Routing {
             return nexted.get();
         }
 
+        @Override
+        public boolean isEventLoopSafe() {
+            return eventLoopSafe;
+        }
+
         @Override
         public void next() {
             checkNexted();
             Crawler.Item nextItem = crawler.next();
             if (nextItem == null) {
+                if (recordedResponse != null) {
+                    recordedResponse.unmatched();
+                }
                 // 404 error
                 nextNoCheck(new NotFoundException("No handler found for path: " + path()));
             } else {
                 try {
                     RoutedResponse nextResponse = new RoutedResponse(response);
-                    RoutedRequest nextRequest = new RoutedRequest(this, nextResponse, nextItem.path, errorHandlers);
+                    HandlerRoute route = nextItem.handlerRoute;
+                    if (recordedResponse != null) {
+                        recordedResponse.route(route);
+                    }
+                    RoutedRequest nextRequest = new RoutedRequest(this,
+                                                                  nextResponse,
+                                                                  nextItem.path,
+                                                                  errorHandlers,
+                                                                  route.isEventLoopSafe());
                     LOGGER.finest(() -> "(reqID: " + requestId() + ") Routing next: " + nextItem.path);
                     Span span = span();
                     if (null != span) {
+                        // identifies the endpoint of the request, as the span name is the same for all requests
+                        String template = routeTemplates.get(route);
+                        if (template != null) {
+                            span.setTag(HTTP_ROUTE_TAG, template);
+                        }
                         SpanTracingConfig spanConfig = TracingConfigUtil.spanConfig("web-server",
                                                                                     "HTTP Request",
                                                                                     context());
                         if (spanConfig.spanLog("handler.class").enabled()) {
-                            span.log(nextItem.handlerRoute.diagnosticEvent());
+                            span.log(route.diagnosticEvent());
                         }
                     }
 
-                    nextItem.handlerRoute
-                            .handler()
-                            .accept(nextRequest, nextResponse);
+                    EventLoopWatchdog watchdog = route.isEventLoopSafe() ? watchdog() : null;
+                    if (watchdog == null) {
+                        route.handler().accept(nextRequest, nextResponse);
+                    } else {
+                        try (EventLoopWatchdog.Execution execution = watchdog.enter(route)) {
+                            route.handler().accept(nextRequest, nextResponse);
+                        }
+                    }
                 } catch (RuntimeException re) {
                     nextNoCheck(re);
                 }
             }
         }
 
+        private EventLoopWatchdog watchdog() {
+            WebServer webServer = webServer();
+            return (webServer instanceof NettyWebServer) ? ((NettyWebServer) webServer).watchdog() : null;
+        }
+
         private void checkNexted() {
             checkNexted(null);
         }
@@ -415,7 +498,7 @@ class RequestRouting implements Routing {
             private final Throwable t;
 
             ErrorRoutedRequest(LinkedList<ErrorHandlerRecord<?>> errorHandlers, Throwable t) {
-                super(RoutedRequest.this, new RoutedResponse(response), path, errorHandlers);
+                super(RoutedRequest.this, new RoutedResponse(response), path, errorHandlers, RoutedRequest.this.eventLoopSafe);
                 this.t = t;
             }
 
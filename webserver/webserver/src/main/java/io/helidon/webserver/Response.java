@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -41,6 +41,7 @@ import io.helidon.media.common.ContentWriters;
 import io.helidon.tracing.config.SpanTracingConfig;
 import io.helidon.tracing.config.TracingConfigUtil;
 
+import io.netty.buffer.ByteBufAllocator;
 import io.opentracing.Span;
 import io.opentracing.SpanContext;
 import io.opentracing.Tracer;
@@ -228,6 +229,12 @@ abstract class Response implements ServerResponse {
         } else if (CharSequence.class.isAssignableFrom(type)) {
             return toPublisher((CharSequence) content);
         } else if (byte[].class.isAssignableFrom(type)) {
+            if (filters.isEmpty() && bareResponse instanceof BareResponseImpl) {
+                // copy into a pooled buffer which is written to the channel as is, allocated once requested
+                ByteBufAllocator allocator = ((BareResponseImpl) bareResponse).allocator();
+                byte[] bytes = (byte[]) content;
+                return ByteBufDataChunk.publisher(() -> ByteBufDataChunk.create(allocator, bytes));
+            }
             return ContentWriters.byteArrayWriter(true).apply((byte[]) content);
         }
         return null;
@@ -237,6 +244,12 @@ abstract class Response implements ServerResponse {
         MediaType mediaType = headers.contentType().orElse(MediaType.TEXT_PLAIN);
         String charset = mediaType.charset().orElse(StandardCharsets.UTF_8.name());
         headers.contentType(mediaType.withCharset(charset));
+        if (filters.isEmpty() && bareResponse instanceof BareResponseImpl) {
+            // encode directly into a pooled buffer which is written to the channel as is, allocated once requested
+            ByteBufAllocator allocator = ((BareResponseImpl) bareResponse).allocator();
+            Charset cs = Charset.forName(charset);
+            return ByteBufDataChunk.publisher(() -> ByteBufDataChunk.create(allocator, s, cs));
+        }
         return ContentWriters.charSequenceWriter(Charset.forName(charset)).apply(s);
     }
 
@@ -254,13 +267,19 @@ abstract class Response implements ServerResponse {
                 throw new IllegalArgumentException("File path argument isn't readable!");
             }
             // Try to write length
+            long size = -1;
             try {
-                headers.contentLength(Files.size(path));
+                size = Files.size(path);
+                headers.contentLength(size);
             } catch (Exception e) {
                 // Cannot get length or write length, not a big deal
             }
             // And write
             FileChannel fc = FileChannel.open(path, StandardOpenOption.READ);
+            if (size >= 0 && filters.isEmpty() && bareResponse instanceof BareResponseImpl) {
+                // transferred to the channel without copying to the heap
+                return Single.just(FileDataChunk.create(fc, 0, size));
+            }
             return ContentWriters.byteChannelWriter().apply(fc);
         } catch (IOException e) {
             throw new IllegalArgumentException("Cannot read a file!", e);
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.helidon.common.http.Http;
+
+/**
+ * Compiled index of a {@link RouteList} used to narrow down candidate {@link Route routes} for a request.
+ * <p>
+ * For each {@link Http.Method standard HTTP method} there is a tree keyed by literal path segments. Every route
+ * is attached to the node representing the literal prefix of its path pattern (see
+ * {@link PathPattern.CompiledMatcher#literalPrefix()}). Each node holds pre-computed indexes of all routes attached
+ * to the node and to its ancestors, in the original order. Lookup just walks the request path segments down the tree.
+ * <p>
+ * Returned candidates are still matched by the {@link RequestRouting} to resolve path parameters, so the index never
+ * changes routing semantics. It only skips routes which cannot match.
+ */
+final class RouteIndex {
+
+    private final Map<Http.Method, Node> methodTrees = new EnumMap<>(Http.Method.class);
+    private final Node anyMethodTree;
+    private final RouteIndex[] nested;
+
+    private RouteIndex(RouteList routes) {
+        this.nested = new RouteIndex[routes.size()];
+        List<List<String>> prefixes = new ArrayList<>(routes.size());
+        for (int i = 0; i < routes.size(); i++) {
+            Route route = routes.get(i);
+            prefixes.add(literalPrefix(route));
+            if (route instanceof RouteList) {
+                nested[i] = new RouteIndex((RouteList) route);
+            }
+        }
+        for (Http.Method method : Http.Method.values()) {
+            Node root = new Node();
+            for (int i = 0; i < routes.size(); i++) {
+                if (routes.get(i).accepts(method)) {
+                    root.add(prefixes.get(i), i);
+                }
+            }
+            root.compile(new int[0]);
+            methodTrees.put(method, root);
+        }
+        // Non-standard methods are not indexed by method at all
+        this.anyMethodTree = new Node();
+        for (int i = 0; i < routes.size(); i++) {
+            anyMethodTree.add(prefixes.get(i), i);
+        }
+        anyMethodTree.compile(new int[0]);
+    }
+
+    /**
+     * Compiles an index for provided route list including all nested route lists.
+     *
+     * @param routes a route list to index
+     * @return new index
+     */
+    static RouteIndex create(RouteList routes) {
+        return new RouteIndex(routes);
+    }
+
+    private static List<String> literalPrefix(Route route) {
+        PathMatcher matcher;
+        if (route instanceof HandlerRoute) {
+            matcher = ((HandlerRoute) route).pathMatcher();
+        } else if (route instanceof RouteList) {
+            matcher = ((RouteList) route).pathContext();
+        } else {
+            matcher = null;
+        }
+        if (matcher instanceof PathPattern.CompiledMatcher) {
+            return ((PathPattern.CompiledMatcher) matcher).literalPrefix();
+        } else {
+            // Custom matchers (and no matcher at all) can accept any path
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Returns indexes of routes which can accept provided method and path, in the original order.
+     *
+     * @param method an HTTP method
+     * @param path   a decoded and normalized URI path
+     * @return indexes of candidate routes, must not be modified
+     */
+    int[] candidates(Http.RequestMethod method, String path) {
+        Node node = (method instanceof Http.Method) ? methodTrees.get(method) : anyMethodTree;
+        int start = 1;
+        int length = path.length();
+        if (length == 0 || path.charAt(0) != '/') {
+            return node.candidates;
+        }
+        while (start < length && !node.children.isEmpty()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            Node child = node.children.get(path.substring(start, end));
+            if (child == null) {
+                break;
+            }
+            node = child;
+            start = end + 1;
+        }
+        return node.candidates;
+    }
+
+    /**
+     * Returns an index of the nested {@link RouteList}.
+     *
+     * @param routeIndex a position of the route list in the indexed list
+     * @return an index or {@code null} if the route on the position is not a route list
+     */
+    RouteIndex nested(int routeIndex) {
+        return nested[routeIndex];
+    }
+
+    /**
+     * A node of the literal segment tree.
+     */
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Integer> routes = new ArrayList<>();
+        private int[] candidates;
+
+        void add(List<String> prefix, int routeIndex) {
+            Node node = this;
+            for (String segment : prefix) {
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+            }
+            node.routes.add(routeIndex);
+        }
+
+        /**
+         * Merges indexes of routes attached to ancestors with routes attached to this node.
+         * Both are already sorted because routes are added in the order of the route list.
+         */
+        void compile(int[] inherited) {
+            candidates = new int[inherited.length + routes.size()];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < inherited.length || j < routes.size()) {
+                if (j >= routes.size() || (i < inherited.length && inherited[i] < routes.get(j))) {
+                    candidates[k++] = inherited[i++];
+                } else {
+                    candidates[k++] = routes.get(j++);
+                }
+            }
+            for (Node child : children.values()) {
+                child.compile(candidates);
+            }
+        }
+    }
+}
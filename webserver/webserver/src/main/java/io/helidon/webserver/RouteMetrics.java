@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+/**
+ * Records request rate, errors and duration (RED metrics) of each route, see
+ * {@link Routing.Builder#routeMetrics(RouteMetrics)}.
+ * <p>
+ * A {@link Recorder} is created for each route when the {@link Routing} is built, identified by the route template
+ * (the path patterns of the route and of all the services which registered it, such as {@code /greet/{name}}),
+ * not by the requested path. Request processing then only updates the recorder, it never looks up metrics.
+ * <p>
+ * A request is attributed to the last route which received it, that is usually the route which sent the response.
+ * Requests passed by all routes are attributed to the {@link #UNMATCHED_ROUTE}.
+ */
+@FunctionalInterface
+public interface RouteMetrics {
+
+    /**
+     * Route template of requests which were passed by all routes, usually answered with {@code 404 Not Found}.
+     */
+    String UNMATCHED_ROUTE = "unmatched";
+
+    /**
+     * Method name of routes which accept any HTTP method.
+     */
+    String ANY_METHOD = "*";
+
+    /**
+     * Creates a recorder of a single route. Called once for each route when the routing is built.
+     *
+     * @param method   HTTP method(s) accepted by the route, {@link #ANY_METHOD} if it accepts all of them, comma separated
+     *                 if it accepts more of them
+     * @param route    route template, or {@link #UNMATCHED_ROUTE}
+     * @return a recorder of the route
+     */
+    Recorder recorder(String method, String route);
+
+    /**
+     * Records requests of a single route. Methods are called by the server while requests are processed, possibly
+     * concurrently, and must not block.
+     */
+    interface Recorder {
+
+        /**
+         * A request reached this route. Requests between {@link #enter()} and {@link #exit()} are in flight.
+         */
+        void enter();
+
+        /**
+         * A request reached by {@link #enter()} was passed to a next route by {@link ServerRequest#next()}, or its
+         * response was completed.
+         */
+        void exit();
+
+        /**
+         * The response of a request which reached this route last was completed, always after {@link #exit()}.
+         *
+         * @param statusCode    status code of the response, {@code 0} if no status was sent
+         * @param failed        whether the response failed, such as when the connection was closed
+         * @param durationNanos time since the request was routed
+         */
+        void complete(int statusCode, boolean failed, long durationNanos);
+    }
+}
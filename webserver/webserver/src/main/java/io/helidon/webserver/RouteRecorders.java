@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import io.helidon.common.http.Http;
+
+/**
+ * {@link RouteMetrics.Recorder Recorders} of all routes of a {@link RouteList}, created when the routing is built.
+ */
+final class RouteRecorders {
+
+    private final Map<HandlerRoute, RouteMetrics.Recorder> recorders = new IdentityHashMap<>();
+    private final RouteMetrics.Recorder unmatched;
+
+    private RouteRecorders(RouteMetrics routeMetrics, RouteList routes) {
+        this.unmatched = routeMetrics.recorder(RouteMetrics.ANY_METHOD, RouteMetrics.UNMATCHED_ROUTE);
+        for (Map.Entry<HandlerRoute, String> entry : templates(routes).entrySet()) {
+            HandlerRoute route = entry.getKey();
+            recorders.put(route, routeMetrics.recorder(method(route.acceptedMethods()), entry.getValue()));
+        }
+    }
+
+    /**
+     * Creates recorders of all routes.
+     *
+     * @param routeMetrics factory of the recorders
+     * @param routes       routes of the routing
+     * @return recorders of the routes
+     */
+    static RouteRecorders create(RouteMetrics routeMetrics, RouteList routes) {
+        return new RouteRecorders(routeMetrics, routes);
+    }
+
+    /**
+     * Returns a recorder of a route.
+     *
+     * @param route a route of the routing
+     * @return the recorder, never {@code null}
+     */
+    RouteMetrics.Recorder recorder(HandlerRoute route) {
+        RouteMetrics.Recorder recorder = recorders.get(route);
+        return (recorder == null) ? unmatched : recorder;
+    }
+
+    /**
+     * Recorder of requests which did not reach any route.
+     *
+     * @return the recorder of {@link RouteMetrics#UNMATCHED_ROUTE}
+     */
+    RouteMetrics.Recorder unmatched() {
+        return unmatched;
+    }
+
+    /**
+     * Route templates of all handler routes of a route list, including the path context of the enclosing route lists.
+     *
+     * @param routes routes of the routing
+     * @return templates of the handler routes in the order of the routes
+     */
+    static Map<HandlerRoute, String> templates(RouteList routes) {
+        Map<HandlerRoute, String> result = new LinkedHashMap<>();
+        addTemplates(result, routes, "");
+        return result;
+    }
+
+    private static void addTemplates(Map<HandlerRoute, String> templates, RouteList routes, String prefix) {
+        for (Route route : routes) {
+            if (route instanceof HandlerRoute) {
+                HandlerRoute handlerRoute = (HandlerRoute) route;
+                String template = template(prefix, handlerRoute.pathMatcher());
+                templates.put(handlerRoute, template.isEmpty() ? "/" : template);
+            } else if (route instanceof RouteList) {
+                RouteList routeList = (RouteList) route;
+                addTemplates(templates, routeList, template(prefix, routeList.pathContext()));
+            }
+        }
+    }
+
+    /**
+     * Appends the pattern of a path matcher to the template of the enclosing route lists.
+     *
+     * @param prefix  template of the enclosing route lists, empty for the root
+     * @param matcher path matcher of a route, may be {@code null}
+     * @return template of the route without a trailing slash, empty for the root
+     */
+    static String template(String prefix, PathMatcher matcher) {
+        String pattern;
+        if (matcher == null || matcher == Route.EMPTY_PATH_MATCHER) {
+            return prefix;
+        } else if (matcher instanceof PathPattern.CompiledMatcher) {
+            pattern = ((PathPattern.CompiledMatcher) matcher).pattern();
+        } else {
+            // custom matchers cannot be described, keep the series bounded
+            pattern = "/*";
+        }
+        if (pattern.endsWith("/")) {
+            pattern = pattern.substring(0, pattern.length() - 1);
+        }
+        if (pattern.isEmpty()) {
+            return prefix;
+        }
+        return pattern.charAt(0) == '/' ? prefix + pattern : prefix + '/' + pattern;
+    }
+
+    private static String method(Set<Http.RequestMethod> methods) {
+        if (methods == null || methods.isEmpty()) {
+            return RouteMetrics.ANY_METHOD;
+        }
+        Set<String> names = new TreeSet<>();
+        for (Http.RequestMethod method : methods) {
+            names.add(method.name());
+        }
+        return String.join(",", names);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -402,6 +402,8 @@ public interface Routing {
         private final RouteListRoutingRules delegate = new RouteListRoutingRules();
         private final List<RequestRouting.ErrorHandlerRecord<?>> errorHandlerRecords = new ArrayList<>();
         private boolean tracingRegistered;
+        private boolean compiledRouting;
+        private RouteMetrics routeMetrics;
 
         /**
          * Creates new instance.
@@ -632,6 +634,38 @@ public interface Routing {
             return this;
         }
 
+        // --------------- ROUTING ENGINE API
+
+        /**
+         * Whether to compile routing rules into an index when the routing is built.
+         * <p>
+         * Compiled routing pre-computes a tree of literal path segments for each HTTP method and only evaluates
+         * routes which can accept the request. The order of routes and the semantics of {@link ServerRequest#next()}
+         * are the same. It is beneficial for routings with many routes. Default is {@code false}.
+         *
+         * @param compiledRouting whether to compile routing rules
+         * @return an updated builder
+         */
+        public Builder compiledRouting(boolean compiledRouting) {
+            this.compiledRouting = compiledRouting;
+            return this;
+        }
+
+        /**
+         * Records request rate, errors and duration of each route.
+         * <p>
+         * A {@link RouteMetrics.Recorder recorder} is created for each route when the routing is built, the route
+         * is identified by its path pattern. The response of each request is recorded once completed, using the recorder
+         * of the last route which received the request. Metrics are not recorded by default.
+         *
+         * @param routeMetrics factory of route recorders, such as provided by the metrics support
+         * @return an updated builder
+         */
+        public Builder routeMetrics(RouteMetrics routeMetrics) {
+            this.routeMetrics = routeMetrics;
+            return this;
+        }
+
         // --------------- BUILD API
 
         /**
@@ -644,7 +678,12 @@ public interface Routing {
                 register(WebTracingConfig.create());
             }
             RouteListRoutingRules.Aggregation aggregate = delegate.aggregate();
-            return new RequestRouting(aggregate.routeList(), errorHandlerRecords, aggregate.newWebServerCallbacks());
+            RouteList routeList = aggregate.routeList();
+            return new RequestRouting(routeList,
+                                      compiledRouting ? RouteIndex.create(routeList) : null,
+                                      (routeMetrics == null) ? null : RouteRecorders.create(routeMetrics, routeList),
+                                      errorHandlerRecords,
+                                      aggregate.newWebServerCallbacks());
         }
 
         /**
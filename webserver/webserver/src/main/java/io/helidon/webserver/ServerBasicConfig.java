@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,6 +39,9 @@ class ServerBasicConfig implements ServerConfiguration {
     private final Map<String, SocketConfiguration> socketConfigs;
     private final ExperimentalConfiguration experimental;
     private final ContextualRegistry context;
+    private final Transport transport;
+    private final CompressionConfiguration compression;
+    private final int eventLoopWatchdogMillis;
 
     /**
      * Creates new instance.
@@ -51,6 +54,9 @@ class ServerBasicConfig implements ServerConfiguration {
         this.tracer = builder.tracer();
         this.experimental = builder.experimental();
         this.context = builder.context();
+        this.transport = builder.transport();
+        this.compression = builder.compression();
+        this.eventLoopWatchdogMillis = builder.eventLoopWatchdogMillis();
 
         HashMap<String, SocketConfiguration> map = new HashMap<>(builder.sockets());
         map.put(ServerConfiguration.DEFAULT_SOCKET_NAME, this.socketConfig);
@@ -97,6 +103,11 @@ class ServerBasicConfig implements ServerConfiguration {
         return socketConfig.receiveBufferSize();
     }
 
+    @Override
+    public boolean reusePort() {
+        return socketConfig.reusePort();
+    }
+
     @Override
     public Tracer tracer() {
         return tracer;
@@ -117,6 +128,21 @@ class ServerBasicConfig implements ServerConfiguration {
         return context;
     }
 
+    @Override
+    public Transport transport() {
+        return transport;
+    }
+
+    @Override
+    public CompressionConfiguration compression() {
+        return compression;
+    }
+
+    @Override
+    public int eventLoopWatchdogMillis() {
+        return eventLoopWatchdogMillis;
+    }
+
     static class SocketConfig implements SocketConfiguration {
 
         private final int port;
@@ -126,6 +152,7 @@ class ServerBasicConfig implements ServerConfiguration {
         private final int receiveBufferSize;
         private final SSLContext sslContext;
         private final Set<String> enabledSslProtocols;
+        private final boolean reusePort;
 
         /**
          * Creates new instance.
@@ -136,6 +163,7 @@ class ServerBasicConfig implements ServerConfiguration {
          * @param backlog           a maximum length of the queue of incoming connections
          * @param timeoutMillis     a socket timeout in milliseconds or {@code 0} for infinite
          * @param receiveBufferSize proposed TCP receive window size in bytes
+         * @param reusePort         whether to enable {@code SO_REUSEPORT} on the server socket
          */
         SocketConfig(int port,
                      InetAddress bindAddress,
@@ -143,7 +171,8 @@ class ServerBasicConfig implements ServerConfiguration {
                      Set<String> sslProtocols,
                      int backlog,
                      int timeoutMillis,
-                     int receiveBufferSize) {
+                     int receiveBufferSize,
+                     boolean reusePort) {
             this.port = port <= 0 ? 0 : port;
             this.bindAddress = bindAddress;
             this.backlog = backlog <= 0 ? DEFAULT_BACKLOG_SIZE : backlog;
@@ -151,13 +180,14 @@ class ServerBasicConfig implements ServerConfiguration {
             this.receiveBufferSize = receiveBufferSize <= 0 ? 0 : receiveBufferSize;
             this.sslContext = sslContext;
             this.enabledSslProtocols = sslProtocols;
+            this.reusePort = reusePort;
         }
 
         /**
          * Creates default values instance.
          */
         SocketConfig() {
-            this(0, null, null, null, 0, 0, 0);
+            this(0, null, null, null, 0, 0, 0, false);
         }
 
         @Override
@@ -194,5 +224,10 @@ class ServerBasicConfig implements ServerConfiguration {
         public Set<String> enabledSslProtocols() {
             return enabledSslProtocols;
         }
+
+        @Override
+        public boolean reusePort() {
+            return reusePort;
+        }
     }
 }
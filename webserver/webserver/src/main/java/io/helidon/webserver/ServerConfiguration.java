@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -181,6 +181,42 @@ public interface ServerConfiguration extends SocketConfiguration {
      */
     ExperimentalConfiguration experimental();
 
+    /**
+     * Returns the requested network transport. The transport actually used by a running server may differ
+     * if a native transport is not available, see {@link Transport}.
+     * <p>
+     * Default value is {@link Transport#AUTO}.
+     *
+     * @return requested transport
+     */
+    default Transport transport() {
+        return Transport.AUTO;
+    }
+
+    /**
+     * Returns the configuration of on-the-fly response compression of HTTP/1.1 connections.
+     * <p>
+     * Compression is disabled by default.
+     *
+     * @return compression configuration
+     */
+    default CompressionConfiguration compression() {
+        return CompressionConfiguration.builder().build();
+    }
+
+    /**
+     * Returns the threshold of the event loop watchdog, a debugging aid reporting {@link EventLoopSafe} routes
+     * which block the event loop thread for longer than the threshold, together with the stack trace of the
+     * blocked thread.
+     * <p>
+     * Default value is {@code 0}, which disables the watchdog.
+     *
+     * @return watchdog threshold in milliseconds or {@code 0} if disabled
+     */
+    default int eventLoopWatchdogMillis() {
+        return 0;
+    }
+
     /**
      * Checks if HTTP/2 is enabled in config.
      *
@@ -231,6 +267,9 @@ public interface ServerConfiguration extends SocketConfiguration {
         private Tracer tracer;
         private ExperimentalConfiguration experimental;
         private ContextualRegistry context;
+        private Transport transport = Transport.AUTO;
+        private CompressionConfiguration compression;
+        private int eventLoopWatchdogMillis;
 
         private Builder() {
         }
@@ -323,6 +362,20 @@ public interface ServerConfiguration extends SocketConfiguration {
             return this;
         }
 
+        /**
+         * Enables {@code SO_REUSEPORT} on the default server socket, binding one acceptor channel per available
+         * processor to the port. Supported only by native transports.
+         * <p>
+         * Configuration key: {@code reuse-port}
+         *
+         * @param reusePort whether to enable {@code SO_REUSEPORT}
+         * @return an updated builder
+         */
+        public Builder reusePort(boolean reusePort) {
+            this.defaultSocketBuilder.reusePort(reusePort);
+            return this;
+        }
+
         /**
          * Adds an additional named server socket configuration. As a result, the server will listen
          * on multiple ports.
@@ -391,6 +444,67 @@ public interface ServerConfiguration extends SocketConfiguration {
             return this;
         }
 
+        /**
+         * Sets a network transport used for server sockets and event loops.
+         * Default value is {@link Transport#AUTO}.
+         * <p>
+         * If a native transport is requested but not available, the server falls back to {@link Transport#NIO}.
+         * <p>
+         * Configuration key: {@code transport}
+         *
+         * @param transport a transport to use
+         * @return an updated builder
+         */
+        public Builder transport(Transport transport) {
+            this.transport = Objects.requireNonNull(transport, "Parameter 'transport' must not be null!");
+            return this;
+        }
+
+        /**
+         * Enables the event loop watchdog, which reports {@link EventLoopSafe} routes blocking the event loop thread
+         * for longer than provided threshold. Intended for development, as stack traces of blocked threads
+         * are periodically sampled.
+         * <p>
+         * Default value is {@code 0}, which disables the watchdog.
+         * <p>
+         * Configuration key: {@code event-loop-watchdog-millis}
+         *
+         * @param thresholdMillis watchdog threshold in milliseconds, {@code 0} to disable the watchdog
+         * @return an updated builder
+         */
+        public Builder eventLoopWatchdogMillis(int thresholdMillis) {
+            if (thresholdMillis < 0) {
+                throw new IllegalArgumentException("Watchdog threshold must not be negative: " + thresholdMillis);
+            }
+            this.eventLoopWatchdogMillis = thresholdMillis;
+            return this;
+        }
+
+        /**
+         * Configures on-the-fly compression of responses of HTTP/1.1 connections.
+         * Compression is disabled by default.
+         * <p>
+         * Configuration key: {@code compression}
+         *
+         * @param compression compression configuration
+         * @return an updated builder
+         */
+        public Builder compression(CompressionConfiguration compression) {
+            this.compression = Objects.requireNonNull(compression, "Parameter 'compression' must not be null!");
+            return this;
+        }
+
+        /**
+         * Configures on-the-fly compression of responses of HTTP/1.1 connections.
+         *
+         * @param compressionBuilder a compression configuration builder; will be built as a first step of this
+         *                           method execution
+         * @return an updated builder
+         */
+        public Builder compression(Supplier<CompressionConfiguration> compressionBuilder) {
+            return compression(compressionBuilder.get());
+        }
+
         /**
          * Sets an <a href="http://opentracing.io">opentracing.io</a> tracer. (Default is {@link GlobalTracer}.)
          *
@@ -485,6 +599,13 @@ public interface ServerConfiguration extends SocketConfiguration {
             configureSocket(config, defaultSocketBuilder);
 
             config.get("workers").asInt().ifPresent(this::workersCount);
+            config.get("transport").asString().map(Transport::parse).ifPresent(this::transport);
+            config.get("event-loop-watchdog-millis").asInt().ifPresent(this::eventLoopWatchdogMillis);
+
+            Config compressionConfig = config.get("compression");
+            if (compressionConfig.exists()) {
+                compression(CompressionConfiguration.create(compressionConfig));
+            }
 
             // sockets
             Config socketsConfig = config.get("sockets");
@@ -522,6 +643,7 @@ public interface ServerConfiguration extends SocketConfiguration {
             config.get("backlog").asInt().ifPresent(soConfigBuilder::backlog);
             config.get("timeout").asInt().ifPresent(soConfigBuilder::timeoutMillis);
             config.get("receive-buffer").asInt().ifPresent(soConfigBuilder::receiveBufferSize);
+            config.get("reuse-port").asBoolean().ifPresent(soConfigBuilder::reusePort);
             config.get("ssl-protocols").asList(String.class).ifPresent(soConfigBuilder::enabledSSlProtocols);
 
             // ssl
@@ -571,6 +693,10 @@ public interface ServerConfiguration extends SocketConfiguration {
                 experimental = ExperimentalConfiguration.builder().build();
             }
 
+            if (null == compression) {
+                compression = CompressionConfiguration.builder().build();
+            }
+
             return new ServerBasicConfig(this);
         }
 
@@ -597,5 +723,17 @@ public interface ServerConfiguration extends SocketConfiguration {
         ContextualRegistry context() {
             return context;
         }
+
+        Transport transport() {
+            return transport;
+        }
+
+        CompressionConfiguration compression() {
+            return compression;
+        }
+
+        int eventLoopWatchdogMillis() {
+            return eventLoopWatchdogMillis;
+        }
     }
 }
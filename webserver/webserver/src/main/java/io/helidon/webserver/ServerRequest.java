@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -149,4 +149,14 @@ public interface ServerRequest extends HttpRequest {
      * @return the tracer associated, or {@link io.opentracing.util.GlobalTracer#get()}
      */
     Tracer tracer();
+
+    /**
+     * Whether the currently executed route is {@link EventLoopSafe}. Integrations which usually offload request
+     * processing to a worker pool may process such requests on the calling thread instead.
+     *
+     * @return {@code true} if the route never blocks
+     */
+    default boolean isEventLoopSafe() {
+        return false;
+    }
 }
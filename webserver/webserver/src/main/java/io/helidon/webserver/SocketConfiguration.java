@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -97,6 +97,19 @@ public interface SocketConfiguration {
      */
     Set<String> enabledSslProtocols();
 
+    /**
+     * Returns whether {@code SO_REUSEPORT} is enabled on the server socket. The server then binds one acceptor
+     * channel per available processor to the port, each with its own acceptor thread, and the kernel balances
+     * incoming connections among them. Other servers (or processes) may bind the same port as well.
+     * <p>
+     * Supported only by native transports, ignored with {@link Transport#NIO}.
+     *
+     * @return whether {@code SO_REUSEPORT} is enabled
+     */
+    default boolean reusePort() {
+        return false;
+    }
+
     /**
      * Creates a builder of {@link SocketConfiguration} class.
      *
@@ -116,6 +129,7 @@ public interface SocketConfiguration {
         private int backlog = 0;
         private int timeoutMillis = 0;
         private int receiveBufferSize = 0;
+        private boolean reusePort = false;
 
         private Builder() {
         }
@@ -183,6 +197,21 @@ public interface SocketConfiguration {
             return this;
         }
 
+        /**
+         * Configures whether to enable {@code SO_REUSEPORT} on the server socket. The server then binds one acceptor
+         * channel per available processor to the port, each with its own acceptor thread, and the kernel balances
+         * incoming connections among them. Other servers (or processes) may bind the same port as well.
+         * <p>
+         * Supported only by native transports, ignored with {@link Transport#NIO}.
+         *
+         * @param reusePort whether to enable {@code SO_REUSEPORT}
+         * @return this builder
+         */
+        public Builder reusePort(boolean reusePort) {
+            this.reusePort = reusePort;
+            return this;
+        }
+
         /**
          * Configures a {@link SSLContext} to use with the server socket. If not {@code null} then
          * the server enforces an SSL communication.
@@ -235,7 +264,7 @@ public interface SocketConfiguration {
         public SocketConfiguration build() {
             return new ServerBasicConfig.SocketConfig(port, bindAddress,
                     sslContext, enabledSslProtocols, backlog, timeoutMillis,
-                    receiveBufferSize);
+                    receiveBufferSize, reusePort);
         }
     }
 }
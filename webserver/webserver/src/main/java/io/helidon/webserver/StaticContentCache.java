@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Bounded in-memory cache of small static content.
+ * <p>
+ * Entries are evicted in the least recently used order once the total size of cached content (including
+ * compressed variants) exceeds the configured limit. The content is kept in direct memory, so it can be written
+ * to the channel without copying.
+ */
+final class StaticContentCache {
+
+    /**
+     * Compressed variants are kept only if they save at least this ratio of the original size.
+     */
+    private static final double MIN_COMPRESSION_RATIO = 0.9;
+
+    private final long maxSize;
+    private final int maxEntrySize;
+    private final LinkedHashMap<String, CachedContent> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    private StaticContentCache(long maxSize, int maxEntrySize) {
+        this.maxSize = maxSize;
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize      maximal total size of cached content in bytes
+     * @param maxEntrySize maximal size of a single cached resource in bytes
+     * @return a new cache
+     */
+    static StaticContentCache create(long maxSize, int maxEntrySize) {
+        return new StaticContentCache(maxSize, maxEntrySize);
+    }
+
+    /**
+     * Whether a resource of provided size may be cached.
+     *
+     * @param contentSize size of the resource in bytes
+     * @return {@code true} if the resource is small enough
+     */
+    boolean accepts(long contentSize) {
+        return contentSize >= 0 && contentSize <= maxEntrySize && contentSize <= maxSize;
+    }
+
+    synchronized CachedContent get(String key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(String key, CachedContent content) {
+        CachedContent previous = entries.put(key, content);
+        if (previous != null) {
+            size -= previous.size();
+        }
+        size += content.size();
+        Iterator<CachedContent> it = entries.values().iterator();
+        while (size > maxSize && it.hasNext()) {
+            CachedContent eldest = it.next();
+            if (eldest != content) {
+                size -= eldest.size();
+                it.remove();
+            }
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    synchronized long size() {
+        return size;
+    }
+
+    synchronized int entryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Cached resource with its precomputed validators and compressed variants.
+     */
+    static final class CachedContent {
+        private final ByteBuf content;
+        private final ByteBuf gzip;
+        private final ByteBuf brotli;
+        private final Instant lastModified;
+        private final long validationSize;
+        private final String siblingsValidator;
+
+        private CachedContent(ByteBuf content,
+                              ByteBuf gzip,
+                              ByteBuf brotli,
+                              Instant lastModified,
+                              long validationSize,
+                              String siblingsValidator) {
+            this.content = content;
+            this.gzip = gzip;
+            this.brotli = brotli;
+            this.lastModified = lastModified;
+            this.validationSize = validationSize;
+            this.siblingsValidator = siblingsValidator;
+        }
+
+        /**
+         * Creates cached content. A gzip variant is computed; a brotli variant is only used if provided
+         * (e.g. from a precompressed file).
+         *
+         * @param bytes        content
+         * @param brotliBytes  brotli compressed content or {@code null}
+         * @param lastModified last modification time, used for validation of the entry and for caching headers,
+         *                     may be {@code null}
+         * @return new cached content
+         */
+        static CachedContent create(byte[] bytes, byte[] brotliBytes, Instant lastModified) {
+            return create(bytes, null, brotliBytes, lastModified);
+        }
+
+        /**
+         * Creates cached content. A gzip variant is computed unless provided (e.g. from a precompressed file);
+         * a brotli variant is only used if provided.
+         *
+         * @param bytes        content
+         * @param gzipBytes    gzip compressed content or {@code null} to compute it
+         * @param brotliBytes  brotli compressed content or {@code null}
+         * @param lastModified last modification time, used for validation of the entry and for caching headers,
+         *                     may be {@code null}
+         * @return new cached content
+         */
+        static CachedContent create(byte[] bytes, byte[] gzipBytes, byte[] brotliBytes, Instant lastModified) {
+            return create(bytes, gzipBytes, brotliBytes, lastModified, null);
+        }
+
+        /**
+         * Creates cached content of a resource with precompressed siblings, which are validated as well.
+         *
+         * @param bytes             content
+         * @param gzipBytes         gzip compressed content or {@code null} to compute it
+         * @param brotliBytes       brotli compressed content or {@code null}
+         * @param lastModified      last modification time, used for validation of the entry and for caching headers,
+         *                          may be {@code null}
+         * @param siblingsValidator validator of the precompressed siblings the variants were read from,
+         *                          may be {@code null}
+         * @return new cached content
+         * @see #isValid(Instant, long, String)
+         */
+        static CachedContent create(byte[] bytes,
+                                    byte[] gzipBytes,
+                                    byte[] brotliBytes,
+                                    Instant lastModified,
+                                    String siblingsValidator) {
+            if (gzipBytes == null) {
+                gzipBytes = gzip(bytes);
+            }
+            return new CachedContent(directBuffer(bytes),
+                                     worthIt(gzipBytes, bytes) ? directBuffer(gzipBytes) : null,
+                                     worthIt(brotliBytes, bytes) ? directBuffer(brotliBytes) : null,
+                                     lastModified,
+                                     bytes.length,
+                                     siblingsValidator);
+        }
+
+        private static boolean worthIt(byte[] compressed, byte[] original) {
+            return compressed != null && compressed.length <= original.length * MIN_COMPRESSION_RATIO;
+        }
+
+        private static byte[] gzip(byte[] bytes) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length / 2 + 32);
+            try (GZIPOutputStream gzipStream = new GZIPOutputStream(baos)) {
+                gzipStream.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return baos.toByteArray();
+        }
+
+        private static ByteBuf directBuffer(byte[] bytes) {
+            // JDK direct buffers are freed by GC once evicted; never released explicitly, as they are shared
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes).flip();
+            return Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(buffer));
+        }
+
+        /**
+         * Whether the cached content still represents the resource.
+         *
+         * @param lastModified current modification time of the resource
+         * @param size         current size of the resource
+         * @return {@code true} if the entry is valid
+         */
+        boolean isValid(Instant lastModified, long size) {
+            return size == validationSize && (lastModified == null || lastModified.equals(this.lastModified));
+        }
+
+        /**
+         * Whether the cached content still represents the resource and its precompressed siblings.
+         *
+         * @param lastModified      current modification time of the resource
+         * @param size              current size of the resource
+         * @param siblingsValidator current validator of the precompressed siblings, {@code null} if not used
+         * @return {@code true} if the entry is valid
+         */
+        boolean isValid(Instant lastModified, long size, String siblingsValidator) {
+            return isValid(lastModified, size) && Objects.equals(siblingsValidator, this.siblingsValidator);
+        }
+
+        Instant lastModified() {
+            return lastModified;
+        }
+
+        long size() {
+            return content.readableBytes()
+                    + ((gzip == null) ? 0 : gzip.readableBytes())
+                    + ((brotli == null) ? 0 : brotli.readableBytes());
+        }
+
+        boolean hasVariants() {
+            return gzip != null || brotli != null;
+        }
+
+        /**
+         * Selects the best content encoding accepted by the client. Brotli is preferred to gzip.
+         *
+         * @param acceptEncoding values of the {@code Accept-Encoding} header
+         * @return the content encoding or {@code null} for identity
+         */
+        String selectEncoding(List<String> acceptEncoding) {
+            return StaticContentHandler.selectEncoding(acceptEncoding, brotli != null, gzip != null);
+        }
+
+        /**
+         * Content encoded with the provided encoding.
+         *
+         * @param encoding content encoding returned by {@link #selectEncoding(List)}
+         * @return a new, unreleasable, view of the content
+         */
+        ByteBuf content(String encoding) {
+            ByteBuf variant;
+            if (encoding == null) {
+                variant = content;
+            } else if (StaticContentHandler.BROTLI.equals(encoding)) {
+                variant = brotli;
+            } else {
+                variant = gzip;
+            }
+            return variant.duplicate();
+        }
+
+        /**
+         * Entity tag of the content encoded with the provided encoding. Each representation must have
+         * a different strong entity tag.
+         *
+         * @param encoding content encoding returned by {@link #selectEncoding(List)}
+         * @return the entity tag or {@code null} if not known
+         */
+        String etag(String encoding) {
+            return (lastModified == null) ? null : StaticContentHandler.etag(lastModified, encoding);
+        }
+    }
+}
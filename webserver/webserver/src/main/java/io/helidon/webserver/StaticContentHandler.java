@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,19 +21,31 @@ import java.net.URISyntaxException;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.chrono.ChronoZonedDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
+import io.helidon.common.http.DataChunk;
 import io.helidon.common.http.Http;
 import io.helidon.common.http.MediaType;
+import io.helidon.common.reactive.Single;
+
+import io.netty.buffer.ByteBuf;
 
 /**
  * Request {@link Handler} processing a static content.
  */
 abstract class StaticContentHandler {
 
+    static final String GZIP = "gzip";
+    static final String BROTLI = "br";
+
     private final String welcomeFilename;
     private final ContentTypeSelector contentTypeSelector;
+    private final StaticContentCache cache;
+    private final boolean precompressed;
 
     /**
      * Creates new instance.
@@ -42,14 +54,43 @@ abstract class StaticContentHandler {
      * @param contentTypeSelector a selector for content type
      */
     StaticContentHandler(String welcomeFilename, ContentTypeSelector contentTypeSelector) {
+        this(welcomeFilename, contentTypeSelector, null, false);
+    }
+
+    /**
+     * Creates new instance.
+     *
+     * @param welcomeFilename     a welcome filename
+     * @param contentTypeSelector a selector for content type
+     * @param cache               an in-memory cache of small resources or {@code null} if caching is disabled
+     * @param precompressed       whether to serve precompressed {@code .br} and {@code .gz} siblings of resources
+     */
+    StaticContentHandler(String welcomeFilename,
+                         ContentTypeSelector contentTypeSelector,
+                         StaticContentCache cache,
+                         boolean precompressed) {
         this.welcomeFilename = welcomeFilename;
         this.contentTypeSelector = contentTypeSelector;
+        this.cache = cache;
+        this.precompressed = precompressed;
     }
 
     /**
      * Should release cache (if any exists).
      */
     void releaseCache() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * In-memory cache of small resources.
+     *
+     * @return the cache or {@code null} if caching is disabled
+     */
+    StaticContentCache cache() {
+        return cache;
     }
 
     /**
@@ -92,6 +133,15 @@ abstract class StaticContentHandler {
         return contentTypeSelector;
     }
 
+    /**
+     * Whether precompressed siblings of resources are served to clients accepting their encoding.
+     *
+     * @return {@code true} if precompressed content is enabled
+     */
+    boolean precompressed() {
+        return precompressed;
+    }
+
     /**
      * Do handle for GET and HEAD HTTP methods.
      *
@@ -191,6 +241,115 @@ abstract class StaticContentHandler {
         }
     }
 
+    /**
+     * Sends a cached resource. Selects a compressed variant accepted by the client, processes caching headers
+     * and writes the cached content without copying.
+     *
+     * @param method   GET or HEAD HTTP method
+     * @param content  the cached resource
+     * @param filename a filename used to determine the content type
+     * @param request  an HTTP request
+     * @param response an HTTP response
+     * @param contentTypeSelector selector of content types
+     * @throws HttpException if (un)modify since or ETag header is checked
+     */
+    static void sendCached(Http.RequestMethod method,
+                           StaticContentCache.CachedContent content,
+                           String filename,
+                           ServerRequest request,
+                           ServerResponse response,
+                           ContentTypeSelector contentTypeSelector) {
+        String encoding = content.selectEncoding(request.headers().values(Http.Header.ACCEPT_ENCODING));
+        if (content.hasVariants()) {
+            response.headers().add(Http.Header.VARY, Http.Header.ACCEPT_ENCODING);
+        }
+        processEtag(content.etag(encoding), request.headers(), response.headers());
+        processModifyHeaders(content.lastModified(), request.headers(), response.headers());
+        processContentType(filename, request.headers(), response.headers(), contentTypeSelector);
+
+        ByteBuf byteBuf = content.content(encoding);
+        if (encoding != null) {
+            response.headers().put(Http.Header.CONTENT_ENCODING, encoding);
+        }
+        response.headers().contentLength(byteBuf.readableBytes());
+        if (method == Http.Method.HEAD) {
+            response.send();
+        } else {
+            response.send(Single.<DataChunk>just(ByteBufDataChunk.create(byteBuf, false)));
+        }
+    }
+
+    /**
+     * Selects the best content encoding accepted by the client out of the available ones. Brotli is preferred to gzip.
+     *
+     * @param acceptEncoding values of the {@code Accept-Encoding} header
+     * @param brotli         whether a brotli variant is available
+     * @param gzip           whether a gzip variant is available
+     * @return the content encoding or {@code null} for identity
+     */
+    static String selectEncoding(List<String> acceptEncoding, boolean brotli, boolean gzip) {
+        if (!(brotli || gzip) || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        Map<String, Boolean> accepted = parseAcceptEncoding(acceptEncoding);
+        if (brotli && accepted.getOrDefault(BROTLI, accepted.getOrDefault("*", false))) {
+            return BROTLI;
+        }
+        if (gzip && accepted.getOrDefault(GZIP, accepted.getOrDefault("*", false))) {
+            return GZIP;
+        }
+        return null;
+    }
+
+    private static Map<String, Boolean> parseAcceptEncoding(List<String> acceptEncoding) {
+        Map<String, Boolean> result = new HashMap<>();
+        for (String value : acceptEncoding) {
+            for (String token : value.split(",")) {
+                String[] parts = token.split(";");
+                String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+                if (coding.isEmpty()) {
+                    continue;
+                }
+                boolean acceptable = true;
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=")) {
+                        try {
+                            acceptable = Double.parseDouble(param.substring(2)) > 0;
+                        } catch (NumberFormatException e) {
+                            acceptable = false;
+                        }
+                    }
+                }
+                result.put(coding, acceptable);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Entity tag of a resource. Each encoding of the resource must have a different strong entity tag.
+     *
+     * @param lastModified last modification time of the resource
+     * @param encoding     content encoding or {@code null} for identity
+     * @return the entity tag
+     */
+    static String etag(Instant lastModified, String encoding) {
+        String etag = String.valueOf(lastModified.toEpochMilli());
+        return (encoding == null) ? etag : etag + "-" + encoding;
+    }
+
+    /**
+     * Name of a precompressed sibling of a resource.
+     *
+     * @param name     name of the resource
+     * @param encoding {@link #GZIP} or {@link #BROTLI}
+     * @return name of the precompressed resource
+     */
+    static String precompressedName(String name, String encoding) {
+        return name + (BROTLI.equals(encoding) ? ".br" : ".gz");
+    }
+
     /**
      * If provided {@code condition} is {@code true} then throws not found {@link HttpException}.
      *
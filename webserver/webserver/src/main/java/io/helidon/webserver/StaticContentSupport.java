@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -160,12 +160,20 @@ public class StaticContentSupport implements Service {
      */
     public static class Builder implements io.helidon.common.Builder<StaticContentSupport> {
 
+        /**
+         * Default maximal size of a single cached resource.
+         */
+        public static final int DEFAULT_CACHE_MAX_ENTRY_SIZE = 64 * 1024;
+
         private final Path fsRoot;
         private final String clRoot;
         private final ClassLoader classLoader;
 
         private final Map<String, MediaType> specificContentTypes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
         private String welcomeFileName;
+        private long cacheSize;
+        private int cacheMaxEntrySize = DEFAULT_CACHE_MAX_ENTRY_SIZE;
+        private boolean precompressed;
 
         Builder(Path fsRoot) {
             Objects.requireNonNull(fsRoot, "Attribute fsRoot is null!");
@@ -218,6 +226,55 @@ public class StaticContentSupport implements Service {
             return this;
         }
 
+        /**
+         * Enables an in-memory cache of small resources and sets its maximal total size in bytes, including
+         * compressed variants. Cached resources have precomputed {@code ETag} and {@code Last-Modified} values
+         * and a gzip variant served to clients accepting it. With {@link #precompressed(boolean)} enabled,
+         * a precompressed {@code .gz} resource is used instead of compressing and a {@code .br} resource adds
+         * a brotli variant. Files (and their precompressed siblings) are validated against their modification time
+         * and size on each request.
+         * <p>
+         * Default value is {@code 0}, which disables the cache.
+         *
+         * @param bytes maximal total size of cached content in bytes
+         * @return updated builder
+         * @see #cacheMaxEntrySize(int)
+         */
+        public Builder cacheSize(long bytes) {
+            this.cacheSize = bytes;
+            return this;
+        }
+
+        /**
+         * Sets maximal size of a single resource to be cached. Larger resources are always served from their source.
+         * <p>
+         * Default value is {@link #DEFAULT_CACHE_MAX_ENTRY_SIZE}.
+         *
+         * @param bytes maximal size of a cached resource in bytes
+         * @return updated builder
+         * @see #cacheSize(long)
+         */
+        public Builder cacheMaxEntrySize(int bytes) {
+            this.cacheMaxEntrySize = bytes;
+            return this;
+        }
+
+        /**
+         * Serves precompressed siblings of resources, such as {@code app.js.br} and {@code app.js.gz} for
+         * {@code app.js}, to clients accepting their content encoding, so static content does not have to be
+         * compressed when requested. Brotli is preferred to gzip. Sibling lookups for class path resources are
+         * cached, as jar files do not change.
+         * <p>
+         * Default value is {@code false}.
+         *
+         * @param precompressed whether to serve precompressed resources
+         * @return updated builder
+         */
+        public Builder precompressed(boolean precompressed) {
+            this.precompressed = precompressed;
+            return this;
+        }
+
         /**
          * Builds new {@link StaticContentSupport} instance.
          *
@@ -226,11 +283,14 @@ public class StaticContentSupport implements Service {
         @Override
         public StaticContentSupport build() {
             ContentTypeSelector selector = new ContentTypeSelector(specificContentTypes);
+            StaticContentCache cache = (cacheSize > 0 && cacheMaxEntrySize > 0)
+                    ? StaticContentCache.create(cacheSize, cacheMaxEntrySize)
+                    : null;
             StaticContentHandler handler;
             if (fsRoot != null) {
-                handler = FileSystemContentHandler.create(welcomeFileName, selector, fsRoot);
+                handler = FileSystemContentHandler.create(welcomeFileName, selector, fsRoot, cache, precompressed);
             } else if (clRoot != null) {
-                handler = ClassPathContentHandler.create(welcomeFileName, selector, clRoot, classLoader);
+                handler = ClassPathContentHandler.create(welcomeFileName, selector, clRoot, classLoader, cache, precompressed);
             } else {
                 throw new IllegalArgumentException("Builder was created without specified static content root!");
             }
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.Locale;
+
+/**
+ * Network transport used by the {@link WebServer} for its server sockets and event loops.
+ * <p>
+ * Native transports require the corresponding Netty native library on the classpath (for example
+ * {@code io.netty:netty-transport-native-epoll} with the {@code linux-x86_64} classifier). If a requested native
+ * transport is not available, the server falls back to {@link #NIO}. The transport actually in use is registered
+ * in the {@link WebServer#context() server context}.
+ */
+public enum Transport {
+    /**
+     * Use {@link #EPOLL} if available, {@link #NIO} otherwise.
+     */
+    AUTO,
+    /**
+     * Java NIO based transport, available on all platforms.
+     */
+    NIO,
+    /**
+     * Linux native epoll transport.
+     */
+    EPOLL,
+    /**
+     * Linux native io_uring transport (Netty incubator). Used only if explicitly requested.
+     */
+    IO_URING;
+
+    /**
+     * Parses a transport from its configuration value. The value is case insensitive and may use either
+     * a dash or an underscore as a word separator (e.g. {@code io_uring} or {@code io-uring}).
+     *
+     * @param value configuration value
+     * @return parsed transport
+     * @throws IllegalArgumentException if the value does not represent a known transport
+     */
+    public static Transport parse(String value) {
+        return Transport.valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
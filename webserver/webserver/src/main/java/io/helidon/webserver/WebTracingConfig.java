@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import io.helidon.common.context.Context;
@@ -34,6 +34,7 @@ import io.opentracing.Span;
 import io.opentracing.SpanContext;
 import io.opentracing.Tracer;
 import io.opentracing.noop.NoopSpanBuilder;
+import io.opentracing.noop.NoopTracer;
 import io.opentracing.propagation.Format;
 import io.opentracing.propagation.TextMapAdapter;
 import io.opentracing.tag.Tags;
@@ -43,6 +44,10 @@ import io.opentracing.util.GlobalTracer;
  * Tracing configuration for webserver.
  * Tracing configuration has two components - an overall (application wide) {@link io.helidon.tracing.config.TracingConfig}
  *  and a path specific {@link PathTracingConfig}.
+ * <p>
+ * Path specific configurations are compiled when {@link Routing} is built. Requests to paths that disable the
+ * {@code web-server} component (such as health checks or metrics scrapes) are not traced at all - the inbound span
+ * context is not extracted from headers, no span is created and no span context is propagated.
  */
 public abstract class WebTracingConfig {
     /**
@@ -113,23 +118,8 @@ public abstract class WebTracingConfig {
     }
 
     Service service() {
-        return rules -> {
-            pathConfigs().forEach(path -> {
-                List<Http.RequestMethod> methods = path.methods()
-                        .stream()
-                        .map(Http.RequestMethod::create)
-                        .collect(Collectors.toList());
-
-                TracingConfig wrappedPath = path.tracedConfig();
-                if (methods.isEmpty()) {
-                    rules.any(path.path(), new TracingConfigHandler(wrappedPath));
-                } else {
-                    rules.anyOf(methods, path.path(), new TracingConfigHandler(wrappedPath));
-                }
-            });
-            // and now register the tracing of requests
-            rules.any(new RequestSpanHandler());
-        };
+        // path configurations are compiled when routing is built, so requests do not pass through a handler per path
+        return rules -> rules.any(new RequestSpanHandler(envConfig(), pathConfigs()));
     }
 
     /**
@@ -202,44 +192,114 @@ public abstract class WebTracingConfig {
         }
     }
 
-    // this class exists so tracing of handler in webserver shows nice class name and not a lambda
-    private static final class TracingConfigHandler implements Handler {
-        private final TracingConfig pathSpecific;
-
-        private TracingConfigHandler(TracingConfig pathSpecific) {
-            this.pathSpecific = pathSpecific;
+    /**
+     * Path specific configuration compiled for matching of requests.
+     */
+    private static final class TracedPath {
+        private final PathMatcher pathMatcher;
+        private final Set<String> methods;
+        private final TracingConfig tracingConfig;
+        private final TracingConfig merged;
+        private final boolean suppressed;
+
+        private TracedPath(PathTracingConfig pathConfig, TracingConfig envConfig) {
+            this.pathMatcher = PathPattern.compile(pathConfig.path());
+            this.methods = pathConfig.methods()
+                    .stream()
+                    .map(method -> Http.RequestMethod.create(method).name())
+                    .collect(Collectors.toSet());
+            this.tracingConfig = pathConfig.tracedConfig();
+            this.merged = TracingConfig.merge(envConfig, tracingConfig);
+            this.suppressed = RequestSpanHandler.isSuppressed(merged);
         }
 
-        @Override
-        public void accept(ServerRequest req, ServerResponse res) {
-            Optional<TracingConfig> existing = req.context().get(TracingConfig.class);
-            if (existing.isPresent()) {
-                req.context().register(TracingConfig.merge(existing.get(), pathSpecific));
-            } else {
-                req.context().register(pathSpecific);
-            }
-            req.next();
+        private boolean matches(String method, String path) {
+            return (methods.isEmpty() || methods.contains(method)) && pathMatcher.match(path).matches();
         }
     }
 
     static final class RequestSpanHandler implements Handler {
         private static final String TRACING_SPAN_HTTP_REQUEST = "HTTP Request";
 
-        RequestSpanHandler() {
+        private final TracingConfig envConfig;
+        private final boolean envSuppressed;
+        private final TracedPath[] tracedPaths;
+
+        RequestSpanHandler(TracingConfig envConfig, Iterable<PathTracingConfig> pathConfigs) {
+            List<TracedPath> paths = new LinkedList<>();
+            pathConfigs.forEach(pathConfig -> paths.add(new TracedPath(pathConfig, envConfig)));
+            this.envConfig = envConfig;
+            this.envSuppressed = isSuppressed(envConfig);
+            this.tracedPaths = paths.toArray(new TracedPath[0]);
         }
 
         @Override
         public void accept(ServerRequest req, ServerResponse res) {
-            doAccept(req, res);
+            if (!configure(req)) {
+                doAccept(req, res);
+            }
             req.next();
         }
 
+        /**
+         * Tracing of a request is suppressed when the web server component is disabled, in which case neither the
+         * inbound span context is extracted, nor a span is created.
+         */
+        private static boolean isSuppressed(TracingConfig tracingConfig) {
+            return !tracingConfig.component(NettyWebServer.TRACING_COMPONENT).enabled();
+        }
+
+        /**
+         * Registers tracing configuration of the paths matching the request with the request context.
+         *
+         * @return whether tracing of the request is suppressed
+         */
+        private boolean configure(ServerRequest req) {
+            Context context = req.context();
+            TracingConfig existing = context.get(TracingConfig.class).orElse(null);
+            boolean precompiled = (existing == envConfig);
+            if (tracedPaths.length == 0) {
+                return precompiled ? envSuppressed : ((existing != null) && isSuppressed(existing));
+            }
+
+            String method = req.method().name();
+            String path = req.path().absolute().toString();
+            TracingConfig result = existing;
+            boolean suppressed = precompiled ? envSuppressed : ((existing != null) && isSuppressed(existing));
+            boolean matched = false;
+            for (TracedPath tracedPath : tracedPaths) {
+                if (!tracedPath.matches(method, path)) {
+                    continue;
+                }
+                if (!matched && precompiled) {
+                    result = tracedPath.merged;
+                    suppressed = tracedPath.suppressed;
+                } else {
+                    result = (result == null)
+                            ? tracedPath.tracingConfig
+                            : TracingConfig.merge(result, tracedPath.tracingConfig);
+                    suppressed = isSuppressed(result);
+                }
+                matched = true;
+            }
+            if (matched) {
+                context.register(result);
+            }
+            return suppressed;
+        }
+
         private void doAccept(ServerRequest req, ServerResponse res) {
             Tracer tracer = req.tracer();
 
             // must run in context
             Context context = req.context();
 
+            if ((tracer instanceof NoopTracer) || ((tracer instanceof GlobalTracer) && !GlobalTracer.isRegistered())) {
+                // nothing would be reported, no need to read headers
+                registerNoopSpan(tracer, null, context, res);
+                return;
+            }
+
             SpanTracingConfig spanConfig = TracingConfigUtil
                     .spanConfig(NettyWebServer.TRACING_COMPONENT, TRACING_SPAN_HTTP_REQUEST, context);
 
@@ -257,22 +317,7 @@ public abstract class WebTracingConfig {
             SpanContext inboundSpanContext = tracer.extract(Format.Builtin.HTTP_HEADERS, new TextMapAdapter(headersMap));
 
             if (inboundSpanContext instanceof NoopSpanBuilder) {
-                // this is all a noop stuff, does not matter what I do here - this is to prevent null pointers
-                // when span is used
-                // TODO once we return Optional from ServerRequest.spanContext(), we can also remove the
-                // following codeblock and we do not need to create teh span and register it with context
-                Span span = tracer.buildSpan("helidon-webserver")
-                        .asChildOf(inboundSpanContext)
-                        .start();
-
-                context.register(span);
-                context.register(span.context());
-                context.register(ServerRequest.class, span);
-                context.register(ServerRequest.class, span.context());
-
-                res.whenSent()
-                        .thenRun(span::finish);
-
+                registerNoopSpan(tracer, inboundSpanContext, context, res);
                 // no tracing
                 return;
             }
@@ -333,5 +378,26 @@ public abstract class WebTracingConfig {
                         return null;
                     });
         }
+
+        private static void registerNoopSpan(Tracer tracer,
+                                             SpanContext inboundSpanContext,
+                                             Context context,
+                                             ServerResponse res) {
+            // this is all a noop stuff, does not matter what I do here - this is to prevent null pointers
+            // when span is used
+            // TODO once we return Optional from ServerRequest.spanContext(), we can also remove the
+            // following codeblock and we do not need to create teh span and register it with context
+            Span span = tracer.buildSpan("helidon-webserver")
+                    .asChildOf(inboundSpanContext)
+                    .start();
+
+            context.register(span);
+            context.register(span.context());
+            context.register(ServerRequest.class, span);
+            context.register(ServerRequest.class, span.context());
+
+            res.whenSent()
+                    .thenRun(span::finish);
+        }
     }
 }
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.helidon.common.http.DataChunk;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link ByteBufDataChunk}.
+ */
+public class ByteBufDataChunkTest {
+
+    private static final PooledByteBufAllocator ALLOCATOR = PooledByteBufAllocator.DEFAULT;
+
+    @Test
+    public void testBytes() {
+        ByteBufDataChunk chunk = ByteBufDataChunk.create(ALLOCATOR, "hello".getBytes(StandardCharsets.UTF_8));
+        assertThat(new String(chunk.bytes(), StandardCharsets.UTF_8), is("hello"));
+        assertThat(chunk.data().isDirect(), is(true));
+        assertThat(chunk.isReadOnly(), is(true));
+        chunk.release();
+        assertThat(chunk.isReleased(), is(true));
+        assertThrows(IllegalStateException.class, chunk::data);
+    }
+
+    @Test
+    public void testCharSequence() {
+        String text = "Příliš žluťoučký kůň";
+        for (Charset charset : new Charset[] {StandardCharsets.UTF_8, StandardCharsets.UTF_16, StandardCharsets.US_ASCII,
+                StandardCharsets.ISO_8859_1}) {
+            ByteBufDataChunk chunk = ByteBufDataChunk.create(ALLOCATOR, text, charset);
+            assertThat(charset.name(), chunk.bytes(), is(text.getBytes(charset)));
+            chunk.release();
+        }
+    }
+
+    @Test
+    public void testReleaseOnce() {
+        ByteBuf byteBuf = Unpooled.directBuffer().writeInt(42);
+        ByteBufDataChunk chunk = ByteBufDataChunk.create(byteBuf, true);
+        assertThat(chunk.flush(), is(true));
+        chunk.release();
+        chunk.release();
+        assertThat(byteBuf.refCnt(), is(0));
+    }
+
+    @Test
+    public void testTransfer() {
+        ByteBuf byteBuf = Unpooled.directBuffer().writeInt(42).writeInt(43);
+        ByteBufDataChunk chunk = ByteBufDataChunk.create(byteBuf, false);
+        assertThat(chunk.data().getInt(), is(42));
+
+        ByteBuf transferred = chunk.transferByteBuf();
+        assertThat(transferred, is(sameInstance(byteBuf)));
+        assertThat(transferred.readableBytes(), is(4));
+        assertThat(chunk.isReleased(), is(true));
+
+        // releasing the chunk must not release the transferred buffer
+        chunk.release();
+        assertThat(transferred.refCnt(), is(1));
+        assertThrows(IllegalStateException.class, chunk::transferByteBuf);
+        transferred.release();
+    }
+
+    @Test
+    public void testPublisherAllocatesOnRequest() {
+        AtomicInteger created = new AtomicInteger();
+        Flow.Publisher<DataChunk> publisher = ByteBufDataChunk.publisher(() -> {
+            created.incrementAndGet();
+            return ByteBufDataChunk.create(ALLOCATOR, new byte[] {42});
+        });
+        assertThat(created.get(), is(0));
+
+        // cancelled before requested, nothing to leak
+        publisher.subscribe(new CollectingSubscriber(true));
+        assertThat(created.get(), is(0));
+
+        CollectingSubscriber first = new CollectingSubscriber(false);
+        publisher.subscribe(first);
+        CollectingSubscriber second = new CollectingSubscriber(false);
+        publisher.subscribe(second);
+        assertThat(created.get(), is(2));
+        assertThat(first.completed, is(true));
+        assertThat(first.chunks.size(), is(1));
+        assertThat(second.chunks.size(), is(1));
+        // each subscriber owns its chunk
+        assertThat(first.chunks.get(0), is(not(sameInstance(second.chunks.get(0)))));
+        first.chunks.get(0).release();
+        assertThat(second.chunks.get(0).bytes(), is(new byte[] {42}));
+        second.chunks.get(0).release();
+    }
+
+    private static final class CollectingSubscriber implements Flow.Subscriber<DataChunk> {
+        private final boolean cancel;
+        private final List<DataChunk> chunks = new ArrayList<>();
+        private boolean completed;
+
+        private CollectingSubscriber(boolean cancel) {
+            this.cancel = cancel;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (cancel) {
+                subscription.cancel();
+                subscription.request(1);
+            } else {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onNext(DataChunk item) {
+            chunks.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            throw new AssertionError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.helidon.common.http.DataChunk;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests that the publisher of a response is cancelled once the client disconnects, so a producer waiting for demand
+ * is not blocked forever.
+ */
+public class ClientDisconnectTest {
+
+    private static final CountDownLatch CANCELLED = new CountDownLatch(1);
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        webServer = WebServer.create(ServerConfiguration.builder(),
+                                     Routing.builder()
+                                             .get("/endless", (req, res) -> res.send(new EndlessPublisher()))
+                                             .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testCancelledOnDisconnect() throws Exception {
+        try (Socket socket = new Socket("localhost", webServer.port())) {
+            OutputStream out = socket.getOutputStream();
+            out.write("GET /endless HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            // the response is being streamed
+            assertThat(in.read(new byte[1024]) > 0, is(true));
+        }
+        assertThat("Publisher of the response was not cancelled", CANCELLED.await(10, TimeUnit.SECONDS), is(true));
+    }
+
+    /**
+     * Produces chunks on its own thread as long as there is demand, until cancelled.
+     */
+    private static final class EndlessPublisher implements Flow.Publisher<DataChunk> {
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super DataChunk> subscriber) {
+            AtomicLong requested = new AtomicLong();
+            Thread producer = new Thread(() -> {
+                byte[] bytes = new byte[8192];
+                while (!Thread.currentThread().isInterrupted()) {
+                    synchronized (requested) {
+                        while (requested.get() == 0) {
+                            try {
+                                requested.wait();
+                            } catch (InterruptedException e) {
+                                return;
+                            }
+                        }
+                        requested.decrementAndGet();
+                    }
+                    subscriber.onNext(DataChunk.create(true, ByteBuffer.wrap(bytes)));
+                }
+            }, "endless-producer");
+            producer.setDaemon(true);
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    synchronized (requested) {
+                        requested.addAndGet(n);
+                        requested.notifyAll();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    producer.interrupt();
+                    CANCELLED.countDown();
+                }
+            });
+            producer.start();
+        }
+    }
+}
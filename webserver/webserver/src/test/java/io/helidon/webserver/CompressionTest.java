@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests response compression by {@link HttpCompressionHandler} and precompressed static content.
+ */
+public class CompressionTest {
+
+    private static final String TEXT = "Hello World! ".repeat(1000);
+    private static final String PRECOMPRESSED = "Precompressed";
+
+    private static Path dir;
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        dir = Files.createTempDirectory("compression-test");
+        Files.writeString(dir.resolve("text.txt"), TEXT);
+        Files.writeString(dir.resolve("static.txt"), TEXT);
+        Files.write(dir.resolve("static.txt.gz"), gzip(PRECOMPRESSED));
+        Files.writeString(dir.resolve("cached.txt"), TEXT);
+        Files.write(dir.resolve("cached.txt.gz"), gzip(PRECOMPRESSED));
+
+        webServer = WebServer.create(
+                ServerConfiguration.builder()
+                        .compression(CompressionConfiguration.builder()
+                                             .enabled(true)
+                                             .minSize(100)),
+                Routing.builder()
+                        .get("/text", (req, res) -> res.send(TEXT))
+                        .get("/small", (req, res) -> res.send("Hello"))
+                        .get("/binary", (req, res) -> {
+                            res.headers().contentType(MediaType.APPLICATION_OCTET_STREAM);
+                            res.send(TEXT);
+                        })
+                        .get("/file", (req, res) -> {
+                            res.headers().contentType(MediaType.TEXT_PLAIN);
+                            res.send(dir.resolve("text.txt"));
+                        })
+                        .register("/static", StaticContentSupport.builder(dir)
+                                .precompressed(true)
+                                .build())
+                        .register("/cached", StaticContentSupport.builder(dir)
+                                .precompressed(true)
+                                .cacheSize(1024 * 1024)
+                                .build())
+                        .register("/cached-plain", StaticContentSupport.builder(dir)
+                                .cacheSize(1024 * 1024)
+                                .build())
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+        Files.walk(dir)
+                .sorted((a, b) -> b.compareTo(a))
+                .forEach(path -> path.toFile().delete());
+    }
+
+    @Test
+    public void testCompressed() throws Exception {
+        HttpURLConnection conn = get("/text", "gzip, deflate");
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_ENCODING), is("gzip"));
+        assertThat(conn.getHeaderField(Http.Header.VARY), is(Http.Header.ACCEPT_ENCODING));
+        try (InputStream in = new GZIPInputStream(conn.getInputStream())) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8), is(TEXT));
+        }
+
+        conn = get("/text", "deflate");
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_ENCODING), is("deflate"));
+        try (InputStream in = new InflaterInputStream(conn.getInputStream())) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8), is(TEXT));
+        }
+    }
+
+    @Test
+    public void testNotCompressed() throws Exception {
+        assertIdentity(get("/text", null), TEXT);
+        assertIdentity(get("/text", "br"), TEXT);
+        assertIdentity(get("/text", "gzip;q=0"), TEXT);
+        assertIdentity(get("/small", "gzip"), "Hello");
+        assertIdentity(get("/binary", "gzip"), TEXT);
+    }
+
+    @Test
+    public void testFile() throws Exception {
+        HttpURLConnection conn = get("/file", "gzip");
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_ENCODING), is("gzip"));
+        try (InputStream in = new GZIPInputStream(conn.getInputStream())) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8), is(TEXT));
+        }
+        assertIdentity(get("/file", null), TEXT);
+    }
+
+    @Test
+    public void testPrecompressed() throws Exception {
+        HttpURLConnection conn = get("/static/static.txt", "gzip");
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_ENCODING), is("gzip"));
+        assertThat(conn.getHeaderField(Http.Header.VARY), is(Http.Header.ACCEPT_ENCODING));
+        String etag = conn.getHeaderField(Http.Header.ETAG);
+        try (InputStream in = new GZIPInputStream(conn.getInputStream())) {
+            // served as is, not compressed again
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8), is(PRECOMPRESSED));
+        }
+
+        conn = open("/static/static.txt", "gzip");
+        conn.setRequestProperty(Http.Header.IF_NONE_MATCH, etag);
+        assertThat(conn.getResponseCode(), is(304));
+
+        conn = open("/static/static.txt", "br");
+        assertThat(conn.getResponseCode(), is(200));
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_ENCODING), nullValue());
+        assertThat(conn.getHeaderField(Http.Header.VARY), is(Http.Header.ACCEPT_ENCODING));
+        try (InputStream in = conn.getInputStream()) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8), is(TEXT));
+        }
+    }
+
+    @Test
+    public void testCachedSiblingModified() throws Exception {
+        assertGzip(get("/cached/cached.txt", "gzip"), PRECOMPRESSED);
+
+        // the cached entry is validated against its precompressed sibling as well
+        Files.write(dir.resolve("cached.txt.gz"), gzip(PRECOMPRESSED + " and modified"));
+        assertGzip(get("/cached/cached.txt", "gzip"), PRECOMPRESSED + " and modified");
+
+        Files.delete(dir.resolve("cached.txt.gz"));
+        assertGzip(get("/cached/cached.txt", "gzip"), TEXT);
+    }
+
+    @Test
+    public void testCachedNotPrecompressed() throws Exception {
+        // precompressed siblings are ignored unless enabled, the cache compresses the content itself
+        assertGzip(get("/cached-plain/static.txt", "gzip"), TEXT);
+        assertIdentity(get("/cached-plain/static.txt", null), TEXT);
+    }
+
+    @Test
+    public void testFilterAcceptEncoding() {
+        HttpCompressionHandler handler = new HttpCompressionHandler(CompressionConfiguration.builder()
+                                                                            .enabled(true)
+                                                                            .encodings(List.of("deflate"))
+                                                                            .build());
+        assertThat(handler.filterAcceptEncoding("gzip, br"), is(""));
+        assertThat(handler.filterAcceptEncoding("gzip;q=1.0, Deflate;q=0.5"), is("deflate;q=0.5"));
+        assertThat(handler.filterAcceptEncoding("*;q=0.1"), is("deflate;q=0.1"));
+    }
+
+    private static void assertIdentity(HttpURLConnection conn, String expected) throws Exception {
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_ENCODING), nullValue());
+        try (InputStream in = conn.getInputStream()) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8), is(expected));
+        }
+    }
+
+    private static void assertGzip(HttpURLConnection conn, String expected) throws Exception {
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_ENCODING), is("gzip"));
+        try (InputStream in = new GZIPInputStream(conn.getInputStream())) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8), is(expected));
+        }
+    }
+
+    private static HttpURLConnection get(String path, String acceptEncoding) throws Exception {
+        HttpURLConnection conn = open(path, acceptEncoding);
+        assertThat(conn.getResponseCode(), is(200));
+        return conn;
+    }
+
+    private static HttpURLConnection open(String path, String acceptEncoding) throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + webServer.port() + path).openConnection();
+        if (acceptEncoding != null) {
+            conn.setRequestProperty(Http.Header.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return conn;
+    }
+
+    private static byte[] gzip(String text) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(baos)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return baos.toByteArray();
+    }
+}
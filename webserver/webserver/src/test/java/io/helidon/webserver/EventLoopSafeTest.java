@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link EventLoopSafe} routes and the {@link EventLoopWatchdog}.
+ */
+public class EventLoopSafeTest {
+
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        webServer = WebServer.create(
+                ServerConfiguration.builder()
+                        .eventLoopWatchdogMillis(20),
+                Routing.builder()
+                        .any("/filter", (req, res) -> req.next())
+                        .get("/filter", EventLoopSafe.handler(EventLoopSafeTest::sendSafe))
+                        .get("/handler", EventLoopSafe.handler(EventLoopSafeTest::sendSafe))
+                        .get("/blocking", EventLoopSafeTest::sendSafe)
+                        .register("/service", EventLoopSafe.service(rules -> rules.get("/", EventLoopSafeTest::sendSafe)))
+                        .get("/sleep", EventLoopSafe.handler((req, res) -> {
+                            try {
+                                Thread.sleep(200);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            res.send("Slept");
+                        }))
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testEventLoopSafe() throws Exception {
+        assertThat(get("/handler"), is("true"));
+        assertThat(get("/service"), is("true"));
+        assertThat(get("/filter"), is("true"));
+        assertThat(get("/blocking"), is("false"));
+    }
+
+    @Test
+    public void testWatchdog() throws Exception {
+        EventLoopWatchdog watchdog = ((NettyWebServer) webServer).watchdog();
+        long blocked = watchdog.blockedCount();
+        assertThat(get("/sleep"), is("Slept"));
+        assertThat(watchdog.blockedCount(), is(blocked + 1));
+    }
+
+    @Test
+    public void testMarkers() {
+        Handler handler = EventLoopSafe.handler((req, res) -> res.send());
+        assertThat(handler instanceof EventLoopSafe, is(true));
+        assertThat(EventLoopSafe.handler(handler), sameInstance(handler));
+        Service service = EventLoopSafe.service(rules -> { });
+        assertThat(service instanceof EventLoopSafe, is(true));
+        assertThat(EventLoopSafe.service(service), sameInstance(service));
+    }
+
+    private static void sendSafe(ServerRequest req, ServerResponse res) {
+        res.send(String.valueOf(req.isEventLoopSafe()));
+    }
+
+    private static String get(String path) throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + webServer.port() + path).openConnection();
+        assertThat(conn.getResponseCode(), is(200));
+        try (InputStream in = conn.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+
+import io.helidon.common.Builder;
+import io.helidon.common.configurable.Resource;
+import io.helidon.common.http.Http;
+import io.helidon.common.pki.KeyConfig;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests files transferred by {@link BareResponseImpl} without reading them to the heap, over plaintext, TLS and
+ * HTTP/2 connections, and the static content cache.
+ */
+public class FileTransferTest {
+
+    private static final int FILE_SIZE = 100_000;
+
+    private static Path dir;
+    private static byte[] content;
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        dir = Files.createTempDirectory("file-transfer-test");
+        content = new byte[FILE_SIZE];
+        new Random(42).nextBytes(content);
+        Files.write(dir.resolve("random.bin"), content);
+        Files.write(dir.resolve("text.txt"), "Hello World! ".repeat(1000).getBytes());
+
+        Builder<SSLContext> sslContext = SSLContextBuilder.create(KeyConfig.pemBuilder()
+                                                                          .key(Resource.create("ssl/key.pkcs8.pem"))
+                                                                          .certChain(Resource.create("ssl/certificate.pem"))
+                                                                          .build());
+        webServer = WebServer.create(
+                ServerConfiguration.builder()
+                        .addSocket("secure", SocketConfiguration.builder().ssl(sslContext)),
+                Routing.builder()
+                        .get("/file", (req, res) -> res.send(dir.resolve("random.bin")))
+                        .get("/chunked", (req, res) -> {
+                            res.headers().put(Http.Header.TRANSFER_ENCODING, "chunked");
+                            res.send(dir.resolve("random.bin"));
+                        })
+                        .register("/cached", StaticContentSupport.builder(dir)
+                                .cacheSize(1_000_000)
+                                .build())
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+        Files.walk(dir)
+                .sorted((a, b) -> b.compareTo(a))
+                .forEach(path -> path.toFile().delete());
+    }
+
+    @Test
+    public void testPlaintext() throws Exception {
+        assertThat(get("http://localhost:" + webServer.port() + "/file"), is(content));
+        assertThat(get("http://localhost:" + webServer.port() + "/chunked"), is(content));
+    }
+
+    @Test
+    public void testTls() throws Exception {
+        assertThat(get("https://localhost:" + webServer.port("secure") + "/file"), is(content));
+        assertThat(get("https://localhost:" + webServer.port("secure") + "/chunked"), is(content));
+    }
+
+    @Test
+    public void testHttp2() throws Exception {
+        WebServer http2Server = WebServer.create(
+                ServerConfiguration.builder()
+                        .experimental(ExperimentalConfiguration.builder()
+                                              .http2(new Http2Configuration.Builder()
+                                                             .enable(true)
+                                                             .build())
+                                              .build()),
+                Routing.builder()
+                        .get("/file", (req, res) -> res.send(dir.resolve("random.bin")))
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        try {
+            OkHttpClient client = new OkHttpClient.Builder()
+                    .protocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE))
+                    .build();
+            Request request = new Request.Builder()
+                    .url("http://localhost:" + http2Server.port() + "/file")
+                    .build();
+            try (Response response = client.newCall(request).execute()) {
+                assertThat(response.code(), is(200));
+                assertThat(response.protocol(), is(Protocol.H2_PRIOR_KNOWLEDGE));
+                assertThat(response.body().bytes(), is(content));
+            }
+        } finally {
+            http2Server.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testCached() throws Exception {
+        // bigger than the default maximal entry size
+        assertThat(get("http://localhost:" + webServer.port() + "/cached/random.bin"), is(content));
+
+        HttpURLConnection conn = open("http://localhost:" + webServer.port() + "/cached/text.txt");
+        conn.setRequestProperty(Http.Header.ACCEPT_ENCODING, "gzip");
+        assertThat(conn.getResponseCode(), is(200));
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_ENCODING), is("gzip"));
+        assertThat(conn.getHeaderField(Http.Header.VARY), is(Http.Header.ACCEPT_ENCODING));
+        String etag = conn.getHeaderField(Http.Header.ETAG);
+        try (InputStream in = new GZIPInputStream(conn.getInputStream())) {
+            assertThat(new String(in.readAllBytes()), is("Hello World! ".repeat(1000)));
+        }
+
+        conn = open("http://localhost:" + webServer.port() + "/cached/text.txt");
+        conn.setRequestProperty(Http.Header.ACCEPT_ENCODING, "gzip");
+        conn.setRequestProperty(Http.Header.IF_NONE_MATCH, etag);
+        assertThat(conn.getResponseCode(), is(304));
+
+        conn = open("http://localhost:" + webServer.port() + "/cached/text.txt");
+        assertThat(conn.getResponseCode(), is(200));
+        assertThat(conn.getHeaderField(Http.Header.CONTENT_ENCODING), is((String) null));
+        try (InputStream in = conn.getInputStream()) {
+            assertThat(new String(in.readAllBytes()), is("Hello World! ".repeat(1000)));
+        }
+    }
+
+    private static byte[] get(String url) throws Exception {
+        HttpURLConnection conn = open(url);
+        assertThat(conn.getResponseCode(), is(200));
+        try (InputStream in = conn.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static HttpURLConnection open(String url) throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        if (conn instanceof HttpsURLConnection) {
+            ((HttpsURLConnection) conn).setSSLSocketFactory(SslTest.clientSslContextTrustAll().getSocketFactory());
+            ((HttpsURLConnection) conn).setHostnameVerifier((host, session) -> true);
+        }
+        return conn;
+    }
+}
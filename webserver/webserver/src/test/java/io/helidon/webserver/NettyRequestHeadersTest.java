@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link NettyRequestHeaders}.
+ */
+public class NettyRequestHeadersTest {
+
+    private static NettyRequestHeaders headers(String... nameValue) {
+        HttpHeaders nettyHeaders = new DefaultHttpHeaders();
+        for (int i = 0; i < nameValue.length; i = i + 2) {
+            nettyHeaders.add(nameValue[i], nameValue[i + 1]);
+        }
+        return new NettyRequestHeaders(nettyHeaders);
+    }
+
+    @Test
+    public void caseInsensitiveLookup() {
+        NettyRequestHeaders hs = headers("Foo", "val1", "foo", "val2");
+        assertThat(hs.first("FOO").orElse(null), is("val1"));
+        assertThat(hs.all("fOO"), is(List.of("val1", "val2")));
+        assertThat(hs.all("bar"), is(List.of()));
+        assertThat(hs.toMap(), is(Map.of("Foo", List.of("val1", "val2"))));
+    }
+
+    @Test
+    public void readOnly() {
+        NettyRequestHeaders hs = headers("Foo", "val1");
+        assertThrows(UnsupportedOperationException.class, () -> hs.add("Foo", "val2"));
+        assertThrows(UnsupportedOperationException.class, () -> hs.all("Foo").add("val2"));
+    }
+
+    @Test
+    public void parsedValuesAreCached() {
+        NettyRequestHeaders hs = headers(Http.Header.CONTENT_TYPE, "application/json",
+                                         Http.Header.ACCEPT, "text/plain;q=0.3, application/json",
+                                         Http.Header.COOKIE, "a=b; c=d");
+        assertThat(hs.contentType().orElse(null), is(MediaType.APPLICATION_JSON));
+        assertThat(hs.contentType(), sameInstance(hs.contentType()));
+        assertThat(hs.acceptedTypes().size(), is(2));
+        assertThat(hs.acceptedTypes(), sameInstance(hs.acceptedTypes()));
+        assertThat(hs.bestAccepted(MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON).orElse(null),
+                   is(MediaType.APPLICATION_JSON));
+        assertThat(hs.cookies().first("c").orElse(null), is("d"));
+        assertThat(hs.cookies(), sameInstance(hs.cookies()));
+    }
+
+    @Test
+    public void contentLength() {
+        assertThat(headers(Http.Header.CONTENT_LENGTH, "1024").contentLength(), is(OptionalLong.of(1024)));
+        assertThat(headers().contentLength(), is(OptionalLong.empty()));
+    }
+}
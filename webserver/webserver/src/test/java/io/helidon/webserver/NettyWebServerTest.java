@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,8 @@ package io.helidon.webserver;
 import java.net.InetAddress;
 import java.security.SecureRandom;
 import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Flow.Subscription;
@@ -34,6 +36,7 @@ import io.helidon.common.http.DataChunk;
 import io.helidon.common.http.Http;
 import io.helidon.common.reactive.Multi;
 import io.helidon.common.reactive.SubmissionPublisher;
+import io.helidon.webserver.utils.SocketHttpClient;
 
 import org.hamcrest.collection.IsCollectionWithSize;
 import org.hamcrest.core.Is;
@@ -46,6 +49,7 @@ import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.core.AllOf.allOf;
 import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 /**
@@ -199,6 +203,42 @@ public class NettyWebServerTest {
         }
     }
 
+    @Test
+    public void testReusePortAcceptors() throws Exception {
+        NettyWebServer webServer = new NettyWebServer(ServerConfiguration.builder()
+                                                              .transport(Transport.EPOLL)
+                                                              .reusePort(true)
+                                                              .addSocket("plain", SocketConfiguration.builder().build())
+                                                              .build(),
+                                                      Routing.builder()
+                                                              .get("/", (req, res) -> res.send("Hello"))
+                                                              .build(),
+                                                      Map.of(),
+                                                      4);
+        assumeTrue(webServer.context().get(Transport.class).equals(Optional.of(Transport.EPOLL)),
+                   "Epoll transport is not available");
+
+        webServer.start()
+                .toCompletableFuture()
+                .join();
+
+        try {
+            assertThat(webServer.boundChannels(ServerConfiguration.DEFAULT_SOCKET_NAME), is(4));
+            assertThat(webServer.boundChannels("plain"), is(1));
+            assertThat(webServer.port(), allOf(greaterThan(0), not(webServer.port("plain"))));
+            for (int i = 0; i < 8; i++) {
+                assertThat(SocketHttpClient.sendAndReceive(Http.Method.GET, null, webServer),
+                           allOf(containsString("200 OK"), containsString("Hello")));
+            }
+        } finally {
+            webServer.shutdown()
+                    .toCompletableFuture()
+                    .join();
+        }
+        assertThat(webServer.boundChannels(ServerConfiguration.DEFAULT_SOCKET_NAME), is(0));
+        assertThat(webServer.port(), is(-1));
+    }
+
     @Test
     public void testMultiplePortsAllTheSame() throws Exception {
         int samePort = 9999;
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import io.helidon.common.http.Http;
+
+import org.junit.jupiter.api.Test;
+
+import static io.helidon.common.http.Http.Method.GET;
+import static io.helidon.common.http.Http.Method.POST;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link RouteIndex}.
+ */
+public class RouteIndexTest {
+
+    private static final Handler VOID_HANDLER = (req, res) -> {};
+
+    @Test
+    public void testCandidatesKeepOrder() {
+        RouteList routes = new RouteListRoutingRules()
+                .any(VOID_HANDLER)                          // 0
+                .get("/user/{name}", VOID_HANDLER)          // 1
+                .get("/admin", VOID_HANDLER)                // 2
+                .get("/user", VOID_HANDLER)                 // 3
+                .post("/user", VOID_HANDLER)                // 4
+                .get("/{+path}", VOID_HANDLER)              // 5
+                .get("/user/x{id:\\d+}", VOID_HANDLER)      // 6
+                .get(new CustomMatcher(), VOID_HANDLER)     // 7
+                .aggregate()
+                .routeList();
+        RouteIndex index = RouteIndex.create(routes);
+
+        assertThat(index.candidates(GET, "/user/john"), is(new int[] {0, 1, 3, 5, 6, 7}));
+        assertThat(index.candidates(GET, "/admin"), is(new int[] {0, 2, 5, 7}));
+        assertThat(index.candidates(GET, "/unknown/path"), is(new int[] {0, 5, 7}));
+        assertThat(index.candidates(GET, "/"), is(new int[] {0, 5, 7}));
+        assertThat(index.candidates(POST, "/user"), is(new int[] {0, 4}));
+        assertThat(index.candidates(Http.RequestMethod.create("FOO"), "/admin"), is(new int[] {0, 2, 5, 7}));
+    }
+
+    @Test
+    public void testNestedLists() {
+        RouteList routes = new RouteListRoutingRules()
+                .register("/user", rules -> rules.get("/{name}", VOID_HANDLER))
+                .register("/admin/{realm}", rules -> rules.get("/users", VOID_HANDLER))
+                .aggregate()
+                .routeList();
+        RouteIndex index = RouteIndex.create(routes);
+
+        assertThat(index.candidates(GET, "/user/john"), is(new int[] {0}));
+        assertThat(index.candidates(GET, "/admin/foo/users"), is(new int[] {1}));
+        assertThat(index.candidates(GET, "/other"), is(new int[0]));
+        assertThat(index.nested(0), notNullValue());
+        assertThat(index.nested(0).candidates(GET, "/john"), is(new int[] {0}));
+        assertThat(index.nested(1).candidates(POST, "/users"), is(new int[0]));
+    }
+
+    @Test
+    public void testHandlerRouteHasNoNestedIndex() {
+        RouteList routes = new RouteListRoutingRules()
+                .get("/foo", VOID_HANDLER)
+                .aggregate()
+                .routeList();
+        assertThat(RouteIndex.create(routes).nested(0), nullValue());
+    }
+
+    private static final class CustomMatcher implements PathMatcher {
+        @Override
+        public Result match(CharSequence path) {
+            return PathPattern.NOT_MATCHED_RESULT;
+        }
+
+        @Override
+        public PrefixResult prefixMatch(CharSequence path) {
+            return PathPattern.NOT_MATCHED_RESULT;
+        }
+    }
+}
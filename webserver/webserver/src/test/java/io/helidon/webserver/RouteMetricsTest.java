@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+/**
+ * Tests {@link RouteMetrics} recorded by the {@link Routing}.
+ */
+public class RouteMetricsTest {
+
+    private static final Map<String, TestRecorder> RECORDERS = new ConcurrentHashMap<>();
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        webServer = WebServer.create(
+                Routing.builder()
+                        .routeMetrics((method, route) -> RECORDERS.computeIfAbsent(method + " " + route,
+                                                                                 key -> new TestRecorder()))
+                        .any((req, res) -> req.next())
+                        .get("/", (req, res) -> res.send("root"))
+                        .register("/greet", rules -> rules.get("/{name}", (req, res) -> res.send("Hello")))
+                        .post("/fail", (req, res) -> {
+                            throw new IllegalStateException("Failing on purpose");
+                        })
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testRecordersCreatedWhenBuilt() {
+        assertThat(RECORDERS.containsKey("* /"), is(true));
+        assertThat(RECORDERS.containsKey("GET /"), is(true));
+        assertThat(RECORDERS.containsKey("GET /greet/{name}"), is(true));
+        assertThat(RECORDERS.containsKey("POST /fail"), is(true));
+        assertThat(RECORDERS.containsKey("* " + RouteMetrics.UNMATCHED_ROUTE), is(true));
+    }
+
+    @Test
+    public void testRouteTemplate() throws Exception {
+        TestRecorder recorder = RECORDERS.get("GET /greet/{name}");
+        long count = recorder.count.get();
+        assertThat(request("GET", "/greet/Joe"), is(200));
+        assertThat(request("GET", "/greet/Jack"), is(200));
+        awaitCount(recorder, count + 2);
+        assertThat(recorder.errors.get(), is(0L));
+        assertThat(recorder.durationNanos.get(), greaterThan(0L));
+        assertThat(recorder.inFlight.get(), is(0));
+        assertThat(RECORDERS.get("* /").inFlight.get(), is(0));
+        assertThat(RECORDERS.get("* /").count.get(), is(0L));
+        assertThat(RECORDERS.get("GET /greet/Joe"), nullValue());
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        TestRecorder recorder = RECORDERS.get("POST /fail");
+        long count = recorder.count.get();
+        long errors = recorder.errors.get();
+        assertThat(request("POST", "/fail"), is(500));
+        awaitCount(recorder, count + 1);
+        assertThat(recorder.errors.get(), is(errors + 1));
+    }
+
+    @Test
+    public void testUnmatched() throws Exception {
+        TestRecorder recorder = RECORDERS.get("* " + RouteMetrics.UNMATCHED_ROUTE);
+        long count = recorder.count.get();
+        assertThat(request("PUT", "/greet/Joe"), is(404));
+        awaitCount(recorder, count + 1);
+    }
+
+    private static void awaitCount(TestRecorder recorder, long count) throws InterruptedException {
+        // responses are recorded once written, possibly after the client read them
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (recorder.count.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(recorder.count.get(), is(count));
+    }
+
+    private static int request(String method, String path) throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + webServer.port() + path).openConnection();
+        conn.setRequestMethod(method);
+        int status = conn.getResponseCode();
+        conn.disconnect();
+        return status;
+    }
+
+    private static final class TestRecorder implements RouteMetrics.Recorder {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong durationNanos = new AtomicLong();
+
+        @Override
+        public void enter() {
+            inFlight.incrementAndGet();
+        }
+
+        @Override
+        public void exit() {
+            inFlight.decrementAndGet();
+        }
+
+        @Override
+        public void complete(int statusCode, boolean failed, long durationNanos) {
+            if (failed || statusCode >= 500) {
+                errors.incrementAndGet();
+            }
+            this.durationNanos.addAndGet(durationNanos);
+            count.incrementAndGet();
+        }
+    }
+}
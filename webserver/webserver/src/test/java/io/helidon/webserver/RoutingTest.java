@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -112,6 +112,45 @@ public class RoutingTest {
         assertThat(checker.handlersInvoked(), is("createUser"));
     }
 
+    @Test
+    public void compiledRouting() {
+        final RoutingChecker checker = new RoutingChecker();
+        Routing routing = Routing.builder()
+                .compiledRouting(true)
+                .any((req, resp) -> {
+                    checker.handlerInvoked("anyPath");
+                    req.next();
+                })
+                .any("/admin", (req, resp) -> {
+                    checker.handlerInvoked("anyAdmin");
+                    req.next();
+                })
+                .post("/admin/user", (req, resp) -> {
+                    checker.handlerInvoked("postAdminUser");
+                })
+                .get("/admin/{+rest}", (req, resp) -> {
+                    checker.handlerInvoked("getAdminRest");
+                    req.next();
+                })
+                .register("/admin/user", (rules) -> {
+                    rules.get("/{name}", (req, res) -> {
+                        checker.handlerInvoked("getAdminUser:" + req.path().param("name"));
+                    });
+                })
+                .build();
+
+        routing.route(mockRequest("/admin/user", Http.Method.POST), mockResponse());
+        assertThat(checker.handlersInvoked(), is("anyPath,postAdminUser"));
+
+        checker.reset();
+        routing.route(mockRequest("/admin/user/john", Http.Method.GET), mockResponse());
+        assertThat(checker.handlersInvoked(), is("anyPath,getAdminRest,getAdminUser:john"));
+
+        checker.reset();
+        routing.route(mockRequest("/admin", Http.Method.DELETE), mockResponse());
+        assertThat(checker.handlersInvoked(), is("anyPath,anyAdmin"));
+    }
+
     static BareRequest mockRequest(String path, Http.Method method) {
         BareRequest bareRequestMock = Mockito.mock(BareRequest.class);
         Mockito.doReturn(URI.create("http://0.0.0.0:1234/" + path)).when(bareRequestMock).uri();
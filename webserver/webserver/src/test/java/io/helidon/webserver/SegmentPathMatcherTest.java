@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link PathPattern.SegmentPathMatcher} and its consistency with {@link PathPattern.RegexpPathMatcher}.
+ */
+public class SegmentPathMatcherTest {
+
+    @Test
+    public void testCompiledMatcherType() {
+        assertThat(PathPattern.compile("/foo/{var}"), instanceOf(PathPattern.SegmentPathMatcher.class));
+        assertThat(PathPattern.compile("/foo/{}/{+var}"), instanceOf(PathPattern.SegmentPathMatcher.class));
+        assertThat(PathPattern.compile("/foo/{+var}/bar"), instanceOf(PathPattern.RegexpPathMatcher.class));
+        assertThat(PathPattern.compile("/foo/b{var}"), instanceOf(PathPattern.RegexpPathMatcher.class));
+        assertThat(PathPattern.compile("/foo/{var:\\d+}"), instanceOf(PathPattern.RegexpPathMatcher.class));
+        assertThat(PathPattern.compile("/foo[/{var}]"), instanceOf(PathPattern.RegexpPathMatcher.class));
+        assertThat(PathPattern.compile("/foo/bar"), instanceOf(PathPattern.CanonicalPathMatcher.class));
+    }
+
+    @Test
+    public void testMatch() {
+        PathMatcher matcher = PathPattern.compile("/foo/{ var }/baz");
+        assertThat(matcher.match("/foo/bar/baz").params(), is(Map.of("var", "bar")));
+        assertThat(matcher.match("/foo/bar").matches(), is(false));
+        assertThat(matcher.match("/foo//baz").matches(), is(false));
+        assertThat(matcher.match("/foo/bar/bazz").matches(), is(false));
+
+        matcher = PathPattern.compile("/foo/{+var}");
+        assertThat(matcher.match("/foo/bar/baz").params(), is(Map.of("var", "bar/baz")));
+        assertThat(matcher.match("/foo").matches(), is(false));
+        assertThat(matcher.match("/foo/bar\nbaz").matches(), is(false));
+    }
+
+    @Test
+    public void testPrefixMatch() {
+        PathMatcher matcher = PathPattern.compile("/foo/{var}");
+        PathMatcher.PrefixResult result = matcher.prefixMatch("/foo/bar/baz");
+        assertThat(result.params(), is(Map.of("var", "bar")));
+        assertThat(result.remainingPart(), is("/baz"));
+        assertThat(matcher.prefixMatch("/foo/bar").remainingPart(), is("/"));
+        assertThat(matcher.prefixMatch("/foo/bar/").matches(), is(false));
+        assertThat(matcher.prefixMatch("/foo/bar/b\naz").matches(), is(false));
+    }
+
+    @Test
+    public void testConsistentWithRegexp() {
+        String[] patterns = {"/foo/{var}", "/{a}/{b}", "/foo/{}/{+rest}", "/{+all}", "/foo/{var}/bar"};
+        String[] paths = {"/", "/foo", "/foo/bar", "/foo/bar/baz", "/foo/bar/bar", "/foo//bar", "/x/y/z/w",
+                "/foo/b\nr", "/foo/bar/b\nz"};
+        for (String pattern : patterns) {
+            PathPattern.SegmentPathMatcher segment = PathPattern.SegmentPathMatcher.parse(pattern);
+            PathMatcher regexp = regexpMatcher(pattern);
+            for (String path : paths) {
+                String message = "Pattern '" + pattern + "', path '" + path + "'";
+                PathMatcher.Result expected = regexp.match(path);
+                PathMatcher.Result actual = segment.match(path);
+                assertThat(message, actual.matches(), is(expected.matches()));
+                assertThat(message, actual.params(), is(expected.params()));
+                PathMatcher.PrefixResult expectedPrefix = regexp.prefixMatch(path);
+                PathMatcher.PrefixResult actualPrefix = segment.prefixMatch(path);
+                assertThat(message, actualPrefix.matches(), is(expectedPrefix.matches()));
+                assertThat(message, actualPrefix.params(), is(expectedPrefix.params()));
+                assertThat(message, actualPrefix.remainingPart(), is(expectedPrefix.remainingPart()));
+            }
+        }
+    }
+
+    @Test
+    public void testLiteralPrefix() {
+        assertThat(literalPrefix("/foo/bar"), is(List.of("foo", "bar")));
+        assertThat(literalPrefix("/foo/{var}/bar"), is(List.of("foo")));
+        assertThat(literalPrefix("/foo/b{var}"), is(List.of("foo")));
+        assertThat(literalPrefix("/foo[/bar]"), is(List.of()));
+        assertThat(literalPrefix("/fo\\o/{var}"), is(List.of()));
+        assertThat(literalPrefix("foo"), is(List.of()));
+        assertThat(literalPrefix("/"), is(List.of()));
+    }
+
+    private static List<String> literalPrefix(String pattern) {
+        return ((PathPattern.CompiledMatcher) PathPattern.compile(pattern)).literalPrefix();
+    }
+
+    private static PathMatcher regexpMatcher(String pattern) {
+        // Escaped leading slash produces the same regular expression but is not accepted by the segment matcher
+        return PathPattern.compile("\\" + pattern);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020 Oracle and/or its affiliates. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,10 @@
 package io.helidon.webserver;
 
 import java.net.InetAddress;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+import io.helidon.common.http.MediaType;
 import io.helidon.config.Config;
 import io.helidon.config.ConfigSources;
 
@@ -62,6 +65,9 @@ public class ServerConfigurationTest {
         assertThat(config.workersCount() > 0, is(true));
         assertThat(config.tracer(), IsInstanceOf.instanceOf(GlobalTracer.class));
         assertThat(config.bindAddress(), nullValue());
+        assertThat(config.transport(), is(Transport.AUTO));
+        assertThat(config.reusePort(), is(false));
+        assertThat(config.compression().enabled(), is(false));
     }
 
     @Test
@@ -73,6 +79,8 @@ public class ServerConfigurationTest {
                 .timeout(40)
                 .workersCount(50)
                 .bindAddress(InetAddress.getLocalHost())
+                .transport(Transport.NIO)
+                .reusePort(true)
                 .build();
         assertThat(config.port(), is(10));
         assertThat(config.backlog(), is(20));
@@ -80,6 +88,8 @@ public class ServerConfigurationTest {
         assertThat(config.timeoutMillis(), is(40));
         assertThat(config.workersCount(), is(50));
         assertThat(config.bindAddress(), is(InetAddress.getLocalHost()));
+        assertThat(config.transport(), is(Transport.NIO));
+        assertThat(config.reusePort(), is(true));
     }
 
     @Test
@@ -96,6 +106,13 @@ public class ServerConfigurationTest {
         assertThat(sc.ssl(), nullValue());
 
         assertThat(sc.workersCount(), is(50));
+        assertThat(sc.transport(), is(Transport.IO_URING));
+        assertThat(sc.reusePort(), is(false));
+        assertThat(sc.compression().enabled(), is(true));
+        assertThat(sc.compression().minSize(), is(2048));
+        assertThat(sc.compression().level(), is(1));
+        assertThat(sc.compression().encodings(), contains("gzip"));
+        assertThat(sc.compression().mediaTypes(), contains(MediaType.TEXT_HTML, MediaType.APPLICATION_JSON));
 
         assertThat(sc.socket("secure").port(), is(11));
         assertThat(sc.socket("secure").backlog(), is(21));
@@ -112,6 +129,33 @@ public class ServerConfigurationTest {
         assertThat(sc.socket("other").bindAddress(), is(InetAddress.getByName("127.0.0.3")));
         assertThat(sc.socket("other").enabledSslProtocols(), hasSize(0));
         assertThat(sc.socket("other").ssl(), nullValue());
+        assertThat(sc.socket("other").reusePort(), is(true));
+    }
+
+    @Test
+    public void transportFallsBackToNio() throws Exception {
+        // io_uring is an incubator transport which is not on the test classpath
+        WebServer webServer = WebServer.create(ServerConfiguration.builder()
+                                                       .transport(Transport.IO_URING)
+                                                       .reusePort(true)
+                                                       .build(),
+                                               Routing.builder().build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+        try {
+            assertThat(webServer.context().get(Transport.class), is(Optional.of(Transport.NIO)));
+        } finally {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void parseTransport() {
+        assertThat(Transport.parse("epoll"), is(Transport.EPOLL));
+        assertThat(Transport.parse("io_uring"), is(Transport.IO_URING));
+        assertThat(Transport.parse(" IO-URING "), is(Transport.IO_URING));
+        assertThat(Transport.parse("Auto"), is(Transport.AUTO));
     }
 
     @Test
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link StaticContentCache}.
+ */
+public class StaticContentCacheTest {
+
+    private static final byte[] TEXT = "Hello World! ".repeat(100).getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RANDOM = {1, 2, 3, 4, 5, 6, 7, 8};
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        StaticContentCache cache = StaticContentCache.create(20, 10);
+        cache.put("a", StaticContentCache.CachedContent.create(RANDOM, null, null));
+        cache.put("b", StaticContentCache.CachedContent.create(RANDOM, null, null));
+        assertThat(cache.size(), is(16L));
+
+        cache.get("a");
+        cache.put("c", StaticContentCache.CachedContent.create(RANDOM, null, null));
+        assertThat(cache.entryCount(), is(2));
+        assertThat(cache.get("a"), notNullValue());
+        assertThat(cache.get("b"), nullValue());
+        assertThat(cache.get("c"), notNullValue());
+
+        cache.clear();
+        assertThat(cache.size(), is(0L));
+        assertThat(cache.entryCount(), is(0));
+    }
+
+    @Test
+    public void testAccepts() {
+        StaticContentCache cache = StaticContentCache.create(1000, 10);
+        assertThat(cache.accepts(10), is(true));
+        assertThat(cache.accepts(11), is(false));
+        assertThat(cache.accepts(-1), is(false));
+    }
+
+    @Test
+    public void testVariants() throws Exception {
+        Instant lastModified = Instant.ofEpochMilli(1000);
+        StaticContentCache.CachedContent content = StaticContentCache.CachedContent.create(TEXT, RANDOM, lastModified);
+
+        assertThat(content.hasVariants(), is(true));
+        assertThat(content.selectEncoding(List.of()), nullValue());
+        assertThat(content.selectEncoding(List.of("gzip, deflate")), is("gzip"));
+        assertThat(content.selectEncoding(List.of("gzip", "br")), is("br"));
+        assertThat(content.selectEncoding(List.of("br;q=0, gzip;q=0.5")), is("gzip"));
+        assertThat(content.selectEncoding(List.of("*")), is("br"));
+        assertThat(content.selectEncoding(List.of("identity")), nullValue());
+
+        assertThat(content.etag(null), is("1000"));
+        assertThat(content.etag("gzip"), is("1000-gzip"));
+
+        assertThat(ByteBufUtil.getBytes(content.content(null)), is(TEXT));
+        assertThat(ByteBufUtil.getBytes(content.content("br")), is(RANDOM));
+        ByteBuf gzip = content.content("gzip");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(ByteBufUtil.getBytes(gzip)))) {
+            assertThat(in.readAllBytes(), is(TEXT));
+        }
+        // cached content is shared, writing it must not release it
+        gzip.release();
+        assertThat(content.content("gzip").isReadable(), is(true));
+    }
+
+    @Test
+    public void testIncompressibleContentHasNoVariant() {
+        StaticContentCache.CachedContent content = StaticContentCache.CachedContent.create(RANDOM, null, null);
+        assertThat(content.hasVariants(), is(false));
+        assertThat(content.selectEncoding(List.of("gzip")), nullValue());
+        assertThat(content.etag(null), nullValue());
+        assertThat(content.isValid(null, RANDOM.length), is(true));
+        assertThat(content.isValid(null, 1), is(false));
+    }
+}
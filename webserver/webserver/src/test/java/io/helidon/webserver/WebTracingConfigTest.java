@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.webserver;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import io.helidon.tracing.config.ComponentTracingConfig;
+import io.helidon.tracing.config.TracingConfig;
+
+import io.opentracing.SpanContext;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+
+/**
+ * Tests path specific tracing of {@link WebTracingConfig}.
+ */
+public class WebTracingConfigTest {
+
+    private static final MockTracer TRACER = new MockTracer();
+    private static final Map<String, Boolean> SPAN_CONTEXTS = new ConcurrentHashMap<>();
+    private static WebServer webServer;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+        TracingConfig disabled = TracingConfig.builder()
+                .addComponent(ComponentTracingConfig.builder(NettyWebServer.TRACING_COMPONENT)
+                                      .enabled(false)
+                                      .build())
+                .build();
+        Handler handler = (req, res) -> {
+            SPAN_CONTEXTS.put(req.path().toString(), req.spanContext() != null);
+            res.send("OK");
+        };
+        webServer = WebServer.create(
+                ServerConfiguration.builder()
+                        .tracer(TRACER)
+                        .build(),
+                Routing.builder()
+                        .register(WebTracingConfig.builder()
+                                          .addPathConfig(PathTracingConfig.builder()
+                                                                 .path("/health")
+                                                                 .tracingConfig(disabled)
+                                                                 .build())
+                                          .addPathConfig(PathTracingConfig.builder()
+                                                                 .path("/metrics")
+                                                                 .addMethod("GET")
+                                                                 .tracingConfig(disabled)
+                                                                 .build())
+                                          .build())
+                        .get("/greet/{name}", handler)
+                        .any(handler)
+                        .build())
+                .start()
+                .toCompletableFuture()
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    public static void stopServer() throws Exception {
+        if (webServer != null) {
+            webServer.shutdown().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @BeforeEach
+    public void reset() {
+        TRACER.reset();
+        SPAN_CONTEXTS.clear();
+    }
+
+    @Test
+    public void testTracedPath() throws Exception {
+        assertThat(request("GET", "/greet"), is(200));
+
+        assertThat(SPAN_CONTEXTS.get("/greet"), is(true));
+        List<MockSpan> spans = awaitRequestSpans(1);
+        assertThat(spans.get(0).tags().get("http.method"), is("GET"));
+    }
+
+    @Test
+    public void testRouteTag() throws Exception {
+        assertThat(request("GET", "/greet/joe"), is(200));
+
+        List<MockSpan> spans = awaitRequestSpans(1);
+        assertThat(spans.get(0).tags().get("http.route"), is("/greet/{name}"));
+    }
+
+    @Test
+    public void testSuppressedPath() throws Exception {
+        assertThat(request("GET", "/health"), is(200));
+        assertThat(request("GET", "/metrics"), is(200));
+
+        // the inbound span context is not propagated either
+        assertThat(SPAN_CONTEXTS.get("/health"), is(false));
+        assertThat(SPAN_CONTEXTS.get("/metrics"), is(false));
+
+        // a traced request completes after the suppressed ones, so there are no pending spans of them
+        assertThat(request("POST", "/metrics"), is(200));
+        assertThat(SPAN_CONTEXTS.get("/metrics"), is(true));
+        List<MockSpan> spans = awaitRequestSpans(1);
+        assertThat(spans.get(0).tags().get("http.method"), is("POST"));
+    }
+
+    private static List<MockSpan> awaitRequestSpans(int count) throws InterruptedException {
+        // spans are finished once the response is sent, which may happen after the client read it
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        List<MockSpan> spans = requestSpans();
+        while (spans.size() < count && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+            spans = requestSpans();
+        }
+        assertThat(spans, hasSize(count));
+        return spans;
+    }
+
+    private static List<MockSpan> requestSpans() {
+        return TRACER.finishedSpans()
+                .stream()
+                .filter(span -> "HTTP Request".equals(span.operationName()))
+                .collect(Collectors.toList());
+    }
+
+    private static int request(String method, String path) throws Exception {
+        SpanContext inbound = TRACER.buildSpan("client").start().context();
+        URL url = new URL("http://localhost:" + webServer.port() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestMethod(method);
+            connection.setRequestProperty("traceid", inbound.toTraceId());
+            connection.setRequestProperty("spanid", inbound.toSpanId());
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}